@@ -5,6 +5,10 @@
 -- ============================================================
 
 -- Eliminar tablas si existen (en orden inverso por dependencias)
+DROP TABLE IF EXISTS productos_por_dia CASCADE;
+DROP TABLE IF EXISTS ventas_por_hora CASCADE;
+DROP TABLE IF EXISTS bloques_folio CASCADE;
+DROP TABLE IF EXISTS folios_diarios CASCADE;
 DROP TABLE IF EXISTS respaldo CASCADE;
 DROP TABLE IF EXISTS tickets CASCADE;
 DROP TABLE IF EXISTS detalle_ventas CASCADE;
@@ -12,6 +16,7 @@ DROP TABLE IF EXISTS ventas CASCADE;
 DROP TABLE IF EXISTS mesas CASCADE;
 DROP TABLE IF EXISTS productos CASCADE;
 DROP TABLE IF EXISTS usuarios CASCADE;
+DROP FUNCTION IF EXISTS notificar_cambio() CASCADE;
 
 -- ============================================================
 -- TABLA: usuarios
@@ -22,6 +27,7 @@ CREATE TABLE usuarios (
     nombre VARCHAR(100) NOT NULL,
     correo VARCHAR(100) UNIQUE NOT NULL,
     contraseña_hash TEXT NOT NULL,
+    pin_hash TEXT,
     rol VARCHAR(20) NOT NULL CHECK (rol IN ('administrador', 'mesero', 'cajero')),
     fecha_creacion TIMESTAMP DEFAULT NOW()
 );
@@ -36,7 +42,8 @@ CREATE TABLE productos (
     categoria VARCHAR(50) NOT NULL,
     precio NUMERIC(10, 2) NOT NULL CHECK (precio >= 0),
     disponible BOOLEAN DEFAULT TRUE,
-    fecha_registro TIMESTAMP DEFAULT NOW()
+    fecha_registro TIMESTAMP DEFAULT NOW(),
+    actualizado_en TIMESTAMP NOT NULL DEFAULT NOW()
 );
 
 -- ============================================================
@@ -58,7 +65,8 @@ CREATE TABLE ventas (
     id_usuario INTEGER NOT NULL REFERENCES usuarios(id) ON DELETE RESTRICT,
     id_mesa INTEGER REFERENCES mesas(id) ON DELETE SET NULL,
     total NUMERIC(10, 2) NOT NULL CHECK (total >= 0),
-    fecha_venta TIMESTAMP DEFAULT NOW()
+    fecha_venta TIMESTAMP DEFAULT NOW(),
+    uuid_cliente UUID UNIQUE -- Generado en la terminal; evita duplicar ventas al reintentar
 );
 
 -- ============================================================
@@ -98,21 +106,114 @@ CREATE TABLE respaldo (
     fecha TIMESTAMP DEFAULT NOW()
 );
 
+-- ============================================================
+-- TABLA: ventas_por_hora
+-- Resumen de ventas por hora y usuario; se actualiza en la misma
+-- transacción que registra cada venta
+-- ============================================================
+CREATE TABLE ventas_por_hora (
+    hora TIMESTAMP NOT NULL,
+    id_usuario INTEGER NOT NULL,
+    cantidad_ventas INTEGER NOT NULL DEFAULT 0,
+    total NUMERIC(12, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (hora, id_usuario)
+);
+
+-- ============================================================
+-- TABLA: productos_por_dia
+-- Resumen de unidades y monto vendidos por día y producto
+-- ============================================================
+CREATE TABLE productos_por_dia (
+    fecha DATE NOT NULL,
+    id_producto INTEGER NOT NULL,
+    cantidad INTEGER NOT NULL DEFAULT 0,
+    total NUMERIC(12, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (fecha, id_producto)
+);
+
+-- ============================================================
+-- TABLA: folios_diarios
+-- Contador de folios de ticket por día (se incrementa con UPSERT atómico)
+-- ============================================================
+CREATE TABLE folios_diarios (
+    fecha DATE PRIMARY KEY,
+    ultimo INTEGER NOT NULL DEFAULT 0
+);
+
+-- ============================================================
+-- TABLA: bloques_folio
+-- Rangos de folios reservados por cada terminal; al vencer
+-- vigente_hasta, otra terminal puede reclamar la parte no usada
+-- ============================================================
+CREATE TABLE bloques_folio (
+    id SERIAL PRIMARY KEY,
+    fecha DATE NOT NULL,
+    inicio INTEGER NOT NULL,
+    fin INTEGER NOT NULL,
+    terminal VARCHAR(100),
+    vigente_hasta TIMESTAMP NOT NULL
+);
+
 -- ============================================================
 -- ÍNDICES PARA MEJORAR RENDIMIENTO
 -- ============================================================
-CREATE INDEX idx_ventas_fecha ON ventas(fecha_venta);
+CREATE INDEX idx_ventas_fecha ON ventas(fecha_venta, id);
 CREATE INDEX idx_ventas_usuario ON ventas(id_usuario);
 CREATE INDEX idx_detalle_venta ON detalle_ventas(id_venta);
 CREATE INDEX idx_detalle_producto ON detalle_ventas(id_producto);
 CREATE INDEX idx_tickets_venta ON tickets(id_venta);
-CREATE INDEX idx_tickets_folio ON tickets(folio);
-CREATE INDEX idx_respaldo_fecha ON respaldo(fecha);
+CREATE INDEX idx_tickets_folio ON tickets(folio text_pattern_ops); -- Búsqueda por prefijo del día
+CREATE INDEX idx_tickets_fecha ON tickets(fecha_emision, id);
+CREATE INDEX idx_respaldo_fecha ON respaldo(fecha, id);
+CREATE INDEX idx_productos_actualizado ON productos(actualizado_en);
+CREATE INDEX idx_bloques_folio_fecha ON bloques_folio(fecha, vigente_hasta);
+
+-- ============================================================
+-- AVISOS DE CAMBIOS ENTRE TERMINALES
+-- Cada fila insertada, modificada o eliminada publica en el canal
+-- posrest_cambios un aviso 'tabla:operación:id' (operación I, U o D).
+-- Las cargas masivas envían un solo 'tabla:R:0' (recargar la tabla).
+-- Las terminales escuchan con LISTEN y leen solo la fila avisada.
+-- Requiere la conexión directa (puerto 5432), no el pooler de Supabase.
+-- ============================================================
+CREATE FUNCTION notificar_cambio() RETURNS TRIGGER AS $$
+DECLARE
+    fila_id INTEGER;
+BEGIN
+    -- Las cargas masivas suspenden los avisos por fila y al final envían
+    -- uno solo con la forma tabla:R:0 para que las terminales recarguen
+    IF current_setting('posrest.sin_avisos', true) = 'on' THEN
+        RETURN NULL;
+    END IF;
+
+    IF TG_OP = 'DELETE' THEN
+        fila_id := OLD.id;
+    ELSIF TG_OP = 'UPDATE' AND OLD IS NOT DISTINCT FROM NEW THEN
+        RETURN NULL;
+    ELSE
+        fila_id := NEW.id;
+    END IF;
+
+    PERFORM pg_notify('posrest_cambios', TG_TABLE_NAME || ':' || left(TG_OP, 1) || ':' || fila_id);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_mesas_cambio AFTER INSERT OR UPDATE OR DELETE ON mesas
+    FOR EACH ROW EXECUTE FUNCTION notificar_cambio();
+CREATE TRIGGER trg_productos_cambio AFTER INSERT OR UPDATE OR DELETE ON productos
+    FOR EACH ROW EXECUTE FUNCTION notificar_cambio();
+CREATE TRIGGER trg_ventas_cambio AFTER INSERT OR UPDATE OR DELETE ON ventas
+    FOR EACH ROW EXECUTE FUNCTION notificar_cambio();
+CREATE TRIGGER trg_usuarios_cambio AFTER INSERT OR UPDATE OR DELETE ON usuarios
+    FOR EACH ROW EXECUTE FUNCTION notificar_cambio();
 
 -- ============================================================
 -- DATOS INICIALES - Usuario administrador
 -- ============================================================
 -- Contraseña: admin123 (deberías cambiarla después)
+-- Las contraseñas de ejemplo van en texto plano; la aplicación las reemplaza
+-- por un hash PBKDF2 la primera vez que cada usuario inicia sesión.
 INSERT INTO usuarios (nombre, correo, contraseña_hash, rol) 
 VALUES ('Administrador', 'admin@restaurante.com', 'admin123', 'administrador');
 
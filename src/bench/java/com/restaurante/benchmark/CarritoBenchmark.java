@@ -0,0 +1,70 @@
+package com.restaurante.benchmark;
+
+import com.restaurante.controller.VentaController;
+import com.restaurante.util.FinancialUtils;
+import com.restaurante.view.ModeloCarrito;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import javax.swing.JTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Actualización del carrito al agregar un producto, con el mismo trabajo que
+ * {@code VentaFrame.agregarAlCarrito}: sumar la cantidad al renglón del
+ * producto y volver a formatear totales y número de artículos. El modelo tiene
+ * una JTable suscrita, como en la ventana, pero no se pinta.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms512m", "-Xmx512m", "-Djava.awt.headless=true"})
+@State(Scope.Benchmark)
+public class CarritoBenchmark {
+
+    @Param({"5", "30", "500"})
+    public int articulos;
+
+    private List<VentaController.ItemVenta> carrito;
+    private ModeloCarrito modeloCarrito;
+    private JTable tabla;
+    private int siguiente;
+
+    // Se rearma en cada iteración para que las cantidades no crezcan sin límite
+    @Setup(Level.Iteration)
+    public void preparar() {
+        carrito = DatosBenchmark.carrito(articulos);
+        modeloCarrito = new ModeloCarrito();
+        tabla = new JTable(modeloCarrito);
+        for (VentaController.ItemVenta item : carrito) {
+            modeloCarrito.agregar(item.getProducto(), item.getCantidad());
+        }
+        siguiente = 0;
+    }
+
+    @Benchmark
+    public String agregarAlCarrito() {
+        VentaController.ItemVenta item = carrito.get(siguiente);
+        siguiente = (siguiente + 1) % carrito.size();
+        modeloCarrito.agregar(item.getProducto(), 1);
+
+        int totalArticulos = modeloCarrito.getArticulos();
+        String etiquetaArticulos = totalArticulos + (totalArticulos == 1 ? " artículo" : " artículos");
+
+        FinancialUtils.TotalesVenta totales = modeloCarrito.getTotales();
+        String etiquetaTotal = String.format(Locale.US, "$%,.2f", totales.getTotal().aBigDecimal());
+        return etiquetaTotal + etiquetaArticulos + tabla.getRowCount();
+    }
+}
@@ -0,0 +1,250 @@
+package com.restaurante.benchmark;
+
+import com.restaurante.controller.VentaController;
+import com.restaurante.model.Dinero;
+import com.restaurante.model.Producto;
+import com.restaurante.model.Ticket;
+import com.restaurante.model.Usuario;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Datos de prueba para los benchmarks. Todo se genera con semilla fija y
+ * fechas fijas, para que dos ejecuciones en commits distintos midan
+ * exactamente los mismos datos.
+ */
+final class DatosBenchmark {
+
+    static final long SEMILLA = 20240101L;
+    static final LocalDateTime FECHA_FIJA = LocalDateTime.of(2024, 1, 15, 13, 45, 30);
+
+    private static final String[] CATEGORIAS = {"Entradas", "Platos Fuertes", "Bebidas", "Postres"};
+
+    private DatosBenchmark() {
+    }
+
+    /**
+     * Arma un carrito con precios de dos decimales y cantidades de 1 a 5.
+     */
+    static List<VentaController.ItemVenta> carrito(int articulos) {
+        Random aleatorio = new Random(SEMILLA);
+        List<VentaController.ItemVenta> items = new ArrayList<>(articulos);
+        for (int i = 0; i < articulos; i++) {
+            Dinero precio = Dinero.deCentavos(500 + aleatorio.nextInt(30_000));
+            Producto producto = new Producto(i + 1, "Producto " + (i + 1), CATEGORIAS[i % CATEGORIAS.length],
+                                             precio, true, FECHA_FIJA);
+            items.add(new VentaController.ItemVenta(producto, 1 + aleatorio.nextInt(5)));
+        }
+        return items;
+    }
+
+    static Ticket ticket(Dinero total) {
+        Ticket ticket = new Ticket(1, 1, "TICK-20240115-0001", total, Dinero.deCentavos(1250), FECHA_FIJA);
+        return ticket;
+    }
+
+    static Usuario usuario() {
+        return new Usuario(1, "Cajero Benchmark", "cajero@posrest.local", "hash", "cajero", FECHA_FIJA);
+    }
+
+    /**
+     * Fila con todas las columnas que leen los mapeadores de los DAO.
+     */
+    static Map<String, Object> filaCompleta() {
+        Timestamp fecha = Timestamp.valueOf(FECHA_FIJA);
+        Map<String, Object> fila = new LinkedHashMap<>();
+        fila.put("id", 42);
+        fila.put("id_usuario", 3);
+        fila.put("id_mesa", 7);
+        fila.put("id_venta", 1001);
+        fila.put("id_producto", 15);
+        fila.put("uuid_cliente", "3f1c2d9e-8a44-4b5e-9c1d-2e6f7a8b9c0d");
+        fila.put("nombre", "Enchiladas Suizas");
+        fila.put("categoria", "Platos Fuertes");
+        fila.put("correo", "cajero@posrest.local");
+        fila.put("contraseña_hash", "a665a45920422f9d417e4867efdc4fb8a04a1f3fff1fa07e998e86f7f7a27ae3");
+        fila.put("pin_hash", "pbkdf2$120000$c2FsQmVuY2htYXJr$aGFzaEJlbmNobWFyaw");
+        fila.put("rol", "cajero");
+        fila.put("estado", "libre");
+        fila.put("folio", "TICK-20240115-0001");
+        fila.put("tipo_operacion", "VENTA_REGISTRADA");
+        fila.put("descripcion", "Venta #1001 registrada. Total: $245.5 - Folio: TICK-20240115-0001");
+        fila.put("numero", 7);
+        fila.put("cantidad", 2);
+        fila.put("precio", new BigDecimal("122.75"));
+        fila.put("precio_unitario", new BigDecimal("122.75"));
+        fila.put("subtotal", new BigDecimal("245.50"));
+        fila.put("total", new BigDecimal("284.78"));
+        fila.put("cambio", new BigDecimal("15.22"));
+        fila.put("disponible", Boolean.TRUE);
+        fila.put("fecha", fecha);
+        fila.put("fecha_venta", fecha);
+        fila.put("fecha_emision", fecha);
+        fila.put("fecha_registro", fecha);
+        fila.put("fecha_creacion", fecha);
+        fila.put("actualizado_en", fecha);
+        return fila;
+    }
+
+    /**
+     * Filas de {@code detalle_ventas} con las columnas en el orden de la consulta del DAO.
+     */
+    static List<Map<String, Object>> filasDetalle(int cantidad) {
+        Random aleatorio = new Random(SEMILLA);
+        List<Map<String, Object>> filas = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            int unidades = 1 + aleatorio.nextInt(5);
+            long centavos = 500 + aleatorio.nextInt(30_000);
+            Map<String, Object> fila = new LinkedHashMap<>();
+            fila.put("id", i + 1);
+            fila.put("id_venta", 1 + i / 4);
+            fila.put("id_producto", 1 + aleatorio.nextInt(60));
+            fila.put("cantidad", unidades);
+            fila.put("precio_unitario", BigDecimal.valueOf(centavos, 2));
+            fila.put("subtotal", BigDecimal.valueOf(centavos * unidades, 2));
+            filas.add(fila);
+        }
+        return filas;
+    }
+
+    /**
+     * Filas de {@code ventas} con las columnas en el orden de la consulta del DAO;
+     * una de cada cinco sin mesa.
+     */
+    static List<Map<String, Object>> filasVenta(int cantidad) {
+        Random aleatorio = new Random(SEMILLA);
+        List<Map<String, Object>> filas = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            Map<String, Object> fila = new LinkedHashMap<>();
+            fila.put("id", i + 1);
+            fila.put("id_usuario", 1 + aleatorio.nextInt(8));
+            fila.put("id_mesa", i % 5 == 0 ? null : 1 + aleatorio.nextInt(20));
+            fila.put("total", BigDecimal.valueOf(1_000 + aleatorio.nextInt(200_000), 2));
+            fila.put("fecha_venta", Timestamp.valueOf(FECHA_FIJA.minusMinutes(i)));
+            fila.put("uuid_cliente", new UUID(SEMILLA, i).toString());
+            filas.add(fila);
+        }
+        return filas;
+    }
+
+    /**
+     * ResultSet en memoria posicionado en una sola fila. Es un proxy, así que
+     * agrega un costo fijo por columna leída; sirve para comparar mapeadores
+     * entre commits, no como medida absoluta del driver.
+     */
+    static ResultSet resultSet(Map<String, Object> fila) {
+        return resultSet(Collections.singletonList(fila), 0);
+    }
+
+    /**
+     * ResultSet en memoria con varias filas, antes de la primera; {@code beforeFirst()}
+     * lo reinicia. Como el controlador, busca las columnas por nombre en un
+     * HashMap y guarda cada fila en un arreglo, así que leer por nombre cuesta
+     * la búsqueda extra y leer por posición no. Las columnas son las de la
+     * primera fila, en su orden.
+     */
+    static ResultSet resultSet(List<Map<String, Object>> filas) {
+        return resultSet(filas, -1);
+    }
+
+    private static ResultSet resultSet(List<Map<String, Object>> filas, int filaInicial) {
+        List<String> columnas = new ArrayList<>(filas.get(0).keySet());
+        Map<String, Integer> posiciones = new HashMap<>();
+        for (int i = 0; i < columnas.size(); i++) {
+            posiciones.put(columnas.get(i), i);
+        }
+        Object[][] datos = new Object[filas.size()][];
+        for (int f = 0; f < datos.length; f++) {
+            datos[f] = new Object[columnas.size()];
+            for (int i = 0; i < columnas.size(); i++) {
+                datos[f][i] = filas.get(f).get(columnas.get(i));
+            }
+        }
+
+        ResultSetMetaData metadatos = (ResultSetMetaData) Proxy.newProxyInstance(
+            ResultSetMetaData.class.getClassLoader(),
+            new Class<?>[]{ResultSetMetaData.class},
+            (proxy, metodo, argumentos) -> {
+                switch (metodo.getName()) {
+                    case "getColumnCount":
+                        return columnas.size();
+                    case "getColumnLabel":
+                    case "getColumnName":
+                        return columnas.get((Integer) argumentos[0] - 1);
+                    default:
+                        throw new UnsupportedOperationException(metodo.getName());
+                }
+            });
+
+        int[] actual = {filaInicial};
+        boolean[] ultimoNulo = new boolean[1];
+
+        return (ResultSet) Proxy.newProxyInstance(
+            ResultSet.class.getClassLoader(),
+            new Class<?>[]{ResultSet.class},
+            (proxy, metodo, argumentos) -> {
+                String nombre = metodo.getName();
+                switch (nombre) {
+                    case "next":
+                        return ++actual[0] < datos.length;
+                    case "beforeFirst":
+                        actual[0] = -1;
+                        return null;
+                    case "wasNull":
+                        return ultimoNulo[0];
+                    case "getMetaData":
+                        return metadatos;
+                    case "findColumn":
+                        return posiciones.get((String) argumentos[0]) + 1;
+                    default:
+                        break;
+                }
+                // get*(columna) y getObject(columna, tipo)
+                if (!nombre.startsWith("get") || argumentos == null || argumentos.length > 2) {
+                    throw new UnsupportedOperationException(nombre);
+                }
+
+                Integer posicion = argumentos[0] instanceof Integer
+                    ? (Integer) argumentos[0] - 1
+                    : posiciones.get((String) argumentos[0]);
+                Object valor = posicion != null ? datos[actual[0]][posicion] : null;
+                ultimoNulo[0] = valor == null;
+                Class<?> tipo = argumentos.length == 2 ? (Class<?>) argumentos[1] : metodo.getReturnType();
+                return convertir(valor, tipo);
+            });
+    }
+
+    private static Object convertir(Object valor, Class<?> tipo) {
+        if (tipo == int.class) {
+            return valor == null ? 0 : ((Number) valor).intValue();
+        }
+        if (tipo == long.class) {
+            return valor == null ? 0L : ((Number) valor).longValue();
+        }
+        if (tipo == double.class) {
+            return valor == null ? 0.0 : ((Number) valor).doubleValue();
+        }
+        if (tipo == boolean.class) {
+            return valor != null && (Boolean) valor;
+        }
+        if (tipo == String.class) {
+            return valor == null ? null : valor.toString();
+        }
+        if (tipo == LocalDateTime.class && valor instanceof Timestamp) {
+            return ((Timestamp) valor).toLocalDateTime();
+        }
+        return valor;
+    }
+}
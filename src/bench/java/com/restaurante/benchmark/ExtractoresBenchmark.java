@@ -0,0 +1,124 @@
+package com.restaurante.benchmark;
+
+import com.restaurante.dao.DetalleVentaDAO;
+import com.restaurante.dao.IndiceColumnas;
+import com.restaurante.dao.MesaDAO;
+import com.restaurante.dao.ProductoDAO;
+import com.restaurante.dao.RespaldoDAO;
+import com.restaurante.dao.TicketDAO;
+import com.restaurante.dao.UsuarioDAO;
+import com.restaurante.dao.VentaDAO;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mapeadores {@code extraer*} de los DAO sobre una fila en memoria.
+ * Los mapeadores son privados; se invocan por reflexión una vez resueltos,
+ * con las posiciones de columnas que el DAO resuelve para la fila.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms512m", "-Xmx512m"})
+@State(Scope.Benchmark)
+public class ExtractoresBenchmark {
+
+    private ResultSet fila;
+
+    private Mapeador venta;
+    private Mapeador detalle;
+    private Mapeador ticket;
+    private Mapeador producto;
+    private Mapeador usuario;
+    private Mapeador mesa;
+    private Mapeador respaldo;
+
+    @Setup
+    public void preparar() throws ReflectiveOperationException {
+        fila = DatosBenchmark.resultSet(DatosBenchmark.filaCompleta());
+
+        venta = new Mapeador(new VentaDAO(), "extraerVenta", fila);
+        detalle = new Mapeador(new DetalleVentaDAO(), "extraerDetalle", fila);
+        ticket = new Mapeador(new TicketDAO(), "extraerTicket", fila);
+        producto = new Mapeador(new ProductoDAO(), "extraerProducto", fila);
+        usuario = new Mapeador(new UsuarioDAO(), "extraerUsuario", fila);
+        mesa = new Mapeador(new MesaDAO(), "extraerMesa", fila);
+        respaldo = new Mapeador(new RespaldoDAO(), "extraerRespaldo", fila);
+    }
+
+    @Benchmark
+    public Object extraerVenta() throws Exception {
+        return venta.extraer(fila);
+    }
+
+    @Benchmark
+    public Object extraerDetalle() throws Exception {
+        return detalle.extraer(fila);
+    }
+
+    @Benchmark
+    public Object extraerTicket() throws Exception {
+        return ticket.extraer(fila);
+    }
+
+    @Benchmark
+    public Object extraerProducto() throws Exception {
+        return producto.extraer(fila);
+    }
+
+    @Benchmark
+    public Object extraerUsuario() throws Exception {
+        return usuario.extraer(fila);
+    }
+
+    @Benchmark
+    public Object extraerMesa() throws Exception {
+        return mesa.extraer(fila);
+    }
+
+    @Benchmark
+    public Object extraerRespaldo() throws Exception {
+        return respaldo.extraer(fila);
+    }
+
+    /**
+     * Mapeador privado de un DAO, resuelto una sola vez junto con las
+     * posiciones de sus columnas en la fila.
+     */
+    private static final class Mapeador {
+        private final Method metodo;
+        private final int[] columnas;
+
+        Mapeador(Object dao, String nombre, ResultSet fila) throws ReflectiveOperationException {
+            Class<?> clase = dao.getClass();
+            this.metodo = clase.getDeclaredMethod(nombre, ResultSet.class, int[].class);
+            this.metodo.setAccessible(true);
+
+            Field campo = clase.getDeclaredField("COLUMNAS");
+            campo.setAccessible(true);
+            try {
+                this.columnas = ((IndiceColumnas) campo.get(null)).resolver(nombre, fila);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        Object extraer(ResultSet rs) throws Exception {
+            return metodo.invoke(null, rs, columnas);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.restaurante.benchmark;
+
+import com.restaurante.controller.VentaController;
+import com.restaurante.model.Dinero;
+import com.restaurante.util.FinancialUtils;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cálculo de totales e IVA del carrito y del IVA de un importe.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms512m", "-Xmx512m"})
+@State(Scope.Benchmark)
+public class FinancialUtilsBenchmark {
+
+    @Param({"1", "8", "40"})
+    public int articulos;
+
+    private List<VentaController.ItemVenta> carrito;
+    private Dinero monto;
+
+    @Setup
+    public void preparar() {
+        carrito = DatosBenchmark.carrito(articulos);
+        monto = Dinero.deCentavos(123_457);
+    }
+
+    @Benchmark
+    public FinancialUtils.TotalesVenta calcularTotales() {
+        return FinancialUtils.calcularTotales(carrito);
+    }
+
+    @Benchmark
+    public Dinero calcularIva() {
+        return FinancialUtils.calcularIva(monto);
+    }
+}
@@ -0,0 +1,152 @@
+package com.restaurante.benchmark;
+
+import com.restaurante.dao.DetalleVentaDAO;
+import com.restaurante.dao.IndiceColumnas;
+import com.restaurante.dao.VentaDAO;
+import com.restaurante.model.DetalleVenta;
+import com.restaurante.model.Dinero;
+import com.restaurante.model.Venta;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Lectura masiva de {@code detalle_ventas} y {@code ventas}: los mapeadores
+ * de los DAO, que leen por posición con las columnas resueltas una vez por
+ * consulta, contra los mapeadores anteriores, que buscaban cada columna por
+ * nombre en cada fila (copiados abajo tal como estaban).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms512m", "-Xmx512m"})
+@State(Scope.Benchmark)
+public class MapeadoresBenchmark {
+
+    private static final MethodHandle EXTRAER_DETALLE =
+        mapeador(DetalleVentaDAO.class, "extraerDetalle", DetalleVenta.class);
+    private static final MethodHandle EXTRAER_VENTA =
+        mapeador(VentaDAO.class, "extraerVenta", Venta.class);
+
+    @Param({"50", "5000"})
+    public int filas;
+
+    private ResultSet detalles;
+    private ResultSet ventas;
+    private IndiceColumnas columnasDetalle;
+    private IndiceColumnas columnasVenta;
+
+    @Setup
+    public void preparar() throws ReflectiveOperationException {
+        detalles = DatosBenchmark.resultSet(DatosBenchmark.filasDetalle(filas));
+        ventas = DatosBenchmark.resultSet(DatosBenchmark.filasVenta(filas));
+        columnasDetalle = columnas(DetalleVentaDAO.class);
+        columnasVenta = columnas(VentaDAO.class);
+    }
+
+    @Benchmark
+    public List<DetalleVenta> detallesPorPosicion() throws Throwable {
+        detalles.beforeFirst();
+        List<DetalleVenta> lista = new ArrayList<>();
+        int[] col = columnasDetalle.resolver("detalles", detalles);
+        while (detalles.next()) {
+            lista.add((DetalleVenta) EXTRAER_DETALLE.invokeExact(detalles, col));
+        }
+        return lista;
+    }
+
+    @Benchmark
+    public List<DetalleVenta> detallesPorNombre() throws SQLException {
+        detalles.beforeFirst();
+        List<DetalleVenta> lista = new ArrayList<>();
+        while (detalles.next()) {
+            lista.add(extraerDetallePorNombre(detalles));
+        }
+        return lista;
+    }
+
+    @Benchmark
+    public List<Venta> ventasPorPosicion() throws Throwable {
+        ventas.beforeFirst();
+        List<Venta> lista = new ArrayList<>();
+        int[] col = columnasVenta.resolver("ventas", ventas);
+        while (ventas.next()) {
+            lista.add((Venta) EXTRAER_VENTA.invokeExact(ventas, col));
+        }
+        return lista;
+    }
+
+    @Benchmark
+    public List<Venta> ventasPorNombre() throws SQLException {
+        ventas.beforeFirst();
+        List<Venta> lista = new ArrayList<>();
+        while (ventas.next()) {
+            lista.add(extraerVentaPorNombre(ventas));
+        }
+        return lista;
+    }
+
+    private static DetalleVenta extraerDetallePorNombre(ResultSet rs) throws SQLException {
+        DetalleVenta detalle = new DetalleVenta();
+        detalle.setId(rs.getInt("id"));
+        detalle.setIdVenta(rs.getInt("id_venta"));
+        detalle.setIdProducto(rs.getInt("id_producto"));
+        detalle.setCantidad(rs.getInt("cantidad"));
+        detalle.setPrecioUnitario(Dinero.de(rs.getBigDecimal("precio_unitario")));
+        detalle.setSubtotal(Dinero.de(rs.getBigDecimal("subtotal")));
+        return detalle;
+    }
+
+    private static Venta extraerVentaPorNombre(ResultSet rs) throws SQLException {
+        Venta venta = new Venta();
+        venta.setId(rs.getInt("id"));
+        venta.setIdUsuario(rs.getInt("id_usuario"));
+
+        int idMesa = rs.getInt("id_mesa");
+        if (!rs.wasNull()) {
+            venta.setIdMesa(idMesa);
+        }
+
+        venta.setTotal(Dinero.de(rs.getBigDecimal("total")));
+        venta.setFechaVenta(rs.getTimestamp("fecha_venta").toLocalDateTime());
+        venta.setUuidCliente(rs.getString("uuid_cliente"));
+        return venta;
+    }
+
+    /**
+     * Mapeador privado de un DAO como MethodHandle constante, para que la
+     * llamada se compile igual que una llamada directa.
+     */
+    private static MethodHandle mapeador(Class<?> dao, String nombre, Class<?> tipo) {
+        try {
+            return MethodHandles.privateLookupIn(dao, MethodHandles.lookup())
+                .findStatic(dao, nombre, MethodType.methodType(tipo, ResultSet.class, int[].class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static IndiceColumnas columnas(Class<?> dao) throws ReflectiveOperationException {
+        Field campo = dao.getDeclaredField("COLUMNAS");
+        campo.setAccessible(true);
+        return (IndiceColumnas) campo.get(null);
+    }
+}
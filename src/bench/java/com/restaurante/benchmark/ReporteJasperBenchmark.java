@@ -0,0 +1,39 @@
+package com.restaurante.benchmark;
+
+import com.restaurante.util.JasperReportManager;
+import java.util.concurrent.TimeUnit;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperReport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Carga de la plantilla {@code ventas_general}: desde la caché de reportes
+ * compilados y leyendo el .jasper precompilado.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 2, jvmArgsAppend = {"-Xms512m", "-Xmx512m", "-Djava.awt.headless=true"})
+@State(Scope.Benchmark)
+public class ReporteJasperBenchmark {
+
+    @Benchmark
+    public JasperReport cargarReporte() throws JRException {
+        return JasperReportManager.cargarReporte("ventas_general");
+    }
+
+    @Benchmark
+    public JasperReport cargarSinCache() throws JRException {
+        JasperReportManager.limpiarCache();
+        return JasperReportManager.cargarReporte("ventas_general");
+    }
+}
@@ -0,0 +1,58 @@
+package com.restaurante.benchmark;
+
+import com.lowagie.text.DocumentException;
+import com.restaurante.controller.VentaController;
+import com.restaurante.model.Ticket;
+import com.restaurante.model.Usuario;
+import com.restaurante.util.FinancialUtils;
+import com.restaurante.util.TicketPdfGenerator;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Generación del PDF del ticket, la parte de {@code generarYMostrar} que no
+ * depende del disco ni del navegador.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms512m", "-Xmx512m", "-Djava.awt.headless=true"})
+@State(Scope.Benchmark)
+public class TicketPdfBenchmark {
+
+    @Param({"3", "20"})
+    public int articulos;
+
+    private List<VentaController.ItemVenta> carrito;
+    private Ticket ticket;
+    private Usuario usuario;
+    private ByteArrayOutputStream salida;
+
+    @Setup
+    public void preparar() {
+        carrito = DatosBenchmark.carrito(articulos);
+        ticket = DatosBenchmark.ticket(FinancialUtils.calcularTotales(carrito).getTotal());
+        usuario = DatosBenchmark.usuario();
+        salida = new ByteArrayOutputStream(64 * 1024);
+    }
+
+    @Benchmark
+    public int escribirPdf() throws DocumentException {
+        salida.reset();
+        TicketPdfGenerator.escribirPdf(ticket, usuario, carrito, salida);
+        return salida.size();
+    }
+}
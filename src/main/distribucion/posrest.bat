@@ -0,0 +1,5 @@
+@echo off
+rem Inicia el POS con la imagen de Java recortada y el archivo de clases (AppCDS).
+rem Generado con: mvn -Parranque-rapido clean package
+cd /d "%~dp0"
+start "POS Restaurante" runtime\bin\javaw.exe -XX:SharedArchiveFile=posrest.jsa -Xshare:auto -jar posrest.jar %*
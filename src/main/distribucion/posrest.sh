@@ -0,0 +1,5 @@
+#!/bin/sh
+# Inicia el POS con la imagen de Java recortada y el archivo de clases (AppCDS).
+# Generado con: mvn -Parranque-rapido clean package
+cd "$(dirname "$0")" || exit 1
+exec runtime/bin/java -XX:SharedArchiveFile=posrest.jsa -Xshare:auto -jar posrest.jar "$@"
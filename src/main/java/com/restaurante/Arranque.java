@@ -0,0 +1,95 @@
+package com.restaurante;
+
+import com.restaurante.util.JasperReportManager;
+import com.restaurante.util.TicketPdfGenerator;
+import java.time.Instant;
+
+/**
+ * Mide las etapas del arranque y carga en segundo plano las clases pesadas.
+ *
+ * {@link Main} corre en paralelo las etapas que no dependen entre sí y
+ * muestra la ventana de inicio de sesión en cuanto puede. Mientras el usuario
+ * escribe su contraseña, un hilo de baja prioridad carga JasperReports y
+ * OpenPDF, que de otro modo se cargarían con el primer reporte o el primer
+ * ticket. Cada etapa imprime su duración para comparar el arranque entre
+ * equipos y entre construcciones (con y sin el perfil {@code arranque-rapido}).
+ */
+final class Arranque {
+
+    private static final String REPORTE_PRECARGA = "ventas_general";
+
+    // Hora de inicio del proceso; si el sistema no la da, la de carga de esta clase
+    private static final long INICIO_PROCESO_MS = ProcessHandle.current().info().startInstant()
+        .map(Instant::toEpochMilli)
+        .orElseGet(System::currentTimeMillis);
+
+    private Arranque() {
+    }
+
+    /**
+     * Ejecuta una etapa e imprime cuánto tardó.
+     *
+     * @param etapa nombre de la etapa
+     * @param tarea trabajo de la etapa
+     */
+    static void medir(String etapa, Runnable tarea) {
+        long inicio = System.nanoTime();
+        try {
+            tarea.run();
+        } finally {
+            registrar(etapa, inicio);
+        }
+    }
+
+    /**
+     * Imprime la duración de una etapa que empezó en {@code inicioNanos}.
+     *
+     * @param etapa nombre de la etapa
+     * @param inicioNanos valor de {@link System#nanoTime()} al empezar
+     */
+    static void registrar(String etapa, long inicioNanos) {
+        long ms = (System.nanoTime() - inicioNanos) / 1_000_000;
+        System.out.println(String.format("  · %-32s %6d ms", etapa, ms));
+    }
+
+    /**
+     * Imprime el tiempo transcurrido desde que arrancó el proceso.
+     *
+     * @param hito lo que acaba de ocurrir
+     */
+    static void hito(String hito) {
+        long ms = System.currentTimeMillis() - INICIO_PROCESO_MS;
+        System.out.println(String.format("✓ %s a los %d ms del inicio", hito, ms));
+    }
+
+    /**
+     * Carga las clases de reportes y tickets en un hilo de baja prioridad.
+     */
+    static void precargarClasesEnSegundoPlano() {
+        Thread hilo = new Thread(Arranque::precargarClases, "posrest-precarga");
+        hilo.setDaemon(true);
+        hilo.setPriority(Thread.MIN_PRIORITY);
+        hilo.start();
+    }
+
+    /**
+     * Carga las clases de reportes y tickets en el hilo actual. Un error aquí
+     * no impide usar la aplicación: la carga se repite con el primer uso real.
+     */
+    static void precargarClases() {
+        medir("clases de OpenPDF", () -> {
+            try {
+                TicketPdfGenerator.precalentar();
+            } catch (Exception e) {
+                System.err.println("✗ No se pudo precargar OpenPDF: " + e.getMessage());
+            }
+        });
+        medir("clases de JasperReports", () -> {
+            try {
+                JasperReportManager.precalentar(REPORTE_PRECARGA);
+            } catch (Exception e) {
+                System.err.println("✗ No se pudo precargar JasperReports: " + e.getMessage());
+            }
+        });
+    }
+}
@@ -1,8 +1,15 @@
 package com.restaurante;
 
 import com.restaurante.config.SupabaseConfig;
+import com.restaurante.dao.ColaVentas;
+import com.restaurante.dao.InstantaneaReferencia;
 import com.restaurante.util.ConexionDB;
+import com.restaurante.util.EjecutorAsincrono;
 import com.restaurante.view.LoginFrame;
+import java.awt.GraphicsEnvironment;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.sql.SQLException;
 import javax.swing.*;
 
 /**
@@ -14,12 +21,20 @@ import javax.swing.*;
  */
 public class Main {
     
+    private static final long REINTENTO_MINIMO_MS = 1_000;
+    private static final long REINTENTO_MAXIMO_MS = 60_000;
+    
+    // Ejecución de entrenamiento para el archivo de clases (perfil arranque-rapido)
+    private static final String ARGUMENTO_ENTRENAR_CDS = "--entrenar-cds";
+    
     public static void main(String[] args) {
-        // Configurar Look and Feel del sistema
-        try {
-            UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
-        } catch (Exception e) {
-            System.err.println("No se pudo establecer el Look and Feel del sistema");
+        // El aspecto se configura en el hilo de eventos mientras este hilo
+        // prepara los datos; la ventana de inicio se crea después en ese mismo hilo
+        SwingUtilities.invokeLater(() -> Arranque.medir("aspecto de Swing", Main::configurarAspecto));
+        
+        if (args.length > 0 && ARGUMENTO_ENTRENAR_CDS.equals(args[0])) {
+            entrenarArchivoClases();
+            return;
         }
         
         // Verificar configuración de Supabase
@@ -27,16 +42,82 @@ public class Main {
             mostrarAdvertenciaConfiguracion();
         }
         
-        // Verificar conexión a base de datos
-        verificarConexion();
+        // Subir ventas que quedaron pendientes en el diario local; el diario
+        // se abre en paralelo con la carga de la instantánea
+        EjecutorAsincrono.ejecutar(() -> {
+            Arranque.medir("diario local de ventas", Main::iniciarColaVentas);
+            return null;
+        });
+        
+        // Con la instantánea local la interfaz no espera a la base de datos;
+        // sin ella (primer inicio) se verifica la conexión antes de continuar
+        long inicio = System.nanoTime();
+        boolean conInstantanea = InstantaneaReferencia.getInstancia().cargar();
+        Arranque.registrar("instantánea local", inicio);
+        
+        if (conInstantanea) {
+            conectarEnSegundoPlano();
+        } else {
+            inicio = System.nanoTime();
+            boolean conectado = verificarConexion();
+            Arranque.registrar("conexión a la base de datos", inicio);
+            if (!conectado) {
+                return;
+            }
+            // Productos, mesas y usuarios se cargan mientras se muestra el inicio
+            // de sesión; al terminar queda escrita la primera instantánea
+            EjecutorAsincrono.ejecutar(() -> {
+                Arranque.medir("datos de referencia", InstantaneaReferencia.getInstancia()::reconciliar);
+                return null;
+            });
+        }
         
         // Iniciar aplicación
         SwingUtilities.invokeLater(() -> {
             LoginFrame loginFrame = new LoginFrame();
             loginFrame.setVisible(true);
+            Arranque.hito("Inicio de sesión visible");
+            Arranque.precargarClasesEnSegundoPlano();
         });
     }
     
+    /**
+     * Configura el Look and Feel del sistema.
+     */
+    private static void configurarAspecto() {
+        try {
+            UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
+        } catch (Exception e) {
+            System.err.println("No se pudo establecer el Look and Feel del sistema");
+        }
+    }
+    
+    /**
+     * Recorre el arranque sin base de datos ni ventanas visibles y termina.
+     * Lo usa el perfil de Maven {@code arranque-rapido} para registrar en el
+     * archivo de clases (AppCDS) las clases que carga un arranque normal.
+     */
+    private static void entrenarArchivoClases() {
+        try {
+            Class.forName("org.postgresql.Driver");
+        } catch (ClassNotFoundException e) {
+            System.err.println("✗ No se encontró el controlador de PostgreSQL");
+        }
+        
+        Arranque.precargarClases();
+        
+        if (!GraphicsEnvironment.isHeadless()) {
+            try {
+                SwingUtilities.invokeAndWait(() -> new LoginFrame().dispose());
+            } catch (InterruptedException | InvocationTargetException e) {
+                System.err.println("✗ No se pudo crear la ventana de inicio: " + e.getMessage());
+            }
+        }
+        
+        System.out.println("✓ Entrenamiento del archivo de clases terminado");
+        System.exit(0);
+    }
+    
     /**
      * Muestra una advertencia si la configuración no está completa.
      */
@@ -59,17 +140,87 @@ public class Main {
     }
     
     /**
-     * Verifica la conexión a la base de datos al iniciar.
+     * Abre la cola local de ventas y arranca su replicador.
+     */
+    private static void iniciarColaVentas() {
+        try {
+            if (ColaVentas.getInstancia().hayPendientes()) {
+                System.out.println("✓ Hay ventas pendientes de subir; se enviarán en segundo plano");
+            }
+        } catch (IOException e) {
+            System.err.println("✗ No se pudo abrir el diario local de ventas: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Conecta con la base de datos en un hilo propio mientras la interfaz usa
+     * la instantánea local. Reintenta con espera creciente y, al conectar,
+     * reconcilia la instantánea con la base.
+     */
+    private static void conectarEnSegundoPlano() {
+        Thread hilo = new Thread(() -> {
+            long inicio = System.nanoTime();
+            long espera = REINTENTO_MINIMO_MS;
+            boolean avisado = false;
+            while (true) {
+                try {
+                    ConexionDB.precalentar();
+                    break;
+                } catch (SQLException e) {
+                    System.err.println("✗ Sin conexión con la base de datos: " + e.getMessage());
+                    if (!avisado) {
+                        avisado = true;
+                        mostrarAvisoSinConexion(e.getMessage());
+                    }
+                }
+                try {
+                    Thread.sleep(espera);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                espera = Math.min(espera * 2, REINTENTO_MAXIMO_MS);
+            }
+            
+            System.out.println("✓ Conexión a base de datos verificada");
+            Arranque.registrar("conexión a la base de datos", inicio);
+            Arranque.medir("datos de referencia", InstantaneaReferencia.getInstancia()::reconciliar);
+            System.out.println("✓ Datos de referencia reconciliados con la base de datos");
+        }, "posrest-conexion-inicial");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+    
+    private static void mostrarAvisoSinConexion(String error) {
+        SwingUtilities.invokeLater(() -> {
+            JOptionPane.showMessageDialog(
+                null,
+                "No se pudo conectar a la base de datos.\n\n" +
+                "Error: " + error + "\n\n" +
+                "Se usarán los productos, mesas y usuarios guardados en la última sesión.\n" +
+                "Las ventas se guardan en este equipo y se subirán al volver la conexión,\n" +
+                "que se sigue intentando en segundo plano.",
+                "Trabajando sin conexión",
+                JOptionPane.WARNING_MESSAGE
+            );
+        });
+    }
+    
+    /**
+     * Verifica la conexión a la base de datos al iniciar. Si falla, avisa y
+     * cierra la aplicación.
+     *
+     * @return true si hay conexión
      */
-    private static void verificarConexion() {
+    private static boolean verificarConexion() {
         try {
-            ConexionDB.obtenerConexion();
+            ConexionDB.precalentar();
             System.out.println("✓ Sistema iniciado correctamente");
             System.out.println("✓ Conexión a base de datos verificada");
             System.out.println("\n===========================================");
             System.out.println("  SISTEMA POS PARA RESTAURANTE");
             System.out.println("  Versión 1.0.0");
             System.out.println("===========================================\n");
+            return true;
         } catch (Exception e) {
             System.err.println("✗ Error al conectar con la base de datos:");
             System.err.println(e.getMessage());
@@ -90,6 +241,7 @@ public class Main {
                 );
                 System.exit(1);
             });
+            return false;
         }
     }
 }
@@ -0,0 +1,126 @@
+package com.restaurante.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Configuración de la aplicación leída de {@code configuracion.json}.
+ *
+ * Se usa {@code ~/posrest/configuracion.json} si existe; si no, el archivo de
+ * ejemplo incluido en {@code src/main/resources/data}. Las claves se buscan
+ * por su ruta, por ejemplo {@code impresion.formato_ticket}. Si el archivo no
+ * se puede leer, o un valor falta o tiene otro tipo, se usan los valores por
+ * defecto.
+ */
+public final class ConfiguracionApp {
+
+    private static final String RECURSO = "/data/configuracion.json";
+
+    private static ConfiguracionApp instancia;
+
+    private final JsonNode raiz;
+
+    private ConfiguracionApp(JsonNode raiz) {
+        this.raiz = raiz;
+    }
+
+    /**
+     * Obtiene la configuración, leyéndola la primera vez.
+     *
+     * @return configuración de la aplicación
+     */
+    public static synchronized ConfiguracionApp getInstancia() {
+        if (instancia == null) {
+            instancia = new ConfiguracionApp(cargar());
+        }
+        return instancia;
+    }
+    public String getNombreEmpresa() {
+        return texto("empresa.nombre", "Sistema POS Restaurante");
+    }
+
+    public String getDireccionEmpresa() {
+        return texto("empresa.direccion", "");
+    }
+
+    public String getTelefonoEmpresa() {
+        return texto("empresa.telefono", "");
+    }
+
+    /**
+     * @return true si se muestra la vista previa del ticket al terminar la venta
+     */
+    public boolean isMostrarPreview() {
+        JsonNode valor = valor("impresion.mostrar_preview");
+        return valor.isBoolean() ? valor.booleanValue() : true;
+    }
+
+    /**
+     * @return formato del ticket: "A4" (PDF) o "ESCPOS" (impresora térmica)
+     */
+    public String getFormatoTicket() {
+        return texto("impresion.formato_ticket", "A4");
+    }
+
+    /**
+     * @return carpeta donde se guardan los tickets generados
+     */
+    public Path getDirectorioTickets() {
+        String directorio = texto("impresion.directorio_pdf", "${user.home}/posrest/tickets");
+        return Paths.get(directorio.replace("${user.home}", System.getProperty("user.home")));
+    }
+
+    /**
+     * @return ruta de la impresora térmica (por ejemplo {@code /dev/usb/lp0}),
+     *         o cadena vacía para guardar los tickets ESC/POS como archivo
+     */
+    public String getImpresora() {
+        return texto("impresion.impresora", "");
+    }
+
+    /**
+     * @return caracteres por renglón de la impresora térmica (48 en papel de 80 mm)
+     */
+    public int getColumnasTicket() {
+        JsonNode valor = valor("impresion.columnas_ticket");
+        return valor.isNumber() ? valor.intValue() : 48;
+    }
+
+    private String texto(String clave, String porDefecto) {
+        JsonNode valor = valor(clave);
+        return valor.isTextual() ? valor.textValue() : porDefecto;
+    }
+
+    private JsonNode valor(String clave) {
+        return raiz.at("/" + clave.replace('.', '/'));
+    }
+
+    private static JsonNode cargar() {
+        Path archivo = Paths.get(System.getProperty("user.home"), "posrest", "configuracion.json");
+        ObjectMapper lector = new ObjectMapper();
+
+        try {
+            JsonNode raiz;
+            if (Files.isRegularFile(archivo)) {
+                raiz = lector.readTree(archivo.toFile());
+            } else {
+                try (InputStream entrada = ConfiguracionApp.class.getResourceAsStream(RECURSO)) {
+                    if (entrada == null) {
+                        return MissingNode.getInstance();
+                    }
+                    raiz = lector.readTree(entrada);
+                }
+            }
+            return raiz != null ? raiz : MissingNode.getInstance();
+        } catch (IOException e) {
+            System.err.println("Error al leer configuracion.json, se usan valores por defecto: " + e.getMessage());
+            return MissingNode.getInstance();
+        }
+    }
+}
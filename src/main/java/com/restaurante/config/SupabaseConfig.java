@@ -34,7 +34,13 @@ public class SupabaseConfig {
         
         // Construir URL de conexión PostgreSQL
         // Formato: jdbc:postgresql://db.PROJECT_ID.supabase.co:5432/postgres
-        return "jdbc:postgresql://db." + projectId + ".supabase.co:5432/postgres";
+        // reWriteBatchedInserts convierte los lotes de INSERT en inserciones multi-fila.
+        // prepareThreshold=1 prepara cada sentencia en el servidor desde su primer uso y la
+        // guarda en la conexión física (por su texto, ver dao.SentenciasSQL); como el pool
+        // conserva las conexiones, las llamadas siguientes omiten el análisis y el plan.
+        // Requiere la conexión directa: un pooler en modo transacción no las conserva.
+        return "jdbc:postgresql://db." + projectId + ".supabase.co:5432/postgres?reWriteBatchedInserts=true"
+            + "&prepareThreshold=1&preparedStatementCacheQueries=256&preparedStatementCacheSizeMiB=5";
     }
     
     /**
@@ -59,6 +65,28 @@ public class SupabaseConfig {
         return "Kiki2006?";
     }
     
+    /**
+     * Obtiene el identificador de esta terminal (caja).
+     * Se puede fijar con la propiedad del sistema {@code posrest.terminal};
+     * por defecto combina el nombre del equipo y el PID del proceso.
+     * 
+     * @return identificador de la terminal
+     */
+    public static String getIdTerminal() {
+        String terminal = System.getProperty("posrest.terminal");
+        if (terminal != null && !terminal.trim().isEmpty()) {
+            return terminal.trim();
+        }
+        
+        String equipo;
+        try {
+            equipo = java.net.InetAddress.getLocalHost().getHostName();
+        } catch (java.net.UnknownHostException e) {
+            equipo = "terminal";
+        }
+        return equipo + "-" + ProcessHandle.current().pid();
+    }
+    
     /**
      * Verifica si la configuración ha sido establecida correctamente.
      * 
@@ -1,10 +1,14 @@
 package com.restaurante.controller;
 
+import com.restaurante.dao.InstantaneaReferencia;
 import com.restaurante.dao.MesaDAO;
 import com.restaurante.dao.RespaldoDAO;
 import com.restaurante.model.Mesa;
+import com.restaurante.util.EjecutorAsincrono;
 import com.restaurante.util.Validaciones;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controlador para gestionar la lógica de negocio de mesas.
@@ -173,7 +177,36 @@ public class MesaController {
      * @return lista de todas las mesas
      */
     public List<Mesa> obtenerTodasLasMesas() {
-        return mesaDAO.obtenerTodas();
+        List<Mesa> mesas = mesaDAO.obtenerTodas();
+        if (!mesas.isEmpty()) {
+            InstantaneaReferencia.getInstancia().actualizarMesas(mesas);
+        }
+        return mesas;
+    }
+    
+    /**
+     * Obtiene las mesas de la instantánea local, para mostrarlas mientras
+     * responde la base de datos.
+     * 
+     * @return mesas guardadas; vacía si no hay instantánea
+     */
+    public List<Mesa> obtenerMesasGuardadas() {
+        return InstantaneaReferencia.getInstancia().obtenerMesas();
+    }
+    
+    /**
+     * Obtiene las mesas libres de la instantánea local.
+     * 
+     * @return mesas guardadas con estado libre
+     */
+    public List<Mesa> obtenerMesasLibresGuardadas() {
+        List<Mesa> libres = new ArrayList<>();
+        for (Mesa m : obtenerMesasGuardadas()) {
+            if ("libre".equals(m.getEstado())) {
+                libres.add(m);
+            }
+        }
+        return libres;
     }
     
     /**
@@ -223,4 +256,46 @@ public class MesaController {
     public Mesa buscarMesaPorNumero(int numero) {
         return mesaDAO.buscarPorNumero(numero);
     }
+    
+    /**
+     * Variante asíncrona de {@link #crearMesa(int, String)}.
+     */
+    public CompletableFuture<Boolean> crearMesaAsync(int numero, String estado) {
+        return EjecutorAsincrono.ejecutar(() -> crearMesa(numero, estado));
+    }
+    
+    /**
+     * Variante asíncrona de {@link #actualizarMesa(Mesa)}.
+     */
+    public CompletableFuture<Boolean> actualizarMesaAsync(Mesa mesa) {
+        return EjecutorAsincrono.ejecutar(() -> actualizarMesa(mesa));
+    }
+    
+    /**
+     * Variante asíncrona de {@link #eliminarMesa(int)}.
+     */
+    public CompletableFuture<Boolean> eliminarMesaAsync(int id) {
+        return EjecutorAsincrono.ejecutar(() -> eliminarMesa(id));
+    }
+    
+    /**
+     * Variante asíncrona de {@link #obtenerTodasLasMesas()}.
+     */
+    public CompletableFuture<List<Mesa>> obtenerTodasLasMesasAsync() {
+        return EjecutorAsincrono.ejecutar(() -> obtenerTodasLasMesas());
+    }
+    
+    /**
+     * Variante asíncrona de {@link #buscarMesaPorId(int)}.
+     */
+    public CompletableFuture<Mesa> buscarMesaPorIdAsync(int id) {
+        return EjecutorAsincrono.ejecutar(() -> buscarMesaPorId(id));
+    }
+    
+    /**
+     * Variante asíncrona de {@link #obtenerMesasLibres()}.
+     */
+    public CompletableFuture<List<Mesa>> obtenerMesasLibresAsync() {
+        return EjecutorAsincrono.ejecutar(() -> obtenerMesasLibres());
+    }
 }
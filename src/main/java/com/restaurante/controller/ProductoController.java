@@ -1,22 +1,37 @@
 package com.restaurante.controller;
 
+import com.restaurante.dao.CargaCatalogoDAO;
+import com.restaurante.dao.CatalogoProductos;
 import com.restaurante.dao.ProductoDAO;
 import com.restaurante.dao.RespaldoDAO;
+import com.restaurante.model.Dinero;
 import com.restaurante.model.Producto;
+import com.restaurante.util.EjecutorAsincrono;
 import com.restaurante.util.Validaciones;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Controlador para gestionar la lógica de negocio de productos.
+ * Las consultas se resuelven desde el catálogo en memoria; las escrituras van
+ * a la base de datos y después actualizan el catálogo.
  */
 public class ProductoController {
     
     private final ProductoDAO productoDAO;
     private final RespaldoDAO respaldoDAO;
+    private final CargaCatalogoDAO cargaCatalogoDAO;
+    private final CatalogoProductos catalogo;
     
     public ProductoController() {
         this.productoDAO = new ProductoDAO();
+        this.cargaCatalogoDAO = new CargaCatalogoDAO();
         this.respaldoDAO = new RespaldoDAO();
+        this.catalogo = CatalogoProductos.getInstancia();
     }
     
     /**
@@ -28,7 +43,7 @@ public class ProductoController {
      * @param disponible si está disponible o no
      * @return true si se creó correctamente, false en caso contrario
      */
-    public boolean crearProducto(String nombre, String categoria, double precio, boolean disponible) {
+    public boolean crearProducto(String nombre, String categoria, Dinero precio, boolean disponible) {
         // Validaciones
         if (!Validaciones.noEsVacio(nombre)) {
             System.err.println("Nombre del producto vacío");
@@ -40,7 +55,7 @@ public class ProductoController {
             return false;
         }
         
-        if (!Validaciones.esPositivo(precio)) {
+        if (precio == null || !precio.esPositivo()) {
             System.err.println("Precio debe ser mayor a cero");
             return false;
         }
@@ -50,6 +65,7 @@ public class ProductoController {
         boolean resultado = productoDAO.insertar(producto);
         
         if (resultado) {
+            catalogo.invalidar();
             respaldoDAO.registrarOperacion("CREAR_PRODUCTO", 
                 "Nuevo producto creado: " + nombre + " - $" + precio);
         }
@@ -75,7 +91,7 @@ public class ProductoController {
             return false;
         }
         
-        if (!Validaciones.esPositivo(producto.getPrecio())) {
+        if (producto.getPrecio() == null || !producto.getPrecio().esPositivo()) {
             System.err.println("Precio debe ser mayor a cero");
             return false;
         }
@@ -83,6 +99,7 @@ public class ProductoController {
         boolean resultado = productoDAO.actualizar(producto);
         
         if (resultado) {
+            catalogo.actualizarLocal(producto);
             respaldoDAO.registrarOperacion("ACTUALIZAR_PRODUCTO", 
                 "Producto actualizado: " + producto.getNombre() + " (ID: " + producto.getId() + ")");
         }
@@ -97,7 +114,7 @@ public class ProductoController {
      * @return true si se eliminó correctamente, false en caso contrario
      */
     public boolean eliminarProducto(int id) {
-        Producto producto = productoDAO.buscarPorId(id);
+        Producto producto = catalogo.buscarPorId(id);
         
         if (producto == null) {
             System.err.println("Producto no encontrado");
@@ -107,6 +124,7 @@ public class ProductoController {
         boolean resultado = productoDAO.eliminar(id);
         
         if (resultado) {
+            catalogo.eliminarLocal(id);
             respaldoDAO.registrarOperacion("ELIMINAR_PRODUCTO", 
                 "Producto eliminado: " + producto.getNombre() + " (ID: " + id + ")");
         }
@@ -122,7 +140,7 @@ public class ProductoController {
      * @return true si se actualizó correctamente, false en caso contrario
      */
     public boolean cambiarDisponibilidad(int id, boolean disponible) {
-        Producto producto = productoDAO.buscarPorId(id);
+        Producto producto = catalogo.buscarPorId(id);
         
         if (producto == null) {
             System.err.println("Producto no encontrado");
@@ -133,6 +151,7 @@ public class ProductoController {
         boolean resultado = productoDAO.actualizar(producto);
         
         if (resultado) {
+            catalogo.actualizarLocal(producto);
             String estado = disponible ? "disponible" : "no disponible";
             respaldoDAO.registrarOperacion("CAMBIAR_DISPONIBILIDAD", 
                 "Producto " + producto.getNombre() + " marcado como " + estado);
@@ -141,22 +160,65 @@ public class ProductoController {
         return resultado;
     }
     
+    /**
+     * Importa en lote los productos de un archivo CSV. Los renglones
+     * inválidos se omiten; la importación completa queda en un solo registro
+     * de auditoría.
+     * 
+     * @param archivo archivo CSV con nombre, categoría, precio y disponibilidad
+     * @return productos importados y renglones rechazados
+     * @throws IOException si no se puede leer el archivo
+     * @throws SQLException si la base de datos rechaza la carga; no se importa nada
+     */
+    public CargaCatalogoDAO.ResultadoImportacion importarProductos(Path archivo) throws IOException, SQLException {
+        CargaCatalogoDAO.ResultadoImportacion resultado = cargaCatalogoDAO.importar(archivo);
+        
+        catalogo.invalidar();
+        respaldoDAO.registrarOperacion("IMPORTAR_PRODUCTOS",
+            "Importación de " + archivo.getFileName() + ": " + resultado.getImportados() + " productos, " +
+            resultado.getRechazados() + " renglones rechazados");
+        
+        return resultado;
+    }
+    
+    /**
+     * Exporta el catálogo completo a un archivo CSV que puede volver a importarse.
+     * 
+     * @param archivo archivo de destino
+     * @return cantidad de productos exportados
+     * @throws IOException si no se puede escribir el archivo
+     * @throws SQLException si hay error al leer el catálogo
+     */
+    public long exportarProductos(Path archivo) throws IOException, SQLException {
+        return cargaCatalogoDAO.exportar(archivo);
+    }
+    
     /**
      * Obtiene todos los productos.
      * 
-     * @return lista de todos los productos
+     * @return lista de solo lectura con todos los productos
      */
     public List<Producto> obtenerTodosLosProductos() {
-        return productoDAO.obtenerTodos();
+        return catalogo.obtenerTodos();
     }
     
     /**
      * Obtiene solo los productos disponibles.
      * 
-     * @return lista de productos disponibles
+     * @return lista de solo lectura con los productos disponibles
      */
     public List<Producto> obtenerProductosDisponibles() {
-        return productoDAO.obtenerDisponibles();
+        return catalogo.obtenerDisponibles();
+    }
+    
+    /**
+     * Ejecuta una tarea cuando el catálogo en memoria ya incluya los cambios
+     * recibidos de otras terminales.
+     *
+     * @param tarea tarea a ejecutar (fuera del hilo de eventos)
+     */
+    public void alSincronizarCatalogo(Runnable tarea) {
+        catalogo.alTerminarCambios(tarea);
     }
     
     /**
@@ -166,7 +228,7 @@ public class ProductoController {
      * @return lista de productos de esa categoría
      */
     public List<Producto> obtenerProductosPorCategoria(String categoria) {
-        return productoDAO.obtenerPorCategoria(categoria);
+        return catalogo.obtenerPorCategoria(categoria);
     }
     
     /**
@@ -176,7 +238,7 @@ public class ProductoController {
      * @return lista de productos que coinciden
      */
     public List<Producto> buscarProductosPorNombre(String nombre) {
-        return productoDAO.buscarPorNombre(nombre);
+        return catalogo.buscarPorNombre(nombre);
     }
     
     /**
@@ -186,6 +248,71 @@ public class ProductoController {
      * @return producto encontrado, o null si no existe
      */
     public Producto buscarProductoPorId(int id) {
-        return productoDAO.buscarPorId(id);
+        return catalogo.buscarPorId(id);
+    }
+    
+    /**
+     * Variante asíncrona de {@link #crearProducto(String, String, Dinero, boolean)}.
+     */
+    public CompletableFuture<Boolean> crearProductoAsync(String nombre, String categoria, Dinero precio,
+                                                          boolean disponible) {
+        return EjecutorAsincrono.ejecutar(() -> crearProducto(nombre, categoria, precio, disponible));
+    }
+    
+    /**
+     * Variante asíncrona de {@link #actualizarProducto(Producto)}.
+     */
+    public CompletableFuture<Boolean> actualizarProductoAsync(Producto producto) {
+        return EjecutorAsincrono.ejecutar(() -> actualizarProducto(producto));
+    }
+    
+    /**
+     * Variante asíncrona de {@link #eliminarProducto(int)}.
+     */
+    public CompletableFuture<Boolean> eliminarProductoAsync(int id) {
+        return EjecutorAsincrono.ejecutar(() -> eliminarProducto(id));
+    }
+    
+    /**
+     * Variante asíncrona de {@link #importarProductos(Path)}; los errores
+     * llegan envueltos en {@link CompletionException}.
+     */
+    public CompletableFuture<CargaCatalogoDAO.ResultadoImportacion> importarProductosAsync(Path archivo) {
+        return EjecutorAsincrono.ejecutar(() -> {
+            try {
+                return importarProductos(archivo);
+            } catch (IOException | SQLException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+    
+    /**
+     * Variante asíncrona de {@link #exportarProductos(Path)}; los errores
+     * llegan envueltos en {@link CompletionException}.
+     */
+    public CompletableFuture<Long> exportarProductosAsync(Path archivo) {
+        return EjecutorAsincrono.ejecutar(() -> {
+            try {
+                return exportarProductos(archivo);
+            } catch (IOException | SQLException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+    
+    /**
+     * Variante asíncrona de {@link #obtenerTodosLosProductos()}.
+     * Solo espera a la base de datos la primera vez que se carga el catálogo.
+     */
+    public CompletableFuture<List<Producto>> obtenerTodosLosProductosAsync() {
+        return EjecutorAsincrono.ejecutar(() -> obtenerTodosLosProductos());
+    }
+    
+    /**
+     * Variante asíncrona de {@link #obtenerProductosDisponibles()}.
+     */
+    public CompletableFuture<List<Producto>> obtenerProductosDisponiblesAsync() {
+        return EjecutorAsincrono.ejecutar(() -> obtenerProductosDisponibles());
     }
 }
@@ -1,10 +1,14 @@
 package com.restaurante.controller;
 
+import com.restaurante.dao.DirectorioUsuarios;
 import com.restaurante.dao.UsuarioDAO;
 import com.restaurante.dao.RespaldoDAO;
 import com.restaurante.model.Usuario;
+import com.restaurante.util.Credenciales;
+import com.restaurante.util.EjecutorAsincrono;
 import com.restaurante.util.Validaciones;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controlador para gestionar la lógica de negocio de usuarios.
@@ -13,16 +17,22 @@ public class UsuarioController {
     
     private final UsuarioDAO usuarioDAO;
     private final RespaldoDAO respaldoDAO;
-    private Usuario usuarioActual; // Usuario logueado actualmente
+    private final DirectorioUsuarios directorio;
+    private volatile Usuario usuarioActual; // Usuario logueado actualmente
     
     public UsuarioController() {
         this.usuarioDAO = new UsuarioDAO();
         this.respaldoDAO = new RespaldoDAO();
+        this.directorio = DirectorioUsuarios.getInstancia();
         this.usuarioActual = null;
     }
     
     /**
      * Valida las credenciales de un usuario (login).
+     * El usuario se busca en el directorio en memoria y la contraseña se
+     * compara contra su hash; las contraseñas aún en texto plano se guardan
+     * con hash tras el primer inicio de sesión correcto. Es una operación
+     * lenta: usar {@link #loginAsync(String, String)} desde la interfaz.
      * 
      * @param correo correo del usuario
      * @param contraseña contraseña del usuario
@@ -41,17 +51,69 @@ public class UsuarioController {
         }
         
         // Validar credenciales
-        Usuario usuario = usuarioDAO.validarCredenciales(correo, contraseña);
+        Usuario usuario = directorio.buscarPorCorreo(correo);
+        if (usuario == null || !Credenciales.verificar(contraseña, usuario.getContraseñaHash())) {
+            // El directorio pudo no enterarse de un cambio reciente: confirmar con la base de datos
+            Usuario enBase = usuarioDAO.buscarPorCorreo(correo);
+            if (enBase == null || !Credenciales.verificar(contraseña, enBase.getContraseñaHash())) {
+                return null;
+            }
+            usuario = enBase;
+            directorio.actualizarLocal(usuario.getId());
+        }
+        
+        if (Credenciales.requiereActualizacion(usuario.getContraseñaHash())) {
+            String hash = Credenciales.generarHash(contraseña);
+            if (usuarioDAO.actualizarContraseña(usuario.getId(), hash)) {
+                usuario.setContraseñaHash(hash);
+                directorio.actualizarLocal(usuario.getId());
+            }
+        }
+        
+        this.usuarioActual = usuario;
+        respaldoDAO.registrarOperacion("LOGIN", 
+            "Usuario: " + usuario.getNombre() + " (" + usuario.getRol() + ") inició sesión");
+        
+        return usuario;
+    }
+    
+    /**
+     * Cambia el usuario de la sesión verificando su PIN contra el directorio
+     * en memoria, sin consultar la base de datos. Es una operación lenta:
+     * usar {@link #cambiarUsuarioAsync(int, String)} desde la interfaz.
+     * 
+     * @param idUsuario ID del usuario que toma la caja
+     * @param pin PIN del usuario
+     * @return usuario si el PIN es correcto, null en caso contrario
+     */
+    public Usuario cambiarUsuario(int idUsuario, String pin) {
+        if (!Validaciones.esPinValido(pin)) {
+            return null;
+        }
         
-        if (usuario != null) {
-            this.usuarioActual = usuario;
-            respaldoDAO.registrarOperacion("LOGIN", 
-                "Usuario: " + usuario.getNombre() + " (" + usuario.getRol() + ") inició sesión");
+        Usuario usuario = directorio.buscarPorId(idUsuario);
+        if (usuario == null || !Credenciales.verificar(pin, usuario.getPinHash())) {
+            return null;
         }
         
+        Usuario anterior = usuarioActual;
+        this.usuarioActual = usuario;
+        respaldoDAO.registrarOperacion("CAMBIO_USUARIO", 
+            "Usuario: " + usuario.getNombre() + " (" + usuario.getRol() + ") tomó la sesión" +
+            (anterior != null ? " de " + anterior.getNombre() : ""));
+        
         return usuario;
     }
     
+    /**
+     * Obtiene los usuarios que pueden tomar la sesión con PIN.
+     * 
+     * @return usuarios con PIN configurado
+     */
+    public List<Usuario> obtenerUsuariosConPin() {
+        return directorio.obtenerConPin();
+    }
+    
     /**
      * Cierra la sesión del usuario actual.
      */
@@ -81,6 +143,15 @@ public class UsuarioController {
         return usuarioActual != null;
     }
     
+    /**
+     * Crea un nuevo usuario sin PIN.
+     * 
+     * @see #crearUsuario(String, String, String, String, String)
+     */
+    public boolean crearUsuario(String nombre, String correo, String contraseña, String rol) {
+        return crearUsuario(nombre, correo, contraseña, rol, null);
+    }
+    
     /**
      * Crea un nuevo usuario.
      * 
@@ -88,9 +159,10 @@ public class UsuarioController {
      * @param correo correo del usuario
      * @param contraseña contraseña del usuario
      * @param rol rol del usuario
+     * @param pin PIN de cambio rápido de cajero, o vacío/null si no tiene
      * @return true si se creó correctamente, false en caso contrario
      */
-    public boolean crearUsuario(String nombre, String correo, String contraseña, String rol) {
+    public boolean crearUsuario(String nombre, String correo, String contraseña, String rol, String pin) {
         // Validaciones
         if (!Validaciones.soloLetras(nombre)) {
             System.err.println("Nombre inválido");
@@ -112,17 +184,27 @@ public class UsuarioController {
             return false;
         }
         
+        boolean conPin = Validaciones.noEsVacio(pin);
+        if (conPin && !Validaciones.esPinValido(pin)) {
+            System.err.println("El PIN debe tener de 4 a 6 dígitos");
+            return false;
+        }
+        
         // Verificar si el correo ya existe
-        if (usuarioDAO.buscarPorCorreo(correo) != null) {
+        if (directorio.buscarPorCorreo(correo) != null) {
             System.err.println("El correo ya está registrado");
             return false;
         }
         
         // Crear usuario
-        Usuario usuario = new Usuario(nombre, correo, contraseña, rol.toLowerCase());
+        Usuario usuario = new Usuario(nombre, correo, Credenciales.generarHash(contraseña), rol.toLowerCase());
+        if (conPin) {
+            usuario.setPinHash(Credenciales.generarHash(pin));
+        }
         boolean resultado = usuarioDAO.insertar(usuario);
         
         if (resultado) {
+            directorio.recargar();
             respaldoDAO.registrarOperacion("CREAR_USUARIO", 
                 "Nuevo usuario creado: " + nombre + " (" + rol + ")");
         }
@@ -130,6 +212,42 @@ public class UsuarioController {
         return resultado;
     }
     
+    /**
+     * Actualiza un usuario existente y, opcionalmente, su contraseña y su PIN.
+     * 
+     * @param usuario usuario con datos actualizados (conserva su hash de contraseña)
+     * @param nuevaContraseña contraseña nueva, o vacía/null para no cambiarla
+     * @param nuevoPin PIN nuevo, o vacío/null para no cambiarlo
+     * @return true si se actualizó correctamente, false en caso contrario
+     */
+    public boolean actualizarUsuario(Usuario usuario, String nuevaContraseña, String nuevoPin) {
+        boolean cambiaContraseña = Validaciones.noEsVacio(nuevaContraseña);
+        if (cambiaContraseña && !Validaciones.longitudMinima(nuevaContraseña, 6)) {
+            System.err.println("Contraseña debe tener al menos 6 caracteres");
+            return false;
+        }
+        
+        boolean cambiaPin = Validaciones.noEsVacio(nuevoPin);
+        if (cambiaPin && !Validaciones.esPinValido(nuevoPin)) {
+            System.err.println("El PIN debe tener de 4 a 6 dígitos");
+            return false;
+        }
+        
+        if (cambiaContraseña) {
+            usuario.setContraseñaHash(Credenciales.generarHash(nuevaContraseña));
+        }
+        if (!actualizarUsuario(usuario)) {
+            return false;
+        }
+        if (cambiaPin) {
+            if (!usuarioDAO.actualizarPin(usuario.getId(), Credenciales.generarHash(nuevoPin))) {
+                return false;
+            }
+            directorio.actualizarLocal(usuario.getId());
+        }
+        return true;
+    }
+    
     /**
      * Actualiza un usuario existente.
      * 
@@ -156,6 +274,7 @@ public class UsuarioController {
         boolean resultado = usuarioDAO.actualizar(usuario);
         
         if (resultado) {
+            directorio.actualizarLocal(usuario.getId());
             respaldoDAO.registrarOperacion("ACTUALIZAR_USUARIO", 
                 "Usuario actualizado: " + usuario.getNombre() + " (ID: " + usuario.getId() + ")");
         }
@@ -170,7 +289,7 @@ public class UsuarioController {
      * @return true si se eliminó correctamente, false en caso contrario
      */
     public boolean eliminarUsuario(int id) {
-        Usuario usuario = usuarioDAO.buscarPorId(id);
+        Usuario usuario = directorio.buscarPorId(id);
         
         if (usuario == null) {
             System.err.println("Usuario no encontrado");
@@ -180,6 +299,7 @@ public class UsuarioController {
         boolean resultado = usuarioDAO.eliminar(id);
         
         if (resultado) {
+            directorio.actualizarLocal(id);
             respaldoDAO.registrarOperacion("ELIMINAR_USUARIO", 
                 "Usuario eliminado: " + usuario.getNombre() + " (ID: " + id + ")");
         }
@@ -193,7 +313,7 @@ public class UsuarioController {
      * @return lista de todos los usuarios
      */
     public List<Usuario> obtenerTodosLosUsuarios() {
-        return usuarioDAO.obtenerTodos();
+        return directorio.obtenerTodos();
     }
     
     /**
@@ -203,7 +323,7 @@ public class UsuarioController {
      * @return usuario encontrado, o null si no existe
      */
     public Usuario buscarUsuarioPorId(int id) {
-        return usuarioDAO.buscarPorId(id);
+        return directorio.buscarPorId(id);
     }
     
     /**
@@ -212,8 +332,7 @@ public class UsuarioController {
      * @return true si es administrador, false en caso contrario
      */
     public boolean esAdministrador() {
-        return usuarioActual != null && 
-               usuarioActual.getRol().equalsIgnoreCase("administrador");
+        return "administrador".equals(rolActual());
     }
     
     /**
@@ -222,8 +341,7 @@ public class UsuarioController {
      * @return true si es cajero, false en caso contrario
      */
     public boolean esCajero() {
-        return usuarioActual != null && 
-               usuarioActual.getRol().equalsIgnoreCase("cajero");
+        return "cajero".equals(rolActual());
     }
     
     /**
@@ -232,7 +350,97 @@ public class UsuarioController {
      * @return true si es mesero, false en caso contrario
      */
     public boolean esMesero() {
-        return usuarioActual != null && 
-               usuarioActual.getRol().equalsIgnoreCase("mesero");
+        return "mesero".equals(rolActual());
+    }
+    
+    /**
+     * Rol vigente del usuario actual según el directorio, de modo que un
+     * cambio de rol hecho en otra terminal se aplica sin volver a iniciar sesión.
+     */
+    private String rolActual() {
+        Usuario actual = usuarioActual;
+        if (actual == null) {
+            return null;
+        }
+        String rol = directorio.obtenerRol(actual.getId());
+        return rol != null ? rol : actual.getRol().toLowerCase();
+    }
+    
+    /**
+     * Variante asíncrona de {@link #login(String, String)}; se ejecuta en los
+     * hilos de verificación de credenciales.
+     */
+    public CompletableFuture<Usuario> loginAsync(String correo, String contraseña) {
+        return Credenciales.ejecutar(() -> login(correo, contraseña));
+    }
+    
+    /**
+     * Variante asíncrona de {@link #cambiarUsuario(int, String)}; se ejecuta
+     * en los hilos de verificación de credenciales.
+     */
+    public CompletableFuture<Usuario> cambiarUsuarioAsync(int idUsuario, String pin) {
+        return Credenciales.ejecutar(() -> cambiarUsuario(idUsuario, pin));
+    }
+    
+    /**
+     * Variante asíncrona de {@link #logout()}.
+     */
+    public CompletableFuture<Void> logoutAsync() {
+        return EjecutorAsincrono.ejecutar(() -> {
+            logout();
+            return null;
+        });
+    }
+    
+    /**
+     * Variante asíncrona de {@link #crearUsuario(String, String, String, String)}.
+     */
+    public CompletableFuture<Boolean> crearUsuarioAsync(String nombre, String correo, String contraseña,
+                                                        String rol) {
+        return Credenciales.ejecutar(() -> crearUsuario(nombre, correo, contraseña, rol));
+    }
+    
+    /**
+     * Variante asíncrona de {@link #crearUsuario(String, String, String, String, String)}.
+     */
+    public CompletableFuture<Boolean> crearUsuarioAsync(String nombre, String correo, String contraseña,
+                                                        String rol, String pin) {
+        return Credenciales.ejecutar(() -> crearUsuario(nombre, correo, contraseña, rol, pin));
+    }
+    
+    /**
+     * Variante asíncrona de {@link #actualizarUsuario(Usuario, String, String)}.
+     */
+    public CompletableFuture<Boolean> actualizarUsuarioAsync(Usuario usuario, String nuevaContraseña,
+                                                             String nuevoPin) {
+        return Credenciales.ejecutar(() -> actualizarUsuario(usuario, nuevaContraseña, nuevoPin));
+    }
+    
+    /**
+     * Variante asíncrona de {@link #actualizarUsuario(Usuario)}.
+     */
+    public CompletableFuture<Boolean> actualizarUsuarioAsync(Usuario usuario) {
+        return EjecutorAsincrono.ejecutar(() -> actualizarUsuario(usuario));
+    }
+    
+    /**
+     * Variante asíncrona de {@link #eliminarUsuario(int)}.
+     */
+    public CompletableFuture<Boolean> eliminarUsuarioAsync(int id) {
+        return EjecutorAsincrono.ejecutar(() -> eliminarUsuario(id));
+    }
+    
+    /**
+     * Variante asíncrona de {@link #obtenerTodosLosUsuarios()}.
+     */
+    public CompletableFuture<List<Usuario>> obtenerTodosLosUsuariosAsync() {
+        return EjecutorAsincrono.ejecutar(() -> obtenerTodosLosUsuarios());
+    }
+    
+    /**
+     * Variante asíncrona de {@link #buscarUsuarioPorId(int)}.
+     */
+    public CompletableFuture<Usuario> buscarUsuarioPorIdAsync(int id) {
+        return EjecutorAsincrono.ejecutar(() -> buscarUsuarioPorId(id));
     }
 }
@@ -2,12 +2,19 @@ package com.restaurante.controller;
 
 import com.restaurante.dao.*;
 import com.restaurante.model.*;
+import com.restaurante.util.EjecutorAsincrono;
 import com.restaurante.util.FinancialUtils;
 import com.restaurante.util.FinancialUtils.TotalesVenta;
-import com.restaurante.util.Validaciones;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Controlador para gestionar la lógica de negocio de ventas.
@@ -17,17 +24,17 @@ public class VentaController {
     private final VentaDAO ventaDAO;
     private final DetalleVentaDAO detalleVentaDAO;
     private final TicketDAO ticketDAO;
-    private final ProductoDAO productoDAO;
-    private final MesaDAO mesaDAO;
-    private final RespaldoDAO respaldoDAO;
+    private final ResumenVentasDAO resumenVentasDAO;
+    private final ExportacionVentasDAO exportacionVentasDAO;
+    private final CatalogoProductos catalogo;
     
     public VentaController() {
         this.ventaDAO = new VentaDAO();
         this.detalleVentaDAO = new DetalleVentaDAO();
         this.ticketDAO = new TicketDAO();
-        this.productoDAO = new ProductoDAO();
-        this.mesaDAO = new MesaDAO();
-        this.respaldoDAO = new RespaldoDAO();
+        this.resumenVentasDAO = new ResumenVentasDAO();
+        this.exportacionVentasDAO = new ExportacionVentasDAO();
+        this.catalogo = CatalogoProductos.getInstancia();
     }
     
     /**
@@ -54,65 +61,62 @@ public class VentaController {
             this.cantidad = cantidad;
         }
         
-        public double getSubtotal() {
-            return producto.getPrecio() * cantidad;
+        public Dinero getSubtotal() {
+            return producto.getPrecio().por(cantidad);
         }
     }
     
     /**
      * Registra una nueva venta completa con sus detalles y ticket.
+     * La venta se guarda primero en el diario local y se sube a la base de
+     * datos en segundo plano, por lo que no se pierde si no hay conexión.
      * 
      * @param idUsuario ID del usuario que realiza la venta
      * @param idMesa ID de la mesa (puede ser null para ventas sin mesa)
      * @param items lista de productos y cantidades
      * @param montoPagado monto pagado por el cliente
-     * @return folio del ticket generado, o null si hubo error
+     * @return ticket generado, o null si hubo error
      */
-    public String registrarVenta(int idUsuario, Integer idMesa, List<ItemVenta> items, double montoPagado) {
+    public Ticket registrarVenta(int idUsuario, Integer idMesa, List<ItemVenta> items, Dinero montoPagado) {
         // Validaciones
         if (items == null || items.isEmpty()) {
             System.err.println("No hay productos en la venta");
             return null;
         }
         
+        // Verificar disponibilidad contra el catálogo en memoria
+        for (ItemVenta item : items) {
+            if (!catalogo.estaDisponible(item.getProducto().getId())) {
+                System.err.println("Producto no disponible: " + item.getProducto().getNombre());
+                return null;
+            }
+        }
+        
         // Calcular total
         TotalesVenta totales = FinancialUtils.calcularTotales(items);
-        double total = totales.getTotal();
+        Dinero total = totales.getTotal();
         
-        if (!Validaciones.esPositivo(total)) {
+        if (!total.esPositivo()) {
             System.err.println("El total debe ser mayor a cero");
             return null;
         }
         
-        if (montoPagado < total) {
+        if (montoPagado.esMenorQue(total)) {
             System.err.println("El monto pagado es insuficiente");
             return null;
         }
         
-        // Verificar disponibilidad de productos
-        for (ItemVenta item : items) {
-            Producto producto = productoDAO.buscarPorId(item.getProducto().getId());
-            if (producto == null || !producto.isDisponible()) {
-                System.err.println("Producto no disponible: " + item.getProducto().getNombre());
-                return null;
-            }
-        }
-        
         try {
-            // 1. Crear la venta
+            // Construir venta, detalles y ticket con la hora y el UUID de la terminal
+            LocalDateTime ahora = LocalDateTime.now();
             Venta venta = new Venta(idUsuario, idMesa, total);
-            int idVenta = ventaDAO.insertar(venta);
+            venta.setFechaVenta(ahora);
+            venta.setUuidCliente(UUID.randomUUID().toString());
             
-            if (idVenta == -1) {
-                System.err.println("Error al crear la venta");
-                return null;
-            }
-            
-            // 2. Crear los detalles de venta
             List<DetalleVenta> detalles = new ArrayList<>();
             for (ItemVenta item : items) {
                 DetalleVenta detalle = new DetalleVenta(
-                    idVenta,
+                    0,
                     item.getProducto().getId(),
                     item.getCantidad(),
                     item.getProducto().getPrecio(),
@@ -121,34 +125,18 @@ public class VentaController {
                 detalles.add(detalle);
             }
             
-            if (!detalleVentaDAO.insertarLote(detalles)) {
-                System.err.println("Error al crear detalles de venta");
-                return null;
-            }
-            
-            // 3. Generar ticket
             String folio = ticketDAO.generarFolio();
-            double cambio = FinancialUtils.redondear(montoPagado - total);
+            Dinero cambio = montoPagado.restar(total);
+            Ticket ticket = new Ticket(0, folio, total, cambio);
+            ticket.setFechaEmision(ahora);
             
-            Ticket ticket = new Ticket(idVenta, folio, total, cambio);
-            if (!ticketDAO.insertar(ticket)) {
-                System.err.println("Error al generar ticket");
-                return null;
-            }
+            // Guardar en el diario local; el replicador la sube en una sola transacción
+            ColaVentas.getInstancia().encolar(new RegistroVentaDAO.VentaCompleta(venta, detalles, ticket));
             
-            // 4. Si hay mesa, marcarla como ocupada
-            if (idMesa != null) {
-                mesaDAO.actualizarEstado(idMesa, "ocupada");
-            }
+            return ticket;
             
-            // 5. Registrar en auditoría
-            respaldoDAO.registrarOperacion("VENTA_REGISTRADA", 
-                "Venta #" + idVenta + " registrada. Total: $" + total + " - Folio: " + folio);
-            
-            return folio;
-            
-        } catch (Exception e) {
-            System.err.println("Error al registrar venta: " + e.getMessage());
+        } catch (IOException e) {
+            System.err.println("Error al registrar venta en el diario local: " + e.getMessage());
             return null;
         }
     }
@@ -159,21 +147,21 @@ public class VentaController {
      * @param items lista de items
      * @return total calculado
      */
-    public double calcularTotal(List<ItemVenta> items) {
+    public Dinero calcularTotal(List<ItemVenta> items) {
         return FinancialUtils.calcularTotales(items).getTotal();
     }
 
     /**
      * Calcula el subtotal sin impuestos.
      */
-    public double calcularSubtotal(List<ItemVenta> items) {
+    public Dinero calcularSubtotal(List<ItemVenta> items) {
         return FinancialUtils.calcularTotales(items).getSubtotal();
     }
 
     /**
      * Calcula el IVA correspondiente a los ítems.
      */
-    public double calcularIva(List<ItemVenta> items) {
+    public Dinero calcularIva(List<ItemVenta> items) {
         return FinancialUtils.calcularTotales(items).getIva();
     }
     
@@ -184,8 +172,8 @@ public class VentaController {
      * @param montoPagado monto pagado por el cliente
      * @return cambio a devolver
      */
-    public double calcularCambio(double total, double montoPagado) {
-        return FinancialUtils.redondear(montoPagado - total);
+    public Dinero calcularCambio(Dinero total, Dinero montoPagado) {
+        return montoPagado.restar(total);
     }
     
     /**
@@ -225,10 +213,96 @@ public class VentaController {
      * @param fechaFin fecha de fin
      * @return total de ventas
      */
-    public double calcularTotalVentas(LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+    public Dinero calcularTotalVentas(LocalDateTime fechaInicio, LocalDateTime fechaFin) {
         return ventaDAO.calcularTotalPorFechas(fechaInicio, fechaFin);
     }
     
+    /**
+     * Obtiene la cantidad y el monto de las ventas de un período, calculados
+     * en la base de datos. Los períodos de horas completas se leen de los
+     * resúmenes precalculados; los demás recorren las ventas.
+     * 
+     * @param fechaInicio fecha de inicio, o null para no acotar
+     * @param fechaFin fecha de fin, o null para no acotar
+     * @return resumen del período
+     */
+    public ResumenVentas obtenerResumenVentas(LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+        if (ResumenVentasDAO.cubreHorasCompletas(fechaInicio, fechaFin)) {
+            return resumenVentasDAO.obtenerResumen(fechaInicio, fechaFin);
+        }
+        return ventaDAO.obtenerResumen(fechaInicio, fechaFin);
+    }
+    
+    /**
+     * Obtiene las ventas de un período agrupadas por día, hora, usuario o mesa.
+     * 
+     * @param fechaInicio fecha de inicio, o null para no acotar
+     * @param fechaFin fecha de fin, o null para no acotar
+     * @param agrupacion criterio de agrupación
+     * @return resumen por grupo
+     */
+    public List<ResumenVentas> obtenerResumenAgrupado(LocalDateTime fechaInicio, LocalDateTime fechaFin,
+                                                      VentaDAO.Agrupacion agrupacion) {
+        if (agrupacion != VentaDAO.Agrupacion.MESA &&
+            ResumenVentasDAO.cubreHorasCompletas(fechaInicio, fechaFin)) {
+            return resumenVentasDAO.obtenerResumenAgrupado(fechaInicio, fechaFin, agrupacion);
+        }
+        return ventaDAO.obtenerResumenAgrupado(fechaInicio, fechaFin, agrupacion);
+    }
+    
+    /**
+     * Obtiene las unidades y el monto vendidos por producto en un rango de días.
+     * 
+     * @param fechaInicio primer día, o null para no acotar
+     * @param fechaFin último día, o null para no acotar
+     * @return resumen por producto; la cantidad son unidades vendidas
+     */
+    public List<ResumenVentas> obtenerVentasPorProducto(LocalDate fechaInicio, LocalDate fechaFin) {
+        return resumenVentasDAO.obtenerPorProducto(fechaInicio, fechaFin);
+    }
+    
+    /**
+     * Recalcula los resúmenes de ventas desde el historial completo.
+     * 
+     * @return true si se reconstruyeron correctamente
+     */
+    public boolean reconstruirResumenes() {
+        return resumenVentasDAO.reconstruir();
+    }
+    
+    /**
+     * Obtiene una página de ventas de un período, de la más reciente a la más antigua.
+     * 
+     * @param fechaInicio fecha de inicio, o null para no acotar
+     * @param fechaFin fecha de fin, o null para no acotar
+     * @param despuesDe última venta de la página anterior, o null para la primera
+     * @param limite cantidad máxima de ventas
+     * @return ventas de la página
+     */
+    public List<Venta> obtenerPaginaVentas(LocalDateTime fechaInicio, LocalDateTime fechaFin,
+                                           Venta despuesDe, int limite) {
+        return ventaDAO.obtenerPagina(fechaInicio, fechaFin, despuesDe, limite);
+    }
+    
+    /**
+     * Exporta el historial de ventas de un período con su detalle, sin
+     * cargarlo en memoria.
+     * 
+     * @param fechaInicio fecha de inicio, o null para no acotar
+     * @param fechaFin fecha de fin, o null para no acotar
+     * @param formato columnar comprimido o CSV
+     * @param archivo archivo de destino
+     * @param progreso seguimiento y cancelación
+     * @return cantidad de renglones exportados
+     * @throws IOException si no se puede escribir el archivo
+     * @throws SQLException si hay error al leer las ventas
+     */
+    public long exportarHistorial(LocalDateTime fechaInicio, LocalDateTime fechaFin,
+                                  ExportacionVentasDAO.Formato formato, Path archivo,
+                                  ExportacionVentasDAO.Progreso progreso) throws IOException, SQLException {
+        return exportacionVentasDAO.exportar(fechaInicio, fechaFin, formato, archivo, progreso);
+    }
+    
     /**
      * Obtiene los detalles de una venta.
      * 
@@ -259,6 +333,17 @@ public class VentaController {
         return ticketDAO.buscarPorVenta(idVenta);
     }
     
+    /**
+     * Obtiene una página del historial de tickets, del más reciente al más antiguo.
+     * 
+     * @param despuesDe último ticket de la página anterior, o null para la primera
+     * @param limite cantidad máxima de tickets
+     * @return tickets de la página
+     */
+    public List<Ticket> obtenerPaginaTickets(Ticket despuesDe, int limite) {
+        return ticketDAO.obtenerPagina(despuesDe, limite);
+    }
+    
     /**
      * Busca un ticket por su folio.
      * 
@@ -268,4 +353,57 @@ public class VentaController {
     public Ticket buscarTicketPorFolio(String folio) {
         return ticketDAO.buscarPorFolio(folio);
     }
+    
+    /**
+     * Variante asíncrona de {@link #registrarVenta(int, Integer, List, Dinero)}.
+     * Los ítems se copian antes de salir del hilo de eventos.
+     */
+    public CompletableFuture<Ticket> registrarVentaAsync(int idUsuario, Integer idMesa, List<ItemVenta> items,
+                                                         Dinero montoPagado) {
+        List<ItemVenta> copia = FinancialUtils.clonarItems(items);
+        return EjecutorAsincrono.ejecutar(() -> registrarVenta(idUsuario, idMesa, copia, montoPagado));
+    }
+    
+    /**
+     * Variante asíncrona de {@link #obtenerResumenVentas(LocalDateTime, LocalDateTime)}.
+     */
+    public CompletableFuture<ResumenVentas> obtenerResumenVentasAsync(LocalDateTime fechaInicio,
+                                                                    LocalDateTime fechaFin) {
+        return EjecutorAsincrono.ejecutar(() -> obtenerResumenVentas(fechaInicio, fechaFin));
+    }
+    
+    /**
+     * Variante asíncrona de {@link #obtenerResumenAgrupado(LocalDateTime, LocalDateTime, VentaDAO.Agrupacion)}.
+     */
+    public CompletableFuture<List<ResumenVentas>> obtenerResumenAgrupadoAsync(LocalDateTime fechaInicio,
+                                                                            LocalDateTime fechaFin,
+                                                                            VentaDAO.Agrupacion agrupacion) {
+        return EjecutorAsincrono.ejecutar(() -> obtenerResumenAgrupado(fechaInicio, fechaFin, agrupacion));
+    }
+    
+    /**
+     * Variante asíncrona de {@link #obtenerVentasPorProducto(LocalDate, LocalDate)}.
+     */
+    public CompletableFuture<List<ResumenVentas>> obtenerVentasPorProductoAsync(LocalDate fechaInicio,
+                                                                              LocalDate fechaFin) {
+        return EjecutorAsincrono.ejecutar(() -> obtenerVentasPorProducto(fechaInicio, fechaFin));
+    }
+    
+    /**
+     * Variante asíncrona de {@link #exportarHistorial}; los errores llegan
+     * envueltos en {@link CompletionException}, y la cancelación como
+     * {@link java.util.concurrent.CancellationException}.
+     */
+    public CompletableFuture<Long> exportarHistorialAsync(LocalDateTime fechaInicio, LocalDateTime fechaFin,
+                                                          ExportacionVentasDAO.Formato formato, Path archivo,
+                                                          ExportacionVentasDAO.Progreso progreso) {
+        return EjecutorAsincrono.ejecutar(() -> {
+            try {
+                return exportarHistorial(fechaInicio, fechaFin, formato, archivo, progreso);
+            } catch (IOException | SQLException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
 }
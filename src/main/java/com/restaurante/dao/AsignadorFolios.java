@@ -0,0 +1,142 @@
+package com.restaurante.dao;
+
+import com.restaurante.config.SupabaseConfig;
+import com.restaurante.dao.FolioDAO.BloqueFolios;
+import com.restaurante.util.ConexionDB;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+/**
+ * Asignador de folios de ticket para esta terminal.
+ *
+ * Reserva bloques de folios consecutivos en la base de datos y los entrega
+ * desde memoria, sin ida y vuelta a Supabase por cada venta. Cuando el bloque
+ * se agota o cambia el día se reserva otro; al cerrar la aplicación la parte
+ * no usada se libera para que otra terminal la aproveche. Si la terminal
+ * desaparece sin liberar, el bloque vence y puede reclamarse.
+ *
+ * Sin conexión el bloque se sigue usando solo mientras su vigencia no haya
+ * vencido; después otra terminal podría reclamarlo, así que se entregan
+ * folios de {@link #folioSinConexion()}, únicos por terminal.
+ */
+public final class AsignadorFolios {
+
+    private static final int TAMANO_BLOQUE = 20;
+    private static final int VIGENCIA_MINUTOS = 30;
+    private static final long VIGENCIA_MS = VIGENCIA_MINUTOS * 60_000L;
+    private static final long RENOVAR_CADA_MS = VIGENCIA_MS / 3;
+    /** Tras un fallo al reservar o renovar, no se reintenta antes de este tiempo (la venta no espera a la red). */
+    private static final long REINTENTO_SIN_CONEXION_MS = 30_000;
+    private static final int LONGITUD_TERMINAL_SIN_CONEXION = 22;
+    /** Marca de los folios sin conexión; una letra, así nunca parecen folios de bloque. */
+    private static final String MARCA_SIN_CONEXION = "L";
+
+    private static final AsignadorFolios INSTANCIA = new AsignadorFolios();
+
+    private final FolioDAO folioDAO;
+    private final String terminal;
+    private BloqueFolios bloque;
+    private int siguiente;
+    private long ultimaRenovacion;
+    private long ultimoFallo;
+    private long ultimoSinConexion;
+
+    private AsignadorFolios() {
+        this.folioDAO = new FolioDAO();
+        this.terminal = SupabaseConfig.getIdTerminal();
+        ConexionDB.alCerrar(this::liberar);
+    }
+
+    /**
+     * Obtiene la instancia única del asignador.
+     *
+     * @return asignador de folios de la terminal
+     */
+    public static AsignadorFolios getInstancia() {
+        return INSTANCIA;
+    }
+
+    /**
+     * Entrega el siguiente folio del día.
+     *
+     * @return folio en formato "TICK-YYYYMMDD-NNNN"
+     * @throws SQLException si se necesita un bloque nuevo y no se puede reservar
+     */
+    public synchronized String siguienteFolio() throws SQLException {
+        LocalDate hoy = LocalDate.now();
+        long ahora = System.currentTimeMillis();
+
+        if (bloque != null && !bloque.getFecha().equals(hoy)) {
+            liberar();
+        }
+
+        if (bloque != null && ahora - ultimaRenovacion >= VIGENCIA_MS) {
+            // La vigencia venció sin renovarse: otra terminal pudo reclamar el resto
+            System.err.println("El bloque de folios venció sin poder renovarse; se deja de usar");
+            bloque = null;
+        }
+
+        if (bloque == null || siguiente > bloque.getFin()) {
+            if (ahora - ultimoFallo < REINTENTO_SIN_CONEXION_MS) {
+                throw new SQLException("Sin conexión para reservar folios");
+            }
+            try {
+                bloque = folioDAO.reservarBloque(hoy, TAMANO_BLOQUE, terminal, VIGENCIA_MINUTOS);
+            } catch (SQLException | RuntimeException e) {
+                bloque = null;
+                ultimoFallo = System.currentTimeMillis();
+                throw e;
+            }
+            siguiente = bloque.getInicio();
+            ultimaRenovacion = ahora;
+        } else if (ahora - ultimaRenovacion > RENOVAR_CADA_MS && ahora - ultimoFallo >= REINTENTO_SIN_CONEXION_MS) {
+            // Mantener vigente el bloque mientras la terminal siga vendiendo; la
+            // vigencia se cuenta desde antes de enviar la renovación
+            try {
+                if (folioDAO.renovarBloque(bloque.getId(), terminal, VIGENCIA_MINUTOS)) {
+                    ultimaRenovacion = ahora;
+                } else {
+                    // El bloque venció y otra terminal lo reclamó: no seguir usándolo
+                    bloque = null;
+                    return siguienteFolio();
+                }
+            } catch (SQLException e) {
+                ultimoFallo = System.currentTimeMillis();
+                System.err.println("No se pudo renovar el bloque de folios: " + e.getMessage());
+            }
+        }
+
+        return FolioDAO.formatearFolio(bloque.getFecha(), siguiente++);
+    }
+
+    /**
+     * Entrega un folio que no sale de ningún bloque, para cuando no hay
+     * conexión para reservar uno. Lleva el identificador de la terminal y la
+     * hora en milisegundos (nunca repetida dentro de la terminal), así que no
+     * choca con los folios de bloque ni con los de otras terminales.
+     *
+     * @return folio en formato "TICK-YYYYMMDD-L-TERMINAL-HORA"
+     */
+    public synchronized String folioSinConexion() {
+        ultimoSinConexion = Math.max(System.currentTimeMillis(), ultimoSinConexion + 1);
+
+        String id = terminal.toUpperCase().replaceAll("[^A-Z0-9-]", "");
+        if (id.length() > LONGITUD_TERMINAL_SIN_CONEXION) {
+            // El final conserva el número de proceso
+            id = id.substring(id.length() - LONGITUD_TERMINAL_SIN_CONEXION);
+        }
+        String dia = LocalDate.now().toString().replace("-", "");
+        return "TICK-" + dia + "-" + MARCA_SIN_CONEXION + "-" + id + "-" +
+               Long.toString(ultimoSinConexion, 36).toUpperCase();
+    }
+
+    /**
+     * Libera la parte no usada del bloque actual.
+     */
+    public synchronized void liberar() {
+        if (bloque != null) {
+            folioDAO.liberarBloque(bloque.getId(), terminal, siguiente);
+            bloque = null;
+        }
+    }
+}
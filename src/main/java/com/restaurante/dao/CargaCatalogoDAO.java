@@ -0,0 +1,311 @@
+package com.restaurante.dao;
+
+import com.restaurante.util.ConexionDB;
+import com.restaurante.util.Validaciones;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.PGCopyOutputStream;
+
+/**
+ * Importación y exportación masiva del catálogo de productos en CSV con
+ * {@code COPY} de PostgreSQL.
+ *
+ * Los archivos se leen y escriben en streaming sobre canales NIO. La
+ * importación valida cada renglón con {@link Validaciones} en la misma pasada
+ * en que lo envía a {@code COPY ... FROM STDIN}, en bloques de 64 KB, así que
+ * la memoria usada no depende del tamaño del archivo. Todo se carga en una
+ * sola transacción: si la base rechaza la copia no queda ningún producto a
+ * medias. Los renglones inválidos se omiten y se reportan.
+ *
+ * Durante la carga los triggers no avisan fila por fila; al confirmar se
+ * envía un solo aviso para que las demás terminales recarguen el catálogo.
+ *
+ * Formato: UTF-8, separado por comas, con encabezado opcional
+ * {@code nombre,categoria,precio,disponible}. Los campos con comas o comillas
+ * van entre comillas dobles; {@code disponible} vacío se toma como verdadero.
+ */
+public class CargaCatalogoDAO {
+
+    private static final String ENCABEZADO = "nombre";
+    private static final int TAMANO_BLOQUE = 64 * 1024;
+    private static final int MAX_ERRORES = 20;
+    private static final int LONGITUD_NOMBRE = 100;
+    private static final int LONGITUD_CATEGORIA = 50;
+
+    /**
+     * Resultado de una importación.
+     */
+    public static final class ResultadoImportacion {
+        private final long importados;
+        private final long rechazados;
+        private final List<String> errores;
+
+        ResultadoImportacion(long importados, long rechazados, List<String> errores) {
+            this.importados = importados;
+            this.rechazados = rechazados;
+            this.errores = Collections.unmodifiableList(errores);
+        }
+
+        public long getImportados() {
+            return importados;
+        }
+
+        public long getRechazados() {
+            return rechazados;
+        }
+
+        /**
+         * @return motivos de los primeros renglones rechazados (a lo más 20)
+         */
+        public List<String> getErrores() {
+            return errores;
+        }
+    }
+
+    /**
+     * Importa productos desde un archivo CSV.
+     *
+     * @param archivo archivo a importar
+     * @return productos importados y renglones rechazados
+     * @throws IOException si no se puede leer el archivo o no está en UTF-8
+     * @throws SQLException si la base de datos rechaza la carga; no se importa nada
+     */
+    public ResultadoImportacion importar(Path archivo) throws IOException, SQLException {
+        List<String> errores = new ArrayList<>();
+        List<String> campos = new ArrayList<>(4);
+        StringBuilder renglon = new StringBuilder(256);
+        long rechazados = 0;
+
+        try (Connection conn = ConexionDB.obtenerConexion();
+             FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ);
+             BufferedReader lector = new BufferedReader(
+                 Channels.newReader(canal, StandardCharsets.UTF_8.newDecoder(), TAMANO_BLOQUE), TAMANO_BLOQUE)) {
+
+            conn.setAutoCommit(false);
+            CopyIn copia = null;
+            try {
+                try (PreparedStatement stmt = conn.prepareStatement(SentenciasSQL.AVISOS_SUSPENDER)) {
+                    stmt.execute();
+                }
+
+                copia = conn.unwrap(PGConnection.class).getCopyAPI()
+                    .copyIn(SentenciasSQL.PRODUCTO_COPIAR_DESDE_CSV);
+                PGCopyOutputStream salidaCopia = new PGCopyOutputStream(copia, TAMANO_BLOQUE);
+                Writer escritor = new OutputStreamWriter(salidaCopia, StandardCharsets.UTF_8);
+
+                String linea;
+                long numero = 0;
+                while ((linea = lector.readLine()) != null) {
+                    numero++;
+                    if (numero == 1 && linea.startsWith("\uFEFF")) {
+                        linea = linea.substring(1);
+                    }
+                    if (linea.trim().isEmpty()) {
+                        continue;
+                    }
+
+                    String error = validar(linea, campos);
+                    if (error == null) {
+                        escribirRenglon(campos, renglon);
+                        escritor.write(renglon.toString());
+                    } else if (numero > 1 || !esEncabezado(campos)) {
+                        rechazados++;
+                        if (errores.size() < MAX_ERRORES) {
+                            errores.add("Renglón " + numero + ": " + error);
+                        }
+                    }
+                }
+
+                escritor.flush();
+                long importados = salidaCopia.endCopy();
+
+                try (PreparedStatement stmt = conn.prepareStatement(SentenciasSQL.AVISO_RESINCRONIZAR)) {
+                    stmt.setString(1, "productos");
+                    stmt.execute();
+                }
+                conn.commit();
+                return new ResultadoImportacion(importados, rechazados, errores);
+
+            } catch (IOException | SQLException | RuntimeException e) {
+                if (copia != null && copia.isActive()) {
+                    copia.cancelCopy();
+                }
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Exporta el catálogo completo a un archivo CSV con encabezado, en el
+     * mismo formato que acepta {@link #importar(Path)}. Se escribe primero
+     * en un archivo temporal, así que un error no deja el destino a medias.
+     *
+     * @param archivo archivo de destino; se reemplaza si existe
+     * @return cantidad de productos exportados
+     * @throws IOException si no se puede escribir el archivo
+     * @throws SQLException si hay error al leer el catálogo
+     */
+    public long exportar(Path archivo) throws IOException, SQLException {
+        Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+        try {
+            long exportados;
+            try (Connection conn = ConexionDB.obtenerConexion();
+                 FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+                 OutputStream salida = new BufferedOutputStream(Channels.newOutputStream(canal), TAMANO_BLOQUE)) {
+
+                exportados = conn.unwrap(PGConnection.class).getCopyAPI()
+                    .copyOut(SentenciasSQL.PRODUCTO_COPIAR_A_CSV, salida);
+            }
+            Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING);
+            return exportados;
+        } finally {
+            Files.deleteIfExists(temporal);
+        }
+    }
+
+    /**
+     * Separa y valida un renglón.
+     *
+     * @return null si es válido (los campos quedan normalizados), o el motivo del rechazo
+     */
+    private static String validar(String linea, List<String> campos) {
+        if (!separarCampos(linea, campos)) {
+            return "comillas sin cerrar";
+        }
+        if (campos.size() < 3 || campos.size() > 4) {
+            return "se esperaban 3 o 4 campos y hay " + campos.size();
+        }
+
+        String nombre = campos.get(0).trim();
+        String categoria = campos.get(1).trim();
+        String precio = campos.get(2).trim();
+        String disponible = campos.size() == 4 ? interpretarDisponible(campos.get(3)) : "t";
+
+        if (!Validaciones.noEsVacio(nombre) || !Validaciones.longitudMaxima(nombre, LONGITUD_NOMBRE)) {
+            return "nombre vacío o de más de " + LONGITUD_NOMBRE + " caracteres";
+        }
+        if (!Validaciones.noEsVacio(categoria) || !Validaciones.longitudMaxima(categoria, LONGITUD_CATEGORIA)) {
+            return "categoría vacía o de más de " + LONGITUD_CATEGORIA + " caracteres";
+        }
+        if (!Validaciones.esPrecioValido(precio)) {
+            return "precio inválido: " + precio;
+        }
+        if (disponible == null) {
+            return "disponible inválido: " + campos.get(3);
+        }
+
+        campos.clear();
+        campos.add(nombre);
+        campos.add(categoria);
+        campos.add(new BigDecimal(precio).setScale(2, RoundingMode.HALF_UP).toPlainString());
+        campos.add(disponible);
+        return null;
+    }
+
+    private static boolean esEncabezado(List<String> campos) {
+        return !campos.isEmpty() && ENCABEZADO.equalsIgnoreCase(campos.get(0).trim());
+    }
+
+    private static String interpretarDisponible(String valor) {
+        switch (valor.trim().toLowerCase(Locale.ROOT)) {
+            case "":
+            case "t":
+            case "true":
+            case "1":
+            case "si":
+            case "sí":
+                return "t";
+            case "f":
+            case "false":
+            case "0":
+            case "no":
+                return "f";
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Separa un renglón CSV en campos; admite comillas dobles con {@code ""}
+     * como comilla escapada.
+     *
+     * @return false si una comilla quedó sin cerrar
+     */
+    private static boolean separarCampos(String linea, List<String> campos) {
+        campos.clear();
+        StringBuilder campo = new StringBuilder();
+        boolean entreComillas = false;
+
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (entreComillas) {
+                if (c == '"') {
+                    if (i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                        campo.append('"');
+                        i++;
+                    } else {
+                        entreComillas = false;
+                    }
+                } else {
+                    campo.append(c);
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else {
+                campo.append(c);
+            }
+        }
+        campos.add(campo.toString());
+        return !entreComillas;
+    }
+
+    /**
+     * Arma el renglón normalizado que recibe COPY; los textos siempre van
+     * entre comillas.
+     */
+    private static void escribirRenglon(List<String> campos, StringBuilder renglon) {
+        renglon.setLength(0);
+        agregarTexto(renglon, campos.get(0)).append(',');
+        agregarTexto(renglon, campos.get(1)).append(',');
+        renglon.append(campos.get(2)).append(',').append(campos.get(3)).append('\n');
+    }
+
+    private static StringBuilder agregarTexto(StringBuilder renglon, String texto) {
+        renglon.append('"');
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c == '"') {
+                renglon.append('"');
+            }
+            renglon.append(c);
+        }
+        return renglon.append('"');
+    }
+}
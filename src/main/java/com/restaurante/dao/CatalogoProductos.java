@@ -0,0 +1,394 @@
+package com.restaurante.dao;
+
+import com.restaurante.model.Producto;
+import com.restaurante.util.BusCambios;
+import java.sql.Timestamp;
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caché en memoria del catálogo de productos, compartida por todo el proceso.
+ *
+ * Mantiene índices por ID, por categoría y de productos disponibles. La primera
+ * lectura carga la tabla completa; después se refresca de forma incremental en
+ * segundo plano (solo las filas con {@code actualizado_en} reciente), de modo
+ * que las lecturas nunca esperan a la base de datos. Los cambios hechos desde
+ * esta terminal se aplican directamente sobre la caché, y los de otras
+ * terminales llegan por {@link BusCambios}: se lee solo la fila avisada. El
+ * refresco periódico queda como respaldo mientras el bus está desconectado.
+ *
+ * Las listas devueltas son de solo lectura y sus productos no deben
+ * modificarse; {@link #buscarPorId(int)} devuelve una copia editable.
+ */
+public final class CatalogoProductos {
+
+    /** Antigüedad máxima de la caché antes de pedir un refresco en segundo plano. */
+    private static final long VIGENCIA_MS = 30_000;
+    /** Margen para no perder filas confirmadas con marca de tiempo anterior a la última vista. */
+    private static final long TRASLAPE_MS = 5_000;
+
+    private static final CatalogoProductos INSTANCIA = new CatalogoProductos();
+
+    private final ProductoDAO productoDAO;
+    private final ExecutorService refrescador;
+    private final AtomicBoolean refrescoEnCurso = new AtomicBoolean(false);
+    private final Object cargaInicial = new Object();
+
+    private volatile Indice indice = null;
+    private volatile long ultimaSincronizacion = 0;
+    private volatile Timestamp ultimaModificacion = null;
+
+    private CatalogoProductos() {
+        this.productoDAO = new ProductoDAO();
+        this.refrescador = Executors.newSingleThreadExecutor(r -> {
+            Thread hilo = new Thread(r, "posrest-catalogo");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        BusCambios.getInstancia().suscribir("productos", this::aplicarCambio);
+    }
+
+    /**
+     * Obtiene la instancia única del catálogo.
+     *
+     * @return catálogo de productos
+     */
+    public static CatalogoProductos getInstancia() {
+        return INSTANCIA;
+    }
+
+    /**
+     * Obtiene todos los productos ordenados por categoría y nombre.
+     *
+     * @return lista de solo lectura
+     */
+    public List<Producto> obtenerTodos() {
+        return indiceActual().todos;
+    }
+
+    /**
+     * Obtiene los productos disponibles ordenados por categoría y nombre.
+     *
+     * @return lista de solo lectura
+     */
+    public List<Producto> obtenerDisponibles() {
+        return indiceActual().disponibles;
+    }
+
+    /**
+     * Obtiene los productos de una categoría ordenados por nombre.
+     *
+     * @param categoria categoría a filtrar
+     * @return lista de solo lectura
+     */
+    public List<Producto> obtenerPorCategoria(String categoria) {
+        List<Producto> productos = indiceActual().porCategoria.get(categoria);
+        return productos != null ? productos : Collections.emptyList();
+    }
+
+    /**
+     * Busca productos cuyo nombre contenga el texto indicado (sin distinguir mayúsculas).
+     *
+     * @param nombre texto a buscar
+     * @return productos que coinciden, ordenados por nombre
+     */
+    public List<Producto> buscarPorNombre(String nombre) {
+        String termino = nombre.toLowerCase();
+        List<Producto> resultado = new ArrayList<>();
+        for (Producto p : indiceActual().todos) {
+            if (p.getNombre().toLowerCase().contains(termino)) {
+                resultado.add(p);
+            }
+        }
+        resultado.sort(Comparator.comparing(Producto::getNombre, collator()));
+        return resultado;
+    }
+
+    /**
+     * Busca un producto por su ID.
+     *
+     * @param id ID del producto
+     * @return copia editable del producto, o null si no existe
+     */
+    public Producto buscarPorId(int id) {
+        Producto p = indiceActual().porId.get(id);
+        return p != null ? copiar(p) : null;
+    }
+
+    /**
+     * Indica si un producto existe y está disponible.
+     *
+     * @param id ID del producto
+     * @return true si está disponible
+     */
+    public boolean estaDisponible(int id) {
+        Producto p = indiceActual().porId.get(id);
+        return p != null && p.isDisponible();
+    }
+
+    /**
+     * Aplica sobre la caché un producto actualizado desde esta terminal.
+     *
+     * @param producto producto con los datos ya guardados
+     */
+    public void actualizarLocal(Producto producto) {
+        synchronized (cargaInicial) {
+            if (indice != null) {
+                Map<Integer, Producto> productos = new HashMap<>(indice.porId);
+                productos.put(producto.getId(), copiar(producto));
+                indice = new Indice(productos);
+                InstantaneaReferencia.getInstancia().programarEscritura();
+            }
+        }
+    }
+
+    /**
+     * Quita un producto eliminado desde esta terminal.
+     *
+     * @param id ID del producto eliminado
+     */
+    public void eliminarLocal(int id) {
+        synchronized (cargaInicial) {
+            if (indice != null) {
+                Map<Integer, Producto> productos = new HashMap<>(indice.porId);
+                productos.remove(id);
+                indice = new Indice(productos);
+                InstantaneaReferencia.getInstancia().programarEscritura();
+            }
+        }
+    }
+
+    /**
+     * Refresca la caché de inmediato con los cambios recientes de la base de datos.
+     * Se usa cuando no se conoce el estado final del producto (por ejemplo, al
+     * crearlo, porque el ID lo asigna la base de datos).
+     */
+    public void invalidar() {
+        if (indice != null) {
+            refrescarIncremental();
+        }
+    }
+
+    /**
+     * Llena la caché con los productos de la instantánea local si todavía no
+     * se ha leído la base de datos. La caché queda vencida: el siguiente
+     * refresco trae solo lo modificado después de la instantánea.
+     *
+     * @param productos productos guardados
+     */
+    void sembrar(List<Producto> productos) {
+        synchronized (cargaInicial) {
+            if (indice != null) {
+                return;
+            }
+            Map<Integer, Producto> porId = new HashMap<>();
+            Timestamp maxima = null;
+            for (Producto p : productos) {
+                porId.put(p.getId(), p);
+                maxima = masReciente(maxima, p);
+            }
+            indice = new Indice(porId);
+            ultimaModificacion = maxima;
+            ultimaSincronizacion = 0;
+        }
+    }
+
+    /**
+     * @return productos en caché sin consultar la base de datos, o null si aún no se cargan
+     */
+    List<Producto> obtenerCargados() {
+        Indice actual = indice;
+        return actual != null ? actual.todos : null;
+    }
+
+    private Indice indiceActual() {
+        Indice actual = indice;
+        if (actual == null) {
+            synchronized (cargaInicial) {
+                if (indice == null) {
+                    cargarCompleto();
+                }
+                return indice;
+            }
+        }
+
+        if (!BusCambios.getInstancia().estaConectado()
+            && System.currentTimeMillis() - ultimaSincronizacion > VIGENCIA_MS) {
+            solicitarRefresco();
+        }
+        return actual;
+    }
+
+    /**
+     * Aplica un aviso de otra terminal. Se ejecuta en el hilo del catálogo
+     * para no detener el bus mientras se lee la fila.
+     */
+    private void aplicarCambio(BusCambios.Cambio cambio) {
+        if (indice == null) {
+            return;
+        }
+        switch (cambio.getOperacion()) {
+            case ELIMINACION:
+                eliminarLocal(cambio.getId());
+                break;
+            case RESINCRONIZAR:
+                refrescador.execute(this::refrescarIncremental);
+                break;
+            default:
+                refrescador.execute(() -> {
+                    Producto producto = productoDAO.buscarPorId(cambio.getId());
+                    if (producto != null) {
+                        actualizarLocal(producto);
+                    }
+                });
+        }
+    }
+
+    /**
+     * Ejecuta una tarea cuando el catálogo termine de aplicar los cambios ya
+     * recibidos (por ejemplo, el aviso del bus que se está atendiendo), en el
+     * hilo del catálogo.
+     *
+     * @param tarea tarea a ejecutar
+     */
+    public void alTerminarCambios(Runnable tarea) {
+        refrescador.execute(tarea);
+    }
+
+    private void solicitarRefresco() {
+        if (indice != null && refrescoEnCurso.compareAndSet(false, true)) {
+            refrescador.execute(() -> {
+                try {
+                    refrescarIncremental();
+                } finally {
+                    refrescoEnCurso.set(false);
+                }
+            });
+        }
+    }
+
+    private void cargarCompleto() {
+        long inicio = System.currentTimeMillis();
+        List<Producto> productos = productoDAO.obtenerTodos();
+
+        Map<Integer, Producto> porId = new HashMap<>();
+        Timestamp maxima = null;
+        for (Producto p : productos) {
+            porId.put(p.getId(), p);
+            maxima = masReciente(maxima, p);
+        }
+
+        indice = new Indice(porId);
+        ultimaModificacion = maxima;
+        ultimaSincronizacion = inicio;
+        if (!productos.isEmpty()) {
+            InstantaneaReferencia.getInstancia().programarEscritura();
+        }
+    }
+
+    private void refrescarIncremental() {
+        long inicio = System.currentTimeMillis();
+        Timestamp desde = ultimaModificacion;
+
+        if (desde == null) {
+            synchronized (cargaInicial) {
+                cargarCompleto();
+            }
+            return;
+        }
+
+        List<Producto> modificados = productoDAO.obtenerModificadosDesde(
+            new Timestamp(desde.getTime() - TRASLAPE_MS));
+        int totalEnBase = productoDAO.contar();
+
+        synchronized (cargaInicial) {
+            Map<Integer, Producto> porId = new HashMap<>(indice.porId);
+            Timestamp maxima = desde;
+            for (Producto p : modificados) {
+                porId.put(p.getId(), p);
+                maxima = masReciente(maxima, p);
+            }
+
+            if (totalEnBase >= 0 && totalEnBase != porId.size()) {
+                // Hubo eliminaciones en otra terminal: recargar todo
+                cargarCompleto();
+                return;
+            }
+
+            if (!modificados.isEmpty()) {
+                indice = new Indice(porId);
+                InstantaneaReferencia.getInstancia().programarEscritura();
+            }
+            ultimaModificacion = maxima;
+            ultimaSincronizacion = inicio;
+        }
+    }
+
+    private static Timestamp masReciente(Timestamp actual, Producto p) {
+        if (p.getActualizadoEn() == null) {
+            return actual;
+        }
+        Timestamp ts = Timestamp.valueOf(p.getActualizadoEn());
+        return actual == null || ts.after(actual) ? ts : actual;
+    }
+
+    private static Producto copiar(Producto p) {
+        Producto copia = new Producto(p.getId(), p.getNombre(), p.getCategoria(), p.getPrecio(),
+                                      p.isDisponible(), p.getFechaRegistro());
+        copia.setActualizadoEn(p.getActualizadoEn());
+        return copia;
+    }
+
+    private static Collator collator() {
+        Collator collator = Collator.getInstance(new Locale("es", "MX"));
+        collator.setStrength(Collator.SECONDARY);
+        return collator;
+    }
+
+    /**
+     * Índices inmutables del catálogo; se reemplazan completos en cada cambio.
+     */
+    private static final class Indice {
+        private final Map<Integer, Producto> porId;
+        private final List<Producto> todos;
+        private final List<Producto> disponibles;
+        private final Map<String, List<Producto>> porCategoria;
+
+        private Indice(Map<Integer, Producto> productos) {
+            Collator collator = collator();
+            Comparator<Producto> orden = Comparator
+                .comparing(Producto::getCategoria, collator)
+                .thenComparing(Producto::getNombre, collator);
+
+            List<Producto> lista = new ArrayList<>(productos.values());
+            lista.sort(orden);
+
+            List<Producto> listaDisponibles = new ArrayList<>();
+            Map<String, List<Producto>> categorias = new LinkedHashMap<>();
+            for (Producto p : lista) {
+                if (p.isDisponible()) {
+                    listaDisponibles.add(p);
+                }
+                categorias.computeIfAbsent(p.getCategoria(), k -> new ArrayList<>()).add(p);
+            }
+            for (Map.Entry<String, List<Producto>> entrada : categorias.entrySet()) {
+                entrada.setValue(Collections.unmodifiableList(entrada.getValue()));
+            }
+
+            this.porId = Collections.unmodifiableMap(productos);
+            this.todos = Collections.unmodifiableList(lista);
+            this.disponibles = Collections.unmodifiableList(listaDisponibles);
+            this.porCategoria = Collections.unmodifiableMap(categorias);
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.restaurante.dao;
+
+import com.restaurante.model.Respaldo;
+import com.restaurante.util.ConexionDB;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cola de registros de auditoría que se escriben en segundo plano.
+ *
+ * Las operaciones encolan su registro en un búfer acotado y siguen de
+ * inmediato. Un hilo escritor junta los registros y los inserta en lotes
+ * cuando hay {@value #TAMANO_LOTE} o cuando pasa medio segundo desde el
+ * primero. Si el búfer se llena, el hilo que llama escribe su registro
+ * directamente: la auditoría se frena, pero no se pierde. Al cerrar la
+ * aplicación se escribe lo pendiente antes de cerrar el pool.
+ */
+public final class ColaAuditoria {
+
+    private static final int CAPACIDAD = 4096;
+    private static final int TAMANO_LOTE = 200;
+    private static final long ESPERA_LOTE_MS = 500;
+    private static final long ESPERA_ENCOLAR_MS = 100;
+    private static final long ESPERA_INICIAL_MS = 1_000;
+    private static final long ESPERA_MAXIMA_MS = 30_000;
+    private static final long ESPERA_CIERRE_MS = 10_000;
+
+    private static ColaAuditoria instancia;
+
+    private final BlockingQueue<Respaldo> cola = new ArrayBlockingQueue<>(CAPACIDAD);
+    private final List<Respaldo> lote = new ArrayList<>(TAMANO_LOTE);
+    private final RespaldoDAO respaldoDAO;
+    private final Thread escritor;
+    private volatile boolean activo = true;
+
+    private ColaAuditoria() {
+        this.respaldoDAO = new RespaldoDAO();
+
+        this.escritor = new Thread(this::escribir, "posrest-auditoria");
+        this.escritor.setDaemon(true);
+        this.escritor.start();
+
+        ConexionDB.alCerrar(this::detener);
+    }
+
+    /**
+     * Obtiene la cola de auditoría, arrancando el hilo escritor la primera vez.
+     *
+     * @return cola de auditoría
+     */
+    public static synchronized ColaAuditoria getInstancia() {
+        if (instancia == null) {
+            instancia = new ColaAuditoria();
+        }
+        return instancia;
+    }
+
+    /**
+     * Encola un registro de auditoría. Si el búfer sigue lleno después de una
+     * espera breve, o la cola ya se cerró, el registro se escribe directamente.
+     *
+     * @param respaldo registro a guardar
+     * @return true si se encoló o se escribió, false si la escritura directa falló
+     */
+    public boolean encolar(Respaldo respaldo) {
+        try {
+            if (activo && cola.offer(respaldo, ESPERA_ENCOLAR_MS, TimeUnit.MILLISECONDS)) {
+                // Si la cola se cerró mientras tanto y nadie lo tomó, se escribe aquí;
+                // si ya lo tomó el vaciado final, lo escribe quien cierra
+                if (activo || !cola.remove(respaldo)) {
+                    return true;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return respaldoDAO.insertar(respaldo);
+    }
+
+    private void escribir() {
+        long espera = ESPERA_INICIAL_MS;
+
+        while (activo) {
+            try {
+                if (lote.isEmpty()) {
+                    juntarLote();
+                }
+                if (!lote.isEmpty()) {
+                    escribirLote();
+                    espera = ESPERA_INICIAL_MS;
+                }
+            } catch (SQLException e) {
+                System.err.println("No se pudo escribir la auditoría, reintento en " +
+                                   (espera / 1000) + " s: " + e.getMessage());
+                dormir(espera);
+                espera = Math.min(espera * 2, ESPERA_MAXIMA_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        escribirPendientes();
+    }
+
+    /**
+     * Último intento con el lote en curso y todo lo que quede en la cola.
+     */
+    private void escribirPendientes() {
+        cola.drainTo(lote);
+        if (!lote.isEmpty()) {
+            try {
+                escribirLote();
+            } catch (SQLException e) {
+                System.err.println("Se perdieron " + lote.size() + " registro(s) de auditoría al cerrar: " +
+                                   e.getMessage());
+                lote.clear();
+            }
+        }
+    }
+
+    /**
+     * Espera el primer registro y junta los que lleguen hasta completar el
+     * lote o agotar el tiempo de espera.
+     */
+    private void juntarLote() throws InterruptedException {
+        Respaldo primero = cola.poll(ESPERA_LOTE_MS, TimeUnit.MILLISECONDS);
+        if (primero == null) {
+            return;
+        }
+        lote.add(primero);
+
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ESPERA_LOTE_MS);
+        while (lote.size() < TAMANO_LOTE) {
+            cola.drainTo(lote, TAMANO_LOTE - lote.size());
+            long restante = limite - System.nanoTime();
+            if (lote.size() >= TAMANO_LOTE || restante <= 0) {
+                break;
+            }
+            Respaldo siguiente = cola.poll(restante, TimeUnit.NANOSECONDS);
+            if (siguiente == null) {
+                break;
+            }
+            lote.add(siguiente);
+        }
+    }
+
+    /**
+     * Inserta el lote en una transacción. Si la base de datos rechaza algún
+     * registro por sus datos, se insertan uno por uno y se descartan los inválidos.
+     *
+     * @throws SQLException si falla la conexión; el lote se conserva para reintentar
+     */
+    private void escribirLote() throws SQLException {
+        try (Connection conn = ConexionDB.obtenerConexion()) {
+            conn.setAutoCommit(false);
+            try {
+                respaldoDAO.insertarLote(conn, lote);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                if (esTransitorio(e)) {
+                    throw e;
+                }
+                conn.setAutoCommit(true);
+                escribirIndividualmente(conn);
+            }
+        }
+        lote.clear();
+    }
+
+    private void escribirIndividualmente(Connection conn) throws SQLException {
+        for (Respaldo respaldo : lote) {
+            try {
+                respaldoDAO.insertar(conn, respaldo);
+            } catch (SQLException e) {
+                if (esTransitorio(e)) {
+                    throw e;
+                }
+                System.err.println("Registro de auditoría rechazado (" + respaldo.getTipoOperacion() + "): " +
+                                   e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Errores de datos (clase 22) o de integridad (clase 23) no se corrigen
+     * reintentando; cualquier otro error se trata como falla de conexión.
+     */
+    private static boolean esTransitorio(SQLException e) {
+        String estado = e.getSQLState();
+        return estado == null || !(estado.startsWith("22") || estado.startsWith("23"));
+    }
+
+    private void dormir(long milisegundos) {
+        long limite = System.currentTimeMillis() + milisegundos;
+        try {
+            while (activo && System.currentTimeMillis() < limite) {
+                Thread.sleep(Math.max(1, Math.min(ESPERA_LOTE_MS, limite - System.currentTimeMillis())));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            activo = false;
+        }
+    }
+
+    /**
+     * Detiene el escritor, espera a que termine su lote y escribe en este hilo
+     * los registros que se encolaron mientras terminaba.
+     */
+    private void detener() {
+        activo = false;
+        try {
+            escritor.join(ESPERA_CIERRE_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (escritor.isAlive()) {
+            System.err.println("El escritor de auditoría no terminó; quedan " + cola.size() +
+                               " registro(s) sin escribir");
+            return;
+        }
+        escribirPendientes();
+    }
+}
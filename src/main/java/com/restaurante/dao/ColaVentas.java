@@ -0,0 +1,354 @@
+package com.restaurante.dao;
+
+import com.restaurante.dao.RegistroVentaDAO.VentaCompleta;
+import com.restaurante.model.Dinero;
+import com.restaurante.model.DetalleVenta;
+import com.restaurante.model.Ticket;
+import com.restaurante.model.Venta;
+import com.restaurante.util.ConexionDB;
+import com.restaurante.util.DiarioLocal;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.postgresql.util.PSQLException;
+import org.postgresql.util.ServerErrorMessage;
+
+/**
+ * Cola local de ventas pendientes de subir a Supabase.
+ *
+ * Cada venta se escribe primero en un diario local en
+ * {@code ~/posrest/diario-ventas}, forzado a disco, y la caja puede continuar
+ * de inmediato aunque no haya red. Un hilo replicador sube las ventas en lotes
+ * a la base de datos; si la conexión falla reintenta con espera creciente.
+ * Cada venta lleva un UUID generado en la terminal, así que un reintento
+ * después de un fallo a mitad de camino no la duplica.
+ *
+ * Una venta que la base de datos rechaza por sus datos (por ejemplo, un
+ * producto eliminado) se aparta en {@code rechazadas/} para revisión manual y
+ * no bloquea a las siguientes. Un folio repetido no es un error de datos: la
+ * venta ya se cobró, así que se sube con un folio nuevo.
+ */
+public final class ColaVentas {
+
+    private static final int TAMANO_SEGMENTO = 1024 * 1024;
+    private static final int TAMANO_LOTE = 50;
+    private static final long ESPERA_INICIAL_MS = 1_000;
+    private static final long ESPERA_MAXIMA_MS = 60_000;
+    private static final long ESPERA_INACTIVO_MS = 30_000;
+    // Versión 2 guarda los importes en centavos; la 1 los guardaba como double
+    private static final byte VERSION = 2;
+    private static final byte VERSION_DOUBLE = 1;
+    private static final String ESTADO_UNICO_DUPLICADO = "23505";
+    private static final int INTENTOS_FOLIO = 3;
+
+    private static ColaVentas instancia;
+
+    private final DiarioLocal diario;
+    private final Path directorioRechazadas;
+    private final RegistroVentaDAO registroVentaDAO;
+    private final TicketDAO ticketDAO;
+    private final Object aviso = new Object();
+    private final Object drenado = new Object();
+    private volatile boolean activo = true;
+    private final Thread replicador;
+
+    private ColaVentas() throws IOException {
+        Path directorio = Paths.get(System.getProperty("user.home"), "posrest", "diario-ventas");
+        this.diario = new DiarioLocal(directorio, TAMANO_SEGMENTO);
+        this.directorioRechazadas = directorio.resolve("rechazadas");
+        this.registroVentaDAO = new RegistroVentaDAO();
+        this.ticketDAO = new TicketDAO();
+
+        this.replicador = new Thread(this::replicar, "posrest-replicador-ventas");
+        this.replicador.setDaemon(true);
+        this.replicador.start();
+
+        ConexionDB.alCerrar(this::detener);
+    }
+
+    /**
+     * Obtiene la cola de ventas, abriéndola (y arrancando el replicador) la
+     * primera vez. Las ventas pendientes de una ejecución anterior se suben
+     * en cuanto haya conexión.
+     *
+     * @return cola de ventas de la terminal
+     * @throws IOException si no se puede abrir el diario local
+     */
+    public static synchronized ColaVentas getInstancia() throws IOException {
+        if (instancia == null) {
+            instancia = new ColaVentas();
+        }
+        return instancia;
+    }
+
+    /**
+     * Guarda la venta en el diario local y avisa al replicador.
+     * Al volver, la venta ya está en disco aunque todavía no esté en Supabase.
+     *
+     * @param venta venta completa; debe traer UUID de cliente y fechas
+     * @throws IOException si no se puede escribir en el diario
+     */
+    public void encolar(VentaCompleta venta) throws IOException {
+        if (venta.getVenta().getUuidCliente() == null) {
+            throw new IllegalArgumentException("La venta debe tener UUID de cliente");
+        }
+        diario.agregar(serializar(venta));
+
+        synchronized (aviso) {
+            aviso.notifyAll();
+        }
+    }
+
+    /**
+     * Indica si hay ventas que aún no se suben a la base de datos.
+     *
+     * @return true si hay ventas pendientes
+     */
+    public boolean hayPendientes() {
+        return diario.hayPendientes();
+    }
+
+    private void replicar() {
+        long espera = ESPERA_INICIAL_MS;
+
+        while (activo) {
+            try {
+                if (drenarLote()) {
+                    espera = ESPERA_INICIAL_MS;
+                    continue;
+                }
+                esperar(ESPERA_INACTIVO_MS);
+            } catch (SQLException e) {
+                System.err.println("Sin conexión para subir ventas pendientes, reintento en " +
+                                   (espera / 1000) + " s: " + e.getMessage());
+                esperar(espera);
+                espera = Math.min(espera * 2, ESPERA_MAXIMA_MS);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Error en el replicador de ventas: " + e.getMessage());
+                esperar(ESPERA_MAXIMA_MS);
+            }
+        }
+    }
+
+    /**
+     * Sube un lote de ventas pendientes.
+     *
+     * @return true si se procesó algún registro, false si no había pendientes
+     * @throws SQLException si falla la conexión (el lote queda pendiente)
+     * @throws IOException si falla el diario local
+     */
+    private boolean drenarLote() throws SQLException, IOException {
+        synchronized (drenado) {
+            List<DiarioLocal.Registro> registros = diario.leerPendientes(TAMANO_LOTE);
+            if (registros.isEmpty()) {
+                return false;
+            }
+
+            List<VentaCompleta> ventas = new ArrayList<>();
+            for (DiarioLocal.Registro registro : registros) {
+                try {
+                    ventas.add(deserializar(registro.getDatos()));
+                } catch (IOException e) {
+                    // Registro ilegible: apartarlo y procesar los anteriores
+                    return procesarIndividualmente(registros);
+                }
+            }
+
+            try {
+                registroVentaDAO.registrarLote(ventas);
+                diario.confirmar(registros.get(registros.size() - 1).getFin());
+                System.out.println("✓ " + ventas.size() + " venta(s) pendiente(s) subida(s) a la base de datos");
+                return true;
+            } catch (SQLException e) {
+                if (esTransitorio(e)) {
+                    throw e;
+                }
+                // Alguna venta del lote tiene datos inválidos: separar cuál
+                return procesarIndividualmente(registros);
+            }
+        }
+    }
+
+    private boolean procesarIndividualmente(List<DiarioLocal.Registro> registros)
+        throws SQLException, IOException {
+
+        for (DiarioLocal.Registro registro : registros) {
+            try {
+                registrarConFolioLibre(deserializar(registro.getDatos()));
+            } catch (SQLException e) {
+                if (esTransitorio(e)) {
+                    throw e;
+                }
+                rechazar(registro, e.getMessage());
+            } catch (IOException e) {
+                rechazar(registro, "registro ilegible: " + e.getMessage());
+            }
+            diario.confirmar(registro.getFin());
+        }
+        return true;
+    }
+
+    /**
+     * Registra una venta; si su folio ya lo tiene otro ticket (por ejemplo, de
+     * un bloque que otra terminal reclamó mientras esta no tenía conexión), le
+     * asigna un folio nuevo y reintenta.
+     */
+    private void registrarConFolioLibre(VentaCompleta venta) throws SQLException {
+        for (int intento = 1; ; intento++) {
+            try {
+                registroVentaDAO.registrar(venta.getVenta(), venta.getDetalles(), venta.getTicket());
+                return;
+            } catch (SQLException e) {
+                if (!esFolioDuplicado(e) || intento >= INTENTOS_FOLIO) {
+                    throw e;
+                }
+                String anterior = venta.getTicket().getFolio();
+                venta.getTicket().setFolio(ticketDAO.generarFolio());
+                System.err.println("✗ El folio " + anterior + " ya estaba registrado; la venta se sube con el folio " +
+                                   venta.getTicket().getFolio());
+            }
+        }
+    }
+
+    private static boolean esFolioDuplicado(SQLException e) {
+        if (!ESTADO_UNICO_DUPLICADO.equals(e.getSQLState()) || !(e instanceof PSQLException)) {
+            return false;
+        }
+        ServerErrorMessage detalle = ((PSQLException) e).getServerErrorMessage();
+        return detalle != null && "tickets".equals(detalle.getTable())
+            && detalle.getConstraint() != null && detalle.getConstraint().contains("folio");
+    }
+
+    private void rechazar(DiarioLocal.Registro registro, String motivo) throws IOException {
+        Files.createDirectories(directorioRechazadas);
+        Path archivo = directorioRechazadas.resolve("venta-" + System.currentTimeMillis() + "-" +
+                                                    registro.getFin().getSegmento() + "-" +
+                                                    registro.getFin().getDesplazamiento() + ".bin");
+        Files.write(archivo, registro.getDatos());
+        System.err.println("✗ Venta rechazada por la base de datos, guardada en " + archivo + ": " + motivo);
+    }
+
+    /**
+     * Errores de datos (clase 22) o de integridad (clase 23) no se corrigen
+     * reintentando; cualquier otro error se trata como falla de conexión.
+     */
+    private static boolean esTransitorio(SQLException e) {
+        String estado = e.getSQLState();
+        return estado == null || !(estado.startsWith("22") || estado.startsWith("23"));
+    }
+
+    private void esperar(long milisegundos) {
+        synchronized (aviso) {
+            try {
+                aviso.wait(milisegundos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                activo = false;
+            }
+        }
+    }
+
+    /**
+     * Detiene el replicador haciendo un último intento de subir lo pendiente.
+     * Lo que no se pueda subir queda en el diario para la próxima ejecución.
+     */
+    private void detener() {
+        activo = false;
+        synchronized (aviso) {
+            aviso.notifyAll();
+        }
+
+        try {
+            while (drenarLote()) {
+                // Seguir mientras haya pendientes y conexión
+            }
+        } catch (SQLException | IOException e) {
+            System.err.println("Quedan ventas pendientes en el diario local: " + e.getMessage());
+        }
+        diario.cerrar();
+    }
+
+    private static byte[] serializar(VentaCompleta ventaCompleta) throws IOException {
+        Venta venta = ventaCompleta.getVenta();
+        Ticket ticket = ventaCompleta.getTicket();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream salida = new DataOutputStream(bytes)) {
+            salida.writeByte(VERSION);
+            salida.writeUTF(venta.getUuidCliente());
+            salida.writeInt(venta.getIdUsuario());
+            salida.writeBoolean(venta.getIdMesa() != null);
+            salida.writeInt(venta.getIdMesa() != null ? venta.getIdMesa() : 0);
+            salida.writeLong(venta.getTotal().getCentavos());
+            salida.writeUTF(venta.getFechaVenta().toString());
+
+            salida.writeUTF(ticket.getFolio());
+            salida.writeLong(ticket.getTotal().getCentavos());
+            salida.writeLong(ticket.getCambio().getCentavos());
+            salida.writeUTF(ticket.getFechaEmision().toString());
+
+            salida.writeInt(ventaCompleta.getDetalles().size());
+            for (DetalleVenta detalle : ventaCompleta.getDetalles()) {
+                salida.writeInt(detalle.getIdProducto());
+                salida.writeInt(detalle.getCantidad());
+                salida.writeLong(detalle.getPrecioUnitario().getCentavos());
+                salida.writeLong(detalle.getSubtotal().getCentavos());
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static VentaCompleta deserializar(byte[] datos) throws IOException {
+        try (DataInputStream entrada = new DataInputStream(new ByteArrayInputStream(datos))) {
+            byte version = entrada.readByte();
+            if (version != VERSION && version != VERSION_DOUBLE) {
+                throw new IOException("Versión de registro desconocida: " + version);
+            }
+            boolean enCentavos = version == VERSION;
+
+            Venta venta = new Venta();
+            venta.setUuidCliente(entrada.readUTF());
+            venta.setIdUsuario(entrada.readInt());
+            boolean tieneMesa = entrada.readBoolean();
+            int idMesa = entrada.readInt();
+            venta.setIdMesa(tieneMesa ? idMesa : null);
+            venta.setTotal(leerImporte(entrada, enCentavos));
+            venta.setFechaVenta(LocalDateTime.parse(entrada.readUTF()));
+
+            Ticket ticket = new Ticket();
+            ticket.setFolio(entrada.readUTF());
+            ticket.setTotal(leerImporte(entrada, enCentavos));
+            ticket.setCambio(leerImporte(entrada, enCentavos));
+            ticket.setFechaEmision(LocalDateTime.parse(entrada.readUTF()));
+
+            int cantidadDetalles = entrada.readInt();
+            List<DetalleVenta> detalles = new ArrayList<>(cantidadDetalles);
+            for (int i = 0; i < cantidadDetalles; i++) {
+                detalles.add(new DetalleVenta(0, entrada.readInt(), entrada.readInt(),
+                                              leerImporte(entrada, enCentavos),
+                                              leerImporte(entrada, enCentavos)));
+            }
+
+            return new VentaCompleta(venta, detalles, ticket);
+        } catch (RuntimeException e) {
+            throw new IOException("Registro de venta inválido: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Lee un importe en centavos, o en double si el registro es de la versión
+     * anterior y quedó pendiente en el diario al actualizar.
+     */
+    private static Dinero leerImporte(DataInputStream entrada, boolean enCentavos) throws IOException {
+        return enCentavos ? Dinero.deCentavos(entrada.readLong()) : Dinero.de(entrada.readDouble());
+    }
+}
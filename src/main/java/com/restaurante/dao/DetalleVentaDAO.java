@@ -1,5 +1,6 @@
 package com.restaurante.dao;
 
+import com.restaurante.model.Dinero;
 import com.restaurante.model.DetalleVenta;
 import com.restaurante.util.ConexionDB;
 import java.sql.*;
@@ -11,6 +12,9 @@ import java.util.List;
  */
 public class DetalleVentaDAO {
     
+    /** Columnas de {@link SentenciasSQL#COLUMNAS_DETALLE}, en el orden en que las lee el mapeador. */
+    private static final IndiceColumnas COLUMNAS = new IndiceColumnas(SentenciasSQL.COLUMNAS_DETALLE);
+    
     /**
      * Inserta un nuevo detalle de venta en la base de datos.
      * 
@@ -18,8 +22,7 @@ public class DetalleVentaDAO {
      * @return true si se insertó correctamente, false en caso contrario
      */
     public boolean insertar(DetalleVenta detalle) {
-        String sql = "INSERT INTO detalle_ventas (id_venta, id_producto, cantidad, precio_unitario, subtotal) " +
-                     "VALUES (?, ?, ?, ?, ?)";
+        String sql = SentenciasSQL.DETALLE_INSERTAR;
         
         try (Connection conn = ConexionDB.obtenerConexion();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -27,8 +30,8 @@ public class DetalleVentaDAO {
             stmt.setInt(1, detalle.getIdVenta());
             stmt.setInt(2, detalle.getIdProducto());
             stmt.setInt(3, detalle.getCantidad());
-            stmt.setDouble(4, detalle.getPrecioUnitario());
-            stmt.setDouble(5, detalle.getSubtotal());
+            stmt.setBigDecimal(4, detalle.getPrecioUnitario().aBigDecimal());
+            stmt.setBigDecimal(5, detalle.getSubtotal().aBigDecimal());
             
             int filasAfectadas = stmt.executeUpdate();
             return filasAfectadas > 0;
@@ -46,28 +49,14 @@ public class DetalleVentaDAO {
      * @return true si todos se insertaron correctamente, false en caso contrario
      */
     public boolean insertarLote(List<DetalleVenta> detalles) {
-        String sql = "INSERT INTO detalle_ventas (id_venta, id_producto, cantidad, precio_unitario, subtotal) " +
-                     "VALUES (?, ?, ?, ?, ?)";
-        
         Connection conn = null;
         try {
             conn = ConexionDB.obtenerConexion();
             conn.setAutoCommit(false);
             
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                for (DetalleVenta detalle : detalles) {
-                    stmt.setInt(1, detalle.getIdVenta());
-                    stmt.setInt(2, detalle.getIdProducto());
-                    stmt.setInt(3, detalle.getCantidad());
-                    stmt.setDouble(4, detalle.getPrecioUnitario());
-                    stmt.setDouble(5, detalle.getSubtotal());
-                    stmt.addBatch();
-                }
-                
-                stmt.executeBatch();
-                conn.commit();
-                return true;
-            }
+            insertarLote(conn, detalles);
+            conn.commit();
+            return true;
             
         } catch (SQLException e) {
             System.err.println("Error al insertar lote de detalles: " + e.getMessage());
@@ -86,10 +75,41 @@ public class DetalleVentaDAO {
                 } catch (SQLException e) {
                     System.err.println("Error al restablecer autocommit: " + e.getMessage());
                 }
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    System.err.println("Error al devolver la conexión: " + e.getMessage());
+                }
             }
         }
     }
     
+    /**
+     * Inserta múltiples detalles de venta como un solo lote usando una conexión
+     * existente. No confirma ni revierte la transacción: eso le corresponde a
+     * quien administra la conexión.
+     * 
+     * @param conn conexión a utilizar; no se cierra
+     * @param detalles lista de detalles a insertar
+     * @throws SQLException si hay error al insertar
+     */
+    public void insertarLote(Connection conn, List<DetalleVenta> detalles) throws SQLException {
+        String sql = SentenciasSQL.DETALLE_INSERTAR;
+        
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (DetalleVenta detalle : detalles) {
+                stmt.setInt(1, detalle.getIdVenta());
+                stmt.setInt(2, detalle.getIdProducto());
+                stmt.setInt(3, detalle.getCantidad());
+                stmt.setBigDecimal(4, detalle.getPrecioUnitario().aBigDecimal());
+                stmt.setBigDecimal(5, detalle.getSubtotal().aBigDecimal());
+                stmt.addBatch();
+            }
+            
+            stmt.executeBatch();
+        }
+    }
+    
     /**
      * Actualiza un detalle de venta existente.
      * 
@@ -97,8 +117,7 @@ public class DetalleVentaDAO {
      * @return true si se actualizó correctamente, false en caso contrario
      */
     public boolean actualizar(DetalleVenta detalle) {
-        String sql = "UPDATE detalle_ventas SET id_venta = ?, id_producto = ?, cantidad = ?, " +
-                     "precio_unitario = ?, subtotal = ? WHERE id = ?";
+        String sql = SentenciasSQL.DETALLE_ACTUALIZAR;
         
         try (Connection conn = ConexionDB.obtenerConexion();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -106,8 +125,8 @@ public class DetalleVentaDAO {
             stmt.setInt(1, detalle.getIdVenta());
             stmt.setInt(2, detalle.getIdProducto());
             stmt.setInt(3, detalle.getCantidad());
-            stmt.setDouble(4, detalle.getPrecioUnitario());
-            stmt.setDouble(5, detalle.getSubtotal());
+            stmt.setBigDecimal(4, detalle.getPrecioUnitario().aBigDecimal());
+            stmt.setBigDecimal(5, detalle.getSubtotal().aBigDecimal());
             stmt.setInt(6, detalle.getId());
             
             int filasAfectadas = stmt.executeUpdate();
@@ -126,7 +145,7 @@ public class DetalleVentaDAO {
      * @return true si se eliminó correctamente, false en caso contrario
      */
     public boolean eliminar(int id) {
-        String sql = "DELETE FROM detalle_ventas WHERE id = ?";
+        String sql = SentenciasSQL.DETALLE_ELIMINAR;
         
         try (Connection conn = ConexionDB.obtenerConexion();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -149,7 +168,7 @@ public class DetalleVentaDAO {
      * @return detalle encontrado, o null si no existe
      */
     public DetalleVenta buscarPorId(int id) {
-        String sql = "SELECT * FROM detalle_ventas WHERE id = ?";
+        String sql = SentenciasSQL.DETALLE_POR_ID;
         
         try (Connection conn = ConexionDB.obtenerConexion();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -157,8 +176,9 @@ public class DetalleVentaDAO {
             stmt.setInt(1, id);
             
             try (ResultSet rs = stmt.executeQuery()) {
+                int[] col = COLUMNAS.resolver(sql, rs);
                 if (rs.next()) {
-                    return extraerDetalle(rs);
+                    return extraerDetalle(rs, col);
                 }
             }
             
@@ -177,7 +197,7 @@ public class DetalleVentaDAO {
      */
     public List<DetalleVenta> obtenerPorVenta(int idVenta) {
         List<DetalleVenta> detalles = new ArrayList<>();
-        String sql = "SELECT * FROM detalle_ventas WHERE id_venta = ? ORDER BY id";
+        String sql = SentenciasSQL.DETALLE_POR_VENTA;
         
         try (Connection conn = ConexionDB.obtenerConexion();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -185,8 +205,9 @@ public class DetalleVentaDAO {
             stmt.setInt(1, idVenta);
             
             try (ResultSet rs = stmt.executeQuery()) {
+                int[] col = COLUMNAS.resolver(sql, rs);
                 while (rs.next()) {
-                    detalles.add(extraerDetalle(rs));
+                    detalles.add(extraerDetalle(rs, col));
                 }
             }
             
@@ -204,14 +225,15 @@ public class DetalleVentaDAO {
      */
     public List<DetalleVenta> obtenerTodos() {
         List<DetalleVenta> detalles = new ArrayList<>();
-        String sql = "SELECT * FROM detalle_ventas ORDER BY id_venta, id";
+        String sql = SentenciasSQL.DETALLE_TODOS;
         
         try (Connection conn = ConexionDB.obtenerConexion();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
+            int[] col = COLUMNAS.resolver(sql, rs);
             while (rs.next()) {
-                detalles.add(extraerDetalle(rs));
+                detalles.add(extraerDetalle(rs, col));
             }
             
         } catch (SQLException e) {
@@ -222,20 +244,21 @@ public class DetalleVentaDAO {
     }
     
     /**
-     * Extrae un objeto DetalleVenta desde un ResultSet.
+     * Extrae un objeto DetalleVenta desde un ResultSet, leyendo por posición.
      * 
      * @param rs ResultSet con datos del detalle
+     * @param col posiciones resueltas por {@link #COLUMNAS} para la consulta
      * @return objeto DetalleVenta
      * @throws SQLException si hay error al leer datos
      */
-    private DetalleVenta extraerDetalle(ResultSet rs) throws SQLException {
+    private static DetalleVenta extraerDetalle(ResultSet rs, int[] col) throws SQLException {
         DetalleVenta detalle = new DetalleVenta();
-        detalle.setId(rs.getInt("id"));
-        detalle.setIdVenta(rs.getInt("id_venta"));
-        detalle.setIdProducto(rs.getInt("id_producto"));
-        detalle.setCantidad(rs.getInt("cantidad"));
-        detalle.setPrecioUnitario(rs.getDouble("precio_unitario"));
-        detalle.setSubtotal(rs.getDouble("subtotal"));
+        detalle.setId(rs.getInt(col[0]));
+        detalle.setIdVenta(rs.getInt(col[1]));
+        detalle.setIdProducto(rs.getInt(col[2]));
+        detalle.setCantidad(rs.getInt(col[3]));
+        detalle.setPrecioUnitario(Dinero.de(rs.getBigDecimal(col[4])));
+        detalle.setSubtotal(Dinero.de(rs.getBigDecimal(col[5])));
         return detalle;
     }
 }
@@ -0,0 +1,245 @@
+package com.restaurante.dao;
+
+import com.restaurante.model.Usuario;
+import com.restaurante.util.BusCambios;
+import com.restaurante.util.EjecutorAsincrono;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Directorio en memoria de los usuarios, compartido por todo el proceso.
+ *
+ * La tabla {@code usuarios} es pequeña: se carga completa la primera vez y
+ * después se mantiene con los avisos de {@link BusCambios} (solo se lee la
+ * fila avisada) y con los cambios hechos desde esta terminal. Sirve para el
+ * inicio de sesión, las consultas de rol, la lista de usuarios y el cambio
+ * rápido de cajero con PIN sin consultar la base de datos.
+ *
+ * Los usuarios devueltos son copias; modificarlas no altera el directorio.
+ */
+public final class DirectorioUsuarios {
+
+    private static final DirectorioUsuarios INSTANCIA = new DirectorioUsuarios();
+
+    private final UsuarioDAO usuarioDAO;
+    private final Object carga = new Object();
+
+    private volatile Indice indice = null;
+
+    private DirectorioUsuarios() {
+        this.usuarioDAO = new UsuarioDAO();
+        BusCambios.getInstancia().suscribir("usuarios", this::aplicarCambio);
+    }
+
+    /**
+     * Obtiene la instancia única del directorio.
+     *
+     * @return directorio de usuarios
+     */
+    public static DirectorioUsuarios getInstancia() {
+        return INSTANCIA;
+    }
+
+    /**
+     * Obtiene todos los usuarios ordenados por ID.
+     *
+     * @return copias de los usuarios
+     */
+    public List<Usuario> obtenerTodos() {
+        List<Usuario> usuarios = new ArrayList<>();
+        for (Usuario u : indiceActual().todos) {
+            usuarios.add(copiar(u));
+        }
+        return usuarios;
+    }
+
+    /**
+     * Busca un usuario por su ID.
+     *
+     * @param id ID del usuario
+     * @return copia del usuario, o null si no existe
+     */
+    public Usuario buscarPorId(int id) {
+        Usuario u = indiceActual().porId.get(id);
+        return u != null ? copiar(u) : null;
+    }
+
+    /**
+     * Busca un usuario por su correo (sin distinguir mayúsculas).
+     *
+     * @param correo correo del usuario
+     * @return copia del usuario, o null si no existe
+     */
+    public Usuario buscarPorCorreo(String correo) {
+        Usuario u = indiceActual().porCorreo.get(correo.toLowerCase(Locale.ROOT));
+        return u != null ? copiar(u) : null;
+    }
+
+    /**
+     * Obtiene el rol vigente de un usuario.
+     *
+     * @param id ID del usuario
+     * @return rol en minúsculas, o null si el usuario ya no existe
+     */
+    public String obtenerRol(int id) {
+        Usuario u = indiceActual().porId.get(id);
+        return u != null ? u.getRol().toLowerCase(Locale.ROOT) : null;
+    }
+
+    /**
+     * Obtiene los usuarios que tienen PIN para el cambio rápido de cajero.
+     *
+     * @return copias de los usuarios con PIN, ordenados por nombre
+     */
+    public List<Usuario> obtenerConPin() {
+        List<Usuario> usuarios = new ArrayList<>();
+        for (Usuario u : indiceActual().todos) {
+            if (u.getPinHash() != null && !u.getPinHash().isEmpty()) {
+                usuarios.add(copiar(u));
+            }
+        }
+        usuarios.sort((a, b) -> a.getNombre().compareToIgnoreCase(b.getNombre()));
+        return usuarios;
+    }
+
+    /**
+     * Vuelve a leer un usuario modificado desde esta terminal.
+     *
+     * @param id ID del usuario
+     */
+    public void actualizarLocal(int id) {
+        Usuario u = usuarioDAO.buscarPorId(id);
+        synchronized (carga) {
+            if (indice == null) {
+                return;
+            }
+            Map<Integer, Usuario> usuarios = new HashMap<>(indice.porId);
+            if (u != null) {
+                usuarios.put(id, u);
+            } else {
+                usuarios.remove(id);
+            }
+            indice = new Indice(usuarios);
+            InstantaneaReferencia.getInstancia().programarEscritura();
+        }
+    }
+
+    /**
+     * Recarga el directorio completo; se usa al crear usuarios, porque el ID
+     * lo asigna la base de datos.
+     */
+    public void recargar() {
+        synchronized (carga) {
+            cargarCompleto();
+        }
+    }
+
+    /**
+     * Llena el directorio con los usuarios de la instantánea local si todavía
+     * no se ha leído la base de datos.
+     *
+     * @param usuarios usuarios guardados
+     */
+    void sembrar(List<Usuario> usuarios) {
+        synchronized (carga) {
+            if (indice == null) {
+                Map<Integer, Usuario> porId = new HashMap<>();
+                for (Usuario u : usuarios) {
+                    porId.put(u.getId(), u);
+                }
+                indice = new Indice(porId);
+            }
+        }
+    }
+
+    /**
+     * @return usuarios del directorio sin consultar la base de datos, o null si aún no se cargan
+     */
+    List<Usuario> obtenerCargados() {
+        Indice actual = indice;
+        return actual != null ? actual.todos : null;
+    }
+
+    private Indice indiceActual() {
+        Indice actual = indice;
+        if (actual == null) {
+            synchronized (carga) {
+                if (indice == null) {
+                    cargarCompleto();
+                }
+                return indice;
+            }
+        }
+        return actual;
+    }
+
+    private void cargarCompleto() {
+        List<Usuario> leidos = usuarioDAO.obtenerTodos();
+        if (leidos.isEmpty() && indice != null) {
+            // Siempre hay al menos un usuario: la lectura falló, se conserva lo que había
+            return;
+        }
+        Map<Integer, Usuario> usuarios = new HashMap<>();
+        for (Usuario u : leidos) {
+            usuarios.put(u.getId(), u);
+        }
+        indice = new Indice(usuarios);
+        if (!usuarios.isEmpty()) {
+            InstantaneaReferencia.getInstancia().programarEscritura();
+        }
+    }
+
+    /**
+     * Aviso del bus: la lectura se hace fuera de su hilo.
+     */
+    private void aplicarCambio(BusCambios.Cambio cambio) {
+        if (indice == null) {
+            return;
+        }
+        if (cambio.getOperacion() == BusCambios.Operacion.RESINCRONIZAR) {
+            EjecutorAsincrono.ejecutar(() -> {
+                recargar();
+                return null;
+            });
+        } else {
+            EjecutorAsincrono.ejecutar(() -> {
+                actualizarLocal(cambio.getId());
+                return null;
+            });
+        }
+    }
+
+    private static Usuario copiar(Usuario u) {
+        Usuario copia = new Usuario(u.getId(), u.getNombre(), u.getCorreo(), u.getContraseñaHash(),
+                                    u.getRol(), u.getFechaCreacion());
+        copia.setPinHash(u.getPinHash());
+        return copia;
+    }
+
+    /**
+     * Índices inmutables del directorio; se reemplazan completos en cada cambio.
+     */
+    private static final class Indice {
+        private final Map<Integer, Usuario> porId;
+        private final Map<String, Usuario> porCorreo;
+        private final List<Usuario> todos;
+
+        private Indice(Map<Integer, Usuario> usuarios) {
+            List<Usuario> lista = new ArrayList<>(usuarios.values());
+            lista.sort((a, b) -> Integer.compare(a.getId(), b.getId()));
+
+            Map<String, Usuario> correos = new HashMap<>();
+            for (Usuario u : lista) {
+                correos.put(u.getCorreo().toLowerCase(Locale.ROOT), u);
+            }
+
+            this.porId = Collections.unmodifiableMap(usuarios);
+            this.porCorreo = Collections.unmodifiableMap(correos);
+            this.todos = Collections.unmodifiableList(lista);
+        }
+    }
+}
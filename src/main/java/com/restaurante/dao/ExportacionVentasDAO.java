@@ -0,0 +1,458 @@
+package com.restaurante.dao;
+
+import com.restaurante.model.Dinero;
+import com.restaurante.util.ConexionDB;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exportación del historial de ventas con su detalle, un renglón vendido por
+ * fila, para contabilidad.
+ *
+ * Las filas se leen con un cursor del servidor de {@value #FILAS_POR_LECTURA}
+ * en {@value #FILAS_POR_LECTURA} y se escriben conforme llegan sobre un canal
+ * NIO, así que la memoria usada no depende del tamaño del período. Se escribe
+ * primero en un archivo temporal: un error o una cancelación no dejan el
+ * destino a medias.
+ *
+ * <h3>Formato columnar ({@code .vcol})</h3>
+ * Todo el archivo va comprimido con gzip. Dentro:
+ * <ul>
+ *   <li>Firma {@code POSVCOL1} (8 bytes ASCII).</li>
+ *   <li>Cantidad de columnas y, por columna, su nombre (longitud y bytes
+ *       UTF-8) y un byte de tipo: 1 entero, 2 fecha, 3 centavos, 4 texto.</li>
+ *   <li>Grupos de hasta {@value #FILAS_POR_GRUPO} filas: cantidad de filas y,
+ *       por columna en el orden del encabezado, la longitud en bytes del
+ *       bloque seguida del bloque. Un grupo con 0 filas marca el final y va
+ *       seguido del total de filas del archivo.</li>
+ * </ul>
+ * Los bloques de enteros, fechas y centavos guardan por fila la diferencia
+ * con la fila anterior del grupo (la primera contra 0) en zigzag. Las fechas
+ * son microsegundos desde 1970-01-01T00:00 en la hora local de la base y los
+ * importes, centavos; {@code id_mesa} vale 0 en las ventas sin mesa. Los
+ * bloques de texto guardan primero el diccionario del grupo (cantidad de
+ * valores y cada valor como longitud y bytes UTF-8) y luego, por fila, el
+ * índice del valor. Todos los números son varint sin signo de 7 bits por
+ * byte, el menos significativo primero.
+ *
+ * <h3>Formato CSV ({@code .csv})</h3>
+ * UTF-8 con encabezado y las mismas columnas, para abrir en una hoja de
+ * cálculo. Es bastante más grande que el columnar.
+ */
+public class ExportacionVentasDAO {
+
+    static final int FILAS_POR_LECTURA = 1000;
+    static final int FILAS_POR_GRUPO = 8192;
+    private static final int TAMANO_BLOQUE = 64 * 1024;
+
+    private static final IndiceColumnas COLUMNAS = new IndiceColumnas(SentenciasSQL.COLUMNAS_EXPORTACION);
+    private static final String[] NOMBRES = SentenciasSQL.COLUMNAS_EXPORTACION.split("\\s*,\\s*");
+
+    /**
+     * Formatos de archivo disponibles.
+     */
+    public enum Formato {
+        COLUMNAR(".vcol"),
+        CSV(".csv");
+
+        private final String extension;
+
+        Formato(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    /**
+     * Seguimiento de una exportación. Se consulta desde el hilo que exporta,
+     * cada {@value #FILAS_POR_LECTURA} filas.
+     */
+    public interface Progreso {
+
+        /**
+         * @param filas filas escritas hasta ahora
+         * @param total filas del período, contadas al empezar
+         */
+        void avanzar(long filas, long total);
+
+        /**
+         * @return true para detener la exportación
+         */
+        boolean cancelado();
+    }
+
+    /**
+     * Exporta las ventas de un período con su detalle.
+     *
+     * @param fechaInicio inicio del período, o null para no acotar
+     * @param fechaFin fin del período, o null para no acotar
+     * @param formato formato del archivo
+     * @param archivo archivo de destino; se reemplaza si existe
+     * @param progreso seguimiento y cancelación
+     * @return cantidad de filas exportadas
+     * @throws IOException si no se puede escribir el archivo
+     * @throws SQLException si hay error al leer las ventas
+     * @throws CancellationException si se canceló; el destino no se modifica
+     */
+    public long exportar(LocalDateTime fechaInicio, LocalDateTime fechaFin, Formato formato, Path archivo,
+                         Progreso progreso) throws IOException, SQLException {
+        String filtro = VentaDAO.filtroFechas(fechaInicio, fechaFin);
+        String sql = SentenciasSQL.EXPORTACION_RENGLONES + filtro + SentenciasSQL.EXPORTACION_ORDEN;
+        Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+
+        try {
+            long filas = 0;
+            try (Connection conn = ConexionDB.obtenerConexion();
+                 FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+                 Escritor escritor = formato == Formato.COLUMNAR
+                     ? new EscritorColumnar(Channels.newOutputStream(canal))
+                     : new EscritorCsv(Channels.newOutputStream(canal))) {
+
+                // PostgreSQL solo usa el cursor con el tamaño de lectura dentro de una transacción
+                conn.setAutoCommit(false);
+                long total = contar(conn, SentenciasSQL.EXPORTACION_CONTAR + filtro, fechaInicio, fechaFin);
+                progreso.avanzar(0, total);
+
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setFetchSize(FILAS_POR_LECTURA);
+                    VentaDAO.asignarFechas(stmt, 1, fechaInicio, fechaFin);
+
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        int[] col = COLUMNAS.resolver(sql, rs);
+                        Fila fila = new Fila();
+                        while (rs.next()) {
+                            fila.leer(rs, col);
+                            escritor.agregar(fila);
+                            filas++;
+                            if (filas % FILAS_POR_LECTURA == 0) {
+                                if (progreso.cancelado()) {
+                                    throw new CancellationException("Exportación cancelada");
+                                }
+                                progreso.avanzar(filas, Math.max(total, filas));
+                            }
+                        }
+                    }
+                }
+
+                escritor.terminar(filas);
+                conn.commit();
+                progreso.avanzar(filas, Math.max(total, filas));
+            }
+            Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING);
+            return filas;
+        } finally {
+            Files.deleteIfExists(temporal);
+        }
+    }
+
+    private static long contar(Connection conn, String sql, LocalDateTime fechaInicio, LocalDateTime fechaFin)
+        throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            VentaDAO.asignarFechas(stmt, 1, fechaInicio, fechaFin);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    // ==================== FILAS ====================
+
+    /**
+     * Fila leída del cursor; se reutiliza para todas las filas.
+     */
+    private static final class Fila {
+        private int idVenta;
+        private LocalDateTime fechaVenta;
+        private int idUsuario;
+        private int idMesa;
+        private long totalVenta;
+        private int idDetalle;
+        private int idProducto;
+        private String producto;
+        private int cantidad;
+        private long precioUnitario;
+        private long subtotal;
+
+        private void leer(ResultSet rs, int[] col) throws SQLException {
+            idVenta = rs.getInt(col[0]);
+            fechaVenta = rs.getObject(col[1], LocalDateTime.class);
+            idUsuario = rs.getInt(col[2]);
+            idMesa = rs.getInt(col[3]);
+            totalVenta = Dinero.de(rs.getBigDecimal(col[4])).getCentavos();
+            idDetalle = rs.getInt(col[5]);
+            idProducto = rs.getInt(col[6]);
+            producto = rs.getString(col[7]);
+            cantidad = rs.getInt(col[8]);
+            precioUnitario = Dinero.de(rs.getBigDecimal(col[9])).getCentavos();
+            subtotal = Dinero.de(rs.getBigDecimal(col[10])).getCentavos();
+        }
+    }
+
+    private abstract static class Escritor implements Closeable {
+        abstract void agregar(Fila fila) throws IOException;
+
+        abstract void terminar(long filas) throws IOException;
+    }
+
+    // ==================== FORMATO COLUMNAR ====================
+
+    private static final class EscritorColumnar extends Escritor {
+        private static final byte[] FIRMA = "POSVCOL1".getBytes(StandardCharsets.US_ASCII);
+        private static final byte ENTERO = 1;
+        private static final byte FECHA = 2;
+        private static final byte CENTAVOS = 3;
+        private static final byte TEXTO = 4;
+        private static final byte[] TIPOS = {
+            ENTERO, FECHA, ENTERO, ENTERO, CENTAVOS, ENTERO, ENTERO, TEXTO, ENTERO, CENTAVOS, CENTAVOS
+        };
+        private static final int COLUMNA_PRODUCTO = 7;
+
+        private final OutputStream salida;
+        private final long[][] numeros = new long[TIPOS.length][FILAS_POR_GRUPO];
+        private final String[] textos = new String[FILAS_POR_GRUPO];
+        private final Bloque bloque = new Bloque();
+        private final Map<String, Integer> diccionario = new HashMap<>();
+        private final List<String> valores = new ArrayList<>();
+        private int enGrupo = 0;
+
+        private EscritorColumnar(OutputStream destino) throws IOException {
+            this.salida = new GZIPOutputStream(destino, TAMANO_BLOQUE);
+            salida.write(FIRMA);
+            bloque.varint(NOMBRES.length);
+            for (int i = 0; i < NOMBRES.length; i++) {
+                bloque.texto(NOMBRES[i]);
+                bloque.byteSimple(TIPOS[i]);
+            }
+            bloque.escribirEn(salida);
+        }
+
+        @Override
+        void agregar(Fila fila) throws IOException {
+            int i = enGrupo;
+            numeros[0][i] = fila.idVenta;
+            numeros[1][i] = fila.fechaVenta.toEpochSecond(ZoneOffset.UTC) * 1_000_000L
+                            + fila.fechaVenta.getNano() / 1000;
+            numeros[2][i] = fila.idUsuario;
+            numeros[3][i] = fila.idMesa;
+            numeros[4][i] = fila.totalVenta;
+            numeros[5][i] = fila.idDetalle;
+            numeros[6][i] = fila.idProducto;
+            textos[i] = fila.producto;
+            numeros[8][i] = fila.cantidad;
+            numeros[9][i] = fila.precioUnitario;
+            numeros[10][i] = fila.subtotal;
+
+            if (++enGrupo == FILAS_POR_GRUPO) {
+                escribirGrupo();
+            }
+        }
+
+        @Override
+        void terminar(long filas) throws IOException {
+            if (enGrupo > 0) {
+                escribirGrupo();
+            }
+            bloque.varint(0);
+            bloque.varint(filas);
+            bloque.escribirEn(salida);
+            salida.flush();
+        }
+
+        private void escribirGrupo() throws IOException {
+            bloque.varint(enGrupo);
+            bloque.escribirEn(salida);
+
+            for (int c = 0; c < TIPOS.length; c++) {
+                if (c == COLUMNA_PRODUCTO) {
+                    codificarTextos();
+                } else {
+                    codificarNumeros(numeros[c]);
+                }
+                // Con la longitud por delante se pueden saltar las columnas que no se leen
+                bloque.escribirConLongitudEn(salida);
+            }
+
+            Arrays.fill(textos, 0, enGrupo, null);
+            enGrupo = 0;
+        }
+
+        private void codificarNumeros(long[] columna) {
+            long anterior = 0;
+            for (int i = 0; i < enGrupo; i++) {
+                long diferencia = columna[i] - anterior;
+                bloque.varint((diferencia << 1) ^ (diferencia >> 63));
+                anterior = columna[i];
+            }
+        }
+
+        private void codificarTextos() {
+            diccionario.clear();
+            valores.clear();
+            for (int i = 0; i < enGrupo; i++) {
+                if (diccionario.putIfAbsent(textos[i], valores.size()) == null) {
+                    valores.add(textos[i]);
+                }
+            }
+            bloque.varint(valores.size());
+            for (String valor : valores) {
+                bloque.texto(valor);
+            }
+            for (int i = 0; i < enGrupo; i++) {
+                bloque.varint(diccionario.get(textos[i]));
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            salida.close();
+        }
+    }
+
+    /**
+     * Búfer de bytes reutilizable donde se codifica cada bloque.
+     */
+    private static final class Bloque {
+        private final byte[] prefijo = new byte[10];
+        private byte[] datos = new byte[TAMANO_BLOQUE];
+        private int longitud = 0;
+
+        private void varint(long valor) {
+            asegurar(10);
+            while ((valor & ~0x7FL) != 0) {
+                datos[longitud++] = (byte) ((valor & 0x7F) | 0x80);
+                valor >>>= 7;
+            }
+            datos[longitud++] = (byte) valor;
+        }
+
+        private void texto(String valor) {
+            byte[] bytes = valor.getBytes(StandardCharsets.UTF_8);
+            varint(bytes.length);
+            asegurar(bytes.length);
+            System.arraycopy(bytes, 0, datos, longitud, bytes.length);
+            longitud += bytes.length;
+        }
+
+        private void byteSimple(byte valor) {
+            asegurar(1);
+            datos[longitud++] = valor;
+        }
+
+        private void escribirEn(OutputStream salida) throws IOException {
+            salida.write(datos, 0, longitud);
+            longitud = 0;
+        }
+
+        private void escribirConLongitudEn(OutputStream salida) throws IOException {
+            int n = 0;
+            long valor = longitud;
+            while ((valor & ~0x7FL) != 0) {
+                prefijo[n++] = (byte) ((valor & 0x7F) | 0x80);
+                valor >>>= 7;
+            }
+            prefijo[n++] = (byte) valor;
+            salida.write(prefijo, 0, n);
+            escribirEn(salida);
+        }
+
+        private void asegurar(int adicionales) {
+            if (longitud + adicionales > datos.length) {
+                datos = Arrays.copyOf(datos, Math.max(datos.length * 2, longitud + adicionales));
+            }
+        }
+    }
+
+    // ==================== FORMATO CSV ====================
+
+    private static final class EscritorCsv extends Escritor {
+        private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+        private final Writer salida;
+        private final StringBuilder renglon = new StringBuilder(256);
+
+        private EscritorCsv(OutputStream destino) throws IOException {
+            this.salida = new BufferedWriter(new OutputStreamWriter(destino, StandardCharsets.UTF_8), TAMANO_BLOQUE);
+            salida.write(String.join(",", NOMBRES));
+            salida.write('\n');
+        }
+
+        @Override
+        void agregar(Fila fila) throws IOException {
+            renglon.setLength(0);
+            renglon.append(fila.idVenta).append(',');
+            FORMATO_FECHA.formatTo(fila.fechaVenta, renglon);
+            renglon.append(',').append(fila.idUsuario).append(',');
+            if (fila.idMesa != 0) {
+                renglon.append(fila.idMesa);
+            }
+            renglon.append(',');
+            agregarCentavos(fila.totalVenta).append(',');
+            renglon.append(fila.idDetalle).append(',').append(fila.idProducto).append(',');
+            agregarTexto(fila.producto).append(',');
+            renglon.append(fila.cantidad).append(',');
+            agregarCentavos(fila.precioUnitario).append(',');
+            agregarCentavos(fila.subtotal).append('\n');
+            salida.append(renglon);
+        }
+
+        @Override
+        void terminar(long filas) throws IOException {
+            salida.flush();
+        }
+
+        private StringBuilder agregarCentavos(long centavos) {
+            long resto = centavos % 100;
+            renglon.append(centavos / 100).append('.');
+            if (resto < 10) {
+                renglon.append('0');
+            }
+            return renglon.append(resto);
+        }
+
+        private StringBuilder agregarTexto(String texto) {
+            renglon.append('"');
+            for (int i = 0; i < texto.length(); i++) {
+                char c = texto.charAt(i);
+                if (c == '"') {
+                    renglon.append('"');
+                }
+                renglon.append(c);
+            }
+            return renglon.append('"');
+        }
+
+        @Override
+        public void close() throws IOException {
+            salida.close();
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.restaurante.dao;
+
+import com.restaurante.util.ConexionDB;
+import java.sql.*;
+import java.time.LocalDate;
+
+/**
+ * DAO para reservar bloques de folios de tickets.
+ *
+ * El contador diario vive en la tabla {@code folios_diarios}; cada reserva
+ * incrementa el contador con un UPSERT atómico, de modo que dos terminales
+ * nunca obtienen el mismo rango. Los rangos entregados se registran en
+ * {@code bloques_folio} con una vigencia (lease) para poder reclamar la parte
+ * no usada si la terminal desaparece.
+ */
+public class FolioDAO {
+
+    /**
+     * Rango de folios reservado para una terminal.
+     */
+    public static final class BloqueFolios {
+        private final int id;
+        private final LocalDate fecha;
+        private final int inicio;
+        private final int fin;
+
+        public BloqueFolios(int id, LocalDate fecha, int inicio, int fin) {
+            this.id = id;
+            this.fecha = fecha;
+            this.inicio = inicio;
+            this.fin = fin;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public LocalDate getFecha() {
+            return fecha;
+        }
+
+        public int getInicio() {
+            return inicio;
+        }
+
+        public int getFin() {
+            return fin;
+        }
+    }
+
+    /**
+     * Reserva un bloque para la terminal: primero intenta reclamar un bloque
+     * vencido del mismo día y, si no hay, reserva un rango nuevo del contador.
+     *
+     * @param fecha día de los folios
+     * @param tamano cantidad de folios del bloque nuevo
+     * @param terminal identificador de la terminal
+     * @param vigenciaMinutos minutos de vigencia del bloque
+     * @return bloque reservado
+     * @throws SQLException si hay error al reservar
+     */
+    public BloqueFolios reservarBloque(LocalDate fecha, int tamano, String terminal, int vigenciaMinutos)
+        throws SQLException {
+
+        try (Connection conn = ConexionDB.obtenerConexion()) {
+            conn.setAutoCommit(false);
+            try {
+                BloqueFolios bloque = reclamarBloqueVencido(conn, fecha, terminal, vigenciaMinutos);
+                if (bloque == null) {
+                    bloque = reservarRangoNuevo(conn, fecha, tamano, terminal, vigenciaMinutos);
+                }
+                conn.commit();
+                return bloque;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Extiende la vigencia de un bloque en uso.
+     *
+     * @param idBloque ID del bloque
+     * @param terminal terminal dueña del bloque
+     * @param vigenciaMinutos minutos de vigencia a partir de ahora
+     * @return true si el bloque sigue perteneciendo a la terminal, false si ya
+     *         venció y otra terminal lo reclamó
+     * @throws SQLException si hay error al renovar
+     */
+    public boolean renovarBloque(int idBloque, String terminal, int vigenciaMinutos) throws SQLException {
+        String sql = SentenciasSQL.BLOQUE_RENOVAR;
+
+        try (Connection conn = ConexionDB.obtenerConexion();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, vigenciaMinutos);
+            stmt.setInt(2, idBloque);
+            stmt.setString(3, terminal);
+
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    /**
+     * Devuelve la parte no usada de un bloque para que otra terminal la reclame.
+     *
+     * @param idBloque ID del bloque
+     * @param terminal terminal dueña del bloque
+     * @param siguiente primer folio que no se llegó a emitir
+     * @return true si se liberó correctamente
+     */
+    public boolean liberarBloque(int idBloque, String terminal, int siguiente) {
+        String sqlLiberar = SentenciasSQL.BLOQUE_LIBERAR;
+        String sqlAgotado = SentenciasSQL.BLOQUE_ELIMINAR_AGOTADO;
+
+        try (Connection conn = ConexionDB.obtenerConexion();
+             PreparedStatement liberar = conn.prepareStatement(sqlLiberar);
+             PreparedStatement agotado = conn.prepareStatement(sqlAgotado)) {
+
+            liberar.setInt(1, siguiente);
+            liberar.setInt(2, idBloque);
+            liberar.setString(3, terminal);
+            liberar.setInt(4, siguiente);
+
+            agotado.setInt(1, idBloque);
+            agotado.setString(2, terminal);
+            agotado.setInt(3, siguiente);
+
+            return liberar.executeUpdate() + agotado.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            System.err.println("Error al liberar bloque de folios: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Formatea un folio con el formato "TICK-YYYYMMDD-NNNN".
+     *
+     * @param fecha día del folio
+     * @param consecutivo número consecutivo del día
+     * @return folio formateado
+     */
+    public static String formatearFolio(LocalDate fecha, int consecutivo) {
+        String dia = fecha.toString().replace("-", "");
+        return String.format("TICK-%s-%04d", dia, consecutivo);
+    }
+
+    private BloqueFolios reclamarBloqueVencido(Connection conn, LocalDate fecha, String terminal,
+                                               int vigenciaMinutos) throws SQLException {
+        String sqlBuscar = SentenciasSQL.BLOQUE_BUSCAR_VENCIDO;
+
+        while (true) {
+            int id;
+            int inicio;
+            int fin;
+
+            try (PreparedStatement stmt = conn.prepareStatement(sqlBuscar)) {
+                stmt.setDate(1, Date.valueOf(fecha));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (!rs.next()) {
+                        return null;
+                    }
+                    id = rs.getInt("id");
+                    inicio = rs.getInt("inicio");
+                    fin = rs.getInt("fin");
+                }
+            }
+
+            // La terminal anterior pudo emitir folios sin liberar el bloque:
+            // continuar después del mayor folio ya guardado en tickets.
+            int siguiente = Math.max(inicio, ultimoFolioEmitido(conn, fecha, inicio, fin) + 1);
+
+            if (siguiente > fin) {
+                try (PreparedStatement stmt = conn.prepareStatement(SentenciasSQL.BLOQUE_ELIMINAR)) {
+                    stmt.setInt(1, id);
+                    stmt.executeUpdate();
+                }
+                continue;
+            }
+
+            String sqlTomar = SentenciasSQL.BLOQUE_TOMAR;
+            try (PreparedStatement stmt = conn.prepareStatement(sqlTomar)) {
+                stmt.setInt(1, siguiente);
+                stmt.setString(2, terminal);
+                stmt.setInt(3, vigenciaMinutos);
+                stmt.setInt(4, id);
+                stmt.executeUpdate();
+            }
+
+            return new BloqueFolios(id, fecha, siguiente, fin);
+        }
+    }
+
+    private int ultimoFolioEmitido(Connection conn, LocalDate fecha, int inicio, int fin) throws SQLException {
+        // Prefijo del día sobre folio: aprovecha idx_tickets_folio (text_pattern_ops)
+        String sql = SentenciasSQL.FOLIO_ULTIMO_EMITIDO;
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, "TICK-" + fecha.toString().replace("-", "") + "-%");
+            stmt.setInt(2, inicio);
+            stmt.setInt(3, fin);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    int ultimo = rs.getInt("ultimo");
+                    if (!rs.wasNull()) {
+                        return ultimo;
+                    }
+                }
+            }
+        }
+
+        return inicio - 1;
+    }
+
+    /**
+     * Crea la fila del día si no existe, partiendo del mayor folio ya emitido
+     * ese día (por ejemplo, folios generados antes de existir el contador).
+     */
+    private void inicializarContador(Connection conn, LocalDate fecha) throws SQLException {
+        String sql = SentenciasSQL.FOLIO_INICIALIZAR_CONTADOR;
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setDate(1, Date.valueOf(fecha));
+            stmt.setInt(2, ultimoFolioEmitido(conn, fecha, 1, 9999));
+            stmt.executeUpdate();
+        }
+    }
+
+    private BloqueFolios reservarRangoNuevo(Connection conn, LocalDate fecha, int tamano, String terminal,
+                                           int vigenciaMinutos) throws SQLException {
+        // UPSERT atómico: la fila del día se bloquea durante el incremento
+        String sqlContador = SentenciasSQL.FOLIO_INCREMENTAR_CONTADOR;
+        String sqlBloque = SentenciasSQL.BLOQUE_INSERTAR;
+
+        inicializarContador(conn, fecha);
+
+        int fin;
+        try (PreparedStatement stmt = conn.prepareStatement(sqlContador)) {
+            stmt.setDate(1, Date.valueOf(fecha));
+            stmt.setInt(2, tamano);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                fin = rs.getInt("ultimo");
+            }
+        }
+        int inicio = fin - tamano + 1;
+
+        try (PreparedStatement stmt = conn.prepareStatement(sqlBloque)) {
+            stmt.setDate(1, Date.valueOf(fecha));
+            stmt.setInt(2, inicio);
+            stmt.setInt(3, fin);
+            stmt.setString(4, terminal);
+            stmt.setInt(5, vigenciaMinutos);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return new BloqueFolios(rs.getInt("id"), fecha, inicio, fin);
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.restaurante.dao;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Posiciones de las columnas que lee un mapeador {@code extraer*}, resueltas
+ * una sola vez por consulta.
+ *
+ * La primera ejecución de cada texto SQL busca las columnas por nombre en los
+ * {@link ResultSetMetaData}; las siguientes, en cualquier conexión, reciben el
+ * mismo arreglo de posiciones y el mapeador lee cada fila por índice, sin
+ * buscar nombres. Las consultas salen de {@link SentenciasSQL} o de las
+ * combinaciones fijas de filtros de los DAO, así que la cantidad de textos
+ * distintos es acotada.
+ *
+ * El arreglo devuelto sigue el orden de las columnas recibidas en el
+ * constructor y no debe modificarse.
+ */
+public final class IndiceColumnas {
+
+    private final String[] columnas;
+    private final Map<String, int[]> porConsulta = new ConcurrentHashMap<>();
+
+    /**
+     * @param columnas columnas separadas por comas, en el orden en que las lee
+     *                 el mapeador (por ejemplo {@link SentenciasSQL#COLUMNAS_VENTA})
+     */
+    public IndiceColumnas(String columnas) {
+        this.columnas = columnas.split("\\s*,\\s*");
+    }
+
+    /**
+     * Obtiene las posiciones de las columnas en el resultado de una consulta.
+     *
+     * @param sql texto de la consulta que produjo el resultado
+     * @param rs resultado de la consulta
+     * @return posiciones (base 1) de las columnas, en el orden del constructor
+     * @throws SQLException si falta alguna columna en el resultado
+     */
+    public int[] resolver(String sql, ResultSet rs) throws SQLException {
+        int[] posiciones = porConsulta.get(sql);
+        if (posiciones == null) {
+            posiciones = resolver(rs.getMetaData());
+            porConsulta.putIfAbsent(sql, posiciones);
+        }
+        return posiciones;
+    }
+
+    private int[] resolver(ResultSetMetaData metadatos) throws SQLException {
+        int total = metadatos.getColumnCount();
+        String[] etiquetas = new String[total];
+        for (int i = 0; i < total; i++) {
+            etiquetas[i] = metadatos.getColumnLabel(i + 1);
+        }
+
+        int[] posiciones = new int[columnas.length];
+        for (int i = 0; i < columnas.length; i++) {
+            posiciones[i] = buscar(etiquetas, columnas[i], i);
+        }
+        return posiciones;
+    }
+
+    private static int buscar(String[] etiquetas, String columna, int sugerida) throws SQLException {
+        // Con las listas de SentenciasSQL la columna está en la misma posición
+        if (sugerida < etiquetas.length && columna.equalsIgnoreCase(etiquetas[sugerida])) {
+            return sugerida + 1;
+        }
+        for (int i = 0; i < etiquetas.length; i++) {
+            if (columna.equalsIgnoreCase(etiquetas[i])) {
+                return i + 1;
+            }
+        }
+        throw new SQLException("La consulta no devuelve la columna " + columna);
+    }
+}
@@ -0,0 +1,405 @@
+package com.restaurante.dao;
+
+import com.restaurante.model.Dinero;
+import com.restaurante.model.Mesa;
+import com.restaurante.model.Producto;
+import com.restaurante.model.Usuario;
+import com.restaurante.util.Credenciales;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.AclEntry;
+import java.nio.file.attribute.AclEntryPermission;
+import java.nio.file.attribute.AclEntryType;
+import java.nio.file.attribute.AclFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
+
+/**
+ * Instantánea local de las tablas de referencia ({@code productos},
+ * {@code mesas} y {@code usuarios}) para arrancar sin esperar a la base de
+ * datos.
+ *
+ * Al iniciar, {@link #cargar()} mapea en memoria el archivo más reciente y
+ * llena con él {@link CatalogoProductos}, {@link DirectorioUsuarios} y la
+ * lista de mesas, así que la interfaz se puede usar de inmediato. Cuando la
+ * base responde, {@link #reconciliar()} trae los cambios y la instantánea se
+ * vuelve a escribir; también se reescribe, agrupando cambios cercanos, cada
+ * vez que las cachés se sincronizan con la base.
+ *
+ * Hay dos archivos ({@code referencia-a.snap} y {@code referencia-b.snap}) y
+ * se escribe siempre en el que no se cargó al iniciar: el archivo mapeado no
+ * se modifica mientras está abierto, y si una escritura se interrumpe queda
+ * el otro. Formato: cabecera de 32 bytes (firma, versión, generación, fecha
+ * de escritura, longitud y CRC32 del contenido) seguida de los productos,
+ * las mesas y los usuarios. Un archivo con otra versión o con CRC inválido
+ * se borra.
+ *
+ * Solo se guardan los usuarios cuya contraseña ya tiene hash PBKDF2; los que
+ * siguen en texto plano deben iniciar sesión con conexión la primera vez. Los
+ * PIN no se guardan: con 4 a 6 dígitos su hash se puede romper probando todas
+ * las combinaciones, así que el cambio rápido de cajero necesita que el
+ * directorio se haya cargado de la base. El archivo solo lo puede leer el
+ * usuario del sistema (permisos POSIX o ACL de Windows).
+ */
+public final class InstantaneaReferencia {
+
+    private static final int MAGICO = 0x50534E50; // "PSNP"
+    /** Se incrementa al cambiar el contenido de los registros (2: sin PIN). */
+    private static final int VERSION = 2;
+    private static final int CABECERA = 32;
+    private static final String[] ARCHIVOS = {"referencia-a.snap", "referencia-b.snap"};
+    /** Espera para agrupar en una sola escritura los cambios cercanos. */
+    private static final long ESPERA_ESCRITURA_MS = 2_000;
+
+    private static final InstantaneaReferencia INSTANCIA = new InstantaneaReferencia();
+
+    private final Path directorio;
+    private final ScheduledExecutorService escritor;
+    private final AtomicBoolean escrituraPendiente = new AtomicBoolean(false);
+
+    private volatile List<Mesa> mesas = Collections.emptyList();
+    private int ranuraEscritura = 0;
+    private long generacion = 0;
+
+    private InstantaneaReferencia() {
+        this.directorio = Paths.get(System.getProperty("user.home"), "posrest", "instantanea");
+        this.escritor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "posrest-instantanea");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    /**
+     * Obtiene la instancia única.
+     *
+     * @return instantánea de referencia
+     */
+    public static InstantaneaReferencia getInstancia() {
+        return INSTANCIA;
+    }
+
+    /**
+     * Carga la instantánea más reciente en las cachés de productos y usuarios
+     * y en la lista de mesas.
+     *
+     * @return true si había una instantánea válida
+     */
+    public synchronized boolean cargar() {
+        int ranura = -1;
+        long mayor = -1;
+        for (int i = 0; i < ARCHIVOS.length; i++) {
+            Path archivo = directorio.resolve(ARCHIVOS[i]);
+            long gen = leerGeneracion(archivo);
+            if (gen < 0) {
+                // Versión anterior o dañado: puede tener datos que ya no se guardan
+                borrar(archivo);
+            } else if (gen > mayor) {
+                mayor = gen;
+                ranura = i;
+            }
+        }
+        if (ranura < 0) {
+            return false;
+        }
+        // El archivo queda mapeado hasta que se libere el buffer: se escribe en el otro
+        ranuraEscritura = 1 - ranura;
+
+        try (FileChannel canal = FileChannel.open(directorio.resolve(ARCHIVOS[ranura]), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            buffer.position(CABECERA);
+
+            List<Producto> productos = new ArrayList<>();
+            for (int i = buffer.getInt(); i > 0; i--) {
+                Producto p = new Producto(buffer.getInt(), leerTexto(buffer), leerTexto(buffer),
+                                          Dinero.deCentavos(buffer.getLong()), buffer.get() != 0, leerFecha(buffer));
+                p.setActualizadoEn(leerFecha(buffer));
+                productos.add(p);
+            }
+            List<Mesa> listaMesas = new ArrayList<>();
+            for (int i = buffer.getInt(); i > 0; i--) {
+                listaMesas.add(new Mesa(buffer.getInt(), buffer.getInt(), leerTexto(buffer)));
+            }
+            List<Usuario> usuarios = new ArrayList<>();
+            for (int i = buffer.getInt(); i > 0; i--) {
+                int id = buffer.getInt();
+                String nombre = leerTexto(buffer);
+                String correo = leerTexto(buffer);
+                String hash = leerTexto(buffer);
+                usuarios.add(new Usuario(id, nombre, correo, hash, leerTexto(buffer), leerFecha(buffer)));
+            }
+
+            CatalogoProductos.getInstancia().sembrar(productos);
+            DirectorioUsuarios.getInstancia().sembrar(usuarios);
+            mesas = Collections.unmodifiableList(listaMesas);
+            generacion = mayor;
+
+            System.out.println("✓ Instantánea local cargada: " + productos.size() + " productos, " +
+                               listaMesas.size() + " mesas, " + usuarios.size() + " usuarios");
+            return true;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("No se pudo leer la instantánea local: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Trae de la base de datos los cambios posteriores a la instantánea y la
+     * vuelve a escribir. Se llama en segundo plano cuando la base responde.
+     */
+    public void reconciliar() {
+        CatalogoProductos.getInstancia().invalidar();
+        DirectorioUsuarios.getInstancia().recargar();
+        List<Mesa> actuales = new MesaDAO().obtenerTodas();
+        if (!actuales.isEmpty()) {
+            actualizarMesas(actuales);
+        }
+        programarEscritura();
+    }
+
+    /**
+     * Obtiene las mesas guardadas, para mostrarlas mientras responde la base de datos.
+     *
+     * @return copias de las mesas; vacía si no hay instantánea
+     */
+    public List<Mesa> obtenerMesas() {
+        List<Mesa> copias = new ArrayList<>();
+        for (Mesa m : mesas) {
+            copias.add(new Mesa(m.getId(), m.getNumero(), m.getEstado()));
+        }
+        return copias;
+    }
+
+    /**
+     * Guarda la lista de mesas recién leída de la base de datos.
+     *
+     * @param actuales lista completa de mesas
+     */
+    public void actualizarMesas(List<Mesa> actuales) {
+        List<Mesa> copias = new ArrayList<>();
+        for (Mesa m : actuales) {
+            copias.add(new Mesa(m.getId(), m.getNumero(), m.getEstado()));
+        }
+        mesas = Collections.unmodifiableList(copias);
+        programarEscritura();
+    }
+
+    /**
+     * Pide escribir la instantánea con el estado actual de las cachés. Las
+     * peticiones que llegan mientras hay una escritura pendiente se agrupan.
+     */
+    void programarEscritura() {
+        if (escrituraPendiente.compareAndSet(false, true)) {
+            escritor.schedule(() -> {
+                escrituraPendiente.set(false);
+                escribir();
+            }, ESPERA_ESCRITURA_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private synchronized void escribir() {
+        List<Producto> productos = CatalogoProductos.getInstancia().obtenerCargados();
+        List<Usuario> usuarios = DirectorioUsuarios.getInstancia().obtenerCargados();
+        // Sin catálogo o sin usuarios no se reemplaza la instantánea anterior
+        if (productos == null || productos.isEmpty() || usuarios == null || usuarios.isEmpty()) {
+            return;
+        }
+
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+            DataOutputStream salida = new DataOutputStream(bytes);
+            salida.writeInt(productos.size());
+            for (Producto p : productos) {
+                salida.writeInt(p.getId());
+                escribirTexto(salida, p.getNombre());
+                escribirTexto(salida, p.getCategoria());
+                salida.writeLong(p.getPrecio().getCentavos());
+                salida.writeByte(p.isDisponible() ? 1 : 0);
+                escribirFecha(salida, p.getFechaRegistro());
+                escribirFecha(salida, p.getActualizadoEn());
+            }
+            List<Mesa> listaMesas = mesas;
+            salida.writeInt(listaMesas.size());
+            for (Mesa m : listaMesas) {
+                salida.writeInt(m.getId());
+                salida.writeInt(m.getNumero());
+                escribirTexto(salida, m.getEstado());
+            }
+            List<Usuario> conHash = new ArrayList<>();
+            for (Usuario u : usuarios) {
+                if (Credenciales.esHash(u.getContraseñaHash())) {
+                    conHash.add(u);
+                }
+            }
+            salida.writeInt(conHash.size());
+            for (Usuario u : conHash) {
+                salida.writeInt(u.getId());
+                escribirTexto(salida, u.getNombre());
+                escribirTexto(salida, u.getCorreo());
+                escribirTexto(salida, u.getContraseñaHash());
+                escribirTexto(salida, u.getRol());
+                escribirFecha(salida, u.getFechaCreacion());
+            }
+            salida.flush();
+
+            byte[] contenido = bytes.toByteArray();
+            CRC32 crc = new CRC32();
+            crc.update(contenido, 0, contenido.length);
+            ByteBuffer cabecera = ByteBuffer.allocate(CABECERA)
+                .putInt(MAGICO).putInt(VERSION).putLong(generacion + 1).putLong(System.currentTimeMillis())
+                .putInt(contenido.length).putInt((int) crc.getValue());
+            cabecera.flip();
+
+            Path archivo = crearSiNoExiste(directorio.resolve(ARCHIVOS[ranuraEscritura]));
+            try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.WRITE,
+                                                      StandardOpenOption.TRUNCATE_EXISTING)) {
+                canal.write(new ByteBuffer[]{cabecera, ByteBuffer.wrap(contenido)});
+                canal.force(true);
+            }
+            generacion++;
+        } catch (IOException e) {
+            System.err.println("No se pudo guardar la instantánea local: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Lee y valida la cabecera y el contenido de un archivo sin mapearlo.
+     *
+     * @return generación del archivo, o -1 si no existe o no es válido
+     */
+    private static long leerGeneracion(Path archivo) {
+        if (!Files.isRegularFile(archivo)) {
+            return -1;
+        }
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            if (canal.size() < CABECERA) {
+                return -1;
+            }
+            ByteBuffer cabecera = ByteBuffer.allocate(CABECERA);
+            while (cabecera.hasRemaining() && canal.read(cabecera) >= 0) {
+                // leer la cabecera completa
+            }
+            cabecera.flip();
+            if (cabecera.getInt() != MAGICO || cabecera.getInt() != VERSION) {
+                return -1;
+            }
+            long gen = cabecera.getLong();
+            cabecera.getLong();
+            int longitud = cabecera.getInt();
+            int crcGuardado = cabecera.getInt();
+            if (canal.size() != CABECERA + (long) longitud) {
+                return -1;
+            }
+
+            ByteBuffer contenido = ByteBuffer.allocate(longitud);
+            while (contenido.hasRemaining() && canal.read(contenido) >= 0) {
+                // leer el contenido completo
+            }
+            contenido.flip();
+            CRC32 crc = new CRC32();
+            crc.update(contenido);
+            return (int) crc.getValue() == crcGuardado ? gen : -1;
+        } catch (IOException e) {
+            System.err.println("Instantánea local ilegible (" + archivo.getFileName() + "): " + e.getMessage());
+            return -1;
+        }
+    }
+
+    private static void borrar(Path archivo) {
+        try {
+            Files.deleteIfExists(archivo);
+        } catch (IOException e) {
+            System.err.println("No se pudo borrar la instantánea " + archivo.getFileName() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Crea el archivo, si no existe, con acceso solo para el usuario del sistema.
+     */
+    private static Path crearSiNoExiste(Path archivo) throws IOException {
+        Files.createDirectories(archivo.getParent());
+        if (!Files.exists(archivo)) {
+            Set<String> vistas = FileSystems.getDefault().supportedFileAttributeViews();
+            if (vistas.contains("posix")) {
+                Files.createFile(archivo, PosixFilePermissions.asFileAttribute(
+                    PosixFilePermissions.fromString("rw-------")));
+            } else {
+                Files.createFile(archivo);
+                if (vistas.contains("acl")) {
+                    restringirAcl(archivo);
+                }
+            }
+        }
+        return archivo;
+    }
+
+    /**
+     * Deja en la ACL del archivo (Windows) una sola entrada para el dueño.
+     */
+    private static void restringirAcl(Path archivo) throws IOException {
+        AclFileAttributeView vista = Files.getFileAttributeView(archivo, AclFileAttributeView.class);
+        AclEntry dueno = AclEntry.newBuilder()
+            .setType(AclEntryType.ALLOW)
+            .setPrincipal(vista.getOwner())
+            .setPermissions(EnumSet.of(
+                AclEntryPermission.READ_DATA, AclEntryPermission.WRITE_DATA, AclEntryPermission.APPEND_DATA,
+                AclEntryPermission.READ_ATTRIBUTES, AclEntryPermission.WRITE_ATTRIBUTES,
+                AclEntryPermission.READ_NAMED_ATTRS, AclEntryPermission.WRITE_NAMED_ATTRS,
+                AclEntryPermission.READ_ACL, AclEntryPermission.WRITE_ACL,
+                AclEntryPermission.DELETE, AclEntryPermission.SYNCHRONIZE))
+            .build();
+        vista.setAcl(Collections.singletonList(dueno));
+    }
+
+    private static void escribirTexto(DataOutputStream salida, String texto) throws IOException {
+        if (texto == null) {
+            salida.writeInt(-1);
+            return;
+        }
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        salida.writeInt(bytes.length);
+        salida.write(bytes);
+    }
+
+    private static String leerTexto(ByteBuffer buffer) {
+        int longitud = buffer.getInt();
+        if (longitud < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[longitud];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void escribirFecha(DataOutputStream salida, LocalDateTime fecha) throws IOException {
+        salida.writeLong(fecha != null ? fecha.toEpochSecond(ZoneOffset.UTC) : Long.MIN_VALUE);
+        salida.writeInt(fecha != null ? fecha.getNano() : 0);
+    }
+
+    private static LocalDateTime leerFecha(ByteBuffer buffer) {
+        long segundos = buffer.getLong();
+        int nanos = buffer.getInt();
+        return segundos == Long.MIN_VALUE ? null : LocalDateTime.ofEpochSecond(segundos, nanos, ZoneOffset.UTC);
+    }
+}
@@ -11,6 +11,9 @@ import java.util.List;
  */
 public class MesaDAO {
     
+    /** Columnas de {@link SentenciasSQL#COLUMNAS_MESA}, en el orden en que las lee el mapeador. */
+    private static final IndiceColumnas COLUMNAS = new IndiceColumnas(SentenciasSQL.COLUMNAS_MESA);
+    
     /**
      * Inserta una nueva mesa en la base de datos.
      * 
@@ -18,7 +21,7 @@ public class MesaDAO {
      * @return true si se insertó correctamente, false en caso contrario
      */
     public boolean insertar(Mesa mesa) {
-        String sql = "INSERT INTO mesas (numero, estado) VALUES (?, ?)";
+        String sql = SentenciasSQL.MESA_INSERTAR;
         
         try (Connection conn = ConexionDB.obtenerConexion();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -42,7 +45,7 @@ public class MesaDAO {
      * @return true si se actualizó correctamente, false en caso contrario
      */
     public boolean actualizar(Mesa mesa) {
-        String sql = "UPDATE mesas SET numero = ?, estado = ? WHERE id = ?";
+        String sql = SentenciasSQL.MESA_ACTUALIZAR;
         
         try (Connection conn = ConexionDB.obtenerConexion();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -68,20 +71,33 @@ public class MesaDAO {
      * @return true si se actualizó correctamente, false en caso contrario
      */
     public boolean actualizarEstado(int id, String nuevoEstado) {
-        String sql = "UPDATE mesas SET estado = ? WHERE id = ?";
+        try (Connection conn = ConexionDB.obtenerConexion()) {
+            return actualizarEstado(conn, id, nuevoEstado);
+        } catch (SQLException e) {
+            System.err.println("Error al actualizar estado de mesa: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Actualiza solo el estado de una mesa usando una conexión existente.
+     * 
+     * @param conn conexión a utilizar; no se cierra
+     * @param id ID de la mesa
+     * @param nuevoEstado nuevo estado de la mesa
+     * @return true si se actualizó la mesa
+     * @throws SQLException si hay error al actualizar
+     */
+    public boolean actualizarEstado(Connection conn, int id, String nuevoEstado) throws SQLException {
+        String sql = SentenciasSQL.MESA_ACTUALIZAR_ESTADO;
         
-        try (Connection conn = ConexionDB.obtenerConexion();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setString(1, nuevoEstado);
             stmt.setInt(2, id);
             
             int filasAfectadas = stmt.executeUpdate();
             return filasAfectadas > 0;
-            
-        } catch (SQLException e) {
-            System.err.println("Error al actualizar estado de mesa: " + e.getMessage());
-            return false;
         }
     }
     
@@ -92,7 +108,7 @@ public class MesaDAO {
      * @return true si se eliminó correctamente, false en caso contrario
      */
     public boolean eliminar(int id) {
-        String sql = "DELETE FROM mesas WHERE id = ?";
+        String sql = SentenciasSQL.MESA_ELIMINAR;
         
         try (Connection conn = ConexionDB.obtenerConexion();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -115,7 +131,7 @@ public class MesaDAO {
      * @return mesa encontrada, o null si no existe
      */
     public Mesa buscarPorId(int id) {
-        String sql = "SELECT * FROM mesas WHERE id = ?";
+        String sql = SentenciasSQL.MESA_POR_ID;
         
         try (Connection conn = ConexionDB.obtenerConexion();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -123,8 +139,9 @@ public class MesaDAO {
             stmt.setInt(1, id);
             
             try (ResultSet rs = stmt.executeQuery()) {
+                int[] col = COLUMNAS.resolver(sql, rs);
                 if (rs.next()) {
-                    return extraerMesa(rs);
+                    return extraerMesa(rs, col);
                 }
             }
             
@@ -142,7 +159,7 @@ public class MesaDAO {
      * @return mesa encontrada, o null si no existe
      */
     public Mesa buscarPorNumero(int numero) {
-        String sql = "SELECT * FROM mesas WHERE numero = ?";
+        String sql = SentenciasSQL.MESA_POR_NUMERO;
         
         try (Connection conn = ConexionDB.obtenerConexion();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -150,8 +167,9 @@ public class MesaDAO {
             stmt.setInt(1, numero);
             
             try (ResultSet rs = stmt.executeQuery()) {
+                int[] col = COLUMNAS.resolver(sql, rs);
                 if (rs.next()) {
-                    return extraerMesa(rs);
+                    return extraerMesa(rs, col);
                 }
             }
             
@@ -169,14 +187,15 @@ public class MesaDAO {
      */
     public List<Mesa> obtenerTodas() {
         List<Mesa> mesas = new ArrayList<>();
-        String sql = "SELECT * FROM mesas ORDER BY numero";
+        String sql = SentenciasSQL.MESA_TODAS;
         
         try (Connection conn = ConexionDB.obtenerConexion();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
+            int[] col = COLUMNAS.resolver(sql, rs);
             while (rs.next()) {
-                mesas.add(extraerMesa(rs));
+                mesas.add(extraerMesa(rs, col));
             }
             
         } catch (SQLException e) {
@@ -194,7 +213,7 @@ public class MesaDAO {
      */
     public List<Mesa> obtenerPorEstado(String estado) {
         List<Mesa> mesas = new ArrayList<>();
-        String sql = "SELECT * FROM mesas WHERE estado = ? ORDER BY numero";
+        String sql = SentenciasSQL.MESA_POR_ESTADO;
         
         try (Connection conn = ConexionDB.obtenerConexion();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -202,8 +221,9 @@ public class MesaDAO {
             stmt.setString(1, estado);
             
             try (ResultSet rs = stmt.executeQuery()) {
+                int[] col = COLUMNAS.resolver(sql, rs);
                 while (rs.next()) {
-                    mesas.add(extraerMesa(rs));
+                    mesas.add(extraerMesa(rs, col));
                 }
             }
             
@@ -215,17 +235,18 @@ public class MesaDAO {
     }
     
     /**
-     * Extrae un objeto Mesa desde un ResultSet.
+     * Extrae un objeto Mesa desde un ResultSet, leyendo por posición.
      * 
      * @param rs ResultSet con datos de la mesa
+     * @param col posiciones resueltas por {@link #COLUMNAS} para la consulta
      * @return objeto Mesa
      * @throws SQLException si hay error al leer datos
      */
-    private Mesa extraerMesa(ResultSet rs) throws SQLException {
+    private static Mesa extraerMesa(ResultSet rs, int[] col) throws SQLException {
         Mesa mesa = new Mesa();
-        mesa.setId(rs.getInt("id"));
-        mesa.setNumero(rs.getInt("numero"));
-        mesa.setEstado(rs.getString("estado"));
+        mesa.setId(rs.getInt(col[0]));
+        mesa.setNumero(rs.getInt(col[1]));
+        mesa.setEstado(rs.getString(col[2]));
         return mesa;
     }
 }
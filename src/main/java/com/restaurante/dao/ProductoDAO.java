@@ -1,8 +1,10 @@
 package com.restaurante.dao;
 
+import com.restaurante.model.Dinero;
 import com.restaurante.model.Producto;
 import com.restaurante.util.ConexionDB;
 import java.sql.*;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -11,6 +13,9 @@ import java.util.List;
  */
 public class ProductoDAO {
     
+    /** Columnas de {@link SentenciasSQL#COLUMNAS_PRODUCTO}, en el orden en que las lee el mapeador. */
+    private static final IndiceColumnas COLUMNAS = new IndiceColumnas(SentenciasSQL.COLUMNAS_PRODUCTO);
+    
     /**
      * Inserta un nuevo producto en la base de datos.
      * 
@@ -18,14 +23,14 @@ public class ProductoDAO {
      * @return true si se insertó correctamente, false en caso contrario
      */
     public boolean insertar(Producto producto) {
-        String sql = "INSERT INTO productos (nombre, categoria, precio, disponible) VALUES (?, ?, ?, ?)";
+        String sql = SentenciasSQL.PRODUCTO_INSERTAR;
         
         try (Connection conn = ConexionDB.obtenerConexion();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setString(1, producto.getNombre());
             stmt.setString(2, producto.getCategoria());
-            stmt.setDouble(3, producto.getPrecio());
+            stmt.setBigDecimal(3, producto.getPrecio().aBigDecimal());
             stmt.setBoolean(4, producto.isDisponible());
             
             int filasAfectadas = stmt.executeUpdate();
@@ -44,14 +49,14 @@ public class ProductoDAO {
      * @return true si se actualizó correctamente, false en caso contrario
      */
     public boolean actualizar(Producto producto) {
-        String sql = "UPDATE productos SET nombre = ?, categoria = ?, precio = ?, disponible = ? WHERE id = ?";
+        String sql = SentenciasSQL.PRODUCTO_ACTUALIZAR;
         
         try (Connection conn = ConexionDB.obtenerConexion();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setString(1, producto.getNombre());
             stmt.setString(2, producto.getCategoria());
-            stmt.setDouble(3, producto.getPrecio());
+            stmt.setBigDecimal(3, producto.getPrecio().aBigDecimal());
             stmt.setBoolean(4, producto.isDisponible());
             stmt.setInt(5, producto.getId());
             
@@ -71,7 +76,7 @@ public class ProductoDAO {
      * @return true si se eliminó correctamente, false en caso contrario
      */
     public boolean eliminar(int id) {
-        String sql = "DELETE FROM productos WHERE id = ?";
+        String sql = SentenciasSQL.PRODUCTO_ELIMINAR;
         
         try (Connection conn = ConexionDB.obtenerConexion();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -94,7 +99,7 @@ public class ProductoDAO {
      * @return producto encontrado, o null si no existe
      */
     public Producto buscarPorId(int id) {
-        String sql = "SELECT * FROM productos WHERE id = ?";
+        String sql = SentenciasSQL.PRODUCTO_POR_ID;
         
         try (Connection conn = ConexionDB.obtenerConexion();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -102,8 +107,9 @@ public class ProductoDAO {
             stmt.setInt(1, id);
             
             try (ResultSet rs = stmt.executeQuery()) {
+                int[] col = COLUMNAS.resolver(sql, rs);
                 if (rs.next()) {
-                    return extraerProducto(rs);
+                    return extraerProducto(rs, col);
                 }
             }
             
@@ -121,14 +127,15 @@ public class ProductoDAO {
      */
     public List<Producto> obtenerTodos() {
         List<Producto> productos = new ArrayList<>();
-        String sql = "SELECT * FROM productos ORDER BY categoria, nombre";
+        String sql = SentenciasSQL.PRODUCTO_TODOS;
         
         try (Connection conn = ConexionDB.obtenerConexion();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
+            int[] col = COLUMNAS.resolver(sql, rs);
             while (rs.next()) {
-                productos.add(extraerProducto(rs));
+                productos.add(extraerProducto(rs, col));
             }
             
         } catch (SQLException e) {
@@ -145,14 +152,15 @@ public class ProductoDAO {
      */
     public List<Producto> obtenerDisponibles() {
         List<Producto> productos = new ArrayList<>();
-        String sql = "SELECT * FROM productos WHERE disponible = true ORDER BY categoria, nombre";
+        String sql = SentenciasSQL.PRODUCTO_DISPONIBLES;
         
         try (Connection conn = ConexionDB.obtenerConexion();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
+            int[] col = COLUMNAS.resolver(sql, rs);
             while (rs.next()) {
-                productos.add(extraerProducto(rs));
+                productos.add(extraerProducto(rs, col));
             }
             
         } catch (SQLException e) {
@@ -170,7 +178,7 @@ public class ProductoDAO {
      */
     public List<Producto> obtenerPorCategoria(String categoria) {
         List<Producto> productos = new ArrayList<>();
-        String sql = "SELECT * FROM productos WHERE categoria = ? ORDER BY nombre";
+        String sql = SentenciasSQL.PRODUCTO_POR_CATEGORIA;
         
         try (Connection conn = ConexionDB.obtenerConexion();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -178,8 +186,9 @@ public class ProductoDAO {
             stmt.setString(1, categoria);
             
             try (ResultSet rs = stmt.executeQuery()) {
+                int[] col = COLUMNAS.resolver(sql, rs);
                 while (rs.next()) {
-                    productos.add(extraerProducto(rs));
+                    productos.add(extraerProducto(rs, col));
                 }
             }
             
@@ -198,7 +207,7 @@ public class ProductoDAO {
      */
     public List<Producto> buscarPorNombre(String nombre) {
         List<Producto> productos = new ArrayList<>();
-        String sql = "SELECT * FROM productos WHERE nombre ILIKE ? ORDER BY nombre";
+        String sql = SentenciasSQL.PRODUCTO_POR_NOMBRE;
         
         try (Connection conn = ConexionDB.obtenerConexion();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -206,8 +215,9 @@ public class ProductoDAO {
             stmt.setString(1, "%" + nombre + "%");
             
             try (ResultSet rs = stmt.executeQuery()) {
+                int[] col = COLUMNAS.resolver(sql, rs);
                 while (rs.next()) {
-                    productos.add(extraerProducto(rs));
+                    productos.add(extraerProducto(rs, col));
                 }
             }
             
@@ -219,20 +229,78 @@ public class ProductoDAO {
     }
     
     /**
-     * Extrae un objeto Producto desde un ResultSet.
+     * Obtiene los productos creados o modificados a partir de un instante.
+     * Se usa para refrescar el catálogo en memoria sin releer toda la tabla.
+     * 
+     * @param desde instante (hora del servidor) a partir del cual buscar
+     * @return lista de productos modificados
+     */
+    public List<Producto> obtenerModificadosDesde(Timestamp desde) {
+        List<Producto> productos = new ArrayList<>();
+        String sql = SentenciasSQL.PRODUCTO_MODIFICADOS_DESDE;
+        
+        try (Connection conn = ConexionDB.obtenerConexion();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setTimestamp(1, desde);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                int[] col = COLUMNAS.resolver(sql, rs);
+                while (rs.next()) {
+                    productos.add(extraerProducto(rs, col));
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error al obtener productos modificados: " + e.getMessage());
+        }
+        
+        return productos;
+    }
+    
+    /**
+     * Cuenta los productos registrados.
+     * 
+     * @return número de productos, o -1 si hubo error
+     */
+    public int contar() {
+        String sql = SentenciasSQL.PRODUCTO_CONTAR;
+        
+        try (Connection conn = ConexionDB.obtenerConexion();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            
+            if (rs.next()) {
+                return rs.getInt("total");
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error al contar productos: " + e.getMessage());
+        }
+        
+        return -1;
+    }
+    
+    /**
+     * Extrae un objeto Producto desde un ResultSet, leyendo por posición.
      * 
      * @param rs ResultSet con datos del producto
+     * @param col posiciones resueltas por {@link #COLUMNAS} para la consulta
      * @return objeto Producto
      * @throws SQLException si hay error al leer datos
      */
-    private Producto extraerProducto(ResultSet rs) throws SQLException {
+    private static Producto extraerProducto(ResultSet rs, int[] col) throws SQLException {
         Producto producto = new Producto();
-        producto.setId(rs.getInt("id"));
-        producto.setNombre(rs.getString("nombre"));
-        producto.setCategoria(rs.getString("categoria"));
-        producto.setPrecio(rs.getDouble("precio"));
-        producto.setDisponible(rs.getBoolean("disponible"));
-        producto.setFechaRegistro(rs.getTimestamp("fecha_registro").toLocalDateTime());
+        producto.setId(rs.getInt(col[0]));
+        producto.setNombre(rs.getString(col[1]));
+        producto.setCategoria(rs.getString(col[2]));
+        producto.setPrecio(Dinero.de(rs.getBigDecimal(col[3])));
+        producto.setDisponible(rs.getBoolean(col[4]));
+        producto.setFechaRegistro(rs.getObject(col[5], LocalDateTime.class));
+        LocalDateTime actualizadoEn = rs.getObject(col[6], LocalDateTime.class);
+        if (actualizadoEn != null) {
+            producto.setActualizadoEn(actualizadoEn);
+        }
         return producto;
     }
 }
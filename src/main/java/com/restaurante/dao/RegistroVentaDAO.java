@@ -0,0 +1,153 @@
+package com.restaurante.dao;
+
+import com.restaurante.model.DetalleVenta;
+import com.restaurante.model.Respaldo;
+import com.restaurante.model.Ticket;
+import com.restaurante.model.Venta;
+import com.restaurante.util.ConexionDB;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DAO que confirma una venta completa en una sola transacción.
+ *
+ * Todos los pasos (venta, detalles, ticket, estado de la mesa, resúmenes y auditoría)
+ * usan la misma conexión del pool. Si cualquiera falla se revierte todo, por
+ * lo que nunca queda una venta sin detalles o sin ticket. Las ventas con UUID
+ * de cliente son idempotentes: registrar dos veces la misma venta no la duplica.
+ */
+public class RegistroVentaDAO {
+
+    private final VentaDAO ventaDAO;
+    private final DetalleVentaDAO detalleVentaDAO;
+    private final TicketDAO ticketDAO;
+    private final MesaDAO mesaDAO;
+    private final RespaldoDAO respaldoDAO;
+    private final ResumenVentasDAO resumenVentasDAO;
+
+    /**
+     * Venta con sus detalles y su ticket, lista para registrarse.
+     */
+    public static final class VentaCompleta {
+        private final Venta venta;
+        private final List<DetalleVenta> detalles;
+        private final Ticket ticket;
+
+        public VentaCompleta(Venta venta, List<DetalleVenta> detalles, Ticket ticket) {
+            this.venta = venta;
+            this.detalles = detalles;
+            this.ticket = ticket;
+        }
+
+        public Venta getVenta() {
+            return venta;
+        }
+
+        public List<DetalleVenta> getDetalles() {
+            return detalles;
+        }
+
+        public Ticket getTicket() {
+            return ticket;
+        }
+    }
+
+    public RegistroVentaDAO() {
+        this.ventaDAO = new VentaDAO();
+        this.detalleVentaDAO = new DetalleVentaDAO();
+        this.ticketDAO = new TicketDAO();
+        this.mesaDAO = new MesaDAO();
+        this.respaldoDAO = new RespaldoDAO();
+        this.resumenVentasDAO = new ResumenVentasDAO();
+    }
+
+    /**
+     * Registra la venta con sus detalles y ticket en una transacción.
+     * Los detalles y el ticket reciben el ID de la venta generada.
+     *
+     * @param venta venta a registrar
+     * @param detalles detalles de la venta
+     * @param ticket ticket con folio, total y cambio ya calculados
+     * @return ID de la venta registrada
+     * @throws SQLException si falla algún paso; en ese caso no se guarda nada
+     */
+    public int registrar(Venta venta, List<DetalleVenta> detalles, Ticket ticket) throws SQLException {
+        List<VentaCompleta> lote = new ArrayList<>();
+        lote.add(new VentaCompleta(venta, detalles, ticket));
+        return registrarLote(lote).get(0);
+    }
+
+    /**
+     * Registra varias ventas en una sola transacción: o se guardan todas o ninguna.
+     * Las ventas cuyo UUID ya estaba registrado se omiten y devuelven su ID existente.
+     *
+     * @param ventas ventas a registrar
+     * @return IDs de las ventas, en el mismo orden
+     * @throws SQLException si falla algún paso; en ese caso no se guarda nada
+     */
+    public List<Integer> registrarLote(List<VentaCompleta> ventas) throws SQLException {
+        try (Connection conn = ConexionDB.obtenerConexion()) {
+            conn.setAutoCommit(false);
+
+            try {
+                List<Integer> ids = new ArrayList<>(ventas.size());
+                for (VentaCompleta ventaCompleta : ventas) {
+                    ids.add(registrar(conn, ventaCompleta));
+                }
+
+                conn.commit();
+                return ids;
+
+            } catch (SQLException | RuntimeException e) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    System.err.println("Error al hacer rollback de la venta: " + ex.getMessage());
+                }
+                throw e;
+            }
+        }
+    }
+
+    private int registrar(Connection conn, VentaCompleta ventaCompleta) throws SQLException {
+        Venta venta = ventaCompleta.getVenta();
+        Ticket ticket = ventaCompleta.getTicket();
+
+        // 1. Venta (si el UUID ya existe, la venta se registró en un intento anterior)
+        int idVenta = ventaDAO.insertar(conn, venta);
+        if (idVenta == -1) {
+            idVenta = ventaDAO.buscarIdPorUuid(conn, venta.getUuidCliente());
+            venta.setId(idVenta);
+            return idVenta;
+        }
+        venta.setId(idVenta);
+
+        // 2. Detalles en un solo lote
+        for (DetalleVenta detalle : ventaCompleta.getDetalles()) {
+            detalle.setIdVenta(idVenta);
+        }
+        detalleVentaDAO.insertarLote(conn, ventaCompleta.getDetalles());
+
+        // 3. Ticket
+        ticket.setIdVenta(idVenta);
+        if (!ticketDAO.insertar(conn, ticket)) {
+            throw new SQLException("No se pudo insertar el ticket de la venta #" + idVenta);
+        }
+
+        // 4. Si hay mesa, marcarla como ocupada
+        if (venta.getIdMesa() != null) {
+            mesaDAO.actualizarEstado(conn, venta.getIdMesa(), "ocupada");
+        }
+
+        // 5. Resúmenes por hora y por producto
+        resumenVentasDAO.acumular(conn, venta, ventaCompleta.getDetalles());
+        
+        // 6. Auditoría dentro de la misma transacción
+        respaldoDAO.insertar(conn, new Respaldo("VENTA_REGISTRADA",
+            "Venta #" + idVenta + " registrada. Total: " + venta.getTotal().formatear() +
+            " - Folio: " + ticket.getFolio()));
+
+        return idVenta;
+    }
+}
@@ -12,6 +12,9 @@ import java.util.List;
  */
 public class RespaldoDAO {
     
+    /** Columnas de {@link SentenciasSQL#COLUMNAS_RESPALDO}, en el orden en que las lee el mapeador. */
+    private static final IndiceColumnas COLUMNAS = new IndiceColumnas(SentenciasSQL.COLUMNAS_RESPALDO);
+    
     /**
      * Inserta un nuevo registro de auditoría.
      * 
@@ -19,33 +22,72 @@ public class RespaldoDAO {
      * @return true si se insertó correctamente, false en caso contrario
      */
     public boolean insertar(Respaldo respaldo) {
-        String sql = "INSERT INTO respaldo (tipo_operacion, descripcion) VALUES (?, ?)";
+        try (Connection conn = ConexionDB.obtenerConexion()) {
+            return insertar(conn, respaldo);
+        } catch (SQLException e) {
+            System.err.println("Error al insertar registro de respaldo: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Inserta un registro de auditoría usando una conexión existente, de modo
+     * que quede dentro de la misma transacción que la operación auditada.
+     * 
+     * @param conn conexión a utilizar; no se cierra
+     * @param respaldo registro a insertar
+     * @return true si se insertó el registro
+     * @throws SQLException si hay error al insertar
+     */
+    public boolean insertar(Connection conn, Respaldo respaldo) throws SQLException {
+        String sql = SentenciasSQL.RESPALDO_INSERTAR;
         
-        try (Connection conn = ConexionDB.obtenerConexion();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setString(1, respaldo.getTipoOperacion());
             stmt.setString(2, respaldo.getDescripcion());
+            stmt.setTimestamp(3, respaldo.getFecha() != null ? Timestamp.valueOf(respaldo.getFecha()) : null);
             
             int filasAfectadas = stmt.executeUpdate();
             return filasAfectadas > 0;
-            
-        } catch (SQLException e) {
-            System.err.println("Error al insertar registro de respaldo: " + e.getMessage());
-            return false;
         }
     }
     
     /**
-     * Registra una operación de forma simplificada.
+     * Inserta varios registros de auditoría en un solo lote. El driver
+     * reescribe el lote como un INSERT de varias filas.
+     * 
+     * @param conn conexión a utilizar; no se cierra
+     * @param registros registros a insertar; se respeta su fecha si la traen
+     * @throws SQLException si hay error al insertar
+     */
+    public void insertarLote(Connection conn, List<Respaldo> registros) throws SQLException {
+        String sql = SentenciasSQL.RESPALDO_INSERTAR;
+        
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (Respaldo respaldo : registros) {
+                stmt.setString(1, respaldo.getTipoOperacion());
+                stmt.setString(2, respaldo.getDescripcion());
+                stmt.setTimestamp(3, respaldo.getFecha() != null ? Timestamp.valueOf(respaldo.getFecha()) : null);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+    
+    /**
+     * Registra una operación de forma simplificada. El registro se encola y
+     * lo escribe en segundo plano {@link ColaAuditoria}, con la hora en que
+     * ocurrió la operación; el hilo que llama no espera a la base de datos.
      * 
      * @param tipoOperacion tipo de operación realizada
      * @param descripcion descripción detallada de la operación
-     * @return true si se registró correctamente, false en caso contrario
+     * @return true si el registro se aceptó, false en caso contrario
      */
     public boolean registrarOperacion(String tipoOperacion, String descripcion) {
         Respaldo respaldo = new Respaldo(tipoOperacion, descripcion);
-        return insertar(respaldo);
+        respaldo.setFecha(LocalDateTime.now());
+        return ColaAuditoria.getInstancia().encolar(respaldo);
     }
     
     /**
@@ -55,7 +97,7 @@ public class RespaldoDAO {
      * @return true si se eliminó correctamente, false en caso contrario
      */
     public boolean eliminar(int id) {
-        String sql = "DELETE FROM respaldo WHERE id = ?";
+        String sql = SentenciasSQL.RESPALDO_ELIMINAR;
         
         try (Connection conn = ConexionDB.obtenerConexion();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -78,7 +120,7 @@ public class RespaldoDAO {
      * @return registro encontrado, o null si no existe
      */
     public Respaldo buscarPorId(int id) {
-        String sql = "SELECT * FROM respaldo WHERE id = ?";
+        String sql = SentenciasSQL.RESPALDO_POR_ID;
         
         try (Connection conn = ConexionDB.obtenerConexion();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -86,8 +128,9 @@ public class RespaldoDAO {
             stmt.setInt(1, id);
             
             try (ResultSet rs = stmt.executeQuery()) {
+                int[] col = COLUMNAS.resolver(sql, rs);
                 if (rs.next()) {
-                    return extraerRespaldo(rs);
+                    return extraerRespaldo(rs, col);
                 }
             }
             
@@ -100,19 +143,21 @@ public class RespaldoDAO {
     
     /**
      * Obtiene todos los registros de respaldo.
+     * Carga la tabla completa; para listar el historial usar {@link #obtenerPagina(Respaldo, int)}.
      * 
      * @return lista de todos los registros
      */
     public List<Respaldo> obtenerTodos() {
         List<Respaldo> registros = new ArrayList<>();
-        String sql = "SELECT * FROM respaldo ORDER BY fecha DESC";
+        String sql = SentenciasSQL.RESPALDO_TODOS;
         
         try (Connection conn = ConexionDB.obtenerConexion();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
+            int[] col = COLUMNAS.resolver(sql, rs);
             while (rs.next()) {
-                registros.add(extraerRespaldo(rs));
+                registros.add(extraerRespaldo(rs, col));
             }
             
         } catch (SQLException e) {
@@ -122,6 +167,45 @@ public class RespaldoDAO {
         return registros;
     }
     
+    /**
+     * Obtiene una página de registros, del más reciente al más antiguo.
+     * La consulta continúa después del último registro recibido usando el
+     * índice (fecha, id), sin recorrer las páginas anteriores.
+     * 
+     * @param despuesDe último registro de la página anterior, o null para la primera página
+     * @param limite cantidad máxima de registros
+     * @return registros de la página
+     */
+    public List<Respaldo> obtenerPagina(Respaldo despuesDe, int limite) {
+        List<Respaldo> registros = new ArrayList<>();
+        String sql = despuesDe == null
+            ? SentenciasSQL.RESPALDO_PRIMERA_PAGINA
+            : SentenciasSQL.RESPALDO_PAGINA_SIGUIENTE;
+        
+        try (Connection conn = ConexionDB.obtenerConexion();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            int indice = 1;
+            if (despuesDe != null) {
+                stmt.setTimestamp(indice++, Timestamp.valueOf(despuesDe.getFecha()));
+                stmt.setInt(indice++, despuesDe.getId());
+            }
+            stmt.setInt(indice, limite);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                int[] col = COLUMNAS.resolver(sql, rs);
+                while (rs.next()) {
+                    registros.add(extraerRespaldo(rs, col));
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error al obtener página de respaldo: " + e.getMessage());
+        }
+        
+        return registros;
+    }
+    
     /**
      * Obtiene registros filtrados por tipo de operación.
      * 
@@ -130,7 +214,7 @@ public class RespaldoDAO {
      */
     public List<Respaldo> obtenerPorTipo(String tipoOperacion) {
         List<Respaldo> registros = new ArrayList<>();
-        String sql = "SELECT * FROM respaldo WHERE tipo_operacion = ? ORDER BY fecha DESC";
+        String sql = SentenciasSQL.RESPALDO_POR_TIPO;
         
         try (Connection conn = ConexionDB.obtenerConexion();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -138,8 +222,9 @@ public class RespaldoDAO {
             stmt.setString(1, tipoOperacion);
             
             try (ResultSet rs = stmt.executeQuery()) {
+                int[] col = COLUMNAS.resolver(sql, rs);
                 while (rs.next()) {
-                    registros.add(extraerRespaldo(rs));
+                    registros.add(extraerRespaldo(rs, col));
                 }
             }
             
@@ -159,7 +244,7 @@ public class RespaldoDAO {
      */
     public List<Respaldo> obtenerPorFechas(LocalDateTime fechaInicio, LocalDateTime fechaFin) {
         List<Respaldo> registros = new ArrayList<>();
-        String sql = "SELECT * FROM respaldo WHERE fecha BETWEEN ? AND ? ORDER BY fecha DESC";
+        String sql = SentenciasSQL.RESPALDO_POR_FECHAS;
         
         try (Connection conn = ConexionDB.obtenerConexion();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -168,8 +253,9 @@ public class RespaldoDAO {
             stmt.setTimestamp(2, Timestamp.valueOf(fechaFin));
             
             try (ResultSet rs = stmt.executeQuery()) {
+                int[] col = COLUMNAS.resolver(sql, rs);
                 while (rs.next()) {
-                    registros.add(extraerRespaldo(rs));
+                    registros.add(extraerRespaldo(rs, col));
                 }
             }
             
@@ -187,7 +273,7 @@ public class RespaldoDAO {
      * @return número de registros eliminados
      */
     public int limpiarAntiguos(LocalDateTime fechaLimite) {
-        String sql = "DELETE FROM respaldo WHERE fecha < ?";
+        String sql = SentenciasSQL.RESPALDO_ELIMINAR_ANTERIORES;
         
         try (Connection conn = ConexionDB.obtenerConexion();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -203,18 +289,19 @@ public class RespaldoDAO {
     }
     
     /**
-     * Extrae un objeto Respaldo desde un ResultSet.
+     * Extrae un objeto Respaldo desde un ResultSet, leyendo por posición.
      * 
      * @param rs ResultSet con datos del registro
+     * @param col posiciones resueltas por {@link #COLUMNAS} para la consulta
      * @return objeto Respaldo
      * @throws SQLException si hay error al leer datos
      */
-    private Respaldo extraerRespaldo(ResultSet rs) throws SQLException {
+    private static Respaldo extraerRespaldo(ResultSet rs, int[] col) throws SQLException {
         Respaldo respaldo = new Respaldo();
-        respaldo.setId(rs.getInt("id"));
-        respaldo.setTipoOperacion(rs.getString("tipo_operacion"));
-        respaldo.setDescripcion(rs.getString("descripcion"));
-        respaldo.setFecha(rs.getTimestamp("fecha").toLocalDateTime());
+        respaldo.setId(rs.getInt(col[0]));
+        respaldo.setTipoOperacion(rs.getString(col[1]));
+        respaldo.setDescripcion(rs.getString(col[2]));
+        respaldo.setFecha(rs.getObject(col[3], LocalDateTime.class));
         return respaldo;
     }
 }
@@ -0,0 +1,264 @@
+package com.restaurante.dao;
+
+import com.restaurante.model.Dinero;
+import com.restaurante.model.DetalleVenta;
+import com.restaurante.model.ResumenVentas;
+import com.restaurante.model.Venta;
+import com.restaurante.util.ConexionDB;
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * DAO de los resúmenes de ventas precalculados.
+ *
+ * {@code ventas_por_hora} acumula cantidad y monto por hora y usuario, y
+ * {@code productos_por_dia} acumula unidades y monto por día y producto. Se
+ * actualizan dentro de la misma transacción que registra cada venta, así que
+ * los reportes por período leen unos cientos de filas en lugar de recorrer
+ * {@code ventas}. Si se corrigen ventas a mano, {@link #reconstruir()} los
+ * vuelve a calcular desde el historial.
+ */
+public class ResumenVentasDAO {
+
+    private static final String COLUMNA_FECHA = "v.hora";
+
+    /**
+     * Suma una venta recién registrada a los resúmenes.
+     *
+     * @param conn conexión de la transacción de la venta; no se cierra
+     * @param venta venta registrada
+     * @param detalles detalles de la venta
+     * @throws SQLException si hay error al actualizar
+     */
+    public void acumular(Connection conn, Venta venta, List<DetalleVenta> detalles) throws SQLException {
+        String sqlHora = SentenciasSQL.RESUMEN_ACUMULAR_HORA;
+        String sqlProducto = SentenciasSQL.RESUMEN_ACUMULAR_PRODUCTO;
+
+        Timestamp fecha = venta.getFechaVenta() != null ? Timestamp.valueOf(venta.getFechaVenta()) : null;
+
+        try (PreparedStatement stmt = conn.prepareStatement(sqlHora)) {
+            stmt.setTimestamp(1, fecha);
+            stmt.setInt(2, venta.getIdUsuario());
+            stmt.setBigDecimal(3, venta.getTotal().aBigDecimal());
+            stmt.executeUpdate();
+        }
+
+        // Un renglón por producto y en orden de ID: el lote no toca dos veces
+        // la misma fila y dos cajas no se bloquean en orden cruzado
+        Map<Integer, long[]> porProducto = new TreeMap<>();
+        for (DetalleVenta detalle : detalles) {
+            long[] acumulado = porProducto.computeIfAbsent(detalle.getIdProducto(), id -> new long[2]);
+            acumulado[0] += detalle.getCantidad();
+            acumulado[1] += detalle.getSubtotal().getCentavos();
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(sqlProducto)) {
+            for (Map.Entry<Integer, long[]> entrada : porProducto.entrySet()) {
+                stmt.setTimestamp(1, fecha);
+                stmt.setInt(2, entrada.getKey());
+                stmt.setInt(3, (int) entrada.getValue()[0]);
+                stmt.setBigDecimal(4, Dinero.deCentavos(entrada.getValue()[1]).aBigDecimal());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    /**
+     * Vuelve a calcular los resúmenes a partir de {@code ventas} y
+     * {@code detalle_ventas}. Las ventas que lleguen mientras tanto esperan
+     * a que termine y se suman después.
+     *
+     * @return true si se reconstruyeron, false si hubo error
+     */
+    public boolean reconstruir() {
+        try (Connection conn = ConexionDB.obtenerConexion()) {
+            conn.setAutoCommit(false);
+
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("LOCK TABLE ventas_por_hora, productos_por_dia IN EXCLUSIVE MODE");
+                stmt.execute("DELETE FROM ventas_por_hora");
+                stmt.execute("INSERT INTO ventas_por_hora (hora, id_usuario, cantidad_ventas, total) " +
+                             "SELECT date_trunc('hour', fecha_venta), id_usuario, COUNT(*), SUM(total) " +
+                             "FROM ventas WHERE fecha_venta IS NOT NULL GROUP BY 1, 2");
+                stmt.execute("DELETE FROM productos_por_dia");
+                stmt.execute("INSERT INTO productos_por_dia (fecha, id_producto, cantidad, total) " +
+                             "SELECT v.fecha_venta::date, d.id_producto, SUM(d.cantidad), SUM(d.subtotal) " +
+                             "FROM detalle_ventas d JOIN ventas v ON v.id = d.id_venta " +
+                             "WHERE v.fecha_venta IS NOT NULL GROUP BY 1, 2");
+                conn.commit();
+                return true;
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error al reconstruir resúmenes de ventas: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Indica si un período puede responderse con los resúmenes por hora:
+     * debe empezar en una hora exacta y terminar al final de una hora.
+     *
+     * @param fechaInicio fecha de inicio, o null para no acotar
+     * @param fechaFin fecha de fin, o null para no acotar
+     * @return true si el período cubre horas completas
+     */
+    public static boolean cubreHorasCompletas(LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+        boolean inicioExacto = fechaInicio == null || fechaInicio.equals(fechaInicio.truncatedTo(ChronoUnit.HOURS));
+        boolean finCompleto = fechaFin == null || (fechaFin.getMinute() == 59 && fechaFin.getSecond() == 59);
+        return inicioExacto && finCompleto;
+    }
+
+    /**
+     * Obtiene la cantidad y el monto de las ventas de un período de horas completas.
+     *
+     * @param fechaInicio fecha de inicio, o null para no acotar
+     * @param fechaFin fecha de fin, o null para no acotar
+     * @return resumen del período; con cero ventas si hubo error
+     */
+    public ResumenVentas obtenerResumen(LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+        String sql = "SELECT COALESCE(SUM(v.cantidad_ventas), 0) AS cantidad, COALESCE(SUM(v.total), 0) AS total " +
+                     "FROM ventas_por_hora v" + filtroHoras(fechaInicio, fechaFin);
+
+        try (Connection conn = ConexionDB.obtenerConexion();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            asignarHoras(stmt, fechaInicio, fechaFin);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return new ResumenVentas("Total", rs.getInt("cantidad"), Dinero.de(rs.getBigDecimal("total")));
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error al obtener resumen de ventas por hora: " + e.getMessage());
+        }
+
+        return new ResumenVentas("Total", 0, Dinero.CERO);
+    }
+
+    /**
+     * Agrupa por día, hora o usuario las ventas de un período de horas completas.
+     *
+     * @param fechaInicio fecha de inicio, o null para no acotar
+     * @param fechaFin fecha de fin, o null para no acotar
+     * @param agrupacion criterio de agrupación; no admite {@code MESA}
+     * @return resumen por grupo
+     */
+    public List<ResumenVentas> obtenerResumenAgrupado(LocalDateTime fechaInicio, LocalDateTime fechaFin,
+                                                      VentaDAO.Agrupacion agrupacion) {
+        if (agrupacion == VentaDAO.Agrupacion.MESA) {
+            throw new IllegalArgumentException("Los resúmenes por hora no distinguen mesas");
+        }
+
+        List<ResumenVentas> resumen = new ArrayList<>();
+        String sql = "SELECT " + agrupacion.etiqueta(COLUMNA_FECHA) + " AS grupo, " +
+                     "SUM(v.cantidad_ventas) AS cantidad, SUM(v.total) AS total " +
+                     "FROM ventas_por_hora v" + agrupacion.union + filtroHoras(fechaInicio, fechaFin) +
+                     " GROUP BY " + agrupacion.expresion(COLUMNA_FECHA) +
+                     " ORDER BY " + agrupacion.orden(COLUMNA_FECHA);
+
+        try (Connection conn = ConexionDB.obtenerConexion();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            asignarHoras(stmt, fechaInicio, fechaFin);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    resumen.add(new ResumenVentas(rs.getString("grupo"), rs.getInt("cantidad"),
+                                                  Dinero.de(rs.getBigDecimal("total"))));
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error al agrupar ventas por hora: " + e.getMessage());
+        }
+
+        return resumen;
+    }
+
+    /**
+     * Obtiene las unidades y el monto vendidos de cada producto en un rango de días.
+     * En el resumen, la cantidad corresponde a unidades vendidas.
+     *
+     * @param fechaInicio primer día, o null para no acotar
+     * @param fechaFin último día, o null para no acotar
+     * @return resumen por producto, del que más vendió al que menos
+     */
+    public List<ResumenVentas> obtenerPorProducto(LocalDate fechaInicio, LocalDate fechaFin) {
+        List<ResumenVentas> resumen = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(
+            "SELECT COALESCE(p.nombre, 'Producto #' || r.id_producto) AS grupo, " +
+            "SUM(r.cantidad) AS cantidad, SUM(r.total) AS total " +
+            "FROM productos_por_dia r LEFT JOIN productos p ON p.id = r.id_producto");
+        if (fechaInicio != null) {
+            sql.append(" WHERE r.fecha >= ?");
+        }
+        if (fechaFin != null) {
+            sql.append(fechaInicio != null ? " AND" : " WHERE").append(" r.fecha <= ?");
+        }
+        sql.append(" GROUP BY r.id_producto, p.nombre ORDER BY total DESC");
+
+        try (Connection conn = ConexionDB.obtenerConexion();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+
+            int indice = 1;
+            if (fechaInicio != null) {
+                stmt.setDate(indice++, Date.valueOf(fechaInicio));
+            }
+            if (fechaFin != null) {
+                stmt.setDate(indice, Date.valueOf(fechaFin));
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    resumen.add(new ResumenVentas(rs.getString("grupo"), rs.getInt("cantidad"),
+                                                  Dinero.de(rs.getBigDecimal("total"))));
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error al obtener ventas por producto: " + e.getMessage());
+        }
+
+        return resumen;
+    }
+
+    /**
+     * Arma el filtro por hora; el fin se convierte en el inicio de la hora
+     * siguiente para no depender de fracciones de segundo.
+     */
+    private static String filtroHoras(LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+        StringBuilder filtro = new StringBuilder();
+        if (fechaInicio != null) {
+            filtro.append(" WHERE v.hora >= ?");
+        }
+        if (fechaFin != null) {
+            filtro.append(fechaInicio != null ? " AND" : " WHERE").append(" v.hora < ?");
+        }
+        return filtro.toString();
+    }
+
+    private static void asignarHoras(PreparedStatement stmt, LocalDateTime fechaInicio,
+                                     LocalDateTime fechaFin) throws SQLException {
+        int indice = 1;
+        if (fechaInicio != null) {
+            stmt.setTimestamp(indice++, Timestamp.valueOf(fechaInicio.truncatedTo(ChronoUnit.HOURS)));
+        }
+        if (fechaFin != null) {
+            stmt.setTimestamp(indice, Timestamp.valueOf(fechaFin.truncatedTo(ChronoUnit.HOURS).plusHours(1)));
+        }
+    }
+}
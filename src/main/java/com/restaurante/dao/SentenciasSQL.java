@@ -0,0 +1,222 @@
+package com.restaurante.dao;
+
+/**
+ * Registro central de las sentencias SQL de los DAO.
+ *
+ * Cada consulta se define una sola vez, con el nombre de la operación que
+ * resuelve y con la lista explícita de columnas en lugar de {@code SELECT *}.
+ * El controlador de PostgreSQL guarda en cada conexión física las sentencias
+ * ya preparadas en el servidor, identificadas por su texto (ver
+ * {@code SupabaseConfig.getJdbcUrl()}): como el texto de cada constante es
+ * siempre el mismo y el pool conserva las conexiones, las llamadas repetidas
+ * a {@code buscarPorId}, {@code obtenerPorVenta} o {@code insertar} reutilizan
+ * la sentencia preparada y el servidor no vuelve a analizarla ni planearla.
+ *
+ * Las consultas que se arman según los filtros (resúmenes agrupados y
+ * páginas por fechas) se construyen en su DAO con las listas de columnas de
+ * aquí; cada combinación de filtros produce un texto estable y también se
+ * reutiliza.
+ */
+final class SentenciasSQL {
+
+    private SentenciasSQL() {
+    }
+
+    // ==================== COLUMNAS ====================
+
+    static final String COLUMNAS_USUARIO = "id, nombre, correo, contraseña_hash, pin_hash, rol, fecha_creacion";
+    static final String COLUMNAS_PRODUCTO = "id, nombre, categoria, precio, disponible, fecha_registro, actualizado_en";
+    static final String COLUMNAS_MESA = "id, numero, estado";
+    static final String COLUMNAS_VENTA = "id, id_usuario, id_mesa, total, fecha_venta, uuid_cliente";
+    static final String COLUMNAS_DETALLE = "id, id_venta, id_producto, cantidad, precio_unitario, subtotal";
+    static final String COLUMNAS_TICKET = "id, id_venta, folio, total, cambio, fecha_emision";
+    static final String COLUMNAS_RESPALDO = "id, tipo_operacion, descripcion, fecha";
+    static final String COLUMNAS_EXPORTACION =
+        "id_venta, fecha_venta, id_usuario, id_mesa, total_venta, id_detalle, id_producto, producto, " +
+        "cantidad, precio_unitario, subtotal";
+
+    // ==================== USUARIOS ====================
+
+    static final String USUARIO_INSERTAR =
+        "INSERT INTO usuarios (nombre, correo, contraseña_hash, pin_hash, rol) VALUES (?, ?, ?, ?, ?)";
+    static final String USUARIO_ACTUALIZAR =
+        "UPDATE usuarios SET nombre = ?, correo = ?, contraseña_hash = ?, rol = ? WHERE id = ?";
+    static final String USUARIO_ACTUALIZAR_CONTRASEÑA = "UPDATE usuarios SET contraseña_hash = ? WHERE id = ?";
+    static final String USUARIO_ACTUALIZAR_PIN = "UPDATE usuarios SET pin_hash = ? WHERE id = ?";
+    static final String USUARIO_ELIMINAR = "DELETE FROM usuarios WHERE id = ?";
+    static final String USUARIO_POR_ID = "SELECT " + COLUMNAS_USUARIO + " FROM usuarios WHERE id = ?";
+    static final String USUARIO_POR_CORREO = "SELECT " + COLUMNAS_USUARIO + " FROM usuarios WHERE correo = ?";
+    static final String USUARIO_TODOS = "SELECT " + COLUMNAS_USUARIO + " FROM usuarios ORDER BY id";
+    static final String USUARIO_POR_ROL =
+        "SELECT " + COLUMNAS_USUARIO + " FROM usuarios WHERE rol = ? ORDER BY nombre";
+
+    // ==================== PRODUCTOS ====================
+
+    static final String PRODUCTO_INSERTAR =
+        "INSERT INTO productos (nombre, categoria, precio, disponible) VALUES (?, ?, ?, ?)";
+    static final String PRODUCTO_ACTUALIZAR =
+        "UPDATE productos SET nombre = ?, categoria = ?, precio = ?, disponible = ?, " +
+        "actualizado_en = NOW() WHERE id = ?";
+    static final String PRODUCTO_ELIMINAR = "DELETE FROM productos WHERE id = ?";
+    static final String PRODUCTO_POR_ID = "SELECT " + COLUMNAS_PRODUCTO + " FROM productos WHERE id = ?";
+    static final String PRODUCTO_TODOS =
+        "SELECT " + COLUMNAS_PRODUCTO + " FROM productos ORDER BY categoria, nombre";
+    static final String PRODUCTO_DISPONIBLES =
+        "SELECT " + COLUMNAS_PRODUCTO + " FROM productos WHERE disponible = true ORDER BY categoria, nombre";
+    static final String PRODUCTO_POR_CATEGORIA =
+        "SELECT " + COLUMNAS_PRODUCTO + " FROM productos WHERE categoria = ? ORDER BY nombre";
+    static final String PRODUCTO_POR_NOMBRE =
+        "SELECT " + COLUMNAS_PRODUCTO + " FROM productos WHERE nombre ILIKE ? ORDER BY nombre";
+    static final String PRODUCTO_MODIFICADOS_DESDE =
+        "SELECT " + COLUMNAS_PRODUCTO + " FROM productos WHERE actualizado_en >= ?";
+    static final String PRODUCTO_CONTAR = "SELECT COUNT(*) AS total FROM productos";
+    static final String PRODUCTO_COPIAR_DESDE_CSV =
+        "COPY productos (nombre, categoria, precio, disponible) FROM STDIN WITH (FORMAT csv)";
+    static final String PRODUCTO_COPIAR_A_CSV =
+        "COPY (SELECT nombre, categoria, precio, disponible FROM productos ORDER BY categoria, nombre) " +
+        "TO STDOUT WITH (FORMAT csv, HEADER)";
+
+    // ==================== MESAS ====================
+
+    static final String MESA_INSERTAR = "INSERT INTO mesas (numero, estado) VALUES (?, ?)";
+    static final String MESA_ACTUALIZAR = "UPDATE mesas SET numero = ?, estado = ? WHERE id = ?";
+    static final String MESA_ACTUALIZAR_ESTADO = "UPDATE mesas SET estado = ? WHERE id = ?";
+    static final String MESA_ELIMINAR = "DELETE FROM mesas WHERE id = ?";
+    static final String MESA_POR_ID = "SELECT " + COLUMNAS_MESA + " FROM mesas WHERE id = ?";
+    static final String MESA_POR_NUMERO = "SELECT " + COLUMNAS_MESA + " FROM mesas WHERE numero = ?";
+    static final String MESA_TODAS = "SELECT " + COLUMNAS_MESA + " FROM mesas ORDER BY numero";
+    static final String MESA_POR_ESTADO = "SELECT " + COLUMNAS_MESA + " FROM mesas WHERE estado = ? ORDER BY numero";
+
+    // ==================== VENTAS ====================
+
+    static final String VENTA_INSERTAR =
+        "INSERT INTO ventas (id_usuario, id_mesa, total, fecha_venta, uuid_cliente) " +
+        "VALUES (?, ?, ?, COALESCE(?, NOW()), ?::uuid) " +
+        "ON CONFLICT (uuid_cliente) DO NOTHING RETURNING id";
+    static final String VENTA_ID_POR_UUID = "SELECT id FROM ventas WHERE uuid_cliente = ?::uuid";
+    static final String VENTA_ACTUALIZAR = "UPDATE ventas SET id_usuario = ?, id_mesa = ?, total = ? WHERE id = ?";
+    static final String VENTA_ELIMINAR = "DELETE FROM ventas WHERE id = ?";
+    static final String VENTA_POR_ID = "SELECT " + COLUMNAS_VENTA + " FROM ventas WHERE id = ?";
+    static final String VENTA_TODAS = "SELECT " + COLUMNAS_VENTA + " FROM ventas ORDER BY fecha_venta DESC";
+    static final String VENTA_POR_USUARIO =
+        "SELECT " + COLUMNAS_VENTA + " FROM ventas WHERE id_usuario = ? ORDER BY fecha_venta DESC";
+    static final String VENTA_POR_FECHAS =
+        "SELECT " + COLUMNAS_VENTA + " FROM ventas WHERE fecha_venta BETWEEN ? AND ? ORDER BY fecha_venta DESC";
+    static final String VENTA_TOTAL_POR_FECHAS =
+        "SELECT COALESCE(SUM(total), 0) as total FROM ventas WHERE fecha_venta BETWEEN ? AND ?";
+
+    // ==================== DETALLE DE VENTAS ====================
+
+    static final String DETALLE_INSERTAR =
+        "INSERT INTO detalle_ventas (id_venta, id_producto, cantidad, precio_unitario, subtotal) " +
+        "VALUES (?, ?, ?, ?, ?)";
+    static final String DETALLE_ACTUALIZAR =
+        "UPDATE detalle_ventas SET id_venta = ?, id_producto = ?, cantidad = ?, " +
+        "precio_unitario = ?, subtotal = ? WHERE id = ?";
+    static final String DETALLE_ELIMINAR = "DELETE FROM detalle_ventas WHERE id = ?";
+    static final String DETALLE_POR_ID = "SELECT " + COLUMNAS_DETALLE + " FROM detalle_ventas WHERE id = ?";
+    static final String DETALLE_POR_VENTA =
+        "SELECT " + COLUMNAS_DETALLE + " FROM detalle_ventas WHERE id_venta = ? ORDER BY id";
+    static final String DETALLE_TODOS = "SELECT " + COLUMNAS_DETALLE + " FROM detalle_ventas ORDER BY id_venta, id";
+
+    // ==================== EXPORTACIÓN DEL HISTORIAL ====================
+
+    /** Una fila por renglón vendido; el filtro de fechas y el orden se agregan en el DAO. */
+    static final String EXPORTACION_RENGLONES =
+        "SELECT v.id AS id_venta, v.fecha_venta, v.id_usuario, v.id_mesa, v.total AS total_venta, " +
+        "d.id AS id_detalle, d.id_producto, p.nombre AS producto, d.cantidad, d.precio_unitario, d.subtotal " +
+        "FROM ventas v JOIN detalle_ventas d ON d.id_venta = v.id JOIN productos p ON p.id = d.id_producto";
+    static final String EXPORTACION_CONTAR =
+        "SELECT COUNT(*) FROM ventas v JOIN detalle_ventas d ON d.id_venta = v.id";
+    static final String EXPORTACION_ORDEN = " ORDER BY v.fecha_venta, v.id, d.id";
+
+    // ==================== TICKETS ====================
+
+    static final String TICKET_INSERTAR =
+        "INSERT INTO tickets (id_venta, folio, total, cambio, fecha_emision) " +
+        "VALUES (?, ?, ?, ?, COALESCE(?, NOW()))";
+    static final String TICKET_ACTUALIZAR = "UPDATE tickets SET id_venta = ?, folio = ?, total = ?, cambio = ? WHERE id = ?";
+    static final String TICKET_ELIMINAR = "DELETE FROM tickets WHERE id = ?";
+    static final String TICKET_POR_ID = "SELECT " + COLUMNAS_TICKET + " FROM tickets WHERE id = ?";
+    static final String TICKET_POR_FOLIO = "SELECT " + COLUMNAS_TICKET + " FROM tickets WHERE folio = ?";
+    static final String TICKET_POR_VENTA = "SELECT " + COLUMNAS_TICKET + " FROM tickets WHERE id_venta = ?";
+    static final String TICKET_TODOS = "SELECT " + COLUMNAS_TICKET + " FROM tickets ORDER BY fecha_emision DESC";
+    static final String TICKET_PRIMERA_PAGINA =
+        "SELECT " + COLUMNAS_TICKET + " FROM tickets ORDER BY fecha_emision DESC, id DESC LIMIT ?";
+    static final String TICKET_PAGINA_SIGUIENTE =
+        "SELECT " + COLUMNAS_TICKET + " FROM tickets WHERE (fecha_emision, id) < (?, ?) " +
+        "ORDER BY fecha_emision DESC, id DESC LIMIT ?";
+
+    // ==================== FOLIOS ====================
+
+    // Solo folios de bloque (TICK-AAAAMMDD-NNNN); el número se compara como entero
+    static final String FOLIO_ULTIMO_EMITIDO =
+        "SELECT MAX(numero) AS ultimo FROM (" +
+        "SELECT CASE WHEN folio ~ '^TICK-[0-9]{8}-[0-9]{4,9}$' THEN CAST(substr(folio, 15) AS INTEGER) END AS numero " +
+        "FROM tickets WHERE folio LIKE ?) f " +
+        "WHERE numero BETWEEN ? AND ?";
+    static final String FOLIO_INICIALIZAR_CONTADOR =
+        "INSERT INTO folios_diarios (fecha, ultimo) VALUES (?, ?) ON CONFLICT (fecha) DO NOTHING";
+    static final String FOLIO_INCREMENTAR_CONTADOR =
+        "INSERT INTO folios_diarios (fecha, ultimo) VALUES (?, ?) " +
+        "ON CONFLICT (fecha) DO UPDATE SET ultimo = folios_diarios.ultimo + EXCLUDED.ultimo " +
+        "RETURNING ultimo";
+    static final String BLOQUE_INSERTAR =
+        "INSERT INTO bloques_folio (fecha, inicio, fin, terminal, vigente_hasta) " +
+        "VALUES (?, ?, ?, ?, NOW() + make_interval(mins => ?)) RETURNING id";
+    static final String BLOQUE_RENOVAR =
+        "UPDATE bloques_folio SET vigente_hasta = NOW() + make_interval(mins => ?) " +
+        "WHERE id = ? AND terminal = ?";
+    static final String BLOQUE_LIBERAR =
+        "UPDATE bloques_folio SET inicio = ?, terminal = NULL, vigente_hasta = NOW() " +
+        "WHERE id = ? AND terminal = ? AND ? <= fin";
+    static final String BLOQUE_ELIMINAR_AGOTADO = "DELETE FROM bloques_folio WHERE id = ? AND terminal = ? AND ? > fin";
+    static final String BLOQUE_BUSCAR_VENCIDO =
+        "SELECT id, inicio, fin FROM bloques_folio " +
+        "WHERE fecha = ? AND vigente_hasta < NOW() " +
+        "ORDER BY inicio LIMIT 1 FOR UPDATE SKIP LOCKED";
+    static final String BLOQUE_ELIMINAR = "DELETE FROM bloques_folio WHERE id = ?";
+    static final String BLOQUE_TOMAR =
+        "UPDATE bloques_folio SET inicio = ?, terminal = ?, " +
+        "vigente_hasta = NOW() + make_interval(mins => ?) WHERE id = ?";
+
+    // ==================== RESÚMENES DE VENTAS ====================
+
+    static final String RESUMEN_ACUMULAR_HORA =
+        "INSERT INTO ventas_por_hora (hora, id_usuario, cantidad_ventas, total) " +
+        "VALUES (date_trunc('hour', COALESCE(?::timestamp, NOW()::timestamp)), ?, 1, ?) " +
+        "ON CONFLICT (hora, id_usuario) DO UPDATE SET " +
+        "cantidad_ventas = ventas_por_hora.cantidad_ventas + EXCLUDED.cantidad_ventas, " +
+        "total = ventas_por_hora.total + EXCLUDED.total";
+    static final String RESUMEN_ACUMULAR_PRODUCTO =
+        "INSERT INTO productos_por_dia (fecha, id_producto, cantidad, total) " +
+        "VALUES (COALESCE(?::timestamp, NOW()::timestamp)::date, ?, ?, ?) " +
+        "ON CONFLICT (fecha, id_producto) DO UPDATE SET " +
+        "cantidad = productos_por_dia.cantidad + EXCLUDED.cantidad, " +
+        "total = productos_por_dia.total + EXCLUDED.total";
+
+    // ==================== AVISOS ENTRE TERMINALES ====================
+
+    /** Suspende los avisos por fila de los triggers hasta el fin de la transacción. */
+    static final String AVISOS_SUSPENDER = "SELECT set_config('posrest.sin_avisos', 'on', true)";
+    /** Pide a las terminales recargar una tabla completa; se entrega al confirmar la transacción. */
+    static final String AVISO_RESINCRONIZAR = "SELECT pg_notify('posrest_cambios', ? || ':R:0')";
+
+    // ==================== RESPALDO ====================
+
+    static final String RESPALDO_INSERTAR =
+        "INSERT INTO respaldo (tipo_operacion, descripcion, fecha) VALUES (?, ?, COALESCE(?, NOW()))";
+    static final String RESPALDO_ELIMINAR = "DELETE FROM respaldo WHERE id = ?";
+    static final String RESPALDO_POR_ID = "SELECT " + COLUMNAS_RESPALDO + " FROM respaldo WHERE id = ?";
+    static final String RESPALDO_TODOS = "SELECT " + COLUMNAS_RESPALDO + " FROM respaldo ORDER BY fecha DESC";
+    static final String RESPALDO_PRIMERA_PAGINA =
+        "SELECT " + COLUMNAS_RESPALDO + " FROM respaldo ORDER BY fecha DESC, id DESC LIMIT ?";
+    static final String RESPALDO_PAGINA_SIGUIENTE =
+        "SELECT " + COLUMNAS_RESPALDO + " FROM respaldo WHERE (fecha, id) < (?, ?) " +
+        "ORDER BY fecha DESC, id DESC LIMIT ?";
+    static final String RESPALDO_POR_TIPO =
+        "SELECT " + COLUMNAS_RESPALDO + " FROM respaldo WHERE tipo_operacion = ? ORDER BY fecha DESC";
+    static final String RESPALDO_POR_FECHAS =
+        "SELECT " + COLUMNAS_RESPALDO + " FROM respaldo WHERE fecha BETWEEN ? AND ? ORDER BY fecha DESC";
+    static final String RESPALDO_ELIMINAR_ANTERIORES = "DELETE FROM respaldo WHERE fecha < ?";
+}
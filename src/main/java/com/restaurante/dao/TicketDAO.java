@@ -1,8 +1,10 @@
 package com.restaurante.dao;
 
+import com.restaurante.model.Dinero;
 import com.restaurante.model.Ticket;
 import com.restaurante.util.ConexionDB;
 import java.sql.*;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -11,6 +13,9 @@ import java.util.List;
  */
 public class TicketDAO {
     
+    /** Columnas de {@link SentenciasSQL#COLUMNAS_TICKET}, en el orden en que las lee el mapeador. */
+    private static final IndiceColumnas COLUMNAS = new IndiceColumnas(SentenciasSQL.COLUMNAS_TICKET);
+    
     /**
      * Inserta un nuevo ticket en la base de datos.
      * 
@@ -18,22 +23,35 @@ public class TicketDAO {
      * @return true si se insertó correctamente, false en caso contrario
      */
     public boolean insertar(Ticket ticket) {
-        String sql = "INSERT INTO tickets (id_venta, folio, total, cambio) VALUES (?, ?, ?, ?)";
+        try (Connection conn = ConexionDB.obtenerConexion()) {
+            return insertar(conn, ticket);
+        } catch (SQLException e) {
+            System.err.println("Error al insertar ticket: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Inserta un ticket usando una conexión existente.
+     * 
+     * @param conn conexión a utilizar; no se cierra
+     * @param ticket ticket a insertar
+     * @return true si se insertó el registro
+     * @throws SQLException si hay error al insertar
+     */
+    public boolean insertar(Connection conn, Ticket ticket) throws SQLException {
+        String sql = SentenciasSQL.TICKET_INSERTAR;
         
-        try (Connection conn = ConexionDB.obtenerConexion();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setInt(1, ticket.getIdVenta());
             stmt.setString(2, ticket.getFolio());
-            stmt.setDouble(3, ticket.getTotal());
-            stmt.setDouble(4, ticket.getCambio());
+            stmt.setBigDecimal(3, ticket.getTotal().aBigDecimal());
+            stmt.setBigDecimal(4, ticket.getCambio().aBigDecimal());
+            stmt.setTimestamp(5, ticket.getFechaEmision() != null ? Timestamp.valueOf(ticket.getFechaEmision()) : null);
             
             int filasAfectadas = stmt.executeUpdate();
             return filasAfectadas > 0;
-            
-        } catch (SQLException e) {
-            System.err.println("Error al insertar ticket: " + e.getMessage());
-            return false;
         }
     }
     
@@ -44,15 +62,15 @@ public class TicketDAO {
      * @return true si se actualizó correctamente, false en caso contrario
      */
     public boolean actualizar(Ticket ticket) {
-        String sql = "UPDATE tickets SET id_venta = ?, folio = ?, total = ?, cambio = ? WHERE id = ?";
+        String sql = SentenciasSQL.TICKET_ACTUALIZAR;
         
         try (Connection conn = ConexionDB.obtenerConexion();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setInt(1, ticket.getIdVenta());
             stmt.setString(2, ticket.getFolio());
-            stmt.setDouble(3, ticket.getTotal());
-            stmt.setDouble(4, ticket.getCambio());
+            stmt.setBigDecimal(3, ticket.getTotal().aBigDecimal());
+            stmt.setBigDecimal(4, ticket.getCambio().aBigDecimal());
             stmt.setInt(5, ticket.getId());
             
             int filasAfectadas = stmt.executeUpdate();
@@ -71,7 +89,7 @@ public class TicketDAO {
      * @return true si se eliminó correctamente, false en caso contrario
      */
     public boolean eliminar(int id) {
-        String sql = "DELETE FROM tickets WHERE id = ?";
+        String sql = SentenciasSQL.TICKET_ELIMINAR;
         
         try (Connection conn = ConexionDB.obtenerConexion();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -94,7 +112,7 @@ public class TicketDAO {
      * @return ticket encontrado, o null si no existe
      */
     public Ticket buscarPorId(int id) {
-        String sql = "SELECT * FROM tickets WHERE id = ?";
+        String sql = SentenciasSQL.TICKET_POR_ID;
         
         try (Connection conn = ConexionDB.obtenerConexion();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -102,8 +120,9 @@ public class TicketDAO {
             stmt.setInt(1, id);
             
             try (ResultSet rs = stmt.executeQuery()) {
+                int[] col = COLUMNAS.resolver(sql, rs);
                 if (rs.next()) {
-                    return extraerTicket(rs);
+                    return extraerTicket(rs, col);
                 }
             }
             
@@ -121,7 +140,7 @@ public class TicketDAO {
      * @return ticket encontrado, o null si no existe
      */
     public Ticket buscarPorFolio(String folio) {
-        String sql = "SELECT * FROM tickets WHERE folio = ?";
+        String sql = SentenciasSQL.TICKET_POR_FOLIO;
         
         try (Connection conn = ConexionDB.obtenerConexion();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -129,8 +148,9 @@ public class TicketDAO {
             stmt.setString(1, folio);
             
             try (ResultSet rs = stmt.executeQuery()) {
+                int[] col = COLUMNAS.resolver(sql, rs);
                 if (rs.next()) {
-                    return extraerTicket(rs);
+                    return extraerTicket(rs, col);
                 }
             }
             
@@ -148,7 +168,7 @@ public class TicketDAO {
      * @return ticket encontrado, o null si no existe
      */
     public Ticket buscarPorVenta(int idVenta) {
-        String sql = "SELECT * FROM tickets WHERE id_venta = ?";
+        String sql = SentenciasSQL.TICKET_POR_VENTA;
         
         try (Connection conn = ConexionDB.obtenerConexion();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -156,8 +176,9 @@ public class TicketDAO {
             stmt.setInt(1, idVenta);
             
             try (ResultSet rs = stmt.executeQuery()) {
+                int[] col = COLUMNAS.resolver(sql, rs);
                 if (rs.next()) {
-                    return extraerTicket(rs);
+                    return extraerTicket(rs, col);
                 }
             }
             
@@ -170,19 +191,21 @@ public class TicketDAO {
     
     /**
      * Obtiene todos los tickets.
+     * Carga la tabla completa; para listar el historial usar {@link #obtenerPagina(Ticket, int)}.
      * 
      * @return lista de todos los tickets
      */
     public List<Ticket> obtenerTodos() {
         List<Ticket> tickets = new ArrayList<>();
-        String sql = "SELECT * FROM tickets ORDER BY fecha_emision DESC";
+        String sql = SentenciasSQL.TICKET_TODOS;
         
         try (Connection conn = ConexionDB.obtenerConexion();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
+            int[] col = COLUMNAS.resolver(sql, rs);
             while (rs.next()) {
-                tickets.add(extraerTicket(rs));
+                tickets.add(extraerTicket(rs, col));
             }
             
         } catch (SQLException e) {
@@ -193,47 +216,79 @@ public class TicketDAO {
     }
     
     /**
-     * Genera un folio único para un ticket.
+     * Obtiene una página de tickets, del más reciente al más antiguo.
+     * La consulta continúa después del último ticket recibido usando el
+     * índice (fecha_emision, id), sin recorrer las páginas anteriores.
      * 
-     * @return folio único en formato "TICK-YYYYMMDD-NNNN"
+     * @param despuesDe último ticket de la página anterior, o null para la primera página
+     * @param limite cantidad máxima de tickets
+     * @return tickets de la página
      */
-    public String generarFolio() {
-        String sql = "SELECT COUNT(*) as total FROM tickets WHERE DATE(fecha_emision) = CURRENT_DATE";
+    public List<Ticket> obtenerPagina(Ticket despuesDe, int limite) {
+        List<Ticket> tickets = new ArrayList<>();
+        String sql = despuesDe == null
+            ? SentenciasSQL.TICKET_PRIMERA_PAGINA
+            : SentenciasSQL.TICKET_PAGINA_SIGUIENTE;
         
         try (Connection conn = ConexionDB.obtenerConexion();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            int indice = 1;
+            if (despuesDe != null) {
+                stmt.setTimestamp(indice++, Timestamp.valueOf(despuesDe.getFechaEmision()));
+                stmt.setInt(indice++, despuesDe.getId());
+            }
+            stmt.setInt(indice, limite);
             
-            if (rs.next()) {
-                int consecutivo = rs.getInt("total") + 1;
-                java.time.LocalDate hoy = java.time.LocalDate.now();
-                String fecha = hoy.toString().replace("-", "");
-                return String.format("TICK-%s-%04d", fecha, consecutivo);
+            try (ResultSet rs = stmt.executeQuery()) {
+                int[] col = COLUMNAS.resolver(sql, rs);
+                while (rs.next()) {
+                    tickets.add(extraerTicket(rs, col));
+                }
             }
             
         } catch (SQLException e) {
+            System.err.println("Error al obtener página de tickets: " + e.getMessage());
+        }
+        
+        return tickets;
+    }
+    
+    /**
+     * Genera un folio único para un ticket.
+     * Los folios salen del bloque reservado por {@link AsignadorFolios}, por lo
+     * que normalmente no requieren consultar la base de datos. Sin conexión se
+     * usa un folio propio de la terminal.
+     * 
+     * @return folio único en formato "TICK-YYYYMMDD-NNNN"
+     */
+    public String generarFolio() {
+        try {
+            return AsignadorFolios.getInstancia().siguienteFolio();
+        } catch (SQLException | RuntimeException e) {
             System.err.println("Error al generar folio: " + e.getMessage());
         }
         
-        // Folio por defecto en caso de error
-        return "TICK-" + System.currentTimeMillis();
+        // Folio único de la terminal en caso de error
+        return AsignadorFolios.getInstancia().folioSinConexion();
     }
     
     /**
-     * Extrae un objeto Ticket desde un ResultSet.
+     * Extrae un objeto Ticket desde un ResultSet, leyendo por posición.
      * 
      * @param rs ResultSet con datos del ticket
+     * @param col posiciones resueltas por {@link #COLUMNAS} para la consulta
      * @return objeto Ticket
      * @throws SQLException si hay error al leer datos
      */
-    private Ticket extraerTicket(ResultSet rs) throws SQLException {
+    private static Ticket extraerTicket(ResultSet rs, int[] col) throws SQLException {
         Ticket ticket = new Ticket();
-        ticket.setId(rs.getInt("id"));
-        ticket.setIdVenta(rs.getInt("id_venta"));
-        ticket.setFolio(rs.getString("folio"));
-        ticket.setTotal(rs.getDouble("total"));
-        ticket.setCambio(rs.getDouble("cambio"));
-        ticket.setFechaEmision(rs.getTimestamp("fecha_emision").toLocalDateTime());
+        ticket.setId(rs.getInt(col[0]));
+        ticket.setIdVenta(rs.getInt(col[1]));
+        ticket.setFolio(rs.getString(col[2]));
+        ticket.setTotal(Dinero.de(rs.getBigDecimal(col[3])));
+        ticket.setCambio(Dinero.de(rs.getBigDecimal(col[4])));
+        ticket.setFechaEmision(rs.getObject(col[5], LocalDateTime.class));
         return ticket;
     }
 }
@@ -3,6 +3,7 @@ package com.restaurante.dao;
 import com.restaurante.model.Usuario;
 import com.restaurante.util.ConexionDB;
 import java.sql.*;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -11,6 +12,9 @@ import java.util.List;
  */
 public class UsuarioDAO {
     
+    /** Columnas de {@link SentenciasSQL#COLUMNAS_USUARIO}, en el orden en que las lee el mapeador. */
+    private static final IndiceColumnas COLUMNAS = new IndiceColumnas(SentenciasSQL.COLUMNAS_USUARIO);
+    
     /**
      * Inserta un nuevo usuario en la base de datos.
      * 
@@ -18,7 +22,7 @@ public class UsuarioDAO {
      * @return true si se insertó correctamente, false en caso contrario
      */
     public boolean insertar(Usuario usuario) {
-        String sql = "INSERT INTO usuarios (nombre, correo, contraseña_hash, rol) VALUES (?, ?, ?, ?)";
+        String sql = SentenciasSQL.USUARIO_INSERTAR;
         
         try (Connection conn = ConexionDB.obtenerConexion();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -26,7 +30,8 @@ public class UsuarioDAO {
             stmt.setString(1, usuario.getNombre());
             stmt.setString(2, usuario.getCorreo());
             stmt.setString(3, usuario.getContraseñaHash());
-            stmt.setString(4, usuario.getRol());
+            stmt.setString(4, usuario.getPinHash());
+            stmt.setString(5, usuario.getRol());
             
             int filasAfectadas = stmt.executeUpdate();
             return filasAfectadas > 0;
@@ -44,7 +49,7 @@ public class UsuarioDAO {
      * @return true si se actualizó correctamente, false en caso contrario
      */
     public boolean actualizar(Usuario usuario) {
-        String sql = "UPDATE usuarios SET nombre = ?, correo = ?, contraseña_hash = ?, rol = ? WHERE id = ?";
+        String sql = SentenciasSQL.USUARIO_ACTUALIZAR;
         
         try (Connection conn = ConexionDB.obtenerConexion();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -71,7 +76,7 @@ public class UsuarioDAO {
      * @return true si se eliminó correctamente, false en caso contrario
      */
     public boolean eliminar(int id) {
-        String sql = "DELETE FROM usuarios WHERE id = ?";
+        String sql = SentenciasSQL.USUARIO_ELIMINAR;
         
         try (Connection conn = ConexionDB.obtenerConexion();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -94,7 +99,7 @@ public class UsuarioDAO {
      * @return usuario encontrado, o null si no existe
      */
     public Usuario buscarPorId(int id) {
-        String sql = "SELECT * FROM usuarios WHERE id = ?";
+        String sql = SentenciasSQL.USUARIO_POR_ID;
         
         try (Connection conn = ConexionDB.obtenerConexion();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -102,8 +107,9 @@ public class UsuarioDAO {
             stmt.setInt(1, id);
             
             try (ResultSet rs = stmt.executeQuery()) {
+                int[] col = COLUMNAS.resolver(sql, rs);
                 if (rs.next()) {
-                    return extraerUsuario(rs);
+                    return extraerUsuario(rs, col);
                 }
             }
             
@@ -121,7 +127,7 @@ public class UsuarioDAO {
      * @return usuario encontrado, o null si no existe
      */
     public Usuario buscarPorCorreo(String correo) {
-        String sql = "SELECT * FROM usuarios WHERE correo = ?";
+        String sql = SentenciasSQL.USUARIO_POR_CORREO;
         
         try (Connection conn = ConexionDB.obtenerConexion();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -129,8 +135,9 @@ public class UsuarioDAO {
             stmt.setString(1, correo);
             
             try (ResultSet rs = stmt.executeQuery()) {
+                int[] col = COLUMNAS.resolver(sql, rs);
                 if (rs.next()) {
-                    return extraerUsuario(rs);
+                    return extraerUsuario(rs, col);
                 }
             }
             
@@ -142,32 +149,52 @@ public class UsuarioDAO {
     }
     
     /**
-     * Valida las credenciales de un usuario (login).
+     * Guarda un nuevo hash de contraseña (por ejemplo, al migrar una
+     * contraseña en texto plano tras iniciar sesión).
      * 
-     * @param correo correo del usuario
-     * @param contraseña contraseña sin encriptar
-     * @return usuario si las credenciales son válidas, null en caso contrario
+     * @param id ID del usuario
+     * @param contraseñaHash hash generado con {@code Credenciales}
+     * @return true si se actualizó correctamente, false en caso contrario
      */
-    public Usuario validarCredenciales(String correo, String contraseña) {
-        String sql = "SELECT * FROM usuarios WHERE correo = ? AND contraseña_hash = ?";
+    public boolean actualizarContraseña(int id, String contraseñaHash) {
+        String sql = SentenciasSQL.USUARIO_ACTUALIZAR_CONTRASEÑA;
         
         try (Connection conn = ConexionDB.obtenerConexion();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setString(1, correo);
-            stmt.setString(2, contraseña);
+            stmt.setString(1, contraseñaHash);
+            stmt.setInt(2, id);
             
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return extraerUsuario(rs);
-                }
-            }
+            return stmt.executeUpdate() > 0;
             
         } catch (SQLException e) {
-            System.err.println("Error al validar credenciales: " + e.getMessage());
+            System.err.println("Error al actualizar contraseña: " + e.getMessage());
+            return false;
         }
+    }
+    
+    /**
+     * Guarda o quita el PIN de cambio rápido de cajero.
+     * 
+     * @param id ID del usuario
+     * @param pinHash hash generado con {@code Credenciales}, o null para quitarlo
+     * @return true si se actualizó correctamente, false en caso contrario
+     */
+    public boolean actualizarPin(int id, String pinHash) {
+        String sql = SentenciasSQL.USUARIO_ACTUALIZAR_PIN;
         
-        return null;
+        try (Connection conn = ConexionDB.obtenerConexion();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setString(1, pinHash);
+            stmt.setInt(2, id);
+            
+            return stmt.executeUpdate() > 0;
+            
+        } catch (SQLException e) {
+            System.err.println("Error al actualizar PIN: " + e.getMessage());
+            return false;
+        }
     }
     
     /**
@@ -177,14 +204,15 @@ public class UsuarioDAO {
      */
     public List<Usuario> obtenerTodos() {
         List<Usuario> usuarios = new ArrayList<>();
-        String sql = "SELECT * FROM usuarios ORDER BY id";
+        String sql = SentenciasSQL.USUARIO_TODOS;
         
         try (Connection conn = ConexionDB.obtenerConexion();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
+            int[] col = COLUMNAS.resolver(sql, rs);
             while (rs.next()) {
-                usuarios.add(extraerUsuario(rs));
+                usuarios.add(extraerUsuario(rs, col));
             }
             
         } catch (SQLException e) {
@@ -202,7 +230,7 @@ public class UsuarioDAO {
      */
     public List<Usuario> obtenerPorRol(String rol) {
         List<Usuario> usuarios = new ArrayList<>();
-        String sql = "SELECT * FROM usuarios WHERE rol = ? ORDER BY nombre";
+        String sql = SentenciasSQL.USUARIO_POR_ROL;
         
         try (Connection conn = ConexionDB.obtenerConexion();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -210,8 +238,9 @@ public class UsuarioDAO {
             stmt.setString(1, rol);
             
             try (ResultSet rs = stmt.executeQuery()) {
+                int[] col = COLUMNAS.resolver(sql, rs);
                 while (rs.next()) {
-                    usuarios.add(extraerUsuario(rs));
+                    usuarios.add(extraerUsuario(rs, col));
                 }
             }
             
@@ -223,20 +252,22 @@ public class UsuarioDAO {
     }
     
     /**
-     * Extrae un objeto Usuario desde un ResultSet.
+     * Extrae un objeto Usuario desde un ResultSet, leyendo por posición.
      * 
      * @param rs ResultSet con datos del usuario
+     * @param col posiciones resueltas por {@link #COLUMNAS} para la consulta
      * @return objeto Usuario
      * @throws SQLException si hay error al leer datos
      */
-    private Usuario extraerUsuario(ResultSet rs) throws SQLException {
+    private static Usuario extraerUsuario(ResultSet rs, int[] col) throws SQLException {
         Usuario usuario = new Usuario();
-        usuario.setId(rs.getInt("id"));
-        usuario.setNombre(rs.getString("nombre"));
-        usuario.setCorreo(rs.getString("correo"));
-        usuario.setContraseñaHash(rs.getString("contraseña_hash"));
-        usuario.setRol(rs.getString("rol"));
-        usuario.setFechaCreacion(rs.getTimestamp("fecha_creacion").toLocalDateTime());
+        usuario.setId(rs.getInt(col[0]));
+        usuario.setNombre(rs.getString(col[1]));
+        usuario.setCorreo(rs.getString(col[2]));
+        usuario.setContraseñaHash(rs.getString(col[3]));
+        usuario.setPinHash(rs.getString(col[4]));
+        usuario.setRol(rs.getString(col[5]));
+        usuario.setFechaCreacion(rs.getObject(col[6], LocalDateTime.class));
         return usuario;
     }
 }
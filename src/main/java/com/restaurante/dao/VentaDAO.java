@@ -1,5 +1,7 @@
 package com.restaurante.dao;
 
+import com.restaurante.model.Dinero;
+import com.restaurante.model.ResumenVentas;
 import com.restaurante.model.Venta;
 import com.restaurante.util.ConexionDB;
 import java.sql.*;
@@ -12,6 +14,11 @@ import java.util.List;
  */
 public class VentaDAO {
     
+    /** Columnas de {@link SentenciasSQL#COLUMNAS_VENTA}, en el orden en que las lee el mapeador. */
+    private static final IndiceColumnas COLUMNAS = new IndiceColumnas(SentenciasSQL.COLUMNAS_VENTA);
+    
+    private static final String COLUMNA_FECHA = "v.fecha_venta";
+    
     /**
      * Inserta una nueva venta en la base de datos y retorna su ID generado.
      * 
@@ -19,10 +26,29 @@ public class VentaDAO {
      * @return ID de la venta insertada, o -1 si hubo error
      */
     public int insertar(Venta venta) {
-        String sql = "INSERT INTO ventas (id_usuario, id_mesa, total) VALUES (?, ?, ?) RETURNING id";
+        try (Connection conn = ConexionDB.obtenerConexion()) {
+            return insertar(conn, venta);
+        } catch (SQLException e) {
+            System.err.println("Error al insertar venta: " + e.getMessage());
+        }
         
-        try (Connection conn = ConexionDB.obtenerConexion();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        return -1;
+    }
+    
+    /**
+     * Inserta una venta usando una conexión existente (por ejemplo, dentro de
+     * una transacción en curso). Si la venta trae fecha o UUID de cliente se
+     * guardan tal cual; una venta con un UUID ya registrado no se duplica.
+     * 
+     * @param conn conexión a utilizar; no se cierra
+     * @param venta venta a insertar
+     * @return ID de la venta insertada, o -1 si ya existía una venta con el mismo UUID
+     * @throws SQLException si hay error al insertar
+     */
+    public int insertar(Connection conn, Venta venta) throws SQLException {
+        String sql = SentenciasSQL.VENTA_INSERTAR;
+        
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setInt(1, venta.getIdUsuario());
             
@@ -32,16 +58,42 @@ public class VentaDAO {
                 stmt.setNull(2, Types.INTEGER);
             }
             
-            stmt.setDouble(3, venta.getTotal());
+            stmt.setBigDecimal(3, venta.getTotal().aBigDecimal());
+            stmt.setTimestamp(4, venta.getFechaVenta() != null ? Timestamp.valueOf(venta.getFechaVenta()) : null);
+            stmt.setString(5, venta.getUuidCliente());
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
                     return rs.getInt("id");
                 }
             }
+        }
+        
+        if (venta.getUuidCliente() != null) {
+            return -1;
+        }
+        throw new SQLException("La inserción de la venta no devolvió un ID");
+    }
+    
+    /**
+     * Busca el ID de una venta por el UUID generado en la terminal.
+     * 
+     * @param conn conexión a utilizar; no se cierra
+     * @param uuidCliente UUID de la venta
+     * @return ID de la venta, o -1 si no existe
+     * @throws SQLException si hay error al consultar
+     */
+    public int buscarIdPorUuid(Connection conn, String uuidCliente) throws SQLException {
+        String sql = SentenciasSQL.VENTA_ID_POR_UUID;
+        
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, uuidCliente);
             
-        } catch (SQLException e) {
-            System.err.println("Error al insertar venta: " + e.getMessage());
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt("id");
+                }
+            }
         }
         
         return -1;
@@ -54,7 +106,7 @@ public class VentaDAO {
      * @return true si se actualizó correctamente, false en caso contrario
      */
     public boolean actualizar(Venta venta) {
-        String sql = "UPDATE ventas SET id_usuario = ?, id_mesa = ?, total = ? WHERE id = ?";
+        String sql = SentenciasSQL.VENTA_ACTUALIZAR;
         
         try (Connection conn = ConexionDB.obtenerConexion();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -67,7 +119,7 @@ public class VentaDAO {
                 stmt.setNull(2, Types.INTEGER);
             }
             
-            stmt.setDouble(3, venta.getTotal());
+            stmt.setBigDecimal(3, venta.getTotal().aBigDecimal());
             stmt.setInt(4, venta.getId());
             
             int filasAfectadas = stmt.executeUpdate();
@@ -86,7 +138,7 @@ public class VentaDAO {
      * @return true si se eliminó correctamente, false en caso contrario
      */
     public boolean eliminar(int id) {
-        String sql = "DELETE FROM ventas WHERE id = ?";
+        String sql = SentenciasSQL.VENTA_ELIMINAR;
         
         try (Connection conn = ConexionDB.obtenerConexion();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -109,7 +161,7 @@ public class VentaDAO {
      * @return venta encontrada, o null si no existe
      */
     public Venta buscarPorId(int id) {
-        String sql = "SELECT * FROM ventas WHERE id = ?";
+        String sql = SentenciasSQL.VENTA_POR_ID;
         
         try (Connection conn = ConexionDB.obtenerConexion();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -117,8 +169,9 @@ public class VentaDAO {
             stmt.setInt(1, id);
             
             try (ResultSet rs = stmt.executeQuery()) {
+                int[] col = COLUMNAS.resolver(sql, rs);
                 if (rs.next()) {
-                    return extraerVenta(rs);
+                    return extraerVenta(rs, col);
                 }
             }
             
@@ -131,19 +184,21 @@ public class VentaDAO {
     
     /**
      * Obtiene todas las ventas.
+     * Carga la tabla completa; para listar el historial usar {@link #obtenerPagina(LocalDateTime, LocalDateTime, Venta, int)}.
      * 
      * @return lista de todas las ventas
      */
     public List<Venta> obtenerTodas() {
         List<Venta> ventas = new ArrayList<>();
-        String sql = "SELECT * FROM ventas ORDER BY fecha_venta DESC";
+        String sql = SentenciasSQL.VENTA_TODAS;
         
         try (Connection conn = ConexionDB.obtenerConexion();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
+            int[] col = COLUMNAS.resolver(sql, rs);
             while (rs.next()) {
-                ventas.add(extraerVenta(rs));
+                ventas.add(extraerVenta(rs, col));
             }
             
         } catch (SQLException e) {
@@ -161,7 +216,7 @@ public class VentaDAO {
      */
     public List<Venta> obtenerPorUsuario(int idUsuario) {
         List<Venta> ventas = new ArrayList<>();
-        String sql = "SELECT * FROM ventas WHERE id_usuario = ? ORDER BY fecha_venta DESC";
+        String sql = SentenciasSQL.VENTA_POR_USUARIO;
         
         try (Connection conn = ConexionDB.obtenerConexion();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -169,8 +224,9 @@ public class VentaDAO {
             stmt.setInt(1, idUsuario);
             
             try (ResultSet rs = stmt.executeQuery()) {
+                int[] col = COLUMNAS.resolver(sql, rs);
                 while (rs.next()) {
-                    ventas.add(extraerVenta(rs));
+                    ventas.add(extraerVenta(rs, col));
                 }
             }
             
@@ -190,7 +246,7 @@ public class VentaDAO {
      */
     public List<Venta> obtenerPorFechas(LocalDateTime fechaInicio, LocalDateTime fechaFin) {
         List<Venta> ventas = new ArrayList<>();
-        String sql = "SELECT * FROM ventas WHERE fecha_venta BETWEEN ? AND ? ORDER BY fecha_venta DESC";
+        String sql = SentenciasSQL.VENTA_POR_FECHAS;
         
         try (Connection conn = ConexionDB.obtenerConexion();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -199,8 +255,9 @@ public class VentaDAO {
             stmt.setTimestamp(2, Timestamp.valueOf(fechaFin));
             
             try (ResultSet rs = stmt.executeQuery()) {
+                int[] col = COLUMNAS.resolver(sql, rs);
                 while (rs.next()) {
-                    ventas.add(extraerVenta(rs));
+                    ventas.add(extraerVenta(rs, col));
                 }
             }
             
@@ -218,8 +275,8 @@ public class VentaDAO {
      * @param fechaFin fecha de fin
      * @return total de ventas
      */
-    public double calcularTotalPorFechas(LocalDateTime fechaInicio, LocalDateTime fechaFin) {
-        String sql = "SELECT COALESCE(SUM(total), 0) as total FROM ventas WHERE fecha_venta BETWEEN ? AND ?";
+    public Dinero calcularTotalPorFechas(LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+        String sql = SentenciasSQL.VENTA_TOTAL_POR_FECHAS;
         
         try (Connection conn = ConexionDB.obtenerConexion();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -229,7 +286,7 @@ public class VentaDAO {
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return rs.getDouble("total");
+                    return Dinero.de(rs.getBigDecimal("total"));
                 }
             }
             
@@ -237,28 +294,223 @@ public class VentaDAO {
             System.err.println("Error al calcular total de ventas: " + e.getMessage());
         }
         
-        return 0.0;
+        return Dinero.CERO;
     }
-    
+
+    /**
+     * Calcula en la base de datos la cantidad y el monto de las ventas de un período.
+     *
+     * @param fechaInicio fecha de inicio, o null para no acotar
+     * @param fechaFin fecha de fin, o null para no acotar
+     * @return resumen del período; con cero ventas si hubo error
+     */
+    public ResumenVentas obtenerResumen(LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+        String sql = "SELECT COUNT(*) AS cantidad, COALESCE(SUM(v.total), 0) AS total " +
+                     "FROM ventas v" + filtroFechas(fechaInicio, fechaFin);
+
+        try (Connection conn = ConexionDB.obtenerConexion();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            asignarFechas(stmt, 1, fechaInicio, fechaFin);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return new ResumenVentas("Total", rs.getInt("cantidad"), Dinero.de(rs.getBigDecimal("total")));
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error al obtener resumen de ventas: " + e.getMessage());
+        }
+
+        return new ResumenVentas("Total", 0, Dinero.CERO);
+    }
+
+    /**
+     * Agrupa en la base de datos las ventas de un período por día, hora,
+     * usuario o mesa. Solo viaja una fila por grupo.
+     *
+     * @param fechaInicio fecha de inicio, o null para no acotar
+     * @param fechaFin fecha de fin, o null para no acotar
+     * @param agrupacion criterio de agrupación
+     * @return resumen por grupo
+     */
+    public List<ResumenVentas> obtenerResumenAgrupado(LocalDateTime fechaInicio, LocalDateTime fechaFin,
+                                                      Agrupacion agrupacion) {
+        List<ResumenVentas> resumen = new ArrayList<>();
+        String sql = "SELECT " + agrupacion.etiqueta(COLUMNA_FECHA) + " AS grupo, COUNT(*) AS cantidad, " +
+                     "COALESCE(SUM(v.total), 0) AS total FROM ventas v" + agrupacion.union +
+                     filtroFechas(fechaInicio, fechaFin) +
+                     " GROUP BY " + agrupacion.expresion(COLUMNA_FECHA) +
+                     " ORDER BY " + agrupacion.orden(COLUMNA_FECHA);
+
+        try (Connection conn = ConexionDB.obtenerConexion();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            asignarFechas(stmt, 1, fechaInicio, fechaFin);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    resumen.add(new ResumenVentas(rs.getString("grupo"), rs.getInt("cantidad"),
+                                                  Dinero.de(rs.getBigDecimal("total"))));
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error al agrupar ventas: " + e.getMessage());
+        }
+
+        return resumen;
+    }
+
+    /**
+     * Obtiene una página de ventas de un período, de la más reciente a la más
+     * antigua. La página siguiente se pide pasando la última venta recibida;
+     * la consulta continúa desde ahí por el índice (fecha_venta, id) sin
+     * recorrer las filas anteriores, así que cuesta lo mismo en cualquier página.
+     *
+     * @param fechaInicio fecha de inicio, o null para no acotar
+     * @param fechaFin fecha de fin, o null para no acotar
+     * @param despuesDe última venta de la página anterior, o null para la primera página
+     * @param limite cantidad máxima de ventas
+     * @return ventas de la página
+     */
+    public List<Venta> obtenerPagina(LocalDateTime fechaInicio, LocalDateTime fechaFin,
+                                     Venta despuesDe, int limite) {
+        List<Venta> ventas = new ArrayList<>();
+        StringBuilder consulta = new StringBuilder("SELECT " + SentenciasSQL.COLUMNAS_VENTA + " FROM ventas v");
+        consulta.append(filtroFechas(fechaInicio, fechaFin));
+        if (despuesDe != null) {
+            consulta.append(fechaInicio != null || fechaFin != null ? " AND" : " WHERE");
+            consulta.append(" (v.fecha_venta, v.id) < (?, ?)");
+        }
+        consulta.append(" ORDER BY v.fecha_venta DESC, v.id DESC LIMIT ?");
+        String sql = consulta.toString();
+
+        try (Connection conn = ConexionDB.obtenerConexion();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            int indice = asignarFechas(stmt, 1, fechaInicio, fechaFin);
+            if (despuesDe != null) {
+                stmt.setTimestamp(indice++, Timestamp.valueOf(despuesDe.getFechaVenta()));
+                stmt.setInt(indice++, despuesDe.getId());
+            }
+            stmt.setInt(indice, limite);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                int[] col = COLUMNAS.resolver(sql, rs);
+                while (rs.next()) {
+                    ventas.add(extraerVenta(rs, col));
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error al obtener página de ventas: " + e.getMessage());
+        }
+
+        return ventas;
+    }
+
+    /**
+     * Criterios para agrupar ventas en {@link #obtenerResumenAgrupado}.
+     * Las expresiones usan el alias {@code v} y reciben la columna de fecha,
+     * para aplicarse igual a {@code ventas} que a los resúmenes por hora.
+     */
+    public enum Agrupacion {
+        DIA("to_char(date_trunc('day', %1$s), 'DD/MM/YYYY')",
+            "date_trunc('day', %1$s)",
+            "",
+            "date_trunc('day', %1$s) DESC"),
+        HORA("lpad(EXTRACT(HOUR FROM %1$s)::int::text, 2, '0') || ':00'",
+             "EXTRACT(HOUR FROM %1$s)",
+             "",
+             "EXTRACT(HOUR FROM %1$s)"),
+        USUARIO("COALESCE(u.nombre, 'Usuario #' || v.id_usuario)",
+                "v.id_usuario, u.nombre",
+                " LEFT JOIN usuarios u ON u.id = v.id_usuario",
+                "total DESC"),
+        MESA("CASE WHEN v.id_mesa IS NULL THEN 'Sin mesa' " +
+             "ELSE 'Mesa ' || COALESCE(m.numero::text, '#' || v.id_mesa) END",
+             "v.id_mesa, m.numero",
+             " LEFT JOIN mesas m ON m.id = v.id_mesa",
+             "total DESC");
+
+        private final String etiqueta;
+        private final String expresion;
+        final String union;
+        private final String orden;
+
+        Agrupacion(String etiqueta, String expresion, String union, String orden) {
+            this.etiqueta = etiqueta;
+            this.expresion = expresion;
+            this.union = union;
+            this.orden = orden;
+        }
+
+        String etiqueta(String columnaFecha) {
+            return String.format(etiqueta, columnaFecha);
+        }
+
+        String expresion(String columnaFecha) {
+            return String.format(expresion, columnaFecha);
+        }
+
+        String orden(String columnaFecha) {
+            return String.format(orden, columnaFecha);
+        }
+    }
+
+    /**
+     * Arma la condición WHERE del período; los extremos nulos no se filtran.
+     */
+    static String filtroFechas(LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+        StringBuilder filtro = new StringBuilder();
+        if (fechaInicio != null) {
+            filtro.append(" WHERE v.fecha_venta >= ?");
+        }
+        if (fechaFin != null) {
+            filtro.append(fechaInicio != null ? " AND" : " WHERE").append(" v.fecha_venta <= ?");
+        }
+        return filtro.toString();
+    }
+
+    /**
+     * Asigna los extremos no nulos del período a partir del índice dado.
+     *
+     * @return siguiente índice libre
+     */
+    static int asignarFechas(PreparedStatement stmt, int indice, LocalDateTime fechaInicio,
+                             LocalDateTime fechaFin) throws SQLException {
+        if (fechaInicio != null) {
+            stmt.setTimestamp(indice++, Timestamp.valueOf(fechaInicio));
+        }
+        if (fechaFin != null) {
+            stmt.setTimestamp(indice++, Timestamp.valueOf(fechaFin));
+        }
+        return indice;
+    }
+
     /**
-     * Extrae un objeto Venta desde un ResultSet.
+     * Extrae un objeto Venta desde un ResultSet, leyendo por posición.
      * 
      * @param rs ResultSet con datos de la venta
+     * @param col posiciones resueltas por {@link #COLUMNAS} para la consulta
      * @return objeto Venta
      * @throws SQLException si hay error al leer datos
      */
-    private Venta extraerVenta(ResultSet rs) throws SQLException {
+    private static Venta extraerVenta(ResultSet rs, int[] col) throws SQLException {
         Venta venta = new Venta();
-        venta.setId(rs.getInt("id"));
-        venta.setIdUsuario(rs.getInt("id_usuario"));
+        venta.setId(rs.getInt(col[0]));
+        venta.setIdUsuario(rs.getInt(col[1]));
         
-        int idMesa = rs.getInt("id_mesa");
+        int idMesa = rs.getInt(col[2]);
         if (!rs.wasNull()) {
             venta.setIdMesa(idMesa);
         }
         
-        venta.setTotal(rs.getDouble("total"));
-        venta.setFechaVenta(rs.getTimestamp("fecha_venta").toLocalDateTime());
+        venta.setTotal(Dinero.de(rs.getBigDecimal(col[3])));
+        venta.setFechaVenta(rs.getObject(col[4], LocalDateTime.class));
+        venta.setUuidCliente(rs.getString(col[5]));
         return venta;
     }
 }
@@ -9,8 +9,8 @@ public class DetalleVenta {
     private int idVenta;
     private int idProducto;
     private int cantidad;
-    private double precioUnitario;
-    private double subtotal;
+    private Dinero precioUnitario;
+    private Dinero subtotal;
     
     // Constructor vacío
     public DetalleVenta() {
@@ -18,7 +18,7 @@ public class DetalleVenta {
     
     // Constructor completo
     public DetalleVenta(int id, int idVenta, int idProducto, int cantidad, 
-                        double precioUnitario, double subtotal) {
+                        Dinero precioUnitario, Dinero subtotal) {
         this.id = id;
         this.idVenta = idVenta;
         this.idProducto = idProducto;
@@ -29,7 +29,7 @@ public class DetalleVenta {
     
     // Constructor sin ID (para inserción)
     public DetalleVenta(int idVenta, int idProducto, int cantidad, 
-                        double precioUnitario, double subtotal) {
+                        Dinero precioUnitario, Dinero subtotal) {
         this.idVenta = idVenta;
         this.idProducto = idProducto;
         this.cantidad = cantidad;
@@ -70,24 +70,24 @@ public class DetalleVenta {
         this.cantidad = cantidad;
     }
     
-    public double getPrecioUnitario() {
+    public Dinero getPrecioUnitario() {
         return precioUnitario;
     }
     
-    public void setPrecioUnitario(double precioUnitario) {
+    public void setPrecioUnitario(Dinero precioUnitario) {
         this.precioUnitario = precioUnitario;
     }
     
-    public double getSubtotal() {
+    public Dinero getSubtotal() {
         return subtotal;
     }
     
-    public void setSubtotal(double subtotal) {
+    public void setSubtotal(Dinero subtotal) {
         this.subtotal = subtotal;
     }
     
     @Override
     public String toString() {
-        return "Detalle: " + cantidad + " x $" + precioUnitario + " = $" + subtotal;
+        return "Detalle: " + cantidad + " x " + precioUnitario.formatear() + " = " + subtotal.formatear();
     }
 }
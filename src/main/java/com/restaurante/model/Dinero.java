@@ -0,0 +1,210 @@
+package com.restaurante.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Importe en pesos guardado como centavos enteros.
+ *
+ * Es inmutable y todas las operaciones se hacen con aritmética entera, así
+ * que sumar precios o calcular el IVA no acumula errores de punto flotante
+ * ni crea objetos BigDecimal. Los redondeos son HALF_UP, igual que en
+ * {@code NUMERIC(10, 2)}. Solo se convierte a BigDecimal al leer o escribir
+ * en la base de datos.
+ */
+public final class Dinero implements Comparable<Dinero> {
+
+    public static final Dinero CERO = new Dinero(0);
+
+    // Un long admite hasta 9.2e18 centavos; 16 dígitos enteros caben con holgura
+    private static final int DIGITOS_ENTEROS_MAXIMOS = 16;
+
+    // Decimales que se aceptan antes de redondear a centavos
+    private static final int DECIMALES_MAXIMOS = 20;
+
+    private final long centavos;
+
+    private Dinero(long centavos) {
+        this.centavos = centavos;
+    }
+
+    /**
+     * Crea un importe a partir de centavos.
+     *
+     * @param centavos cantidad en centavos
+     * @return importe
+     */
+    public static Dinero deCentavos(long centavos) {
+        return centavos == 0 ? CERO : new Dinero(centavos);
+    }
+
+    /**
+     * Convierte un valor NUMERIC leído de la base de datos.
+     *
+     * @param valor importe; null se toma como cero
+     * @return importe redondeado a centavos
+     */
+    public static Dinero de(BigDecimal valor) {
+        if (valor == null) {
+            return CERO;
+        }
+        return deCentavos(valor.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+    }
+
+    /**
+     * Convierte un importe en double, por ejemplo de registros guardados
+     * antes de usar centavos. Se toma la representación decimal más corta
+     * del double, así que 0.1 se convierte en 10 centavos exactos.
+     *
+     * @param valor importe en pesos
+     * @return importe redondeado a centavos
+     */
+    public static Dinero de(double valor) {
+        return de(BigDecimal.valueOf(valor));
+    }
+
+    /**
+     * Interpreta un importe escrito por el usuario, por ejemplo "150" o "99.90".
+     *
+     * @param texto importe en pesos, sin signo de moneda
+     * @return importe redondeado a centavos
+     * @throws NumberFormatException si el texto no es un número o no cabe
+     *         en centavos
+     */
+    public static Dinero parsear(String texto) {
+        BigDecimal valor = new BigDecimal(texto.trim());
+        if (!cabeEnCentavos(valor)) {
+            throw new NumberFormatException("Importe fuera de rango: " + texto.trim());
+        }
+        try {
+            return de(valor);
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Importe fuera de rango: " + texto.trim());
+        }
+    }
+
+    /**
+     * Indica si un valor se puede redondear a centavos sin desbordar un long.
+     * Se revisa antes de {@code setScale}: con un exponente como "1e99999999"
+     * el redondeo construiría un número de millones de dígitos.
+     *
+     * @param valor importe en pesos
+     * @return true si tiene como máximo 16 dígitos enteros y 20 decimales
+     */
+    public static boolean cabeEnCentavos(BigDecimal valor) {
+        return valor.scale() <= DECIMALES_MAXIMOS
+            && valor.precision() - valor.scale() <= DIGITOS_ENTEROS_MAXIMOS;
+    }
+
+    public long getCentavos() {
+        return centavos;
+    }
+
+    public Dinero sumar(Dinero otro) {
+        return deCentavos(Math.addExact(centavos, otro.centavos));
+    }
+
+    public Dinero restar(Dinero otro) {
+        return deCentavos(Math.subtractExact(centavos, otro.centavos));
+    }
+
+    public Dinero por(int cantidad) {
+        return deCentavos(Math.multiplyExact(centavos, (long) cantidad));
+    }
+
+    /**
+     * Multiplica por una tasa expresada como fracción, redondeando HALF_UP.
+     * Por ejemplo, el IVA del 16% es {@code porTasa(16, 100)}.
+     *
+     * @param numerador numerador de la tasa
+     * @param denominador denominador de la tasa
+     * @return importe resultante en centavos
+     */
+    public Dinero porTasa(long numerador, long denominador) {
+        return deCentavos(dividirRedondeando(Math.multiplyExact(centavos, numerador), denominador));
+    }
+
+    /**
+     * Divide entre una cantidad, redondeando HALF_UP; útil para promedios.
+     *
+     * @param divisor cantidad distinta de cero
+     * @return importe resultante en centavos
+     */
+    public Dinero entre(long divisor) {
+        return deCentavos(dividirRedondeando(centavos, divisor));
+    }
+
+    public boolean esPositivo() {
+        return centavos > 0;
+    }
+
+    public boolean esNegativo() {
+        return centavos < 0;
+    }
+
+    public boolean esMenorQue(Dinero otro) {
+        return centavos < otro.centavos;
+    }
+
+    /**
+     * Convierte a BigDecimal con dos decimales para enviarlo a la base de datos.
+     */
+    public BigDecimal aBigDecimal() {
+        return BigDecimal.valueOf(centavos, 2);
+    }
+
+    /**
+     * Convierte a double; solo para componentes que lo requieren, como gráficas.
+     */
+    public double aDouble() {
+        return centavos / 100.0;
+    }
+
+    /**
+     * Formatea el importe con signo de moneda, por ejemplo "$1234.50".
+     */
+    public String formatear() {
+        return centavos < 0 ? "-$" + cifras(-centavos) : "$" + cifras(centavos);
+    }
+
+    @Override
+    public int compareTo(Dinero otro) {
+        return Long.compare(centavos, otro.centavos);
+    }
+
+    @Override
+    public boolean equals(Object otro) {
+        return otro instanceof Dinero && ((Dinero) otro).centavos == centavos;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(centavos);
+    }
+
+    /**
+     * Importe sin signo de moneda, por ejemplo "1234.50"; se puede volver a
+     * leer con {@link #parsear(String)}.
+     */
+    @Override
+    public String toString() {
+        return centavos < 0 ? "-" + cifras(-centavos) : cifras(centavos);
+    }
+
+    private static String cifras(long centavosPositivos) {
+        long resto = centavosPositivos % 100;
+        return (centavosPositivos / 100) + (resto < 10 ? ".0" : ".") + resto;
+    }
+
+    /**
+     * División entera con redondeo HALF_UP (las mitades se alejan de cero).
+     */
+    private static long dividirRedondeando(long dividendo, long divisor) {
+        long cociente = dividendo / divisor;
+        long residuo = dividendo % divisor;
+        if (Math.abs(residuo) * 2 >= Math.abs(divisor)) {
+            cociente += (dividendo < 0) == (divisor < 0) ? 1 : -1;
+        }
+        return cociente;
+    }
+}
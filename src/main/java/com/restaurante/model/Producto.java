@@ -10,16 +10,17 @@ public class Producto {
     private int id;
     private String nombre;
     private String categoria;
-    private double precio;
+    private Dinero precio;
     private boolean disponible;
     private LocalDateTime fechaRegistro;
+    private LocalDateTime actualizadoEn;
     
     // Constructor vacío
     public Producto() {
     }
     
     // Constructor completo
-    public Producto(int id, String nombre, String categoria, double precio, 
+    public Producto(int id, String nombre, String categoria, Dinero precio, 
                     boolean disponible, LocalDateTime fechaRegistro) {
         this.id = id;
         this.nombre = nombre;
@@ -30,7 +31,7 @@ public class Producto {
     }
     
     // Constructor sin ID (para inserción)
-    public Producto(String nombre, String categoria, double precio, boolean disponible) {
+    public Producto(String nombre, String categoria, Dinero precio, boolean disponible) {
         this.nombre = nombre;
         this.categoria = categoria;
         this.precio = precio;
@@ -62,11 +63,11 @@ public class Producto {
         this.categoria = categoria;
     }
     
-    public double getPrecio() {
+    public Dinero getPrecio() {
         return precio;
     }
     
-    public void setPrecio(double precio) {
+    public void setPrecio(Dinero precio) {
         this.precio = precio;
     }
     
@@ -86,8 +87,16 @@ public class Producto {
         this.fechaRegistro = fechaRegistro;
     }
     
+    public LocalDateTime getActualizadoEn() {
+        return actualizadoEn;
+    }
+    
+    public void setActualizadoEn(LocalDateTime actualizadoEn) {
+        this.actualizadoEn = actualizadoEn;
+    }
+    
     @Override
     public String toString() {
-        return nombre + " - $" + precio;
+        return nombre + " - " + precio.formatear();
     }
 }
@@ -0,0 +1,63 @@
+package com.restaurante.model;
+
+/**
+ * Clase de modelo para un resumen de ventas calculado en la base de datos:
+ * cantidad de ventas y monto total de un período o de un grupo (día, hora,
+ * usuario o mesa).
+ */
+public class ResumenVentas {
+
+    private String grupo;
+    private int cantidadVentas;
+    private Dinero total;
+
+    // Constructor vacío
+    public ResumenVentas() {
+    }
+
+    // Constructor completo
+    public ResumenVentas(String grupo, int cantidadVentas, Dinero total) {
+        this.grupo = grupo;
+        this.cantidadVentas = cantidadVentas;
+        this.total = total;
+    }
+
+    // Getters y Setters
+    public String getGrupo() {
+        return grupo;
+    }
+
+    public void setGrupo(String grupo) {
+        this.grupo = grupo;
+    }
+
+    public int getCantidadVentas() {
+        return cantidadVentas;
+    }
+
+    public void setCantidadVentas(int cantidadVentas) {
+        this.cantidadVentas = cantidadVentas;
+    }
+
+    public Dinero getTotal() {
+        return total;
+    }
+
+    public void setTotal(Dinero total) {
+        this.total = total;
+    }
+
+    /**
+     * Calcula el ticket promedio del grupo.
+     *
+     * @return total entre cantidad de ventas, o cero si no hay ventas
+     */
+    public Dinero getTicketPromedio() {
+        return cantidadVentas > 0 ? total.entre(cantidadVentas) : Dinero.CERO;
+    }
+
+    @Override
+    public String toString() {
+        return grupo + " - " + cantidadVentas + " venta(s), Total: " + total.formatear();
+    }
+}
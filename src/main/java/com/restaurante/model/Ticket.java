@@ -10,8 +10,8 @@ public class Ticket {
     private int id;
     private int idVenta;
     private String folio;
-    private double total;
-    private double cambio;
+    private Dinero total;
+    private Dinero cambio;
     private LocalDateTime fechaEmision;
     
     // Constructor vacío
@@ -19,8 +19,8 @@ public class Ticket {
     }
     
     // Constructor completo
-    public Ticket(int id, int idVenta, String folio, double total, 
-                  double cambio, LocalDateTime fechaEmision) {
+    public Ticket(int id, int idVenta, String folio, Dinero total, 
+                  Dinero cambio, LocalDateTime fechaEmision) {
         this.id = id;
         this.idVenta = idVenta;
         this.folio = folio;
@@ -30,7 +30,7 @@ public class Ticket {
     }
     
     // Constructor sin ID (para inserción)
-    public Ticket(int idVenta, String folio, double total, double cambio) {
+    public Ticket(int idVenta, String folio, Dinero total, Dinero cambio) {
         this.idVenta = idVenta;
         this.folio = folio;
         this.total = total;
@@ -62,19 +62,19 @@ public class Ticket {
         this.folio = folio;
     }
     
-    public double getTotal() {
+    public Dinero getTotal() {
         return total;
     }
     
-    public void setTotal(double total) {
+    public void setTotal(Dinero total) {
         this.total = total;
     }
     
-    public double getCambio() {
+    public Dinero getCambio() {
         return cambio;
     }
     
-    public void setCambio(double cambio) {
+    public void setCambio(Dinero cambio) {
         this.cambio = cambio;
     }
     
@@ -88,6 +88,6 @@ public class Ticket {
     
     @Override
     public String toString() {
-        return "Ticket " + folio + " - Total: $" + total;
+        return "Ticket " + folio + " - Total: " + total.formatear();
     }
 }
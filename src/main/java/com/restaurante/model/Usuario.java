@@ -12,6 +12,7 @@ public class Usuario {
     private String correo;
     private String contraseñaHash;
     private String rol;
+    private String pinHash;
     private LocalDateTime fechaCreacion;
     
     // Constructor vacío
@@ -78,6 +79,17 @@ public class Usuario {
         this.rol = rol;
     }
     
+    /**
+     * @return hash del PIN para el cambio rápido de cajero, o null si no tiene
+     */
+    public String getPinHash() {
+        return pinHash;
+    }
+    
+    public void setPinHash(String pinHash) {
+        this.pinHash = pinHash;
+    }
+    
     public LocalDateTime getFechaCreacion() {
         return fechaCreacion;
     }
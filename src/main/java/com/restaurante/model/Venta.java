@@ -10,15 +10,16 @@ public class Venta {
     private int id;
     private int idUsuario;
     private Integer idMesa; // Puede ser null
-    private double total;
+    private Dinero total;
     private LocalDateTime fechaVenta;
+    private String uuidCliente; // Identificador generado en la terminal (reintentos idempotentes)
     
     // Constructor vacío
     public Venta() {
     }
     
     // Constructor completo
-    public Venta(int id, int idUsuario, Integer idMesa, double total, 
+    public Venta(int id, int idUsuario, Integer idMesa, Dinero total, 
                  LocalDateTime fechaVenta) {
         this.id = id;
         this.idUsuario = idUsuario;
@@ -28,7 +29,7 @@ public class Venta {
     }
     
     // Constructor sin ID (para inserción)
-    public Venta(int idUsuario, Integer idMesa, double total) {
+    public Venta(int idUsuario, Integer idMesa, Dinero total) {
         this.idUsuario = idUsuario;
         this.idMesa = idMesa;
         this.total = total;
@@ -59,11 +60,11 @@ public class Venta {
         this.idMesa = idMesa;
     }
     
-    public double getTotal() {
+    public Dinero getTotal() {
         return total;
     }
     
-    public void setTotal(double total) {
+    public void setTotal(Dinero total) {
         this.total = total;
     }
     
@@ -75,8 +76,16 @@ public class Venta {
         this.fechaVenta = fechaVenta;
     }
     
+    public String getUuidCliente() {
+        return uuidCliente;
+    }
+    
+    public void setUuidCliente(String uuidCliente) {
+        this.uuidCliente = uuidCliente;
+    }
+    
     @Override
     public String toString() {
-        return "Venta #" + id + " - Total: $" + total;
+        return "Venta #" + id + " - Total: " + total.formatear();
     }
 }
@@ -0,0 +1,273 @@
+package com.restaurante.util;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+/**
+ * Avisos de cambios entre terminales con LISTEN/NOTIFY de PostgreSQL.
+ *
+ * Los triggers de {@code CREATE_DB.sql} publican en el canal
+ * {@code posrest_cambios} un aviso corto por cada fila insertada, modificada
+ * o eliminada en {@code mesas}, {@code productos}, {@code ventas} y
+ * {@code usuarios}, con el formato {@code tabla:operación:id}; las cargas
+ * masivas envían en su lugar un solo {@code tabla:R:0}. Una sola
+ * conexión directa (fuera del pool) escucha el canal y reparte cada aviso,
+ * dentro del proceso, a quienes se suscribieron a esa tabla.
+ *
+ * Los avisos se entregan en el hilo del bus: los suscriptores no deben
+ * consultar la base de datos ni tocar componentes de Swing directamente en
+ * el aviso, sino pasar el trabajo a otro hilo. Si la conexión se pierde, el
+ * bus reconecta con espera creciente y, al volver, envía a todos un
+ * {@link Operacion#RESINCRONIZAR}, porque los avisos emitidos mientras tanto
+ * se perdieron.
+ */
+public final class BusCambios {
+
+    private static final String CANAL = "posrest_cambios";
+    private static final int ESPERA_AVISOS_MS = 5_000;
+    /** Sin avisos durante este tiempo se verifica que la conexión siga viva. */
+    private static final long VERIFICAR_CONEXION_MS = 60_000;
+    private static final long REINTENTO_MINIMO_MS = 1_000;
+    private static final long REINTENTO_MAXIMO_MS = 60_000;
+
+    private static BusCambios instancia;
+
+    /**
+     * Tipo de cambio recibido.
+     */
+    public enum Operacion {
+        INSERCION, ACTUALIZACION, ELIMINACION,
+        /** Se perdieron avisos: el suscriptor debe recargar sus datos completos. */
+        RESINCRONIZAR;
+
+        static Operacion desdeCodigo(String codigo) {
+            switch (codigo) {
+                case "I": return INSERCION;
+                case "U": return ACTUALIZACION;
+                case "D": return ELIMINACION;
+                case "R": return RESINCRONIZAR;
+                default: return null;
+            }
+        }
+    }
+
+    /**
+     * Cambio en una fila de una tabla.
+     */
+    public static final class Cambio {
+        private final String tabla;
+        private final Operacion operacion;
+        private final int id;
+
+        Cambio(String tabla, Operacion operacion, int id) {
+            this.tabla = tabla;
+            this.operacion = operacion;
+            this.id = id;
+        }
+
+        public String getTabla() {
+            return tabla;
+        }
+
+        public Operacion getOperacion() {
+            return operacion;
+        }
+
+        /**
+         * @return ID de la fila, o 0 en {@link Operacion#RESINCRONIZAR}
+         */
+        public int getId() {
+            return id;
+        }
+
+        @Override
+        public String toString() {
+            return tabla + ":" + operacion + ":" + id;
+        }
+    }
+
+    /**
+     * Suscripción activa; se cancela al cerrar la ventana que la creó.
+     */
+    public interface Suscripcion {
+        void cancelar();
+    }
+
+    private final Map<String, List<Consumer<Cambio>>> suscriptores = new ConcurrentHashMap<>();
+    private final Thread hilo;
+
+    private volatile boolean activo = true;
+    private volatile boolean conectado = false;
+    private volatile Connection conexion;
+
+    private BusCambios() {
+        this.hilo = new Thread(this::escuchar, "posrest-cambios");
+        this.hilo.setDaemon(true);
+        this.hilo.start();
+
+        ConexionDB.alCerrar(this::detener);
+    }
+
+    /**
+     * Obtiene el bus, abriendo la conexión de escucha la primera vez.
+     *
+     * @return bus de cambios
+     */
+    public static synchronized BusCambios getInstancia() {
+        if (instancia == null) {
+            instancia = new BusCambios();
+        }
+        return instancia;
+    }
+
+    /**
+     * Registra un oyente para los cambios de una tabla.
+     *
+     * @param tabla nombre de la tabla ({@code mesas}, {@code productos},
+     *              {@code ventas} o {@code usuarios})
+     * @param oyente acción ejecutada en el hilo del bus por cada cambio
+     * @return suscripción para cancelar el registro
+     */
+    public Suscripcion suscribir(String tabla, Consumer<Cambio> oyente) {
+        List<Consumer<Cambio>> oyentes = suscriptores.computeIfAbsent(tabla, k -> new CopyOnWriteArrayList<>());
+        oyentes.add(oyente);
+        return () -> oyentes.remove(oyente);
+    }
+
+    /**
+     * Indica si el bus está escuchando. Mientras no lo esté, los cachés deben
+     * seguir refrescándose por su cuenta.
+     *
+     * @return true si la conexión de escucha está abierta
+     */
+    public boolean estaConectado() {
+        return conectado;
+    }
+
+    private void escuchar() {
+        long espera = REINTENTO_MINIMO_MS;
+        boolean primeraConexion = true;
+
+        while (activo) {
+            try (Connection conn = ConexionDB.abrirConexionDirecta()) {
+                conexion = conn;
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("LISTEN " + CANAL);
+                }
+                PGConnection pg = conn.unwrap(PGConnection.class);
+                conectado = true;
+                espera = REINTENTO_MINIMO_MS;
+
+                if (!primeraConexion) {
+                    resincronizarTodo();
+                }
+                primeraConexion = false;
+
+                long ultimaActividad = System.currentTimeMillis();
+                while (activo) {
+                    PGNotification[] avisos = pg.getNotifications(ESPERA_AVISOS_MS);
+                    long ahora = System.currentTimeMillis();
+                    if (avisos != null && avisos.length > 0) {
+                        for (PGNotification aviso : avisos) {
+                            repartir(aviso.getParameter());
+                        }
+                        ultimaActividad = ahora;
+                    } else if (ahora - ultimaActividad > VERIFICAR_CONEXION_MS) {
+                        if (!conn.isValid(5)) {
+                            throw new SQLException("La conexión de avisos dejó de responder");
+                        }
+                        ultimaActividad = ahora;
+                    }
+                }
+            } catch (SQLException e) {
+                if (!activo) {
+                    break;
+                }
+                System.err.println("Bus de cambios desconectado, reintento en " + espera / 1000 + " s: "
+                                   + e.getMessage());
+            } finally {
+                conectado = false;
+                conexion = null;
+            }
+
+            if (!activo) {
+                break;
+            }
+            try {
+                Thread.sleep(espera);
+            } catch (InterruptedException e) {
+                break;
+            }
+            espera = Math.min(espera * 2, REINTENTO_MAXIMO_MS);
+        }
+    }
+
+    private void repartir(String carga) {
+        // Formato: tabla:operación:id
+        int primero = carga.indexOf(':');
+        int segundo = carga.indexOf(':', primero + 1);
+        if (primero <= 0 || segundo <= primero) {
+            System.err.println("Aviso de cambio ignorado: " + carga);
+            return;
+        }
+
+        String tabla = carga.substring(0, primero);
+        Operacion operacion = Operacion.desdeCodigo(carga.substring(primero + 1, segundo));
+        int id;
+        try {
+            id = Integer.parseInt(carga.substring(segundo + 1));
+        } catch (NumberFormatException e) {
+            id = -1;
+        }
+        if (operacion == null || id < 0) {
+            System.err.println("Aviso de cambio ignorado: " + carga);
+            return;
+        }
+
+        notificar(new Cambio(tabla, operacion, id));
+    }
+
+    private void resincronizarTodo() {
+        for (String tabla : suscriptores.keySet()) {
+            notificar(new Cambio(tabla, Operacion.RESINCRONIZAR, 0));
+        }
+    }
+
+    private void notificar(Cambio cambio) {
+        List<Consumer<Cambio>> oyentes = suscriptores.get(cambio.getTabla());
+        if (oyentes == null) {
+            return;
+        }
+        for (Consumer<Cambio> oyente : oyentes) {
+            try {
+                oyente.accept(cambio);
+            } catch (RuntimeException e) {
+                System.err.println("Error al procesar el cambio " + cambio + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Deja de escuchar y cierra la conexión del bus.
+     */
+    private void detener() {
+        activo = false;
+        hilo.interrupt();
+        Connection conn = conexion;
+        if (conn != null) {
+            try {
+                conn.close();
+            } catch (SQLException e) {
+                // La conexión ya estaba cerrada
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.restaurante.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperCompileManager;
+
+/**
+ * Compila las plantillas .jrxml de un directorio a archivos .jasper.
+ *
+ * Maven lo ejecuta en la fase {@code process-classes} sobre
+ * {@code target/classes/reportes}, de modo que el .jar lleva los reportes ya
+ * compilados y {@link JasperReportManager} no compila en tiempo de ejecución.
+ * Las plantillas cuyo .jasper es más reciente se omiten.
+ */
+public final class CompiladorReportes {
+
+    private CompiladorReportes() {
+    }
+
+    /**
+     * @param args directorio con las plantillas .jrxml
+     * @throws IOException si no se puede recorrer el directorio
+     * @throws JRException si alguna plantilla no compila (falla la construcción)
+     */
+    public static void main(String[] args) throws IOException, JRException {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Uso: CompiladorReportes <directorio de reportes>");
+        }
+
+        Path directorio = Paths.get(args[0]);
+        if (!Files.isDirectory(directorio)) {
+            System.out.println("No hay reportes que compilar en " + directorio);
+            return;
+        }
+
+        List<Path> plantillas;
+        try (Stream<Path> archivos = Files.walk(directorio)) {
+            plantillas = archivos.filter(p -> p.toString().endsWith(".jrxml")).collect(Collectors.toList());
+        }
+
+        int compilados = 0;
+        for (Path plantilla : plantillas) {
+            String nombre = plantilla.getFileName().toString();
+            Path destino = plantilla.resolveSibling(nombre.substring(0, nombre.length() - ".jrxml".length()) + ".jasper");
+
+            if (Files.exists(destino) &&
+                Files.getLastModifiedTime(destino).compareTo(Files.getLastModifiedTime(plantilla)) >= 0) {
+                continue;
+            }
+
+            JasperCompileManager.compileReportToFile(plantilla.toString(), destino.toString());
+            compilados++;
+        }
+
+        System.out.println("✓ Reportes compilados: " + compilados + " de " + plantillas.size());
+    }
+}
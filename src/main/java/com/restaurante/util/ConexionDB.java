@@ -4,29 +4,54 @@ import com.restaurante.config.SupabaseConfig;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Gestor de conexiones a la base de datos.
- * Implementa el patrón Singleton para reutilizar conexiones.
+ * Administra un pool acotado de conexiones reutilizables: cerrar la conexión
+ * obtenida (por ejemplo con try-with-resources) la devuelve al pool en lugar
+ * de cerrar la conexión física con Supabase.
  */
 public class ConexionDB {
-    
-    private static Connection conexion = null;
-    
+
+    // Configuración del pool
+    private static final int POOL_MINIMO = 2;
+    // También fija los hilos de EjecutorAsincrono
+    static final int POOL_MAXIMO = 8;
+    private static final long ESPERA_MAXIMA_MS = 10_000;
+    private static final long INACTIVIDAD_MAXIMA_MS = 5 * 60_000;
+    private static final long UMBRAL_FUGA_MS = 60_000;
+
+    private static PoolConexiones pool = null;
+    private static boolean cierreRegistrado = false;
+    private static final List<Runnable> tareasAlCerrar = new ArrayList<>();
+
     /**
      * Constructor privado para evitar instanciación.
      */
     private ConexionDB() {
     }
-    
+
     /**
-     * Obtiene una conexión activa a la base de datos.
-     * Si no existe conexión o está cerrada, crea una nueva.
-     * 
+     * Obtiene una conexión del pool.
+     * La conexión debe cerrarse al terminar de usarla para devolverla al pool.
+     *
      * @return conexión activa a la base de datos
-     * @throws SQLException si hay error al conectar
+     * @throws SQLException si hay error al conectar o se agota la espera
      */
     public static Connection obtenerConexion() throws SQLException {
+        return obtenerPool().prestar();
+    }
+
+    /**
+     * Abre una conexión física nueva, fuera del pool.
+     * Útil para conexiones de larga duración; quien la abre debe cerrarla.
+     *
+     * @return conexión nueva a la base de datos
+     * @throws SQLException si hay error al conectar
+     */
+    public static Connection abrirConexionDirecta() throws SQLException {
         // Verificar si la configuración está completa
         if (!SupabaseConfig.isConfigured()) {
             throw new SQLException(
@@ -34,58 +59,119 @@ public class ConexionDB {
                 "Por favor, edita el archivo SupabaseConfig.java con tus credenciales reales."
             );
         }
-        
-        // Si no hay conexión o está cerrada, crear una nueva
-        if (conexion == null || conexion.isClosed()) {
-            try {
-                // Cargar el driver de PostgreSQL
-                Class.forName("org.postgresql.Driver");
-                
-                // Crear la conexión
-                String url = SupabaseConfig.getJdbcUrl();
-                String user = SupabaseConfig.getDbUser();
-                String password = SupabaseConfig.getDbPassword();
-                
-                conexion = DriverManager.getConnection(url, user, password);
-                
-                System.out.println("✓ Conexión a Supabase establecida correctamente");
-                
-            } catch (ClassNotFoundException e) {
-                throw new SQLException("Driver de PostgreSQL no encontrado: " + e.getMessage());
-            } catch (SQLException e) {
-                throw new SQLException("Error al conectar con Supabase: " + e.getMessage());
-            }
+
+        try {
+            // Cargar el driver de PostgreSQL
+            Class.forName("org.postgresql.Driver");
+
+            String url = SupabaseConfig.getJdbcUrl();
+            String user = SupabaseConfig.getDbUser();
+            String password = SupabaseConfig.getDbPassword();
+
+            return DriverManager.getConnection(url, user, password);
+
+        } catch (ClassNotFoundException e) {
+            throw new SQLException("Driver de PostgreSQL no encontrado: " + e.getMessage());
+        } catch (SQLException e) {
+            throw new SQLException("Error al conectar con Supabase: " + e.getMessage());
         }
-        
-        return conexion;
     }
-    
+
+    /**
+     * Abre las conexiones mínimas del pool por adelantado.
+     *
+     * @throws SQLException si no se puede conectar
+     */
+    public static void precalentar() throws SQLException {
+        obtenerPool().precalentar();
+    }
+
+    /**
+     * Registra una tarea que debe ejecutarse, mientras el pool sigue abierto,
+     * justo antes de cerrarlo (por ejemplo, liberar recursos en la base de datos).
+     *
+     * @param tarea tarea a ejecutar antes del cierre
+     */
+    public static synchronized void alCerrar(Runnable tarea) {
+        tareasAlCerrar.add(tarea);
+    }
+
     /**
-     * Cierra la conexión activa si existe.
+     * Cierra el pool y todas sus conexiones libres.
+     *
+     * Las tareas de cierre se ejecutan fuera del candado de esta clase: suelen
+     * esperar a hilos que todavía necesitan pedir conexiones al pool.
      */
     public static void cerrarConexion() {
-        if (conexion != null) {
+        List<Runnable> tareas;
+        synchronized (ConexionDB.class) {
+            if (pool == null) {
+                return;
+            }
+            tareas = new ArrayList<>(tareasAlCerrar);
+        }
+
+        for (Runnable tarea : tareas) {
             try {
-                if (!conexion.isClosed()) {
-                    conexion.close();
-                    System.out.println("✓ Conexión cerrada");
-                }
-            } catch (SQLException e) {
-                System.err.println("Error al cerrar conexión: " + e.getMessage());
+                tarea.run();
+            } catch (RuntimeException e) {
+                System.err.println("Error en tarea de cierre: " + e.getMessage());
+            }
+        }
+
+        synchronized (ConexionDB.class) {
+            if (pool != null) {
+                System.out.println("✓ " + pool.obtenerEstadisticas());
+                pool.cerrar();
+                pool = null;
+                System.out.println("✓ Conexiones cerradas");
             }
         }
     }
-    
+
     /**
      * Verifica si hay una conexión activa.
-     * 
-     * @return true si hay conexión activa, false en caso contrario
+     *
+     * @return true si el pool tiene conexiones abiertas, false en caso contrario
      */
-    public static boolean hayConexion() {
-        try {
-            return conexion != null && !conexion.isClosed();
-        } catch (SQLException e) {
-            return false;
+    public static synchronized boolean hayConexion() {
+        return pool != null && pool.hayConexiones();
+    }
+
+    /**
+     * Obtiene las estadísticas de uso del pool (préstamos, tiempos de espera, fugas).
+     *
+     * @return estadísticas actuales, o null si el pool no se ha creado
+     */
+    public static synchronized PoolConexiones.Estadisticas obtenerEstadisticas() {
+        return pool != null ? pool.obtenerEstadisticas() : null;
+    }
+
+    private static synchronized PoolConexiones obtenerPool() throws SQLException {
+        // Verificar si la configuración está completa
+        if (!SupabaseConfig.isConfigured()) {
+            throw new SQLException(
+                "ERROR: La configuración de Supabase no está completa.\n" +
+                "Por favor, edita el archivo SupabaseConfig.java con tus credenciales reales."
+            );
+        }
+
+        if (pool == null) {
+            pool = new PoolConexiones(
+                ConexionDB::abrirConexionDirecta,
+                POOL_MINIMO,
+                POOL_MAXIMO,
+                ESPERA_MAXIMA_MS,
+                INACTIVIDAD_MAXIMA_MS,
+                UMBRAL_FUGA_MS
+            );
+            if (!cierreRegistrado) {
+                Runtime.getRuntime().addShutdownHook(new Thread(ConexionDB::cerrarConexion, "posrest-cierre-pool"));
+                cierreRegistrado = true;
+            }
+            System.out.println("✓ Pool de conexiones a Supabase inicializado");
         }
+
+        return pool;
     }
 }
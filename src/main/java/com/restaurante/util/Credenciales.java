@@ -0,0 +1,160 @@
+package com.restaurante.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * Hash y verificación de contraseñas y PIN con PBKDF2 (HMAC-SHA256) y sal
+ * aleatoria.
+ *
+ * El valor guardado tiene la forma {@code pbkdf2$iteraciones$sal$hash} (sal y
+ * hash en Base64), así que se puede subir el número de iteraciones sin
+ * invalidar los hashes anteriores. Los valores que no tienen ese formato son
+ * contraseñas en texto plano de bases creadas antes de este cambio: se
+ * comparan en tiempo constante y {@link #requiereActualizacion(String)} indica
+ * que deben volver a guardarse con hash.
+ *
+ * Verificar es lento a propósito (decenas de milisegundos), por eso se hace
+ * en {@link #ejecutar(Supplier)}, con hilos propios que no ocupan los del
+ * {@link EjecutorAsincrono} reservados para la base de datos.
+ */
+public final class Credenciales {
+
+    private static final String ALGORITMO = "PBKDF2WithHmacSHA256";
+    private static final String PREFIJO = "pbkdf2$";
+    private static final int ITERACIONES = 120_000;
+    private static final int BYTES_SAL = 16;
+    private static final int BITS_HASH = 256;
+    private static final int HILOS = 2;
+
+    private static final SecureRandom ALEATORIO = new SecureRandom();
+    private static final ExecutorService EJECUTOR = crearEjecutor();
+
+    private Credenciales() {
+    }
+
+    /**
+     * Calcula el hash de una contraseña o PIN con una sal nueva.
+     *
+     * @param secreto contraseña o PIN en texto plano
+     * @return valor a guardar en la base de datos
+     */
+    public static String generarHash(String secreto) {
+        byte[] sal = new byte[BYTES_SAL];
+        ALEATORIO.nextBytes(sal);
+        byte[] hash = derivar(secreto, sal, ITERACIONES);
+
+        Base64.Encoder base64 = Base64.getEncoder().withoutPadding();
+        return PREFIJO + ITERACIONES + "$" + base64.encodeToString(sal) + "$" + base64.encodeToString(hash);
+    }
+
+    /**
+     * Verifica una contraseña o PIN contra el valor guardado.
+     *
+     * @param secreto contraseña o PIN en texto plano
+     * @param almacenado valor guardado, o null si no hay
+     * @return true si coincide
+     */
+    public static boolean verificar(String secreto, String almacenado) {
+        if (secreto == null || almacenado == null || almacenado.isEmpty()) {
+            return false;
+        }
+
+        if (!almacenado.startsWith(PREFIJO)) {
+            return MessageDigest.isEqual(secreto.getBytes(StandardCharsets.UTF_8),
+                                         almacenado.getBytes(StandardCharsets.UTF_8));
+        }
+
+        String[] partes = almacenado.split("\\$");
+        if (partes.length != 4) {
+            System.err.println("Hash de credencial con formato inválido");
+            return false;
+        }
+        try {
+            int iteraciones = Integer.parseInt(partes[1]);
+            byte[] sal = Base64.getDecoder().decode(partes[2]);
+            byte[] esperado = Base64.getDecoder().decode(partes[3]);
+            return MessageDigest.isEqual(derivar(secreto, sal, iteraciones), esperado);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Hash de credencial con formato inválido: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Indica si el valor guardado es un hash PBKDF2 y no una contraseña en
+     * texto plano.
+     *
+     * @param almacenado valor guardado
+     * @return true si tiene el formato {@code pbkdf2$...}
+     */
+    public static boolean esHash(String almacenado) {
+        return almacenado != null && almacenado.startsWith(PREFIJO);
+    }
+
+    /**
+     * Indica si el valor guardado está en texto plano o con menos iteraciones
+     * de las actuales, y conviene reemplazarlo tras una verificación correcta.
+     *
+     * @param almacenado valor guardado
+     * @return true si debe volver a calcularse el hash
+     */
+    public static boolean requiereActualizacion(String almacenado) {
+        if (almacenado == null || !almacenado.startsWith(PREFIJO)) {
+            return true;
+        }
+        int fin = almacenado.indexOf('$', PREFIJO.length());
+        try {
+            return fin < 0 || Integer.parseInt(almacenado.substring(PREFIJO.length(), fin)) < ITERACIONES;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Ejecuta una verificación de credenciales en segundo plano.
+     *
+     * @param tarea tarea a ejecutar
+     * @param <T> tipo del resultado
+     * @return futuro con el resultado de la tarea
+     */
+    public static <T> CompletableFuture<T> ejecutar(Supplier<T> tarea) {
+        return CompletableFuture.supplyAsync(tarea, EJECUTOR);
+    }
+
+    private static byte[] derivar(String secreto, byte[] sal, int iteraciones) {
+        PBEKeySpec especificacion = new PBEKeySpec(secreto.toCharArray(), sal, iteraciones, BITS_HASH);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITMO).generateSecret(especificacion).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("PBKDF2 no disponible: " + e.getMessage(), e);
+        } finally {
+            especificacion.clearPassword();
+        }
+    }
+
+    private static ExecutorService crearEjecutor() {
+        AtomicInteger contador = new AtomicInteger();
+        ThreadPoolExecutor ejecutor = new ThreadPoolExecutor(
+            HILOS, HILOS, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+            r -> {
+                Thread hilo = new Thread(r, "posrest-credenciales-" + contador.incrementAndGet());
+                hilo.setDaemon(true);
+                return hilo;
+            });
+        ejecutor.allowCoreThreadTimeOut(true);
+        return ejecutor;
+    }
+}
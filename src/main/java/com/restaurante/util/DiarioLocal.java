@@ -0,0 +1,404 @@
+package com.restaurante.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * Diario local de solo agregado (write-ahead log) sobre archivos mapeados en memoria.
+ *
+ * Los registros se escriben en segmentos de tamaño fijo ({@code segmento-NNNNNNNN.wal})
+ * y cada escritura se fuerza a disco antes de volver, así que un registro
+ * agregado sobrevive a un cierre inesperado de la aplicación o del equipo.
+ * El archivo {@code checkpoint} guarda hasta dónde se procesaron los registros;
+ * los segmentos ya procesados se borran. En Windows un segmento no se puede
+ * borrar mientras siga mapeado (el mapeo se libera con el recolector de
+ * basura), así que el borrado se reintenta en cada confirmación y al abrir.
+ *
+ * Formato de cada registro: longitud (int), CRC32 de los datos (int) y datos.
+ * Una longitud 0 marca el final de lo escrito en el segmento. Al abrir el
+ * diario, un registro incompleto o con CRC inválido (escritura interrumpida)
+ * se descarta junto con todo lo que le sigue.
+ */
+public final class DiarioLocal {
+
+    private static final int MAGICO = 0x50535741; // "PSWA"
+    private static final int CABECERA_SEGMENTO = 8;
+    private static final int CABECERA_REGISTRO = 8;
+    private static final String PREFIJO = "segmento-";
+    private static final String EXTENSION = ".wal";
+
+    private final Path directorio;
+    private final int tamanoSegmento;
+
+    private long segmentoActual;
+    private MappedByteBuffer escritura;
+    private FileChannel canalEscritura;
+
+    private long segmentoConfirmado;
+    private int posicionConfirmada;
+
+    // Segmentos cuyo borrado ya falló y se avisó, para no repetir el aviso
+    private final Set<Long> sinBorrar = new HashSet<>();
+
+    /**
+     * Posición dentro del diario: segmento y desplazamiento en bytes.
+     */
+    public static final class Posicion {
+        private final long segmento;
+        private final int desplazamiento;
+
+        private Posicion(long segmento, int desplazamiento) {
+            this.segmento = segmento;
+            this.desplazamiento = desplazamiento;
+        }
+
+        public long getSegmento() {
+            return segmento;
+        }
+
+        public int getDesplazamiento() {
+            return desplazamiento;
+        }
+    }
+
+    /**
+     * Registro leído del diario junto con la posición donde termina.
+     */
+    public static final class Registro {
+        private final byte[] datos;
+        private final Posicion fin;
+
+        private Registro(byte[] datos, Posicion fin) {
+            this.datos = datos;
+            this.fin = fin;
+        }
+
+        public byte[] getDatos() {
+            return datos;
+        }
+
+        /**
+         * @return posición a confirmar una vez procesado este registro
+         */
+        public Posicion getFin() {
+            return fin;
+        }
+    }
+
+    /**
+     * Abre (o crea) el diario en el directorio indicado y recupera la
+     * posición de escritura a partir del último registro válido.
+     *
+     * @param directorio directorio del diario
+     * @param tamanoSegmento tamaño en bytes de cada segmento
+     * @throws IOException si no se puede crear o leer el diario
+     */
+    public DiarioLocal(Path directorio, int tamanoSegmento) throws IOException {
+        this.directorio = directorio;
+        this.tamanoSegmento = tamanoSegmento;
+        Files.createDirectories(directorio);
+
+        leerCheckpoint();
+        // Antes de mapear nada: aquí ningún segmento procesado sigue mapeado
+        borrarSegmentosProcesados();
+
+        List<Long> segmentos = listarSegmentos();
+        long ultimo = segmentos.isEmpty() ? Math.max(1, segmentoConfirmado) : segmentos.get(segmentos.size() - 1);
+        abrirSegmento(ultimo);
+        recuperarPosicion();
+    }
+
+    /**
+     * Agrega un registro al final del diario y lo fuerza a disco.
+     *
+     * @param datos contenido del registro
+     * @throws IOException si no se puede escribir
+     */
+    public synchronized void agregar(byte[] datos) throws IOException {
+        int necesario = CABECERA_REGISTRO + datos.length;
+        if (necesario > tamanoSegmento - CABECERA_SEGMENTO - CABECERA_REGISTRO) {
+            throw new IOException("Registro demasiado grande para el diario: " + datos.length + " bytes");
+        }
+
+        // Se deja siempre espacio para una cabecera vacía que marque el final
+        if (escritura.position() + necesario > tamanoSegmento - CABECERA_REGISTRO) {
+            abrirSegmento(segmentoActual + 1);
+        }
+
+        int inicio = escritura.position();
+        escritura.position(inicio + CABECERA_REGISTRO);
+        escritura.put(datos);
+        int fin = escritura.position();
+
+        // La longitud se escribe al final: hasta entonces el registro no existe
+        escritura.putInt(inicio + 4, crc(datos));
+        escritura.putInt(inicio, datos.length);
+        escritura.force();
+        escritura.position(fin);
+    }
+
+    /**
+     * Lee registros pendientes a partir de la última posición confirmada.
+     *
+     * @param maximo número máximo de registros a devolver
+     * @return registros en orden de escritura (vacío si no hay pendientes)
+     * @throws IOException si no se puede leer
+     */
+    public synchronized List<Registro> leerPendientes(int maximo) throws IOException {
+        List<Registro> registros = new ArrayList<>();
+        long segmento = segmentoConfirmado;
+        int posicion = posicionConfirmada;
+
+        while (registros.size() < maximo && segmento <= segmentoActual) {
+            Path archivo = rutaSegmento(segmento);
+            if (!Files.exists(archivo)) {
+                segmento++;
+                posicion = CABECERA_SEGMENTO;
+                continue;
+            }
+
+            try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+                ByteBuffer cabecera = ByteBuffer.allocate(CABECERA_REGISTRO);
+                while (registros.size() < maximo) {
+                    if (segmento == segmentoActual && posicion >= escritura.position()) {
+                        return registros;
+                    }
+
+                    cabecera.clear();
+                    int longitud = 0;
+                    int crcEsperado = 0;
+                    if (posicion + CABECERA_REGISTRO <= tamanoSegmento
+                        && canal.read(cabecera, posicion) == CABECERA_REGISTRO) {
+                        cabecera.flip();
+                        longitud = cabecera.getInt();
+                        crcEsperado = cabecera.getInt();
+                    }
+                    if (longitud <= 0) {
+                        break; // Fin del segmento
+                    }
+
+                    ByteBuffer datos = ByteBuffer.allocate(longitud);
+                    canal.read(datos, posicion + CABECERA_REGISTRO);
+                    if (crc(datos.array()) != crcEsperado) {
+                        throw new IOException("Registro dañado en " + archivo.getFileName() + " posición " + posicion);
+                    }
+
+                    posicion += CABECERA_REGISTRO + longitud;
+                    registros.add(new Registro(datos.array(), new Posicion(segmento, posicion)));
+                }
+            }
+
+            if (segmento == segmentoActual) {
+                break;
+            }
+            segmento++;
+            posicion = CABECERA_SEGMENTO;
+        }
+
+        return registros;
+    }
+
+    /**
+     * Marca como procesados todos los registros hasta la posición indicada
+     * (inclusive) y borra los segmentos que ya no contienen pendientes.
+     *
+     * @param hasta posición final del último registro procesado
+     * @throws IOException si no se puede guardar el checkpoint
+     */
+    public synchronized void confirmar(Posicion hasta) throws IOException {
+        segmentoConfirmado = hasta.segmento;
+        posicionConfirmada = hasta.desplazamiento;
+        escribirCheckpoint();
+        borrarSegmentosProcesados();
+    }
+
+    /**
+     * Borra los segmentos anteriores al confirmado. Si uno no se puede borrar
+     * (por ejemplo, sigue mapeado en Windows) se avisa y se reintenta después.
+     */
+    private void borrarSegmentosProcesados() throws IOException {
+        for (Long segmento : listarSegmentos()) {
+            if (segmento >= segmentoConfirmado) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(rutaSegmento(segmento));
+                sinBorrar.remove(segmento);
+            } catch (IOException e) {
+                if (sinBorrar.add(segmento)) {
+                    System.err.println("Diario local: no se pudo borrar " + rutaSegmento(segmento).getFileName() +
+                                       ", se reintentará: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Indica si quedan registros sin confirmar.
+     *
+     * @return true si hay pendientes
+     */
+    public synchronized boolean hayPendientes() {
+        return segmentoConfirmado < segmentoActual || posicionConfirmada < escritura.position();
+    }
+
+    /**
+     * Cierra el segmento abierto.
+     */
+    public synchronized void cerrar() {
+        try {
+            if (escritura != null) {
+                escritura.force();
+            }
+            if (canalEscritura != null) {
+                canalEscritura.close();
+            }
+        } catch (IOException e) {
+            System.err.println("Error al cerrar el diario local: " + e.getMessage());
+        }
+    }
+
+    private void abrirSegmento(long numero) throws IOException {
+        if (canalEscritura != null) {
+            escritura.force();
+            canalEscritura.close();
+        }
+
+        Path archivo = rutaSegmento(numero);
+        boolean nuevo = !Files.exists(archivo);
+        canalEscritura = FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                          StandardOpenOption.WRITE);
+        // Reemplazar el mapeo deja el anterior sin referencias, para que el
+        // recolector lo libere y su segmento se pueda borrar al confirmarlo
+        escritura = canalEscritura.map(FileChannel.MapMode.READ_WRITE, 0, tamanoSegmento);
+        segmentoActual = numero;
+
+        if (nuevo) {
+            escritura.putInt(0, MAGICO);
+            escritura.putInt(4, tamanoSegmento);
+            escritura.force();
+            // Forzar también los metadatos del archivo nuevo (tamaño)
+            canalEscritura.force(true);
+        }
+        escritura.position(CABECERA_SEGMENTO);
+    }
+
+    private void recuperarPosicion() throws IOException {
+        if (escritura.getInt(0) != MAGICO) {
+            throw new IOException("El archivo " + rutaSegmento(segmentoActual).getFileName() + " no es un segmento del diario");
+        }
+
+        int posicion = CABECERA_SEGMENTO;
+        while (posicion + CABECERA_REGISTRO <= tamanoSegmento) {
+            int longitud = escritura.getInt(posicion);
+            if (longitud <= 0 || posicion + CABECERA_REGISTRO + longitud > tamanoSegmento) {
+                break;
+            }
+            byte[] datos = new byte[longitud];
+            ByteBuffer vista = escritura.duplicate();
+            vista.position(posicion + CABECERA_REGISTRO);
+            vista.get(datos);
+            if (crc(datos) != escritura.getInt(posicion + 4)) {
+                System.err.println("Diario local: se descarta un registro incompleto en " +
+                                   rutaSegmento(segmentoActual).getFileName());
+                break;
+            }
+            posicion += CABECERA_REGISTRO + longitud;
+        }
+
+        // Limpiar restos de escrituras interrumpidas para que no se lean después
+        boolean limpiado = false;
+        for (int i = posicion; i < tamanoSegmento; i++) {
+            if (escritura.get(i) != 0) {
+                escritura.put(i, (byte) 0);
+                limpiado = true;
+            }
+        }
+        if (limpiado) {
+            escritura.force();
+        }
+        escritura.position(posicion);
+
+        if (segmentoConfirmado == 0 || segmentoConfirmado > segmentoActual) {
+            List<Long> segmentos = listarSegmentos();
+            segmentoConfirmado = segmentos.isEmpty() ? segmentoActual : segmentos.get(0);
+            posicionConfirmada = CABECERA_SEGMENTO;
+        }
+    }
+
+    private void leerCheckpoint() throws IOException {
+        Path archivo = directorio.resolve("checkpoint");
+        if (!Files.exists(archivo)) {
+            return;
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(archivo));
+        if (buffer.remaining() < 16) {
+            return;
+        }
+        long segmento = buffer.getLong();
+        int posicion = buffer.getInt();
+        int crcGuardado = buffer.getInt();
+
+        ByteBuffer contenido = ByteBuffer.allocate(12).putLong(segmento).putInt(posicion);
+        if (crc(contenido.array()) == crcGuardado) {
+            segmentoConfirmado = segmento;
+            posicionConfirmada = posicion;
+        } else {
+            System.err.println("Diario local: checkpoint dañado, se reprocesará desde el primer segmento");
+        }
+    }
+
+    private void escribirCheckpoint() throws IOException {
+        ByteBuffer contenido = ByteBuffer.allocate(12).putLong(segmentoConfirmado).putInt(posicionConfirmada);
+        ByteBuffer buffer = ByteBuffer.allocate(16).put(contenido.array()).putInt(crc(contenido.array()));
+        buffer.flip();
+
+        Path temporal = directorio.resolve("checkpoint.tmp");
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                  StandardOpenOption.TRUNCATE_EXISTING)) {
+            canal.write(buffer);
+            canal.force(true);
+        }
+        Files.move(temporal, directorio.resolve("checkpoint"), StandardCopyOption.REPLACE_EXISTING,
+                   StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private List<Long> listarSegmentos() throws IOException {
+        List<Long> segmentos = new ArrayList<>();
+        try (DirectoryStream<Path> archivos = Files.newDirectoryStream(directorio, PREFIJO + "*" + EXTENSION)) {
+            for (Path archivo : archivos) {
+                String nombre = archivo.getFileName().toString();
+                try {
+                    segmentos.add(Long.parseLong(nombre.substring(PREFIJO.length(), nombre.length() - EXTENSION.length())));
+                } catch (NumberFormatException e) {
+                    System.err.println("Diario local: se ignora el archivo " + nombre);
+                }
+            }
+        }
+        segmentos.sort(null);
+        return segmentos;
+    }
+
+    private Path rutaSegmento(long numero) {
+        return directorio.resolve(String.format("%s%08d%s", PREFIJO, numero, EXTENSION));
+    }
+
+    private static int crc(byte[] datos) {
+        CRC32 crc = new CRC32();
+        crc.update(datos, 0, datos.length);
+        return (int) crc.getValue();
+    }
+}
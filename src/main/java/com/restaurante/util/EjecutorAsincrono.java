@@ -0,0 +1,77 @@
+package com.restaurante.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import javax.swing.SwingUtilities;
+
+/**
+ * Ejecuta operaciones de base de datos fuera del hilo de eventos de Swing.
+ *
+ * Los controladores exponen variantes "Async" que devuelven un
+ * {@link CompletableFuture}; las ventanas usan {@link #enUI} para recibir el
+ * resultado de vuelta en el hilo de eventos. El número de hilos coincide con
+ * el máximo del pool de conexiones, de modo que las tareas no compiten por
+ * conexiones que no existen.
+ */
+public final class EjecutorAsincrono {
+
+    private static final int HILOS = ConexionDB.POOL_MAXIMO;
+
+    private static final ExecutorService EJECUTOR = crearEjecutor();
+
+    private EjecutorAsincrono() {
+    }
+
+    /**
+     * Ejecuta una tarea en segundo plano.
+     *
+     * @param tarea tarea a ejecutar (normalmente una llamada a un DAO)
+     * @param <T> tipo del resultado
+     * @return futuro con el resultado de la tarea
+     */
+    public static <T> CompletableFuture<T> ejecutar(Supplier<T> tarea) {
+        return CompletableFuture.supplyAsync(tarea, EJECUTOR);
+    }
+
+    /**
+     * Entrega el resultado de un futuro en el hilo de eventos de Swing.
+     *
+     * @param futuro operación en curso
+     * @param alTerminar acción con el resultado, ejecutada en el hilo de eventos
+     * @param alFallar acción con el error, ejecutada en el hilo de eventos
+     * @param <T> tipo del resultado
+     */
+    public static <T> void enUI(CompletableFuture<T> futuro, Consumer<T> alTerminar,
+                                Consumer<Throwable> alFallar) {
+        futuro.whenComplete((resultado, error) -> SwingUtilities.invokeLater(() -> {
+            if (error != null) {
+                Throwable causa = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+                System.err.println("Error en operación en segundo plano: " + causa.getMessage());
+                alFallar.accept(causa);
+            } else {
+                alTerminar.accept(resultado);
+            }
+        }));
+    }
+
+    private static ExecutorService crearEjecutor() {
+        AtomicInteger contador = new AtomicInteger();
+        ThreadPoolExecutor ejecutor = new ThreadPoolExecutor(
+            HILOS, HILOS, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+            r -> {
+                Thread hilo = new Thread(r, "posrest-async-" + contador.incrementAndGet());
+                hilo.setDaemon(true);
+                return hilo;
+            });
+        ejecutor.allowCoreThreadTimeOut(true);
+        return ejecutor;
+    }
+}
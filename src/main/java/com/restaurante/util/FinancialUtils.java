@@ -1,8 +1,7 @@
 package com.restaurante.util;
 
 import com.restaurante.controller.VentaController;
-import java.math.BigDecimal;
-import java.math.RoundingMode;
+import com.restaurante.model.Dinero;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -12,7 +11,9 @@ import java.util.List;
  */
 public final class FinancialUtils {
 
-    private static final BigDecimal IVA_RATE = new BigDecimal("0.16");
+    // IVA del 16%, como fracción para aplicarlo sobre centavos enteros
+    private static final long IVA_NUMERADOR = 16;
+    private static final long IVA_DENOMINADOR = 100;
 
     private FinancialUtils() {
         // Utility class
@@ -22,24 +23,54 @@ public final class FinancialUtils {
      * Calcula subtotal, IVA y total a partir de los ítems de una venta.
      *
      * @param items lista de ítems vendidos
-     * @return contenedor con subtotal, IVA y total redondeados a dos decimales
+     * @return contenedor con subtotal, IVA (redondeado HALF_UP a centavos) y total
      */
     public static TotalesVenta calcularTotales(List<VentaController.ItemVenta> items) {
-        BigDecimal subtotal = BigDecimal.ZERO;
+        long subtotal = 0;
 
         if (items != null) {
             for (VentaController.ItemVenta item : items) {
                 if (item != null) {
-                    subtotal = subtotal.add(BigDecimal.valueOf(item.getSubtotal()));
+                    subtotal = Math.addExact(subtotal,
+                            Math.multiplyExact(item.getProducto().getPrecio().getCentavos(), (long) item.getCantidad()));
                 }
             }
         }
 
-        subtotal = subtotal.setScale(2, RoundingMode.HALF_UP);
-        BigDecimal iva = subtotal.multiply(IVA_RATE).setScale(2, RoundingMode.HALF_UP);
-        BigDecimal total = subtotal.add(iva).setScale(2, RoundingMode.HALF_UP);
+        Dinero base = Dinero.deCentavos(subtotal);
+        Dinero iva = calcularIva(base);
+        return new TotalesVenta(base, iva, base.sumar(iva));
+    }
+
+    /**
+     * Desglosa el total registrado de un ticket en subtotal e IVA para
+     * imprimirlo. El total es el guardado en la venta; si el subtotal de los
+     * ítems lo excede, se toma el IVA calculado y el subtotal se ajusta.
+     *
+     * @param totalRegistrado total guardado en el ticket
+     * @param items ítems vendidos
+     * @return subtotal, IVA y total registrado
+     */
+    public static TotalesVenta desglosarTicket(Dinero totalRegistrado, List<VentaController.ItemVenta> items) {
+        TotalesVenta totales = calcularTotales(items);
+        Dinero subtotal = totales.getSubtotal();
+        Dinero iva = totalRegistrado.restar(subtotal);
 
-        return new TotalesVenta(subtotal.doubleValue(), iva.doubleValue(), total.doubleValue());
+        if (iva.esNegativo()) {
+            iva = totales.getIva();
+            subtotal = totalRegistrado.restar(iva);
+        }
+        return new TotalesVenta(subtotal, iva, totalRegistrado);
+    }
+
+    /**
+     * Calcula el IVA de un importe, redondeado HALF_UP a centavos.
+     *
+     * @param base importe antes de impuestos
+     * @return IVA correspondiente
+     */
+    public static Dinero calcularIva(Dinero base) {
+        return base.porTasa(IVA_NUMERADOR, IVA_DENOMINADOR);
     }
 
     /**
@@ -61,36 +92,29 @@ public final class FinancialUtils {
         return copia;
     }
 
-    /**
-     * Redondea un valor monetario a dos decimales usando HALF_UP.
-     */
-    public static double redondear(double valor) {
-        return BigDecimal.valueOf(valor).setScale(2, RoundingMode.HALF_UP).doubleValue();
-    }
-
     /**
      * Contenedor inmutable de totales de una venta.
      */
     public static final class TotalesVenta {
-        private final double subtotal;
-        private final double iva;
-        private final double total;
+        private final Dinero subtotal;
+        private final Dinero iva;
+        private final Dinero total;
 
-        public TotalesVenta(double subtotal, double iva, double total) {
+        public TotalesVenta(Dinero subtotal, Dinero iva, Dinero total) {
             this.subtotal = subtotal;
             this.iva = iva;
             this.total = total;
         }
 
-        public double getSubtotal() {
+        public Dinero getSubtotal() {
             return subtotal;
         }
 
-        public double getIva() {
+        public Dinero getIva() {
             return iva;
         }
 
-        public double getTotal() {
+        public Dinero getTotal() {
             return total;
         }
     }
@@ -1,24 +1,61 @@
 package com.restaurante.util;
 
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import net.sf.jasperreports.engine.DefaultJasperReportsContext;
+import net.sf.jasperreports.engine.JREmptyDataSource;
 import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JRParameter;
 import net.sf.jasperreports.engine.JasperCompileManager;
 import net.sf.jasperreports.engine.JasperFillManager;
 import net.sf.jasperreports.engine.JasperPrint;
 import net.sf.jasperreports.engine.JasperReport;
+import net.sf.jasperreports.engine.SimpleJasperReportsContext;
+import net.sf.jasperreports.engine.export.JRPdfExporter;
+import net.sf.jasperreports.engine.export.ooxml.JRXlsxExporter;
+import net.sf.jasperreports.engine.fill.JRSwapFileVirtualizer;
+import net.sf.jasperreports.engine.query.JRJdbcQueryExecuterFactory;
 import net.sf.jasperreports.engine.util.JRLoader;
+import net.sf.jasperreports.engine.util.JRSwapFile;
+import net.sf.jasperreports.export.SimpleExporterInput;
+import net.sf.jasperreports.export.SimpleOutputStreamExporterOutput;
 import net.sf.jasperreports.view.JasperViewer;
 
 /**
  * Utilitario centralizado para cargar y mostrar reportes de JasperReports.
+ *
+ * Los reportes compilados se guardan en memoria por nombre, así que cada
+ * plantilla se carga una sola vez. La construcción de Maven incluye los .jasper
+ * precompilados (ver {@link CompiladorReportes}). En desarrollo se puede
+ * indicar la carpeta de plantillas con la propiedad del sistema
+ * {@code posrest.reportes.dir} (por ejemplo {@code src/main/resources/reportes}):
+ * los .jrxml se leen de ahí y se vuelven a compilar cuando cambian.
  */
 public final class JasperReportManager {
 
     private static final String REPORT_FOLDER = "/reportes/";
+    private static final String DIRECTORIO_DESARROLLO = System.getProperty("posrest.reportes.dir");
+
+    private static final Map<String, ReporteCompilado> CACHE = new ConcurrentHashMap<>();
+
+    // Reportes grandes: páginas en memoria antes de pasar al archivo de intercambio
+    private static final int PAGINAS_EN_MEMORIA = 20;
+    private static final int TAMANO_BLOQUE_SWAP = 4096;
+    private static final int BLOQUES_CRECIMIENTO_SWAP = 1024;
+    private static final String FILAS_POR_LECTURA = "500";
+
+    private static final SimpleJasperReportsContext CONTEXTO_CURSOR = crearContextoCursor();
 
     private JasperReportManager() {
     }
@@ -35,24 +72,228 @@ public final class JasperReportManager {
     public static void mostrarReporteEnPantalla(String nombreReporte, Map<String, Object> parametros)
         throws JRException, SQLException {
 
+        mostrarEnPantalla(llenarReporte(nombreReporte, parametros));
+    }
+
+    /**
+     * Carga y llena un reporte con datos de la base de datos, sin mostrarlo.
+     * Puede ejecutarse fuera del hilo de eventos de Swing.
+     *
+     * @param nombreReporte nombre base del archivo dentro de src/main/resources/reportes (sin extensión)
+     * @param parametros    mapa de parámetros a inyectar en el reporte
+     * @return reporte lleno, listo para mostrarse o exportarse
+     * @throws JRException   si falla la carga o generación del reporte
+     * @throws SQLException  si no es posible obtener la conexión a la base de datos
+     */
+    public static JasperPrint llenarReporte(String nombreReporte, Map<String, Object> parametros)
+        throws JRException, SQLException {
+
         JasperReport reporte = cargarReporte(nombreReporte);
-        Connection conexion = ConexionDB.obtenerConexion();
-        JasperPrint impresion = JasperFillManager.fillReport(reporte, parametros, conexion);
+        try (Connection conexion = ConexionDB.obtenerConexion()) {
+            return JasperFillManager.fillReport(reporte, parametros, conexion);
+        }
+    }
 
+    /**
+     * Muestra un reporte ya lleno en el visor de Jasper.
+     *
+     * @param impresion reporte lleno
+     */
+    public static void mostrarEnPantalla(JasperPrint impresion) {
         JasperViewer viewer = new JasperViewer(impresion, false);
         viewer.setTitle("Reportes Jasper");
         viewer.setVisible(true);
     }
 
     /**
-     * Intenta cargar un archivo .jasper precompilado y, si no existe, compila el .jrxml
-     * correspondiente almacenado en el mismo directorio.
+     * Llena un reporte que puede tener muchas páginas sin guardarlas todas en
+     * memoria. Las filas se leen de la base de datos con un cursor de solo
+     * avance, de 500 en 500, y
+     * las páginas llenas pasan a un archivo de intercambio temporal.
+     * Puede ejecutarse fuera del hilo de eventos de Swing.
+     *
+     * @param nombreReporte nombre base del archivo dentro de src/main/resources/reportes (sin extensión)
+     * @param parametros    mapa de parámetros a inyectar en el reporte
+     * @return reporte lleno; se debe liberar con {@link ReporteGrande#liberar()}
+     * @throws JRException   si falla la carga o generación del reporte
+     * @throws SQLException  si no es posible obtener la conexión a la base de datos
+     */
+    public static ReporteGrande llenarReporteGrande(String nombreReporte, Map<String, Object> parametros)
+        throws JRException, SQLException {
+
+        JasperReport reporte = cargarReporte(nombreReporte);
+        JRSwapFileVirtualizer virtualizador = new JRSwapFileVirtualizer(PAGINAS_EN_MEMORIA,
+            new JRSwapFile(System.getProperty("java.io.tmpdir"), TAMANO_BLOQUE_SWAP, BLOQUES_CRECIMIENTO_SWAP), true);
+
+        Map<String, Object> parametrosLlenado = new HashMap<>(parametros);
+        parametrosLlenado.put(JRParameter.REPORT_VIRTUALIZER, virtualizador);
+
+        try (Connection conexion = ConexionDB.obtenerConexion()) {
+            // PostgreSQL solo respeta el tamaño de lectura dentro de una transacción
+            conexion.setAutoCommit(false);
+            JasperPrint impresion = JasperFillManager.getInstance(CONTEXTO_CURSOR)
+                .fill(reporte, parametrosLlenado, conexion);
+            conexion.commit();
+            virtualizador.setReadOnly(true);
+            return new ReporteGrande(impresion, virtualizador);
+        } catch (JRException | SQLException | RuntimeException e) {
+            virtualizador.cleanup();
+            throw e;
+        }
+    }
+
+    /**
+     * Muestra un reporte grande en el visor de Jasper y libera su archivo de
+     * intercambio al cerrar la ventana.
+     *
+     * @param reporte reporte lleno con {@link #llenarReporteGrande}
+     */
+    public static void mostrarEnPantalla(ReporteGrande reporte) {
+        JasperViewer viewer = new JasperViewer(reporte.getImpresion(), false);
+        viewer.setTitle("Reportes Jasper");
+        viewer.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                reporte.liberar();
+            }
+        });
+        viewer.setVisible(true);
+    }
+
+    /**
+     * Llena un reporte grande y lo escribe directamente en un archivo PDF o
+     * XLSX, según la extensión del destino, sin pasar por el visor.
+     * Puede ejecutarse fuera del hilo de eventos de Swing.
+     *
+     * @param nombreReporte nombre base del archivo dentro de src/main/resources/reportes (sin extensión)
+     * @param parametros    mapa de parámetros a inyectar en el reporte
+     * @param destino       archivo .pdf o .xlsx
+     * @return ruta del archivo escrito
+     * @throws JRException   si falla la generación o la exportación
+     * @throws SQLException  si no es posible obtener la conexión a la base de datos
+     */
+    public static Path exportarReporte(String nombreReporte, Map<String, Object> parametros, Path destino)
+        throws JRException, SQLException {
+
+        String nombreArchivo = destino.getFileName().toString().toLowerCase();
+        boolean excel = nombreArchivo.endsWith(".xlsx");
+        if (!excel && !nombreArchivo.endsWith(".pdf")) {
+            throw new JRException("Formato de exportación no soportado: " + destino.getFileName());
+        }
+
+        ReporteGrande reporte = llenarReporteGrande(nombreReporte, parametros);
+        try {
+            SimpleExporterInput entrada = new SimpleExporterInput(reporte.getImpresion());
+            SimpleOutputStreamExporterOutput salida = new SimpleOutputStreamExporterOutput(destino.toFile());
+            try {
+                if (excel) {
+                    JRXlsxExporter exportador = new JRXlsxExporter();
+                    exportador.setExporterInput(entrada);
+                    exportador.setExporterOutput(salida);
+                    exportador.exportReport();
+                } else {
+                    JRPdfExporter exportador = new JRPdfExporter();
+                    exportador.setExporterInput(entrada);
+                    exportador.setExporterOutput(salida);
+                    exportador.exportReport();
+                }
+            } finally {
+                salida.close();
+            }
+            return destino;
+        } finally {
+            reporte.liberar();
+        }
+    }
+
+    /**
+     * Carga un reporte y lo llena una vez sin datos, exportándolo a PDF a un
+     * flujo vacío, para que el motor de llenado, las fuentes y el exportador
+     * ya estén cargados cuando se pida el primer reporte real. No usa la base
+     * de datos.
+     *
+     * @param nombreReporte nombre base del archivo (sin extensión)
+     * @throws JRException si falla la carga o el llenado del reporte
+     */
+    public static void precalentar(String nombreReporte) throws JRException {
+        JasperReport reporte = cargarReporte(nombreReporte);
+        JasperPrint impresion = JasperFillManager.fillReport(reporte, new HashMap<>(), new JREmptyDataSource(1));
+
+        JRPdfExporter exportador = new JRPdfExporter();
+        exportador.setExporterInput(new SimpleExporterInput(impresion));
+        exportador.setExporterOutput(new SimpleOutputStreamExporterOutput(OutputStream.nullOutputStream()));
+        exportador.exportReport();
+    }
+
+    private static SimpleJasperReportsContext crearContextoCursor() {
+        SimpleJasperReportsContext contexto = new SimpleJasperReportsContext(DefaultJasperReportsContext.getInstance());
+        contexto.setProperty(JRJdbcQueryExecuterFactory.PROPERTY_JDBC_RESULT_SET_TYPE, "forwardOnly");
+        contexto.setProperty(JRJdbcQueryExecuterFactory.PROPERTY_JDBC_CONCURRENCY, "readOnly");
+        contexto.setProperty(JRJdbcQueryExecuterFactory.PROPERTY_JDBC_FETCH_SIZE, FILAS_POR_LECTURA);
+        return contexto;
+    }
+
+    /**
+     * Obtiene un reporte compilado. La primera vez se carga el .jasper
+     * precompilado o, si no existe, se compila el .jrxml; después se usa la
+     * copia en memoria.
      *
      * @param nombreReporte nombre base del archivo (sin extensión)
      * @return reporte Jasper listo para ser llenado con datos
      * @throws JRException si los archivos no existen o hay errores al compilarlos
      */
     public static JasperReport cargarReporte(String nombreReporte) throws JRException {
+        if (DIRECTORIO_DESARROLLO != null) {
+            return cargarDesarrollo(nombreReporte);
+        }
+
+        ReporteCompilado enCache = CACHE.get(nombreReporte);
+        if (enCache != null) {
+            return enCache.reporte;
+        }
+
+        synchronized (CACHE) {
+            enCache = CACHE.get(nombreReporte);
+            if (enCache == null) {
+                enCache = new ReporteCompilado(leerReporte(nombreReporte), 0);
+                CACHE.put(nombreReporte, enCache);
+            }
+            return enCache.reporte;
+        }
+    }
+
+    /**
+     * Vacía la caché de reportes compilados.
+     */
+    public static void limpiarCache() {
+        CACHE.clear();
+    }
+
+    /**
+     * Compila el .jrxml de la carpeta de desarrollo si cambió desde la última vez.
+     */
+    private static JasperReport cargarDesarrollo(String nombreReporte) throws JRException {
+        Path plantilla = Paths.get(DIRECTORIO_DESARROLLO, nombreReporte + ".jrxml");
+
+        synchronized (CACHE) {
+            long modificado;
+            try {
+                modificado = Files.getLastModifiedTime(plantilla).toMillis();
+            } catch (IOException e) {
+                throw new JRException("No se encontró la plantilla Jasper: " + plantilla, e);
+            }
+
+            ReporteCompilado enCache = CACHE.get(nombreReporte);
+            if (enCache == null || enCache.modificado != modificado) {
+                System.out.println("Compilando reporte " + plantilla);
+                enCache = new ReporteCompilado(JasperCompileManager.compileReport(plantilla.toString()), modificado);
+                CACHE.put(nombreReporte, enCache);
+            }
+            return enCache.reporte;
+        }
+    }
+
+    private static JasperReport leerReporte(String nombreReporte) throws JRException {
         String basePath = REPORT_FOLDER + nombreReporte;
 
         try (InputStream jasperStream = JasperReportManager.class.getResourceAsStream(basePath + ".jasper")) {
@@ -72,4 +313,41 @@ public final class JasperReportManager {
             throw new JRException("Error al leer la plantilla .jrxml: " + e.getMessage(), e);
         }
     }
+
+    /**
+     * Reporte compilado y la fecha de modificación de la plantilla de la que salió.
+     */
+    private static final class ReporteCompilado {
+        private final JasperReport reporte;
+        private final long modificado;
+
+        ReporteCompilado(JasperReport reporte, long modificado) {
+            this.reporte = reporte;
+            this.modificado = modificado;
+        }
+    }
+
+    /**
+     * Reporte lleno cuyas páginas viven en un archivo de intercambio temporal.
+     */
+    public static final class ReporteGrande {
+        private final JasperPrint impresion;
+        private final JRSwapFileVirtualizer virtualizador;
+
+        private ReporteGrande(JasperPrint impresion, JRSwapFileVirtualizer virtualizador) {
+            this.impresion = impresion;
+            this.virtualizador = virtualizador;
+        }
+
+        public JasperPrint getImpresion() {
+            return impresion;
+        }
+
+        /**
+         * Borra el archivo de intercambio. El reporte ya no se puede usar después.
+         */
+        public void liberar() {
+            virtualizador.cleanup();
+        }
+    }
 }
@@ -0,0 +1,463 @@
+package com.restaurante.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool acotado de conexiones JDBC.
+ *
+ * Mantiene entre {@code minimo} y {@code maximo} conexiones físicas abiertas,
+ * valida cada conexión antes de prestarla, descarta las que llevan demasiado
+ * tiempo inactivas y avisa cuando una conexión prestada no se devuelve.
+ * Las conexiones entregadas son envoltorios: al llamar a {@code close()}
+ * regresan al pool en lugar de cerrarse.
+ */
+public class PoolConexiones {
+
+    /**
+     * Fábrica de conexiones físicas.
+     */
+    public interface FabricaConexiones {
+        Connection crear() throws SQLException;
+    }
+
+    /** Conexiones devueltas hace menos de este tiempo no se revalidan. */
+    private static final long VENTANA_SIN_VALIDAR_MS = 500;
+    private static final int TIMEOUT_VALIDACION_SEG = 2;
+    private static final long PERIODO_MANTENIMIENTO_MS = 30_000;
+
+    private final FabricaConexiones fabrica;
+    private final int minimo;
+    private final int maximo;
+    private final long esperaMaximaMs;
+    private final long inactividadMaximaMs;
+    private final long umbralFugaMs;
+
+    private final Semaphore permisos;
+    private final Deque<ConexionFisica> libres = new ArrayDeque<>();
+    private final Set<Prestamo> prestadas = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService mantenimiento;
+    private volatile boolean cerrado = false;
+
+    // Estadísticas
+    private final AtomicLong prestamos = new AtomicLong();
+    private final AtomicLong esperaTotalNanos = new AtomicLong();
+    private final AtomicLong esperaMaximaNanos = new AtomicLong();
+    private final AtomicLong tiemposAgotados = new AtomicLong();
+    private final AtomicLong creadas = new AtomicLong();
+    private final AtomicLong descartadas = new AtomicLong();
+    private final AtomicLong fugasDetectadas = new AtomicLong();
+
+    /**
+     * Crea un pool de conexiones.
+     *
+     * @param fabrica fábrica de conexiones físicas
+     * @param minimo número mínimo de conexiones abiertas
+     * @param maximo número máximo de conexiones (prestadas + libres)
+     * @param esperaMaximaMs tiempo máximo de espera para obtener una conexión
+     * @param inactividadMaximaMs tiempo tras el cual se cierra una conexión libre sobrante
+     * @param umbralFugaMs tiempo prestada tras el cual se reporta una posible fuga
+     */
+    public PoolConexiones(FabricaConexiones fabrica, int minimo, int maximo,
+                          long esperaMaximaMs, long inactividadMaximaMs, long umbralFugaMs) {
+        if (minimo < 0 || maximo <= 0 || minimo > maximo) {
+            throw new IllegalArgumentException("Tamaños de pool inválidos: min=" + minimo + ", max=" + maximo);
+        }
+        this.fabrica = fabrica;
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.esperaMaximaMs = esperaMaximaMs;
+        this.inactividadMaximaMs = inactividadMaximaMs;
+        this.umbralFugaMs = umbralFugaMs;
+        this.permisos = new Semaphore(maximo, true);
+
+        this.mantenimiento = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "posrest-pool-mantenimiento");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        this.mantenimiento.scheduleWithFixedDelay(this::mantener,
+            PERIODO_MANTENIMIENTO_MS, PERIODO_MANTENIMIENTO_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Abre conexiones hasta alcanzar el mínimo configurado.
+     *
+     * @throws SQLException si no se puede abrir alguna conexión
+     */
+    public void precalentar() throws SQLException {
+        while (!cerrado && totalAbiertas() < minimo) {
+            ConexionFisica nueva = crearFisica();
+            synchronized (libres) {
+                libres.push(nueva);
+            }
+        }
+    }
+
+    /**
+     * Presta una conexión del pool. Debe cerrarse (con try-with-resources)
+     * para devolverla.
+     *
+     * @return conexión lista para usarse
+     * @throws SQLException si el pool está cerrado, se agota la espera o falla la conexión
+     */
+    public Connection prestar() throws SQLException {
+        if (cerrado) {
+            throw new SQLException("El pool de conexiones está cerrado");
+        }
+
+        long inicio = System.nanoTime();
+        try {
+            if (!permisos.tryAcquire(esperaMaximaMs, TimeUnit.MILLISECONDS)) {
+                tiemposAgotados.incrementAndGet();
+                throw new SQLException("Tiempo de espera agotado al obtener conexión (" +
+                    prestadas.size() + " prestadas de " + maximo + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrumpido mientras esperaba una conexión");
+        }
+
+        try {
+            ConexionFisica fisica = tomarLibreValida();
+            if (fisica == null) {
+                fisica = crearFisica();
+            }
+
+            registrarEspera(System.nanoTime() - inicio);
+            Prestamo prestamo = new Prestamo(fisica);
+            prestadas.add(prestamo);
+            return prestamo.proxy;
+
+        } catch (SQLException | RuntimeException e) {
+            permisos.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Cierra todas las conexiones libres y detiene el mantenimiento.
+     * Las conexiones prestadas se cierran al devolverse.
+     */
+    public void cerrar() {
+        cerrado = true;
+        mantenimiento.shutdownNow();
+        synchronized (libres) {
+            for (ConexionFisica fisica : libres) {
+                descartar(fisica);
+            }
+            libres.clear();
+        }
+    }
+
+    /**
+     * Indica si el pool está activo y tiene al menos una conexión abierta.
+     *
+     * @return true si hay conexiones abiertas
+     */
+    public boolean hayConexiones() {
+        return !cerrado && totalAbiertas() > 0;
+    }
+
+    /**
+     * Obtiene una instantánea de las estadísticas del pool.
+     *
+     * @return estadísticas actuales
+     */
+    public Estadisticas obtenerEstadisticas() {
+        int numLibres;
+        synchronized (libres) {
+            numLibres = libres.size();
+        }
+        long total = prestamos.get();
+        double esperaPromedioMs = total == 0 ? 0.0 : esperaTotalNanos.get() / (double) total / 1_000_000.0;
+        return new Estadisticas(
+            total,
+            esperaPromedioMs,
+            esperaMaximaNanos.get() / 1_000_000.0,
+            tiemposAgotados.get(),
+            prestadas.size(),
+            numLibres,
+            creadas.get(),
+            descartadas.get(),
+            fugasDetectadas.get()
+        );
+    }
+
+    private ConexionFisica tomarLibreValida() {
+        while (true) {
+            ConexionFisica fisica;
+            synchronized (libres) {
+                fisica = libres.poll();
+            }
+            if (fisica == null) {
+                return null;
+            }
+            if (esValida(fisica)) {
+                return fisica;
+            }
+            descartar(fisica);
+        }
+    }
+
+    private boolean esValida(ConexionFisica fisica) {
+        if (System.currentTimeMillis() - fisica.ultimoUso < VENTANA_SIN_VALIDAR_MS) {
+            return true;
+        }
+        try {
+            return fisica.conexion.isValid(TIMEOUT_VALIDACION_SEG);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private ConexionFisica crearFisica() throws SQLException {
+        Connection conexion = fabrica.crear();
+        creadas.incrementAndGet();
+        return new ConexionFisica(conexion);
+    }
+
+    private void descartar(ConexionFisica fisica) {
+        descartadas.incrementAndGet();
+        try {
+            fisica.conexion.close();
+        } catch (SQLException e) {
+            System.err.println("Error al cerrar conexión descartada: " + e.getMessage());
+        }
+    }
+
+    private void devolver(Prestamo prestamo) {
+        prestadas.remove(prestamo);
+        ConexionFisica fisica = prestamo.fisica;
+
+        try {
+            boolean reutilizable = !cerrado && !fisica.conexion.isClosed();
+            if (reutilizable) {
+                // Dejar la conexión como nueva para el siguiente préstamo
+                if (!fisica.conexion.getAutoCommit()) {
+                    fisica.conexion.rollback();
+                    fisica.conexion.setAutoCommit(true);
+                }
+                if (fisica.conexion.isReadOnly()) {
+                    fisica.conexion.setReadOnly(false);
+                }
+                fisica.conexion.clearWarnings();
+                fisica.ultimoUso = System.currentTimeMillis();
+                synchronized (libres) {
+                    libres.push(fisica);
+                }
+            } else {
+                descartar(fisica);
+            }
+        } catch (SQLException e) {
+            System.err.println("Conexión descartada al devolverla: " + e.getMessage());
+            descartar(fisica);
+        } finally {
+            permisos.release();
+        }
+    }
+
+    private void registrarEspera(long nanos) {
+        prestamos.incrementAndGet();
+        esperaTotalNanos.addAndGet(nanos);
+        esperaMaximaNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private int totalAbiertas() {
+        synchronized (libres) {
+            return libres.size() + prestadas.size();
+        }
+    }
+
+    /**
+     * Tarea periódica: cierra conexiones inactivas sobrantes, repone el mínimo
+     * y reporta préstamos que exceden el umbral de fuga.
+     */
+    private void mantener() {
+        if (cerrado) {
+            return;
+        }
+
+        long ahora = System.currentTimeMillis();
+        synchronized (libres) {
+            Iterator<ConexionFisica> it = libres.descendingIterator();
+            while (it.hasNext() && libres.size() + prestadas.size() > minimo) {
+                ConexionFisica fisica = it.next();
+                if (ahora - fisica.ultimoUso > inactividadMaximaMs) {
+                    it.remove();
+                    descartar(fisica);
+                }
+            }
+        }
+
+        try {
+            precalentar();
+        } catch (SQLException e) {
+            System.err.println("No se pudo reponer el mínimo del pool: " + e.getMessage());
+        }
+
+        for (Prestamo prestamo : prestadas) {
+            if (!prestamo.fugaReportada && ahora - prestamo.inicio > umbralFugaMs) {
+                prestamo.fugaReportada = true;
+                fugasDetectadas.incrementAndGet();
+                System.err.println("⚠ Posible fuga de conexión: prestada hace " +
+                    (ahora - prestamo.inicio) / 1000 + " s sin devolverse");
+                prestamo.origen.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Conexión física administrada por el pool.
+     */
+    private static final class ConexionFisica {
+        private final Connection conexion;
+        private volatile long ultimoUso;
+
+        private ConexionFisica(Connection conexion) {
+            this.conexion = conexion;
+            this.ultimoUso = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Préstamo activo: envuelve la conexión física en un proxy cuyo close()
+     * la devuelve al pool.
+     */
+    private final class Prestamo implements InvocationHandler {
+        private final ConexionFisica fisica;
+        private final Connection proxy;
+        private final long inicio = System.currentTimeMillis();
+        private final Exception origen = new Exception("Conexión prestada desde aquí");
+        private volatile boolean devuelta = false;
+        private volatile boolean fugaReportada = false;
+
+        private Prestamo(ConexionFisica fisica) {
+            this.fisica = fisica;
+            this.proxy = (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    synchronized (this) {
+                        if (!devuelta) {
+                            devuelta = true;
+                            devolver(this);
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return devuelta || fisica.conexion.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Conexión del pool [" + fisica.conexion + "]";
+                default:
+                    break;
+            }
+
+            if (devuelta) {
+                throw new SQLException("La conexión ya fue devuelta al pool");
+            }
+
+            try {
+                return method.invoke(fisica.conexion, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Instantánea inmutable de las estadísticas del pool.
+     */
+    public static final class Estadisticas {
+        private final long prestamos;
+        private final double esperaPromedioMs;
+        private final double esperaMaximaMs;
+        private final long tiemposAgotados;
+        private final int prestadas;
+        private final int libres;
+        private final long creadas;
+        private final long descartadas;
+        private final long fugasDetectadas;
+
+        public Estadisticas(long prestamos, double esperaPromedioMs, double esperaMaximaMs,
+                            long tiemposAgotados, int prestadas, int libres,
+                            long creadas, long descartadas, long fugasDetectadas) {
+            this.prestamos = prestamos;
+            this.esperaPromedioMs = esperaPromedioMs;
+            this.esperaMaximaMs = esperaMaximaMs;
+            this.tiemposAgotados = tiemposAgotados;
+            this.prestadas = prestadas;
+            this.libres = libres;
+            this.creadas = creadas;
+            this.descartadas = descartadas;
+            this.fugasDetectadas = fugasDetectadas;
+        }
+
+        public long getPrestamos() {
+            return prestamos;
+        }
+
+        public double getEsperaPromedioMs() {
+            return esperaPromedioMs;
+        }
+
+        public double getEsperaMaximaMs() {
+            return esperaMaximaMs;
+        }
+
+        public long getTiemposAgotados() {
+            return tiemposAgotados;
+        }
+
+        public int getPrestadas() {
+            return prestadas;
+        }
+
+        public int getLibres() {
+            return libres;
+        }
+
+        public long getCreadas() {
+            return creadas;
+        }
+
+        public long getDescartadas() {
+            return descartadas;
+        }
+
+        public long getFugasDetectadas() {
+            return fugasDetectadas;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(java.util.Locale.US,
+                "Pool: %d préstamos, espera prom. %.2f ms (máx. %.2f ms), %d agotados, " +
+                "%d prestadas, %d libres, %d creadas, %d descartadas, %d fugas",
+                prestamos, esperaPromedioMs, esperaMaximaMs, tiemposAgotados,
+                prestadas, libres, creadas, descartadas, fugasDetectadas);
+        }
+    }
+}
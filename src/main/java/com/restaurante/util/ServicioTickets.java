@@ -0,0 +1,181 @@
+package com.restaurante.util;
+
+import com.restaurante.config.ConfiguracionApp;
+import com.restaurante.controller.VentaController;
+import com.restaurante.model.Ticket;
+import com.restaurante.model.Usuario;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Genera e imprime tickets en segundo plano para que la caja pueda atender al
+ * siguiente cliente sin esperar.
+ *
+ * Los tickets se procesan con un número fijo de hilos y una cola acotada; si
+ * la cola se llena, el ticket se rechaza con un error en lugar de acumular
+ * trabajo sin límite. El formato por defecto se toma de
+ * {@code impresion.formato_ticket} en {@code configuracion.json}:
+ * <ul>
+ *   <li>{@code A4}: PDF en la carpeta de tickets, abierto en el navegador.</li>
+ *   <li>{@code ESCPOS}: comandos para impresora térmica de 80 mm, enviados a
+ *       {@code impresion.impresora} o guardados como {@code .bin} en la
+ *       carpeta de tickets si no hay impresora configurada.</li>
+ * </ul>
+ */
+public final class ServicioTickets {
+
+    /**
+     * Formato de salida del ticket.
+     */
+    public enum Formato {
+        PDF, ESCPOS;
+
+        static Formato desdeConfiguracion(String valor) {
+            return "ESCPOS".equalsIgnoreCase(valor.replace("/", "").replace("_", "")) ? ESCPOS : PDF;
+        }
+    }
+
+    private static final int HILOS = 2;
+    private static final int CAPACIDAD_COLA = 32;
+
+    private static ServicioTickets instancia;
+
+    private final ThreadPoolExecutor ejecutor;
+    private final ConfiguracionApp configuracion;
+    private final TicketEscPos escPos;
+
+    private ServicioTickets() {
+        this.configuracion = ConfiguracionApp.getInstancia();
+        this.escPos = new TicketEscPos(configuracion.getNombreEmpresa(), configuracion.getDireccionEmpresa(),
+                                       configuracion.getTelefonoEmpresa(), configuracion.getColumnasTicket());
+
+        AtomicInteger contador = new AtomicInteger();
+        this.ejecutor = new ThreadPoolExecutor(
+            HILOS, HILOS, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(CAPACIDAD_COLA),
+            r -> {
+                Thread hilo = new Thread(r, "posrest-tickets-" + contador.incrementAndGet());
+                hilo.setDaemon(true);
+                return hilo;
+            });
+        this.ejecutor.allowCoreThreadTimeOut(true);
+
+        ConexionDB.alCerrar(this::detener);
+    }
+
+    /**
+     * Obtiene el servicio de tickets, creándolo la primera vez.
+     *
+     * @return servicio de tickets
+     */
+    public static synchronized ServicioTickets getInstancia() {
+        if (instancia == null) {
+            instancia = new ServicioTickets();
+        }
+        return instancia;
+    }
+
+    /**
+     * @return formato configurado en {@code configuracion.json}
+     */
+    public Formato getFormatoConfigurado() {
+        return Formato.desdeConfiguracion(configuracion.getFormatoTicket());
+    }
+
+    /**
+     * Emite el ticket en el formato configurado.
+     *
+     * @see #emitir(Ticket, Usuario, List, Formato)
+     */
+    public CompletableFuture<Path> emitir(Ticket ticket, Usuario usuario, List<VentaController.ItemVenta> items) {
+        return emitir(ticket, usuario, items, getFormatoConfigurado());
+    }
+
+    /**
+     * Genera el ticket en segundo plano. Los ítems se copian antes de volver,
+     * así que el carrito se puede vaciar de inmediato.
+     *
+     * @param ticket datos del ticket generado
+     * @param usuario usuario que realizó la venta
+     * @param items lista de artículos vendidos
+     * @param formato formato de salida
+     * @return futuro con la ruta del archivo o dispositivo escrito; falla si
+     *         la cola está llena o no se pudo escribir
+     */
+    public CompletableFuture<Path> emitir(Ticket ticket, Usuario usuario, List<VentaController.ItemVenta> items,
+                                          Formato formato) {
+        List<VentaController.ItemVenta> copia = FinancialUtils.clonarItems(items);
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return formato == Formato.ESCPOS
+                        ? imprimirEscPos(ticket, usuario, copia)
+                        : TicketPdfGenerator.generarYMostrar(ticket, usuario, copia);
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }, ejecutor);
+        } catch (RejectedExecutionException e) {
+            CompletableFuture<Path> rechazado = new CompletableFuture<>();
+            rechazado.completeExceptionally(new IOException("Hay demasiados tickets en espera de impresión"));
+            return rechazado;
+        }
+    }
+
+    private Path imprimirEscPos(Ticket ticket, Usuario usuario, List<VentaController.ItemVenta> items)
+        throws IOException {
+
+        byte[] datos = escPos.generar(ticket, usuario, items);
+
+        Path destino;
+        if (!configuracion.getImpresora().isEmpty()) {
+            // Puerto o dispositivo de la impresora: solo se escribe, sin crear ni truncar
+            destino = Paths.get(configuracion.getImpresora());
+            try (FileChannel canal = FileChannel.open(destino, StandardOpenOption.WRITE)) {
+                escribirCompleto(canal, datos);
+            }
+        } else {
+            Path directorio = configuracion.getDirectorioTickets();
+            Files.createDirectories(directorio);
+            destino = directorio.resolve("ticket_" + ticket.getFolio() + ".bin");
+            try (FileChannel canal = FileChannel.open(destino, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                escribirCompleto(canal, datos);
+            }
+        }
+        return destino;
+    }
+
+    private static void escribirCompleto(FileChannel canal, byte[] datos) throws IOException {
+        ByteBuffer bufer = ByteBuffer.wrap(datos);
+        while (bufer.hasRemaining()) {
+            canal.write(bufer);
+        }
+    }
+
+    /**
+     * Termina los tickets en cola antes de cerrar la aplicación.
+     */
+    private void detener() {
+        ejecutor.shutdown();
+        try {
+            if (!ejecutor.awaitTermination(10, TimeUnit.SECONDS)) {
+                System.err.println("Quedaron tickets sin imprimir al cerrar");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
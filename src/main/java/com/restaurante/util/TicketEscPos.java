@@ -0,0 +1,154 @@
+package com.restaurante.util;
+
+import com.restaurante.controller.VentaController;
+import com.restaurante.model.Dinero;
+import com.restaurante.model.Ticket;
+import com.restaurante.model.Usuario;
+import com.restaurante.util.FinancialUtils.TotalesVenta;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Genera tickets en comandos ESC/POS para impresoras térmicas de 80 mm.
+ *
+ * El encabezado (datos de la empresa) y el pie (despedida, avance de papel y
+ * corte) se codifican una sola vez al crear el generador; cada ticket solo
+ * codifica sus renglones. El texto se envía en Windows-1252 (página de
+ * códigos 16 de la impresora), que cubre acentos y la ñ.
+ */
+public final class TicketEscPos {
+
+    private static final Charset CODIFICACION = Charset.forName("windows-1252");
+    private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+
+    private static final byte ESC = 0x1B;
+    private static final byte GS = 0x1D;
+    private static final byte LF = 0x0A;
+
+    private static final byte[] INICIAR = {ESC, '@'};
+    private static final byte[] PAGINA_CODIGOS_1252 = {ESC, 't', 16};
+    private static final byte[] ALINEAR_IZQUIERDA = {ESC, 'a', 0};
+    private static final byte[] ALINEAR_CENTRO = {ESC, 'a', 1};
+    private static final byte[] NEGRITA = {ESC, 'E', 1};
+    private static final byte[] SIN_NEGRITA = {ESC, 'E', 0};
+    private static final byte[] DOBLE_TAMANO = {GS, '!', 0x11};
+    private static final byte[] TAMANO_NORMAL = {GS, '!', 0};
+    private static final byte[] AVANZAR_Y_CORTAR = {GS, 'V', 66, 3};
+
+    private final int columnas;
+    private final byte[] encabezado;
+    private final byte[] pie;
+    private final byte[] separador;
+
+    /**
+     * @param nombreEmpresa nombre impreso en el encabezado
+     * @param direccion dirección, o vacía para omitirla
+     * @param telefono teléfono, o vacío para omitirlo
+     * @param columnas caracteres por renglón (48 en papel de 80 mm)
+     */
+    public TicketEscPos(String nombreEmpresa, String direccion, String telefono, int columnas) {
+        this.columnas = columnas;
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        bytes.writeBytes(INICIAR);
+        bytes.writeBytes(PAGINA_CODIGOS_1252);
+        bytes.writeBytes(ALINEAR_CENTRO);
+        bytes.writeBytes(DOBLE_TAMANO);
+        escribirRenglon(bytes, nombreEmpresa);
+        bytes.writeBytes(TAMANO_NORMAL);
+        if (!direccion.isEmpty()) {
+            escribirRenglon(bytes, direccion);
+        }
+        if (!telefono.isEmpty()) {
+            escribirRenglon(bytes, "Tel. " + telefono);
+        }
+        bytes.write(LF);
+        bytes.writeBytes(ALINEAR_IZQUIERDA);
+        this.encabezado = bytes.toByteArray();
+
+        bytes.reset();
+        bytes.write(LF);
+        bytes.writeBytes(ALINEAR_CENTRO);
+        escribirRenglon(bytes, "¡Gracias por su preferencia!");
+        bytes.write(LF);
+        bytes.write(LF);
+        bytes.writeBytes(AVANZAR_Y_CORTAR);
+        this.pie = bytes.toByteArray();
+
+        char[] guiones = new char[columnas];
+        Arrays.fill(guiones, '-');
+        bytes.reset();
+        escribirRenglon(bytes, new String(guiones));
+        this.separador = bytes.toByteArray();
+    }
+
+    /**
+     * Genera los comandos ESC/POS de un ticket.
+     *
+     * @param ticket datos del ticket generado
+     * @param usuario usuario que realizó la venta, o null
+     * @param items lista de artículos vendidos
+     * @return bytes listos para enviar a la impresora
+     */
+    public byte[] generar(Ticket ticket, Usuario usuario, List<VentaController.ItemVenta> items) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(
+            encabezado.length + pie.length + (columnas + 1) * (items.size() + 12));
+        bytes.writeBytes(encabezado);
+
+        escribirRenglon(bytes, "Folio: " + ticket.getFolio());
+        if (ticket.getFechaEmision() != null) {
+            escribirRenglon(bytes, "Fecha: " + ticket.getFechaEmision().format(FORMATO_FECHA));
+        }
+        if (usuario != null) {
+            escribirRenglon(bytes, "Atendió: " + usuario.getNombre());
+        }
+        bytes.writeBytes(separador);
+
+        for (VentaController.ItemVenta item : items) {
+            escribirRenglon(bytes, columnas(item.getCantidad() + " x " + item.getProducto().getNombre(),
+                                            formatearMoneda(item.getSubtotal())));
+        }
+        bytes.writeBytes(separador);
+
+        TotalesVenta totales = FinancialUtils.desglosarTicket(ticket.getTotal(), items);
+        escribirRenglon(bytes, columnas("Subtotal", formatearMoneda(totales.getSubtotal())));
+        escribirRenglon(bytes, columnas("IVA (16%)", formatearMoneda(totales.getIva())));
+        bytes.writeBytes(NEGRITA);
+        escribirRenglon(bytes, columnas("TOTAL", formatearMoneda(totales.getTotal())));
+        bytes.writeBytes(SIN_NEGRITA);
+        escribirRenglon(bytes, columnas("Pagado", formatearMoneda(totales.getTotal().sumar(ticket.getCambio()))));
+        escribirRenglon(bytes, columnas("Cambio", formatearMoneda(ticket.getCambio())));
+
+        bytes.writeBytes(pie);
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Acomoda un texto a la izquierda y un importe a la derecha en un renglón,
+     * recortando el texto si no caben ambos.
+     */
+    private String columnas(String izquierda, String derecha) {
+        int espacio = columnas - derecha.length() - 1;
+        if (izquierda.length() > espacio) {
+            izquierda = izquierda.substring(0, Math.max(0, espacio));
+        }
+        StringBuilder renglon = new StringBuilder(columnas).append(izquierda);
+        for (int i = izquierda.length() + derecha.length(); i < columnas; i++) {
+            renglon.append(' ');
+        }
+        return renglon.append(derecha).toString();
+    }
+
+    private static void escribirRenglon(ByteArrayOutputStream bytes, String texto) {
+        bytes.writeBytes(texto.getBytes(CODIFICACION));
+        bytes.write(LF);
+    }
+
+    private static String formatearMoneda(Dinero valor) {
+        return String.format(Locale.US, "$%,.2f", valor.aBigDecimal());
+    }
+}
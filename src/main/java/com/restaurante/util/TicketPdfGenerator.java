@@ -11,7 +11,9 @@ import com.lowagie.text.Phrase;
 import com.lowagie.text.pdf.PdfPCell;
 import com.lowagie.text.pdf.PdfPTable;
 import com.lowagie.text.pdf.PdfWriter;
+import com.restaurante.config.ConfiguracionApp;
 import com.restaurante.controller.VentaController;
+import com.restaurante.model.Dinero;
 import com.restaurante.model.Ticket;
 import com.restaurante.model.Usuario;
 import com.restaurante.util.FinancialUtils;
@@ -20,7 +22,6 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Locale;
@@ -54,33 +55,72 @@ public final class TicketPdfGenerator {
     public static Path generarYMostrar(Ticket ticket, Usuario usuario, List<VentaController.ItemVenta> items)
         throws IOException, DocumentException {
 
-        Path directorioTickets = Paths.get(System.getProperty("user.home"), "posrest", "tickets");
+        Path directorioTickets = ConfiguracionApp.getInstancia().getDirectorioTickets();
         Files.createDirectories(directorioTickets);
 
         String nombreArchivo = "ticket_" + ticket.getFolio() + ".pdf";
         Path archivoPdf = directorioTickets.resolve(nombreArchivo);
 
         try (OutputStream salida = Files.newOutputStream(archivoPdf)) {
-            Document documento = new Document(PageSize.A4, 36, 36, 36, 36);
-            PdfWriter.getInstance(documento, salida);
-            documento.open();
-
-            agregarEncabezado(documento, ticket);
-            List<VentaController.ItemVenta> itemsClonados = FinancialUtils.clonarItems(items);
-
-            agregarDatosGenerales(documento, ticket, usuario);
-            agregarTablaProductos(documento, itemsClonados);
-            agregarResumen(documento, ticket, itemsClonados);
-
-            documento.close();
+            escribirPdf(ticket, usuario, items, salida);
         }
 
         DesktopUtils.abrirEnNavegador(archivoPdf);
         return archivoPdf;
     }
 
+    /**
+     * Genera el PDF del ticket en el flujo indicado, sin abrirlo.
+     *
+     * @param ticket datos del ticket generado
+     * @param usuario usuario que realizó la venta
+     * @param items lista de artículos vendidos
+     * @param salida flujo de destino; no se cierra
+     * @throws DocumentException si no se puede crear el PDF
+     */
+    public static void escribirPdf(Ticket ticket, Usuario usuario, List<VentaController.ItemVenta> items,
+                                   OutputStream salida) throws DocumentException {
+        Document documento = new Document(PageSize.A4, 36, 36, 36, 36);
+        PdfWriter escritor = PdfWriter.getInstance(documento, salida);
+        escritor.setCloseStream(false);
+        documento.open();
+
+        agregarEncabezado(documento, ticket);
+        List<VentaController.ItemVenta> itemsClonados = FinancialUtils.clonarItems(items);
+
+        agregarDatosGenerales(documento, ticket, usuario);
+        agregarTablaProductos(documento, itemsClonados);
+        agregarResumen(documento, ticket, itemsClonados);
+
+        documento.close();
+    }
+
+    /**
+     * Escribe un documento mínimo a un flujo vacío para cargar las clases de
+     * OpenPDF y las métricas de las fuentes antes del primer ticket.
+     *
+     * @throws DocumentException si no se puede crear el PDF
+     */
+    public static void precalentar() throws DocumentException {
+        Document documento = new Document(PageSize.A4, 36, 36, 36, 36);
+        PdfWriter.getInstance(documento, OutputStream.nullOutputStream());
+        documento.open();
+
+        documento.add(new Paragraph("Ticket", FONT_TITLE));
+        documento.add(new Paragraph(" ", FONT_SUBTITLE));
+        documento.add(new Paragraph(" ", FONT_SECTION));
+        PdfPTable tabla = new PdfPTable(2);
+        agregarCeldaHeader(tabla, "Producto");
+        agregarCeldaHeader(tabla, "Importe");
+        tabla.addCell(crearCeldaTexto(" ", Element.ALIGN_LEFT));
+        tabla.addCell(crearCeldaTexto(formatearMoneda(Dinero.CERO), Element.ALIGN_RIGHT));
+        documento.add(tabla);
+
+        documento.close();
+    }
+
     private static void agregarEncabezado(Document documento, Ticket ticket) throws DocumentException {
-        Paragraph titulo = new Paragraph("SISTEMA POS RESTAURANTE", FONT_TITLE);
+        Paragraph titulo = new Paragraph(ConfiguracionApp.getInstancia().getNombreEmpresa().toUpperCase(), FONT_TITLE);
         titulo.setAlignment(Element.ALIGN_CENTER);
         documento.add(titulo);
 
@@ -126,8 +166,7 @@ public final class TicketPdfGenerator {
             for (VentaController.ItemVenta item : items) {
                 tabla.addCell(crearCeldaTexto(item.getProducto().getNombre(), Element.ALIGN_LEFT));
                 tabla.addCell(crearCeldaTexto(String.valueOf(item.getCantidad()), Element.ALIGN_CENTER));
-                double precioUnitario = item.getProducto().getPrecio();
-                tabla.addCell(crearCeldaTexto(formatearMoneda(precioUnitario), Element.ALIGN_RIGHT));
+                tabla.addCell(crearCeldaTexto(formatearMoneda(item.getProducto().getPrecio()), Element.ALIGN_RIGHT));
                 tabla.addCell(crearCeldaTexto(formatearMoneda(item.getSubtotal()), Element.ALIGN_RIGHT));
             }
         }
@@ -140,18 +179,13 @@ public final class TicketPdfGenerator {
         Paragraph seccion = new Paragraph("Resumen Financiero", FONT_SECTION);
         documento.add(seccion);
 
-        TotalesVenta totales = FinancialUtils.calcularTotales(items);
-        double total = FinancialUtils.redondear(ticket.getTotal());
-        double subtotal = totales.getSubtotal();
-        double iva = FinancialUtils.redondear(total - subtotal);
-
-        if (iva < 0) {
-            iva = totales.getIva();
-            subtotal = FinancialUtils.redondear(total - iva);
-        }
+        TotalesVenta totales = FinancialUtils.desglosarTicket(ticket.getTotal(), items);
+        Dinero total = totales.getTotal();
+        Dinero subtotal = totales.getSubtotal();
+        Dinero iva = totales.getIva();
 
-        double pagado = FinancialUtils.redondear(total + ticket.getCambio());
-        double cambio = FinancialUtils.redondear(ticket.getCambio());
+        Dinero pagado = total.sumar(ticket.getCambio());
+        Dinero cambio = ticket.getCambio();
 
         PdfPTable resumen = new PdfPTable(new float[]{2f, 1f});
         resumen.setWidthPercentage(70);
@@ -162,7 +196,7 @@ public final class TicketPdfGenerator {
         agregarFilaResumen(resumen, "IVA (16%)", formatearMoneda(iva), false);
         agregarFilaResumen(resumen, "Total", formatearMoneda(total), true);
         agregarFilaResumen(resumen, "Pagado", formatearMoneda(pagado), false);
-        agregarFilaResumen(resumen, "Cambio", formatearMoneda(cambio), cambio >= 0);
+        agregarFilaResumen(resumen, "Cambio", formatearMoneda(cambio), !cambio.esNegativo());
 
         documento.add(resumen);
         documento.add(new Paragraph(" "));
@@ -190,8 +224,8 @@ public final class TicketPdfGenerator {
         return celda;
     }
 
-    private static String formatearMoneda(double valor) {
-        return String.format(Locale.US, "$%,.2f", valor);
+    private static String formatearMoneda(Dinero valor) {
+        return String.format(Locale.US, "$%,.2f", valor.aBigDecimal());
     }
 
     private static void agregarFilaResumen(PdfPTable tabla, String etiqueta, String valor, boolean resaltar) {
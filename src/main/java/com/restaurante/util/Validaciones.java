@@ -1,5 +1,8 @@
 package com.restaurante.util;
 
+import com.restaurante.model.Dinero;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.regex.Pattern;
 
 /**
@@ -11,6 +14,9 @@ public class Validaciones {
     private static final Pattern EMAIL_PATTERN = 
         Pattern.compile("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$");
     
+    // Mayor importe que admite una columna NUMERIC(10, 2)
+    private static final BigDecimal PRECIO_MAXIMO = new BigDecimal("99999999.99");
+    
     /**
      * Valida que una cadena no esté vacía o nula.
      * 
@@ -75,6 +81,41 @@ public class Validaciones {
         return noEsVacio(valor) && valor.trim().length() >= longitudMinima;
     }
     
+    /**
+     * Valida longitud máxima de una cadena.
+     * 
+     * @param valor cadena a validar
+     * @param longitudMaxima longitud máxima permitida
+     * @return true si no es nula y no excede la longitud máxima, false en caso contrario
+     */
+    public static boolean longitudMaxima(String valor, int longitudMaxima) {
+        return valor != null && valor.trim().length() <= longitudMaxima;
+    }
+    
+    /**
+     * Valida un precio escrito como texto, por ejemplo "99.90".
+     * 
+     * @param precio precio a validar
+     * @return true si es un número mayor a cero que cabe en NUMERIC(10, 2)
+     */
+    public static boolean esPrecioValido(String precio) {
+        if (!noEsVacio(precio)) {
+            return false;
+        }
+        try {
+            BigDecimal leido = new BigDecimal(precio.trim());
+            // Antes de redondear: un exponente enorme haría crecer setScale sin límite
+            if (!Dinero.cabeEnCentavos(leido)) {
+                return false;
+            }
+            // Se redondea a centavos igual que Dinero
+            BigDecimal valor = leido.setScale(2, RoundingMode.HALF_UP);
+            return valor.signum() > 0 && valor.compareTo(PRECIO_MAXIMO) <= 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+    
     /**
      * Valida que un texto contenga solo letras y espacios.
      * 
@@ -104,6 +145,16 @@ public class Validaciones {
                rolLower.equals("mesero");
     }
     
+    /**
+     * Valida un PIN de cambio rápido de cajero.
+     * 
+     * @param pin PIN a validar
+     * @return true si tiene de 4 a 6 dígitos
+     */
+    public static boolean esPinValido(String pin) {
+        return pin != null && pin.matches("\\d{4,6}");
+    }
+    
     /**
      * Valida que un estado de mesa sea válido.
      * 
@@ -0,0 +1,83 @@
+package com.restaurante.view;
+
+import com.restaurante.dao.ExportacionVentasDAO;
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+
+/**
+ * Diálogo modal con barra de avance y botón para cancelar una exportación
+ * larga. El avance llega desde el hilo que exporta y se pinta en el hilo de
+ * eventos de Swing; la cancelación se atiende en el siguiente lote de filas.
+ */
+class DialogoProgreso extends JDialog implements ExportacionVentasDAO.Progreso {
+
+    private static final int ESCALA = 1000;
+
+    private final JProgressBar barra;
+    private final JLabel lblFilas;
+    private final JButton btnCancelar;
+    private volatile boolean cancelado = false;
+
+    DialogoProgreso(JFrame ventana, String mensaje) {
+        super(ventana, "Exportando", true);
+        setDefaultCloseOperation(DO_NOTHING_ON_CLOSE);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                cancelar();
+            }
+        });
+
+        JLabel lblMensaje = new JLabel(mensaje);
+        lblMensaje.setFont(new Font("Segoe UI", Font.BOLD, 14));
+
+        barra = new JProgressBar(0, ESCALA);
+        barra.setIndeterminate(true);
+        barra.setStringPainted(true);
+        barra.setString("Contando ventas...");
+
+        lblFilas = new JLabel(" ");
+        lblFilas.setFont(new Font("Segoe UI", Font.PLAIN, 13));
+
+        btnCancelar = new JButton("Cancelar");
+        btnCancelar.addActionListener(e -> cancelar());
+
+        JPanel contenido = new JPanel(new BorderLayout(0, 10));
+        contenido.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+        contenido.add(lblMensaje, BorderLayout.NORTH);
+        contenido.add(barra, BorderLayout.CENTER);
+
+        JPanel pie = new JPanel(new BorderLayout());
+        pie.add(lblFilas, BorderLayout.WEST);
+        pie.add(btnCancelar, BorderLayout.EAST);
+        contenido.add(pie, BorderLayout.SOUTH);
+
+        setContentPane(contenido);
+        setSize(420, 160);
+        setResizable(false);
+        setLocationRelativeTo(ventana);
+    }
+
+    @Override
+    public void avanzar(long filas, long total) {
+        SwingUtilities.invokeLater(() -> {
+            barra.setIndeterminate(false);
+            barra.setValue(total > 0 ? (int) (filas * ESCALA / total) : ESCALA);
+            barra.setString(total > 0 ? (filas * 100 / total) + "%" : "100%");
+            lblFilas.setText(String.format("%,d de %,d renglones", filas, total));
+        });
+    }
+
+    @Override
+    public boolean cancelado() {
+        return cancelado;
+    }
+
+    private void cancelar() {
+        cancelado = true;
+        btnCancelar.setEnabled(false);
+        btnCancelar.setText("Cancelando...");
+    }
+}
@@ -0,0 +1,122 @@
+package com.restaurante.view;
+
+import com.restaurante.util.EjecutorAsincrono;
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Capa semitransparente que se muestra sobre una ventana mientras espera una
+ * operación en segundo plano. Bloquea clics y teclado, pero la ventana sigue
+ * repintándose y puede moverse, en lugar de quedarse congelada.
+ */
+class IndicadorCarga extends JComponent {
+
+    private static final Color FONDO = new Color(255, 255, 255, 170);
+    private static final Color TEXTO = new Color(33, 37, 41);
+
+    private String mensaje = "Cargando...";
+    private int pendientes = 0;
+
+    private IndicadorCarga() {
+        setOpaque(false);
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+
+        // Consumir eventos para que no lleguen a los componentes de abajo
+        addMouseListener(new MouseAdapter() { });
+        addMouseMotionListener(new MouseMotionAdapter() { });
+        addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                e.consume();
+            }
+        });
+        setFocusTraversalKeysEnabled(false);
+    }
+
+    /**
+     * Instala el indicador como glass pane de la ventana.
+     *
+     * @param ventana ventana a cubrir
+     * @return indicador instalado
+     */
+    static IndicadorCarga instalar(JFrame ventana) {
+        IndicadorCarga indicador = new IndicadorCarga();
+        ventana.setGlassPane(indicador);
+        return indicador;
+    }
+
+    /**
+     * Ejecuta una operación del controlador mostrando el indicador mientras dura.
+     * Los callbacks se ejecutan en el hilo de eventos de Swing.
+     *
+     * @param mensaje texto a mostrar
+     * @param futuro operación en curso
+     * @param alTerminar acción con el resultado
+     * @param <T> tipo del resultado
+     */
+    <T> void esperar(String mensaje, CompletableFuture<T> futuro, Consumer<T> alTerminar) {
+        esperar(mensaje, futuro, alTerminar, error -> JOptionPane.showMessageDialog(
+            SwingUtilities.getWindowAncestor(this),
+            "Error de comunicación con la base de datos:\n" + error.getMessage(),
+            "Error", JOptionPane.ERROR_MESSAGE));
+    }
+
+    /**
+     * Igual que {@link #esperar(String, CompletableFuture, Consumer)}, con
+     * manejo de error propio.
+     */
+    <T> void esperar(String mensaje, CompletableFuture<T> futuro, Consumer<T> alTerminar,
+                     Consumer<Throwable> alFallar) {
+        mostrar(mensaje);
+        EjecutorAsincrono.enUI(futuro,
+            resultado -> {
+                ocultar();
+                alTerminar.accept(resultado);
+            },
+            error -> {
+                ocultar();
+                alFallar.accept(error);
+            });
+    }
+
+    private void mostrar(String texto) {
+        mensaje = texto;
+        pendientes++;
+        setVisible(true);
+        requestFocusInWindow();
+        repaint();
+    }
+
+    private void ocultar() {
+        pendientes = Math.max(0, pendientes - 1);
+        if (pendientes == 0) {
+            setVisible(false);
+        }
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D g2d = (Graphics2D) g.create();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setColor(FONDO);
+        g2d.fillRect(0, 0, getWidth(), getHeight());
+
+        g2d.setFont(new Font("Segoe UI", Font.BOLD, 16));
+        FontMetrics fm = g2d.getFontMetrics();
+        int ancho = fm.stringWidth(mensaje) + 40;
+        int alto = fm.getHeight() + 24;
+        int x = (getWidth() - ancho) / 2;
+        int y = (getHeight() - alto) / 2;
+
+        g2d.setColor(Color.WHITE);
+        g2d.fillRoundRect(x, y, ancho, alto, 15, 15);
+        g2d.setColor(new Color(206, 212, 218));
+        g2d.drawRoundRect(x, y, ancho, alto, 15, 15);
+        g2d.setColor(TEXTO);
+        g2d.drawString(mensaje, x + 20, y + 12 + fm.getAscent());
+        g2d.dispose();
+    }
+}
@@ -1,7 +1,7 @@
 package com.restaurante.view;
 
 import com.restaurante.controller.UsuarioController;
-import com.restaurante.model.Usuario;
+import com.restaurante.util.EjecutorAsincrono;
 import javax.swing.*;
 import javax.swing.border.*;
 import java.awt.*;
@@ -251,22 +251,38 @@ public class LoginFrame extends JFrame {
             return;
         }
         
-        // Proceso RÁPIDO sin delay innecesario
+        // Verificar en segundo plano: la ventana sigue respondiendo mientras tanto
         btnLogin.setEnabled(false);
         btnLogin.setText("Verificando...");
-        
-        Usuario usuario = usuarioController.login(correo, password);
-        
-        if (usuario != null) {
-            showMessage("Acceso concedido. Bienvenido " + usuario.getNombre(), SUCCESS_COLOR);
-            dispose();
-            new MenuPrincipalFrame(usuarioController).setVisible(true);
-        } else {
-            showMessage("Credenciales incorrectas", ERROR_COLOR);
-            txtPassword.setText("");
-            btnLogin.setEnabled(true);
-            btnLogin.setText("Iniciar Sesión");
-        }
+        txtCorreo.setEnabled(false);
+        txtPassword.setEnabled(false);
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        
+        EjecutorAsincrono.enUI(usuarioController.loginAsync(correo, password),
+            usuario -> {
+                setCursor(Cursor.getDefaultCursor());
+                if (usuario != null) {
+                    showMessage("Acceso concedido. Bienvenido " + usuario.getNombre(), SUCCESS_COLOR);
+                    dispose();
+                    new MenuPrincipalFrame(usuarioController).setVisible(true);
+                } else {
+                    showMessage("Credenciales incorrectas", ERROR_COLOR);
+                    txtPassword.setText("");
+                    restaurarFormulario();
+                }
+            },
+            error -> {
+                setCursor(Cursor.getDefaultCursor());
+                showMessage("No se pudo conectar con el servidor", ERROR_COLOR);
+                restaurarFormulario();
+            });
+    }
+    
+    private void restaurarFormulario() {
+        txtCorreo.setEnabled(true);
+        txtPassword.setEnabled(true);
+        btnLogin.setEnabled(true);
+        btnLogin.setText("Iniciar Sesión");
     }
     
     private void showMessage(String message, Color color) {
@@ -3,10 +3,13 @@ package com.restaurante.view;
 import com.restaurante.config.SupabaseConfig;
 import com.restaurante.controller.UsuarioController;
 import com.restaurante.model.Usuario;
+import com.restaurante.util.ConexionDB;
+import com.restaurante.util.EjecutorAsincrono;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.awt.geom.RoundRectangle2D;
+import java.util.List;
 
 /**
  * Menú principal moderno y stylish con diseño basado en cards
@@ -92,13 +95,23 @@ public class MenuPrincipalFrame extends JFrame {
         leftPanel.add(Box.createRigidArea(new Dimension(0, 5)));
         leftPanel.add(lblUser);
         
-        // Botón cerrar sesión
+        // Botones cambiar cajero y cerrar sesión
+        JPanel rightPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
+        rightPanel.setBackground(Color.WHITE);
+        
+        ModernButton btnCambiar = new ModernButton("Cambiar Cajero", TEXT_SECONDARY, Color.WHITE);
+        btnCambiar.setPreferredSize(new Dimension(150, 40));
+        btnCambiar.addActionListener(e -> cambiarCajero());
+        
         ModernButton btnLogout = new ModernButton("Cerrar Sesión", new Color(220, 53, 69), Color.WHITE);
         btnLogout.setPreferredSize(new Dimension(140, 40));
         btnLogout.addActionListener(e -> cerrarSesion());
         
+        rightPanel.add(btnCambiar);
+        rightPanel.add(btnLogout);
+        
         header.add(leftPanel, BorderLayout.WEST);
-        header.add(btnLogout, BorderLayout.EAST);
+        header.add(rightPanel, BorderLayout.EAST);
         
         return header;
     }
@@ -386,6 +399,55 @@ public class MenuPrincipalFrame extends JFrame {
         }
     }
     
+    /**
+     * Cambio rápido de cajero: el PIN se verifica contra el directorio de
+     * usuarios en memoria, sin consultar la base de datos.
+     */
+    private void cambiarCajero() {
+        List<Usuario> usuarios = usuarioController.obtenerUsuariosConPin();
+        if (usuarios.isEmpty()) {
+            // Los PIN no se guardan en la instantánea local: sin conexión no hay ninguno
+            JOptionPane.showMessageDialog(this,
+                ConexionDB.hayConexion()
+                    ? "Ningún usuario tiene PIN de caja.\nAsígnelo en Gestión de Usuarios."
+                    : "El cambio de cajero estará disponible al conectar con la base de datos.",
+                "Cambiar Cajero", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        
+        JComboBox<Usuario> cboUsuario = new JComboBox<>(usuarios.toArray(new Usuario[0]));
+        JPasswordField txtPin = new JPasswordField(6);
+        
+        JPanel panel = new JPanel(new GridLayout(4, 1, 0, 5));
+        panel.add(new JLabel("Usuario:"));
+        panel.add(cboUsuario);
+        panel.add(new JLabel("PIN:"));
+        panel.add(txtPin);
+        
+        int opcion = JOptionPane.showConfirmDialog(this, panel, "Cambiar Cajero",
+            JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (opcion != JOptionPane.OK_OPTION) {
+            return;
+        }
+        
+        Usuario elegido = (Usuario) cboUsuario.getSelectedItem();
+        String pin = new String(txtPin.getPassword());
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        
+        EjecutorAsincrono.enUI(usuarioController.cambiarUsuarioAsync(elegido.getId(), pin),
+            usuario -> {
+                setCursor(Cursor.getDefaultCursor());
+                if (usuario != null) {
+                    new MenuPrincipalFrame(usuarioController).setVisible(true);
+                    dispose();
+                } else {
+                    JOptionPane.showMessageDialog(this, "PIN incorrecto", "Cambiar Cajero",
+                        JOptionPane.ERROR_MESSAGE);
+                }
+            },
+            error -> setCursor(Cursor.getDefaultCursor()));
+    }
+    
     private void cerrarSesion() {
         int opcion = JOptionPane.showConfirmDialog(
             this,
@@ -396,7 +458,7 @@ public class MenuPrincipalFrame extends JFrame {
         );
         
         if (opcion == JOptionPane.YES_OPTION) {
-            usuarioController.logout();
+            usuarioController.logoutAsync();
             SwingUtilities.invokeLater(() -> {
                 new LoginFrame().setVisible(true);
                 dispose();
@@ -2,11 +2,16 @@ package com.restaurante.view;
 
 import com.restaurante.controller.MesaController;
 import com.restaurante.model.Mesa;
+import com.restaurante.util.BusCambios;
+import com.restaurante.util.EjecutorAsincrono;
 import javax.swing.*;
 import javax.swing.table.*;
 import java.awt.*;
 import java.awt.event.*;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Ventana moderna de gestión de mesas con diseño stylish
@@ -24,24 +29,32 @@ public class MesaFrame extends JFrame {
     private static final Color TEXT_PRIMARY = new Color(33, 37, 41);
     private static final Color TEXT_SECONDARY = new Color(108, 117, 125);
     
-    // Estados de mesa con colores
-    private static final Color LIBRE_COLOR = new Color(40, 167, 69);
-    private static final Color OCUPADA_COLOR = new Color(220, 53, 69);
-    private static final Color RESERVADA_COLOR = new Color(255, 193, 7);
-    
     // Componentes
     private JTable tablaMesas;
     private DefaultTableModel modeloTabla;
     private JTextField txtNumero;
     private JComboBox<String> cboEstado;
     private ModernButton btnGuardar, btnActualizar, btnEliminar, btnLimpiar, btnRegresar;
-    private JPanel panelMesasVisual;
+    private TableroMesas tableroMesas;
+    private final Map<Integer, Integer> filaPorMesa = new HashMap<>();
+    private List<Mesa> mesasActuales = new ArrayList<>();
+    private boolean restaurandoSeleccion = false;
     private int idMesaSeleccionada = -1;
+    private IndicadorCarga indicadorCarga;
+    private BusCambios.Suscripcion suscripcionMesas;
     
     public MesaFrame() {
         this.mesaController = new MesaController();
         initComponents();
+        indicadorCarga = IndicadorCarga.instalar(this);
         cargarMesas();
+        suscripcionMesas = BusCambios.getInstancia().suscribir("mesas", this::alCambiarMesa);
+    }
+    
+    @Override
+    public void dispose() {
+        suscripcionMesas.cancelar();
+        super.dispose();
     }
     
     private void initComponents() {
@@ -208,9 +221,9 @@ public class MesaFrame extends JFrame {
         
         panel.add(Box.createRigidArea(new Dimension(0, 8)));
         
-        panel.add(createLegendItem("●", LIBRE_COLOR, "Libre"));
-        panel.add(createLegendItem("●", OCUPADA_COLOR, "Ocupada"));
-        panel.add(createLegendItem("●", RESERVADA_COLOR, "Reservada"));
+        panel.add(createLegendItem("●", TableroMesas.LIBRE_COLOR, "Libre"));
+        panel.add(createLegendItem("●", TableroMesas.OCUPADA_COLOR, "Ocupada"));
+        panel.add(createLegendItem("●", TableroMesas.RESERVADA_COLOR, "Reservada"));
         
         return panel;
     }
@@ -243,14 +256,14 @@ public class MesaFrame extends JFrame {
         lblTitle.setForeground(TEXT_PRIMARY);
         lblTitle.setBorder(BorderFactory.createEmptyBorder(0, 0, 15, 0));
         
-        panelMesasVisual = new JPanel(new GridLayout(0, 4, 15, 15));
-        panelMesasVisual.setBackground(CARD_BG);
-        panelMesasVisual.setBorder(BorderFactory.createCompoundBorder(
+        tableroMesas = new TableroMesas(this::seleccionarMesa);
+        tableroMesas.setBackground(CARD_BG);
+        tableroMesas.setBorder(BorderFactory.createCompoundBorder(
             BorderFactory.createLineBorder(new Color(222, 226, 230), 1, true),
             BorderFactory.createEmptyBorder(20, 20, 20, 20)
         ));
         
-        JScrollPane scroll = new JScrollPane(panelMesasVisual);
+        JScrollPane scroll = new JScrollPane(tableroMesas);
         scroll.setBorder(null);
         scroll.getViewport().setBackground(CARD_BG);
         
@@ -307,7 +320,7 @@ public class MesaFrame extends JFrame {
         tablaMesas.getColumnModel().getColumn(2).setPreferredWidth(150);
         
         tablaMesas.getSelectionModel().addListSelectionListener(e -> {
-            if (!e.getValueIsAdjusting()) {
+            if (!e.getValueIsAdjusting() && !restaurandoSeleccion) {
                 cargarMesaSeleccionada();
             }
         });
@@ -358,13 +371,15 @@ public class MesaFrame extends JFrame {
                 return;
             }
             
-            if (mesaController.crearMesa(numero, estado)) {
-                mostrarMensaje("Mesa guardada correctamente", "Éxito", JOptionPane.INFORMATION_MESSAGE);
-                limpiarFormulario();
-                cargarMesas();
-            } else {
-                mostrarMensaje("Error al guardar mesa (puede que el número ya exista)", "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            indicadorCarga.esperar("Guardando mesa...", mesaController.crearMesaAsync(numero, estado), guardada -> {
+                if (guardada) {
+                    mostrarMensaje("Mesa guardada correctamente", "Éxito", JOptionPane.INFORMATION_MESSAGE);
+                    limpiarFormulario();
+                    recargarSinAvisos();
+                } else {
+                    mostrarMensaje("Error al guardar mesa (puede que el número ya exista)", "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            });
         } catch (NumberFormatException ex) {
             mostrarMensaje("El número de mesa debe ser un valor numérico", "Error", JOptionPane.ERROR_MESSAGE);
         }
@@ -391,17 +406,17 @@ public class MesaFrame extends JFrame {
                 return;
             }
             
-            Mesa mesa = mesaController.buscarMesaPorId(idMesaSeleccionada);
-            mesa.setNumero(numero);
-            mesa.setEstado(estado);
+            Mesa mesa = new Mesa(idMesaSeleccionada, numero, estado);
             
-            if (mesaController.actualizarMesa(mesa)) {
-                mostrarMensaje("Mesa actualizada correctamente", "Éxito", JOptionPane.INFORMATION_MESSAGE);
-                limpiarFormulario();
-                cargarMesas();
-            } else {
-                mostrarMensaje("Error al actualizar mesa", "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            indicadorCarga.esperar("Actualizando mesa...", mesaController.actualizarMesaAsync(mesa), actualizada -> {
+                if (actualizada) {
+                    mostrarMensaje("Mesa actualizada correctamente", "Éxito", JOptionPane.INFORMATION_MESSAGE);
+                    limpiarFormulario();
+                    recargarSinAvisos();
+                } else {
+                    mostrarMensaje("Error al actualizar mesa", "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            });
         } catch (NumberFormatException ex) {
             mostrarMensaje("El número de mesa debe ser un valor numérico", "Error", JOptionPane.ERROR_MESSAGE);
         }
@@ -422,100 +437,137 @@ public class MesaFrame extends JFrame {
         );
         
         if (opcion == JOptionPane.YES_OPTION) {
-            if (mesaController.eliminarMesa(idMesaSeleccionada)) {
-                mostrarMensaje("Mesa eliminada correctamente", "Éxito", JOptionPane.INFORMATION_MESSAGE);
-                limpiarFormulario();
-                cargarMesas();
-            } else {
-                mostrarMensaje("Error al eliminar mesa", "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            indicadorCarga.esperar("Eliminando mesa...", mesaController.eliminarMesaAsync(idMesaSeleccionada), eliminada -> {
+                if (eliminada) {
+                    mostrarMensaje("Mesa eliminada correctamente", "Éxito", JOptionPane.INFORMATION_MESSAGE);
+                    limpiarFormulario();
+                    recargarSinAvisos();
+                } else {
+                    mostrarMensaje("Error al eliminar mesa", "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            });
         }
     }
     
     private void cargarMesas() {
-        modeloTabla.setRowCount(0);
-        panelMesasVisual.removeAll();
-        
-        List<Mesa> mesas = mesaController.obtenerTodasLasMesas();
-        
-        for (Mesa m : mesas) {
-            // Agregar a tabla
-            modeloTabla.addRow(new Object[]{
-                m.getId(),
-                m.getNumero(),
-                m.getEstado().toUpperCase()
-            });
-            
-            // Agregar a vista visual
-            panelMesasVisual.add(createMesaCard(m));
+        List<Mesa> guardadas = mesaController.obtenerMesasGuardadas();
+        if (guardadas.isEmpty()) {
+            indicadorCarga.esperar("Cargando mesas...", mesaController.obtenerTodasLasMesasAsync(), this::mostrarMesas);
+            return;
         }
-        
-        panelMesasVisual.revalidate();
-        panelMesasVisual.repaint();
+        // Se muestra la instantánea local y el tablero se corrige cuando responde la base
+        mostrarMesas(guardadas);
+        EjecutorAsincrono.enUI(mesaController.obtenerTodasLasMesasAsync(), this::mostrarMesas, error -> { });
     }
     
-    private JPanel createMesaCard(Mesa mesa) {
-        Color cardColor;
-        String estado = mesa.getEstado().toLowerCase();
-        if (estado.equals("ocupada")) {
-            cardColor = OCUPADA_COLOR;
-        } else if (estado.equals("reservada")) {
-            cardColor = RESERVADA_COLOR;
-        } else {
-            cardColor = LIBRE_COLOR;
+    /**
+     * Con el bus de cambios conectado, el aviso de la propia modificación
+     * actualiza el tablero; sin él se recarga la lista completa.
+     */
+    private void recargarSinAvisos() {
+        if (!BusCambios.getInstancia().estaConectado()) {
+            cargarMesas();
+        }
+    }
+    
+    private void mostrarMesas(List<Mesa> mesas) {
+        mesasActuales = new ArrayList<>(mesas);
+        tableroMesas.mostrar(mesas);
+        
+        boolean mismasFilas = filaPorMesa.size() == mesas.size();
+        for (int i = 0; mismasFilas && i < mesas.size(); i++) {
+            Integer fila = filaPorMesa.get(mesas.get(i).getId());
+            mismasFilas = fila != null && fila == i;
         }
         
-        JPanel card = new JPanel();
-        card.setLayout(new BoxLayout(card, BoxLayout.Y_AXIS));
-        card.setBackground(cardColor);
-        card.setBorder(BorderFactory.createCompoundBorder(
-            BorderFactory.createLineBorder(cardColor.darker(), 2, true),
-            BorderFactory.createEmptyBorder(15, 15, 15, 15)
-        ));
-        card.setPreferredSize(new Dimension(120, 120));
-        card.setCursor(new Cursor(Cursor.HAND_CURSOR));
-        
-        // Icono
-        JLabel lblIcon = new JLabel("🪑");
-        lblIcon.setFont(new Font("Segoe UI Emoji", Font.PLAIN, 32));
-        lblIcon.setAlignmentX(Component.CENTER_ALIGNMENT);
-        
-        // Número
-        JLabel lblNumero = new JLabel("Mesa " + mesa.getNumero());
-        lblNumero.setFont(new Font("Segoe UI", Font.BOLD, 16));
-        lblNumero.setForeground(Color.WHITE);
-        lblNumero.setAlignmentX(Component.CENTER_ALIGNMENT);
-        
-        // Estado
-        JLabel lblEstado = new JLabel(mesa.getEstado().toUpperCase());
-        lblEstado.setFont(new Font("Segoe UI", Font.PLAIN, 12));
-        lblEstado.setForeground(Color.WHITE);
-        lblEstado.setAlignmentX(Component.CENTER_ALIGNMENT);
-        
-        card.add(lblIcon);
-        card.add(Box.createRigidArea(new Dimension(0, 8)));
-        card.add(lblNumero);
-        card.add(lblEstado);
-        
-        // Click en card para seleccionar
-        card.addMouseListener(new MouseAdapter() {
-            @Override
-            public void mouseClicked(MouseEvent e) {
-                seleccionarMesa(mesa);
+        if (mismasFilas) {
+            // Mismas mesas en el mismo orden: solo se tocan las celdas que cambiaron
+            for (int i = 0; i < mesas.size(); i++) {
+                Mesa m = mesas.get(i);
+                actualizarCelda(i, 1, m.getNumero());
+                actualizarCelda(i, 2, m.getEstado().toUpperCase());
             }
-            
-            @Override
-            public void mouseEntered(MouseEvent e) {
-                card.setBackground(cardColor.brighter());
+            return;
+        }
+        
+        restaurandoSeleccion = true;
+        try {
+            modeloTabla.setRowCount(0);
+            filaPorMesa.clear();
+            for (int i = 0; i < mesas.size(); i++) {
+                Mesa m = mesas.get(i);
+                modeloTabla.addRow(new Object[]{
+                    m.getId(),
+                    m.getNumero(),
+                    m.getEstado().toUpperCase()
+                });
+                filaPorMesa.put(m.getId(), i);
             }
             
-            @Override
-            public void mouseExited(MouseEvent e) {
-                card.setBackground(cardColor);
+            Integer fila = filaPorMesa.get(idMesaSeleccionada);
+            if (fila != null) {
+                tablaMesas.setRowSelectionInterval(fila, fila);
             }
-        });
+        } finally {
+            restaurandoSeleccion = false;
+        }
+    }
+    
+    private void actualizarCelda(int fila, int columna, Object valor) {
+        if (!valor.equals(modeloTabla.getValueAt(fila, columna))) {
+            modeloTabla.setValueAt(valor, fila, columna);
+        }
+    }
+    
+    // ==================== CAMBIOS DE OTRAS TERMINALES ====================
+    
+    /**
+     * Aviso del bus (en su propio hilo): se lee solo la mesa que cambió.
+     */
+    private void alCambiarMesa(BusCambios.Cambio cambio) {
+        switch (cambio.getOperacion()) {
+            case RESINCRONIZAR:
+                EjecutorAsincrono.enUI(mesaController.obtenerTodasLasMesasAsync(), this::mostrarMesas, error -> { });
+                break;
+            case ELIMINACION:
+                SwingUtilities.invokeLater(() -> quitarMesa(cambio.getId()));
+                break;
+            default:
+                EjecutorAsincrono.enUI(mesaController.buscarMesaPorIdAsync(cambio.getId()), this::aplicarMesa,
+                                       error -> { });
+        }
+    }
+    
+    private void aplicarMesa(Mesa mesa) {
+        if (mesa == null) {
+            return;
+        }
+        List<Mesa> mesas = new ArrayList<>(mesasActuales);
+        Integer fila = filaPorMesa.get(mesa.getId());
+        if (fila != null) {
+            mesas.remove((int) fila);
+        }
         
-        return card;
+        // Mantener el orden por número de mesa
+        int posicion = 0;
+        while (posicion < mesas.size() && mesas.get(posicion).getNumero() < mesa.getNumero()) {
+            posicion++;
+        }
+        mesas.add(posicion, mesa);
+        mostrarMesas(mesas);
+    }
+    
+    private void quitarMesa(int idMesa) {
+        Integer fila = filaPorMesa.get(idMesa);
+        if (fila == null) {
+            return;
+        }
+        if (idMesa == idMesaSeleccionada) {
+            limpiarFormulario();
+        }
+        List<Mesa> mesas = new ArrayList<>(mesasActuales);
+        mesas.remove((int) fila);
+        mostrarMesas(mesas);
     }
     
     private void seleccionarMesa(Mesa mesa) {
@@ -524,23 +576,19 @@ public class MesaFrame extends JFrame {
         cboEstado.setSelectedItem(mesa.getEstado());
         
         // Seleccionar en tabla
-        for (int i = 0; i < modeloTabla.getRowCount(); i++) {
-            if ((int) modeloTabla.getValueAt(i, 0) == mesa.getId()) {
-                tablaMesas.setRowSelectionInterval(i, i);
-                break;
-            }
+        Integer fila = filaPorMesa.get(mesa.getId());
+        if (fila != null) {
+            tablaMesas.setRowSelectionInterval(fila, fila);
         }
     }
     
     private void cargarMesaSeleccionada() {
         int fila = tablaMesas.getSelectedRow();
         if (fila >= 0) {
+            // La fila ya tiene los datos de la mesa: no hace falta consultar la base de datos
             idMesaSeleccionada = (int) modeloTabla.getValueAt(fila, 0);
-            Mesa m = mesaController.buscarMesaPorId(idMesaSeleccionada);
-            if (m != null) {
-                txtNumero.setText(String.valueOf(m.getNumero()));
-                cboEstado.setSelectedItem(m.getEstado());
-            }
+            txtNumero.setText(String.valueOf(modeloTabla.getValueAt(fila, 1)));
+            cboEstado.setSelectedItem(((String) modeloTabla.getValueAt(fila, 2)).toLowerCase());
         }
     }
     
@@ -0,0 +1,163 @@
+package com.restaurante.view;
+
+import com.restaurante.controller.VentaController;
+import com.restaurante.model.Dinero;
+import com.restaurante.model.Producto;
+import com.restaurante.util.FinancialUtils;
+import com.restaurante.util.FinancialUtils.TotalesVenta;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Modelo de tabla del carrito de venta.
+ *
+ * Los renglones se ubican por ID de producto, así que agregar un producto que
+ * ya está en el carrito solo suma la cantidad a su renglón. El subtotal y el
+ * número de artículos se ajustan con la diferencia de cada cambio en lugar de
+ * recorrer el carrito, y la tabla recibe eventos solo del renglón afectado.
+ * Los importes se formatean al pintar cada celda. Todos los métodos se usan
+ * desde el hilo de eventos de Swing.
+ */
+public class ModeloCarrito extends AbstractTableModel {
+
+    private static final String[] COLUMNAS = {"Producto", "Precio Unit.", "Cantidad", "Subtotal"};
+
+    private final List<VentaController.ItemVenta> items = new ArrayList<>();
+    private final Map<Integer, Integer> filaPorProducto = new HashMap<>();
+
+    private long subtotalCentavos;
+    private int articulos;
+
+    /**
+     * Agrega un producto al carrito, o suma la cantidad si ya estaba.
+     *
+     * @param producto producto a agregar
+     * @param cantidad cantidad a sumar
+     * @return fila del producto en la tabla
+     */
+    public int agregar(Producto producto, int cantidad) {
+        Integer fila = filaPorProducto.get(producto.getId());
+
+        if (fila != null) {
+            VentaController.ItemVenta item = items.get(fila);
+            item.setCantidad(item.getCantidad() + cantidad);
+            acumular(item.getProducto(), cantidad);
+            fireTableRowsUpdated(fila, fila);
+            return fila;
+        }
+
+        int nueva = items.size();
+        items.add(new VentaController.ItemVenta(producto, cantidad));
+        filaPorProducto.put(producto.getId(), nueva);
+        acumular(producto, cantidad);
+        fireTableRowsInserted(nueva, nueva);
+        return nueva;
+    }
+
+    /**
+     * Quita un renglón del carrito.
+     *
+     * @param fila fila de la tabla
+     */
+    public void quitar(int fila) {
+        VentaController.ItemVenta item = items.remove(fila);
+        filaPorProducto.remove(item.getProducto().getId());
+        acumular(item.getProducto(), -item.getCantidad());
+
+        // Recorrer los índices de los renglones que quedaron debajo
+        for (int i = fila; i < items.size(); i++) {
+            filaPorProducto.put(items.get(i).getProducto().getId(), i);
+        }
+        fireTableRowsDeleted(fila, fila);
+    }
+
+    /**
+     * Vacía el carrito.
+     */
+    public void limpiar() {
+        int filas = items.size();
+        if (filas == 0) {
+            return;
+        }
+        items.clear();
+        filaPorProducto.clear();
+        subtotalCentavos = 0;
+        articulos = 0;
+        fireTableRowsDeleted(0, filas - 1);
+    }
+
+    public boolean estaVacio() {
+        return items.isEmpty();
+    }
+
+    /**
+     * @return número de artículos, sumando las cantidades de cada renglón
+     */
+    public int getArticulos() {
+        return articulos;
+    }
+
+    /**
+     * Calcula subtotal, IVA y total a partir del subtotal acumulado; da el
+     * mismo resultado que {@link FinancialUtils#calcularTotales(List)}.
+     *
+     * @return totales del carrito
+     */
+    public TotalesVenta getTotales() {
+        Dinero subtotal = Dinero.deCentavos(subtotalCentavos);
+        Dinero iva = FinancialUtils.calcularIva(subtotal);
+        return new TotalesVenta(subtotal, iva, subtotal.sumar(iva));
+    }
+
+    /**
+     * Copia de los renglones del carrito, para registrar la venta.
+     *
+     * @return lista de ítems en el orden de la tabla
+     */
+    public List<VentaController.ItemVenta> obtenerItems() {
+        List<VentaController.ItemVenta> copia = new ArrayList<>(items.size());
+        for (VentaController.ItemVenta item : items) {
+            copia.add(new VentaController.ItemVenta(item.getProducto(), item.getCantidad()));
+        }
+        return copia;
+    }
+
+    private void acumular(Producto producto, int cantidad) {
+        subtotalCentavos = Math.addExact(subtotalCentavos,
+                Math.multiplyExact(producto.getPrecio().getCentavos(), (long) cantidad));
+        articulos += cantidad;
+    }
+
+    @Override
+    public int getRowCount() {
+        return items.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNAS.length;
+    }
+
+    @Override
+    public String getColumnName(int columna) {
+        return COLUMNAS[columna];
+    }
+
+    @Override
+    public Object getValueAt(int fila, int columna) {
+        VentaController.ItemVenta item = items.get(fila);
+        switch (columna) {
+            case 0:
+                return item.getProducto().getNombre();
+            case 1:
+                return item.getProducto().getPrecio().formatear();
+            case 2:
+                return item.getCantidad();
+            default:
+                return item.getSubtotal().formatear();
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.restaurante.view;
+
+import com.restaurante.util.EjecutorAsincrono;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Modelo de tabla que trae las filas por páginas conforme el usuario se
+ * desplaza, en lugar de cargar todo el historial al abrir la ventana.
+ *
+ * Las páginas se piden con paginación por llave: cada página continúa después
+ * de la última fila de la anterior, así que cuesta lo mismo al inicio que al
+ * final de un historial grande. Solo se conservan en memoria las páginas
+ * usadas más recientemente; de las demás se guarda únicamente su última fila,
+ * suficiente para volver a pedirlas si el usuario regresa.
+ *
+ * Mientras hay más filas por traer, la tabla muestra una fila extra de
+ * "Cargando..."; al pintarse dispara la carga de la página siguiente.
+ * Todos los métodos se usan desde el hilo de eventos de Swing.
+ *
+ * @param <T> tipo de las filas
+ */
+public class ModeloTablaPaginado<T> extends AbstractTableModel {
+
+    /**
+     * Obtiene una página de filas a partir de la última fila de la anterior.
+     * Se ejecuta fuera del hilo de eventos.
+     */
+    public interface CargadorPagina<T> {
+        List<T> cargar(T despuesDe, int limite);
+    }
+
+    /**
+     * Obtiene el valor a mostrar en una columna de una fila.
+     */
+    public interface ValorCelda<T> {
+        Object obtener(T fila, int columna);
+    }
+
+    private static final String CARGANDO = "Cargando...";
+
+    private final String[] columnas;
+    private final int tamanoPagina;
+    private final int maxPaginas;
+    private final ValorCelda<T> valorCelda;
+    private final Map<Integer, List<T>> paginas;
+    private final List<T> finPaginas = new ArrayList<>();
+    private final Set<Integer> enCarga = new HashSet<>();
+
+    private CargadorPagina<T> cargador;
+    private int filasConocidas;
+    private boolean hayMas;
+    private int generacion;
+
+    /**
+     * @param columnas títulos de las columnas
+     * @param tamanoPagina filas por página
+     * @param maxPaginas páginas que se conservan en memoria
+     * @param valorCelda valor de cada celda
+     */
+    public ModeloTablaPaginado(String[] columnas, int tamanoPagina, int maxPaginas, ValorCelda<T> valorCelda) {
+        this.columnas = columnas.clone();
+        this.tamanoPagina = tamanoPagina;
+        this.maxPaginas = maxPaginas;
+        this.valorCelda = valorCelda;
+        this.paginas = new LinkedHashMap<Integer, List<T>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> mayor) {
+                return size() > ModeloTablaPaginado.this.maxPaginas;
+            }
+        };
+    }
+
+    /**
+     * Descarta las filas cargadas y empieza de nuevo con otro origen de datos.
+     * Las páginas que estaban en camino se ignoran al llegar.
+     *
+     * @param cargador origen de las páginas
+     */
+    public void cargar(CargadorPagina<T> cargador) {
+        this.cargador = cargador;
+        generacion++;
+        paginas.clear();
+        finPaginas.clear();
+        enCarga.clear();
+        filasConocidas = 0;
+        hayMas = true;
+        fireTableDataChanged();
+        solicitar(0);
+    }
+
+    /**
+     * Obtiene la fila en una posición si su página está en memoria.
+     *
+     * @param fila índice de la fila
+     * @return fila, o null si no está cargada
+     */
+    public T obtenerFila(int fila) {
+        List<T> pagina = paginas.get(fila / tamanoPagina);
+        int indice = fila % tamanoPagina;
+        return pagina != null && indice < pagina.size() ? pagina.get(indice) : null;
+    }
+
+    @Override
+    public int getRowCount() {
+        return filasConocidas + (hayMas && cargador != null ? 1 : 0);
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnas.length;
+    }
+
+    @Override
+    public String getColumnName(int columna) {
+        return columnas[columna];
+    }
+
+    @Override
+    public boolean isCellEditable(int fila, int columna) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int fila, int columna) {
+        T valor = obtenerFila(fila);
+        if (valor == null) {
+            solicitar(fila / tamanoPagina);
+            return columna == 0 ? CARGANDO : "";
+        }
+        return valorCelda.obtener(valor, columna);
+    }
+
+    private void solicitar(int numeroPagina) {
+        if (cargador == null || enCarga.contains(numeroPagina) || numeroPagina > finPaginas.size()) {
+            return;
+        }
+        T despuesDe = numeroPagina == 0 ? null : finPaginas.get(numeroPagina - 1);
+        CargadorPagina<T> origen = cargador;
+        int generacionSolicitud = generacion;
+
+        enCarga.add(numeroPagina);
+        EjecutorAsincrono.enUI(
+            EjecutorAsincrono.ejecutar(() -> origen.cargar(despuesDe, tamanoPagina)),
+            filas -> recibir(generacionSolicitud, numeroPagina, filas),
+            error -> {
+                if (generacionSolicitud == generacion) {
+                    enCarga.remove(numeroPagina);
+                    detenerCarga();
+                }
+            });
+    }
+
+    private void recibir(int generacionSolicitud, int numeroPagina, List<T> filas) {
+        if (generacionSolicitud != generacion) {
+            return;
+        }
+        enCarga.remove(numeroPagina);
+        paginas.put(numeroPagina, filas);
+
+        int inicio = numeroPagina * tamanoPagina;
+        if (numeroPagina < finPaginas.size()) {
+            // Página que se había descartado de memoria y se volvió a pedir
+            if (!filas.isEmpty()) {
+                fireTableRowsUpdated(inicio, Math.min(inicio + filas.size(), filasConocidas) - 1);
+            }
+            return;
+        }
+
+        if (filas.isEmpty()) {
+            detenerCarga();
+            return;
+        }
+
+        int filasAntes = getRowCount();
+        finPaginas.add(filas.get(filas.size() - 1));
+        filasConocidas += filas.size();
+        hayMas = filas.size() == tamanoPagina;
+        int filasDespues = getRowCount();
+
+        fireTableRowsUpdated(inicio, inicio);
+        if (filasDespues > filasAntes) {
+            fireTableRowsInserted(filasAntes, filasDespues - 1);
+        } else if (filasDespues < filasAntes) {
+            fireTableRowsDeleted(filasDespues, filasAntes - 1);
+        }
+    }
+
+    /**
+     * Quita la fila de "Cargando..." cuando ya no hay más páginas o la carga falló.
+     */
+    private void detenerCarga() {
+        if (hayMas) {
+            hayMas = false;
+            fireTableRowsDeleted(filasConocidas, filasConocidas);
+        }
+    }
+}
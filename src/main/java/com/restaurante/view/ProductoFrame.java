@@ -1,11 +1,16 @@
 package com.restaurante.view;
 
 import com.restaurante.controller.ProductoController;
+import com.restaurante.model.Dinero;
+import com.restaurante.dao.CargaCatalogoDAO;
 import com.restaurante.model.Producto;
 import javax.swing.*;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import javax.swing.table.*;
 import java.awt.*;
 import java.awt.event.*;
+import java.io.File;
+import java.nio.file.Path;
 import java.util.List;
 
 /**
@@ -30,12 +35,14 @@ public class ProductoFrame extends JFrame {
     private DefaultTableModel modeloTabla;
     private JTextField txtNombre, txtCategoria, txtPrecio, txtBuscar;
     private JCheckBox chkDisponible;
-    private ModernButton btnGuardar, btnActualizar, btnEliminar, btnLimpiar, btnRegresar;
+    private ModernButton btnGuardar, btnActualizar, btnEliminar, btnLimpiar, btnRegresar, btnImportar, btnExportar;
     private int idProductoSeleccionado = -1;
+    private IndicadorCarga indicadorCarga;
     
     public ProductoFrame() {
         this.productoController = new ProductoController();
         initComponents();
+        indicadorCarga = IndicadorCarga.instalar(this);
         cargarProductos();
     }
     
@@ -223,6 +230,20 @@ public class ProductoFrame extends JFrame {
         searchPanel.add(Box.createRigidArea(new Dimension(10, 0)));
         searchPanel.add(txtBuscar);
         
+        // Carga masiva del catálogo
+        btnImportar = new ModernButton("Importar CSV", PRIMARY_COLOR, Color.WHITE);
+        btnImportar.setPreferredSize(new Dimension(150, 40));
+        btnImportar.addActionListener(e -> importarCatalogo());
+        
+        btnExportar = new ModernButton("Exportar CSV", TEXT_SECONDARY, Color.WHITE);
+        btnExportar.setPreferredSize(new Dimension(150, 40));
+        btnExportar.addActionListener(e -> exportarCatalogo());
+        
+        searchPanel.add(Box.createRigidArea(new Dimension(20, 0)));
+        searchPanel.add(btnImportar);
+        searchPanel.add(Box.createRigidArea(new Dimension(10, 0)));
+        searchPanel.add(btnExportar);
+        
         // Tabla
         String[] columnas = {"ID", "Nombre", "Categoría", "Precio", "Estado"};
         modeloTabla = new DefaultTableModel(columnas, 0) {
@@ -311,19 +332,22 @@ public class ProductoFrame extends JFrame {
         }
         
         try {
-            double precio = Double.parseDouble(precioStr);
-            if (precio <= 0) {
+            Dinero precio = Dinero.parsear(precioStr);
+            if (!precio.esPositivo()) {
                 mostrarMensaje("El precio debe ser mayor a 0", "Error", JOptionPane.ERROR_MESSAGE);
                 return;
             }
             
-            if (productoController.crearProducto(nombre, categoria, precio, disponible)) {
-                mostrarMensaje("Producto guardado correctamente", "Éxito", JOptionPane.INFORMATION_MESSAGE);
-                limpiarFormulario();
-                cargarProductos();
-            } else {
-                mostrarMensaje("Error al guardar el producto", "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            indicadorCarga.esperar("Guardando producto...",
+                productoController.crearProductoAsync(nombre, categoria, precio, disponible), guardado -> {
+                    if (guardado) {
+                        mostrarMensaje("Producto guardado correctamente", "Éxito", JOptionPane.INFORMATION_MESSAGE);
+                        limpiarFormulario();
+                        cargarProductos();
+                    } else {
+                        mostrarMensaje("Error al guardar el producto", "Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                });
         } catch (NumberFormatException ex) {
             mostrarMensaje("El precio debe ser un número válido", "Error", JOptionPane.ERROR_MESSAGE);
         }
@@ -346,8 +370,8 @@ public class ProductoFrame extends JFrame {
         }
         
         try {
-            double precio = Double.parseDouble(precioStr);
-            if (precio <= 0) {
+            Dinero precio = Dinero.parsear(precioStr);
+            if (!precio.esPositivo()) {
                 mostrarMensaje("El precio debe ser mayor a 0", "Error", JOptionPane.ERROR_MESSAGE);
                 return;
             }
@@ -358,13 +382,16 @@ public class ProductoFrame extends JFrame {
             producto.setPrecio(precio);
             producto.setDisponible(disponible);
             
-            if (productoController.actualizarProducto(producto)) {
-                mostrarMensaje("Producto actualizado correctamente", "Éxito", JOptionPane.INFORMATION_MESSAGE);
-                limpiarFormulario();
-                cargarProductos();
-            } else {
-                mostrarMensaje("Error al actualizar el producto", "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            indicadorCarga.esperar("Actualizando producto...", productoController.actualizarProductoAsync(producto),
+                actualizado -> {
+                    if (actualizado) {
+                        mostrarMensaje("Producto actualizado correctamente", "Éxito", JOptionPane.INFORMATION_MESSAGE);
+                        limpiarFormulario();
+                        cargarProductos();
+                    } else {
+                        mostrarMensaje("Error al actualizar el producto", "Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                });
         } catch (NumberFormatException ex) {
             mostrarMensaje("El precio debe ser un número válido", "Error", JOptionPane.ERROR_MESSAGE);
         }
@@ -385,25 +412,91 @@ public class ProductoFrame extends JFrame {
         );
         
         if (opcion == JOptionPane.YES_OPTION) {
-            if (productoController.eliminarProducto(idProductoSeleccionado)) {
-                mostrarMensaje("Producto eliminado correctamente", "Éxito", JOptionPane.INFORMATION_MESSAGE);
-                limpiarFormulario();
+            indicadorCarga.esperar("Eliminando producto...",
+                productoController.eliminarProductoAsync(idProductoSeleccionado), eliminado -> {
+                    if (eliminado) {
+                        mostrarMensaje("Producto eliminado correctamente", "Éxito", JOptionPane.INFORMATION_MESSAGE);
+                        limpiarFormulario();
+                        cargarProductos();
+                    } else {
+                        mostrarMensaje("Error al eliminar el producto", "Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                });
+        }
+    }
+    
+    private void importarCatalogo() {
+        JFileChooser selector = new JFileChooser();
+        selector.setDialogTitle("Importar productos");
+        selector.setFileFilter(new FileNameExtensionFilter("CSV (*.csv)", "csv"));
+        
+        if (selector.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        
+        Path archivo = selector.getSelectedFile().toPath();
+        indicadorCarga.esperar("Importando productos...", productoController.importarProductosAsync(archivo),
+            resultado -> {
+                mostrarMensaje(resumenImportacion(resultado), "Importación terminada",
+                    resultado.getRechazados() == 0 ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.WARNING_MESSAGE);
                 cargarProductos();
-            } else {
-                mostrarMensaje("Error al eliminar el producto", "Error", JOptionPane.ERROR_MESSAGE);
+            }, ex -> mostrarErrorArchivo("No se pudo importar el archivo", ex));
+    }
+    
+    private String resumenImportacion(CargaCatalogoDAO.ResultadoImportacion resultado) {
+        StringBuilder mensaje = new StringBuilder();
+        mensaje.append("Productos importados: ").append(resultado.getImportados());
+        if (resultado.getRechazados() > 0) {
+            mensaje.append("\nRenglones rechazados: ").append(resultado.getRechazados()).append('\n');
+            for (String error : resultado.getErrores()) {
+                mensaje.append("\n").append(error);
+            }
+            if (resultado.getRechazados() > resultado.getErrores().size()) {
+                mensaje.append("\n...");
             }
         }
+        return mensaje.toString();
+    }
+    
+    private void exportarCatalogo() {
+        JFileChooser selector = new JFileChooser();
+        selector.setDialogTitle("Exportar productos");
+        selector.setFileFilter(new FileNameExtensionFilter("CSV (*.csv)", "csv"));
+        selector.setSelectedFile(new File("productos.csv"));
+        
+        if (selector.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        
+        Path destino = selector.getSelectedFile().toPath();
+        if (!destino.getFileName().toString().toLowerCase().endsWith(".csv")) {
+            destino = destino.resolveSibling(destino.getFileName() + ".csv");
+        }
+        
+        Path archivo = destino;
+        indicadorCarga.esperar("Exportando productos...", productoController.exportarProductosAsync(archivo),
+            exportados -> mostrarMensaje("Se exportaron " + exportados + " productos a:\n" + archivo,
+                "Exportación terminada", JOptionPane.INFORMATION_MESSAGE),
+            ex -> mostrarErrorArchivo("No se pudo exportar el catálogo", ex));
+    }
+    
+    private void mostrarErrorArchivo(String titulo, Throwable ex) {
+        mostrarMensaje(titulo + ":\n" + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
     }
     
     private void cargarProductos() {
+        indicadorCarga.esperar("Cargando productos...", productoController.obtenerTodosLosProductosAsync(),
+            this::mostrarProductos);
+    }
+    
+    private void mostrarProductos(List<Producto> productos) {
         modeloTabla.setRowCount(0);
-        List<Producto> productos = productoController.obtenerTodosLosProductos();
         for (Producto p : productos) {
             modeloTabla.addRow(new Object[]{
                 p.getId(),
                 p.getNombre(),
                 p.getCategoria(),
-                String.format("$%.2f", p.getPrecio()),
+                p.getPrecio().formatear(),
                 p.isDisponible() ? "Disponible" : "No disponible"
             });
         }
@@ -422,7 +515,7 @@ public class ProductoFrame extends JFrame {
                     p.getId(),
                     p.getNombre(),
                     p.getCategoria(),
-                    String.format("$%.2f", p.getPrecio()),
+                    p.getPrecio().formatear(),
                     p.isDisponible() ? "Disponible" : "No disponible"
                 });
             }
@@ -437,7 +530,7 @@ public class ProductoFrame extends JFrame {
             if (p != null) {
                 txtNombre.setText(p.getNombre());
                 txtCategoria.setText(p.getCategoria());
-                txtPrecio.setText(String.valueOf(p.getPrecio()));
+                txtPrecio.setText(p.getPrecio().toString());
                 chkDisponible.setSelected(p.isDisponible());
             }
         }
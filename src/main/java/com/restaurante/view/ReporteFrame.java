@@ -1,35 +1,61 @@
 package com.restaurante.view;
 
 import com.restaurante.controller.VentaController;
+import com.restaurante.dao.ExportacionVentasDAO;
+import com.restaurante.dao.VentaDAO;
+import com.restaurante.model.ResumenVentas;
 import com.restaurante.model.Venta;
+import com.restaurante.util.EjecutorAsincrono;
 import com.restaurante.util.JasperReportManager;
 import javax.swing.*;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.io.File;
+import java.nio.file.Path;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperPrint;
 
 /**
  * Ventana de reportes de ventas con diseño moderno.
+ * 
+ * Los totales y las agrupaciones se calculan en la base de datos; el detalle
+ * se trae por páginas, así que la ventana no carga el historial completo.
  */
 public class ReporteFrame extends JFrame {
     
+    private static final int TAMANO_PAGINA = 100;
+    private static final int PAGINAS_EN_MEMORIA = 10;
+    private static final String[] COLUMNAS_DETALLE = {"ID", "Fecha", "Total", "Usuario ID", "Mesa ID"};
+    private static final String[] COLUMNAS_RESUMEN = {"Grupo", "Ventas", "Total", "Ticket Promedio"};
+    private static final String[] COLUMNAS_PRODUCTO = {"Producto", "Unidades", "Total", "Precio Promedio"};
+    private static final int OPCION_PRODUCTO = 5;
+    private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    
     private final VentaController ventaController;
     private JTable tablaVentas;
-    private DefaultTableModel modeloTabla;
+    private ModeloTablaPaginado<Venta> modeloDetalle;
+    private DefaultTableModel modeloGrupos;
     private JComboBox<String> cboPeriodo;
+    private JComboBox<String> cboAgrupacion;
     private JLabel lblTotalVentas;
     private JLabel lblCantidadVentas;
     private LocalDateTime ultimoInicio;
     private LocalDateTime ultimoFin;
     private boolean usarRangoFechas;
+    private IndicadorCarga indicadorCarga;
     
     // Colores modernos
     private static final Color PRIMARY_COLOR = new Color(74, 144, 226);
@@ -41,6 +67,7 @@ public class ReporteFrame extends JFrame {
     public ReporteFrame() {
         this.ventaController = new VentaController();
         inicializarComponentes();
+        indicadorCarga = IndicadorCarga.instalar(this);
         cargarReporteHoy();
     }
     
@@ -104,10 +131,15 @@ public class ReporteFrame extends JFrame {
         lblFiltro.setFont(new Font("Segoe UI", Font.BOLD, 14));
         lblFiltro.setForeground(TEXT_SECONDARY);
         
-        cboPeriodo = new JComboBox<>(new String[]{"Hoy", "Esta Semana", "Este Mes", "Todas"});
+        cboPeriodo = new JComboBox<>(new String[]{"Hoy", "Esta Semana", "Este Mes", "Este Año", "Todas"});
         cboPeriodo.setFont(new Font("Segoe UI", Font.PLAIN, 14));
         cboPeriodo.addActionListener(e -> cargarReporte());
         
+        cboAgrupacion = new JComboBox<>(new String[]{"Detalle", "Por día", "Por hora", "Por usuario", "Por mesa",
+                                                        "Por producto"});
+        cboAgrupacion.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        cboAgrupacion.addActionListener(e -> cargarReporte());
+        
         ModernButton btnActualizar = new ModernButton("Actualizar", PRIMARY_COLOR, Color.WHITE);
         btnActualizar.setPreferredSize(new Dimension(120, 35));
         btnActualizar.addActionListener(e -> cargarReporte());
@@ -115,6 +147,14 @@ public class ReporteFrame extends JFrame {
         ModernButton btnJasper = new ModernButton("Ver en Jasper", SUCCESS_COLOR, Color.WHITE);
         btnJasper.setPreferredSize(new Dimension(120, 35));
         btnJasper.addActionListener(e -> generarReporteJasper());
+
+        ModernButton btnExportar = new ModernButton("Exportar...", TEXT_SECONDARY, Color.WHITE);
+        btnExportar.setPreferredSize(new Dimension(120, 35));
+        btnExportar.addActionListener(e -> exportarReporteJasper());
+
+        ModernButton btnHistorial = new ModernButton("Exportar historial", TEXT_SECONDARY, Color.WHITE);
+        btnHistorial.setPreferredSize(new Dimension(120, 35));
+        btnHistorial.addActionListener(e -> exportarHistorial());
         
         JPanel filtroTop = new JPanel(new BorderLayout());
         filtroTop.setOpaque(false);
@@ -122,12 +162,19 @@ public class ReporteFrame extends JFrame {
         filtroTop.add(Box.createRigidArea(new Dimension(0, 8)), BorderLayout.CENTER);
         
         cardFiltro.add(filtroTop, BorderLayout.NORTH);
-        cardFiltro.add(cboPeriodo, BorderLayout.CENTER);
 
-        JPanel buttonsPanel = new JPanel(new GridLayout(2, 1, 0, 10));
+        JPanel combosPanel = new JPanel(new GridLayout(2, 1, 0, 10));
+        combosPanel.setOpaque(false);
+        combosPanel.add(cboPeriodo);
+        combosPanel.add(cboAgrupacion);
+        cardFiltro.add(combosPanel, BorderLayout.CENTER);
+
+        JPanel buttonsPanel = new JPanel(new GridLayout(4, 1, 0, 10));
         buttonsPanel.setOpaque(false);
         buttonsPanel.add(btnActualizar);
         buttonsPanel.add(btnJasper);
+        buttonsPanel.add(btnExportar);
+        buttonsPanel.add(btnHistorial);
 
         cardFiltro.add(buttonsPanel, BorderLayout.SOUTH);
         
@@ -188,15 +235,16 @@ public class ReporteFrame extends JFrame {
         lblTitulo.setForeground(TEXT_PRIMARY);
         
         // Tabla
-        String[] columnas = {"ID", "Fecha", "Total", "Usuario ID", "Mesa ID"};
-        modeloTabla = new DefaultTableModel(columnas, 0) {
+        modeloDetalle = new ModeloTablaPaginado<>(COLUMNAS_DETALLE, TAMANO_PAGINA, PAGINAS_EN_MEMORIA,
+            this::valorDetalle);
+        modeloGrupos = new DefaultTableModel(COLUMNAS_RESUMEN, 0) {
             @Override
             public boolean isCellEditable(int row, int column) {
                 return false;
             }
         };
         
-        tablaVentas = new JTable(modeloTabla);
+        tablaVentas = new JTable(modeloDetalle);
         tablaVentas.setFont(new Font("Segoe UI", Font.PLAIN, 13));
         tablaVentas.setRowHeight(35);
         tablaVentas.setSelectionBackground(new Color(74, 144, 226, 50));
@@ -210,12 +258,7 @@ public class ReporteFrame extends JFrame {
         tablaVentas.getTableHeader().setForeground(TEXT_PRIMARY);
         tablaVentas.getTableHeader().setPreferredSize(new Dimension(0, 40));
         
-        // Ancho de columnas
-        tablaVentas.getColumnModel().getColumn(0).setPreferredWidth(60);
-        tablaVentas.getColumnModel().getColumn(1).setPreferredWidth(200);
-        tablaVentas.getColumnModel().getColumn(2).setPreferredWidth(120);
-        tablaVentas.getColumnModel().getColumn(3).setPreferredWidth(100);
-        tablaVentas.getColumnModel().getColumn(4).setPreferredWidth(100);
+        ajustarColumnasDetalle();
         
         JScrollPane scrollPane = new JScrollPane(tablaVentas);
         scrollPane.setBorder(BorderFactory.createLineBorder(new Color(220, 220, 220), 1));
@@ -227,6 +270,14 @@ public class ReporteFrame extends JFrame {
         return panel;
     }
     
+    private void ajustarColumnasDetalle() {
+        tablaVentas.getColumnModel().getColumn(0).setPreferredWidth(60);
+        tablaVentas.getColumnModel().getColumn(1).setPreferredWidth(200);
+        tablaVentas.getColumnModel().getColumn(2).setPreferredWidth(120);
+        tablaVentas.getColumnModel().getColumn(3).setPreferredWidth(100);
+        tablaVentas.getColumnModel().getColumn(4).setPreferredWidth(100);
+    }
+    
     private void cargarReporte() {
         String periodo = (String) cboPeriodo.getSelectedItem();
         
@@ -240,13 +291,16 @@ public class ReporteFrame extends JFrame {
             case "Este Mes":
                 cargarReporteMes();
                 break;
+            case "Este Año":
+                cargarReporteAnio();
+                break;
             case "Todas":
                 cargarReporteTodas();
                 break;
         }
     }
 
-    private void generarReporteJasper() {
+    private Map<String, Object> parametrosJasper() {
         Map<String, Object> parametros = new HashMap<>();
 
         if (usarRangoFechas && ultimoInicio != null && ultimoFin != null) {
@@ -256,23 +310,144 @@ public class ReporteFrame extends JFrame {
             parametros.put("FECHA_INICIO", null);
             parametros.put("FECHA_FIN", null);
         }
+        return parametros;
+    }
 
-        try {
-            JasperReportManager.mostrarReporteEnPantalla("ventas_general", parametros);
-        } catch (JRException | SQLException ex) {
-            ex.printStackTrace();
-            String detalle = ex.getMessage();
-            Throwable causa = ex.getCause();
-            if (causa != null && causa.getMessage() != null) {
-                detalle += "\nCausa: " + causa.getMessage();
+    private void generarReporteJasper() {
+        Map<String, Object> parametros = parametrosJasper();
+
+        if (!usarRangoFechas) {
+            // "Todas" puede abarcar años de ventas: llenar con páginas en disco
+            CompletableFuture<JasperReportManager.ReporteGrande> llenado = EjecutorAsincrono.ejecutar(() -> {
+                try {
+                    return JasperReportManager.llenarReporteGrande("ventas_general", parametros);
+                } catch (JRException | SQLException ex) {
+                    throw new CompletionException(ex);
+                }
+            });
+            indicadorCarga.esperar("Generando reporte...", llenado, JasperReportManager::mostrarEnPantalla,
+                this::mostrarErrorJasper);
+            return;
+        }
+
+        CompletableFuture<JasperPrint> llenado = EjecutorAsincrono.ejecutar(() -> {
+            try {
+                return JasperReportManager.llenarReporte("ventas_general", parametros);
+            } catch (JRException | SQLException ex) {
+                throw new CompletionException(ex);
             }
-            JOptionPane.showMessageDialog(
+        });
+
+        indicadorCarga.esperar("Generando reporte...", llenado, JasperReportManager::mostrarEnPantalla,
+            this::mostrarErrorJasper);
+    }
+
+    private void exportarReporteJasper() {
+        JFileChooser selector = new JFileChooser();
+        selector.setDialogTitle("Exportar reporte de ventas");
+        selector.setAcceptAllFileFilterUsed(false);
+        FileNameExtensionFilter filtroPdf = new FileNameExtensionFilter("PDF (*.pdf)", "pdf");
+        selector.addChoosableFileFilter(filtroPdf);
+        selector.addChoosableFileFilter(new FileNameExtensionFilter("Excel (*.xlsx)", "xlsx"));
+        selector.setFileFilter(filtroPdf);
+        selector.setSelectedFile(new File("ventas_general.pdf"));
+
+        if (selector.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+
+        String extension = selector.getFileFilter() == filtroPdf ? ".pdf" : ".xlsx";
+        Path destino = selector.getSelectedFile().toPath();
+        if (!destino.getFileName().toString().toLowerCase().endsWith(extension)) {
+            destino = destino.resolveSibling(destino.getFileName() + extension);
+        }
+
+        Path archivo = destino;
+        Map<String, Object> parametros = parametrosJasper();
+        CompletableFuture<Path> exportacion = EjecutorAsincrono.ejecutar(() -> {
+            try {
+                return JasperReportManager.exportarReporte("ventas_general", parametros, archivo);
+            } catch (JRException | SQLException ex) {
+                throw new CompletionException(ex);
+            }
+        });
+
+        indicadorCarga.esperar("Exportando reporte...", exportacion, ruta -> JOptionPane.showMessageDialog(
                 this,
-                "No se pudo generar el reporte: " + detalle,
-                "Error JasperReports",
-                JOptionPane.ERROR_MESSAGE
-            );
+                "Reporte exportado correctamente:\n" + ruta,
+                "Reporte exportado",
+                JOptionPane.INFORMATION_MESSAGE
+            ), this::mostrarErrorJasper);
+    }
+
+    /**
+     * Exporta las ventas del período mostrado, con su detalle, a un archivo
+     * columnar comprimido o a CSV. El avance se muestra en un diálogo que
+     * permite cancelar.
+     */
+    private void exportarHistorial() {
+        JFileChooser selector = new JFileChooser();
+        selector.setDialogTitle("Exportar historial de ventas");
+        selector.setAcceptAllFileFilterUsed(false);
+        FileNameExtensionFilter filtroColumnar = new FileNameExtensionFilter(
+            "Columnar comprimido (*.vcol)", "vcol");
+        selector.addChoosableFileFilter(filtroColumnar);
+        selector.addChoosableFileFilter(new FileNameExtensionFilter("CSV (*.csv)", "csv"));
+        selector.setFileFilter(filtroColumnar);
+        selector.setSelectedFile(new File("historial_ventas.vcol"));
+
+        if (selector.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
         }
+
+        ExportacionVentasDAO.Formato formato = selector.getFileFilter() == filtroColumnar
+            ? ExportacionVentasDAO.Formato.COLUMNAR : ExportacionVentasDAO.Formato.CSV;
+        Path destino = selector.getSelectedFile().toPath();
+        if (!destino.getFileName().toString().toLowerCase().endsWith(formato.getExtension())) {
+            destino = destino.resolveSibling(destino.getFileName() + formato.getExtension());
+        }
+
+        Path archivo = destino;
+        DialogoProgreso dialogo = new DialogoProgreso(this, "Exportando historial de ventas...");
+        CompletableFuture<Long> exportacion = ventaController.exportarHistorialAsync(
+            usarRangoFechas ? ultimoInicio : null, usarRangoFechas ? ultimoFin : null, formato, archivo, dialogo);
+
+        EjecutorAsincrono.enUI(exportacion,
+            filas -> {
+                dialogo.dispose();
+                JOptionPane.showMessageDialog(this,
+                    String.format("Se exportaron %,d renglones de venta a:%n%s", filas, archivo),
+                    "Historial exportado", JOptionPane.INFORMATION_MESSAGE);
+            },
+            error -> {
+                dialogo.dispose();
+                if (error instanceof CancellationException) {
+                    JOptionPane.showMessageDialog(this, "Exportación cancelada.", "Historial de ventas",
+                        JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(this,
+                        "No se pudo exportar el historial:\n" + error.getMessage(),
+                        "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            });
+
+        // Modal: se cierra desde los callbacks anteriores
+        dialogo.setVisible(true);
+    }
+
+    private void mostrarErrorJasper(Throwable ex) {
+        ex.printStackTrace();
+        String detalle = ex.getMessage();
+        Throwable causa = ex.getCause();
+        if (causa != null && causa.getMessage() != null) {
+            detalle += "\nCausa: " + causa.getMessage();
+        }
+        JOptionPane.showMessageDialog(
+            this,
+            "No se pudo generar el reporte: " + detalle,
+            "Error JasperReports",
+            JOptionPane.ERROR_MESSAGE
+        );
     }
     
     private void cargarReporteHoy() {
@@ -281,63 +456,116 @@ public class ReporteFrame extends JFrame {
         cargarVentas(inicio, fin);
     }
     
+    // Los períodos abarcan días completos para leerse de los resúmenes por hora
     private void cargarReporteSemana() {
-        LocalDateTime inicio = LocalDateTime.now().minusDays(7);
-        LocalDateTime fin = LocalDateTime.now();
+        LocalDateTime inicio = LocalDateTime.of(LocalDate.now().minusDays(6), LocalTime.MIN);
+        LocalDateTime fin = LocalDateTime.of(LocalDate.now(), LocalTime.MAX);
         cargarVentas(inicio, fin);
     }
     
     private void cargarReporteMes() {
-        LocalDateTime inicio = LocalDateTime.now().minusDays(30);
-        LocalDateTime fin = LocalDateTime.now();
+        LocalDateTime inicio = LocalDateTime.of(LocalDate.now().minusDays(29), LocalTime.MIN);
+        LocalDateTime fin = LocalDateTime.of(LocalDate.now(), LocalTime.MAX);
+        cargarVentas(inicio, fin);
+    }
+    
+    private void cargarReporteAnio() {
+        LocalDateTime inicio = LocalDateTime.of(LocalDate.now().withDayOfYear(1), LocalTime.MIN);
+        LocalDateTime fin = LocalDateTime.of(LocalDate.now(), LocalTime.MAX);
         cargarVentas(inicio, fin);
     }
     
     private void cargarReporteTodas() {
         usarRangoFechas = false;
-        ultimoInicio = null;
-        ultimoFin = null;
-
-        modeloTabla.setRowCount(0);
-        List<Venta> ventas = ventaController.obtenerTodasLasVentas();
-        double total = 0.0;
-        
-        for (Venta v : ventas) {
-            modeloTabla.addRow(new Object[]{
-                v.getId(),
-                v.getFechaVenta().format(java.time.format.DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")),
-                String.format("$%.2f", v.getTotal()),
-                v.getIdUsuario(),
-                v.getIdMesa() != null ? v.getIdMesa() : "N/A"
-            });
-            total += v.getTotal();
-        }
-        
-        lblCantidadVentas.setText(String.valueOf(ventas.size()));
-        lblTotalVentas.setText(String.format("$%.2f", total));
+        cargarPeriodo(null, null);
     }
     
     private void cargarVentas(LocalDateTime inicio, LocalDateTime fin) {
         usarRangoFechas = true;
+        cargarPeriodo(inicio, fin);
+    }
+    
+    /**
+     * Carga los totales del período y, según la agrupación elegida, la primera
+     * página del detalle o el resumen por grupo.
+     */
+    private void cargarPeriodo(LocalDateTime inicio, LocalDateTime fin) {
         ultimoInicio = inicio;
         ultimoFin = fin;
-
-        modeloTabla.setRowCount(0);
-        List<Venta> ventas = ventaController.obtenerVentasPorFechas(inicio, fin);
-        double total = ventaController.calcularTotalVentas(inicio, fin);
-        
-        for (Venta v : ventas) {
-            modeloTabla.addRow(new Object[]{
-                v.getId(),
-                v.getFechaVenta().format(java.time.format.DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")),
-                String.format("$%.2f", v.getTotal()),
-                v.getIdUsuario(),
-                v.getIdMesa() != null ? v.getIdMesa() : "N/A"
+        
+        indicadorCarga.esperar("Calculando totales...", ventaController.obtenerResumenVentasAsync(inicio, fin),
+            this::mostrarResumen);
+        
+        VentaDAO.Agrupacion agrupacion = agrupacionSeleccionada();
+        if (cboAgrupacion.getSelectedIndex() == OPCION_PRODUCTO) {
+            tablaVentas.setModel(modeloGrupos);
+            modeloGrupos.setColumnIdentifiers(COLUMNAS_PRODUCTO);
+            indicadorCarga.esperar("Agrupando ventas...",
+                ventaController.obtenerVentasPorProductoAsync(inicio != null ? inicio.toLocalDate() : null,
+                                                              fin != null ? fin.toLocalDate() : null),
+                this::mostrarGrupos);
+        } else if (agrupacion == null) {
+            if (tablaVentas.getModel() != modeloDetalle) {
+                tablaVentas.setModel(modeloDetalle);
+                ajustarColumnasDetalle();
+            }
+            // Las páginas se piden conforme se desplaza la tabla
+            modeloDetalle.cargar((despuesDe, limite) ->
+                ventaController.obtenerPaginaVentas(inicio, fin, despuesDe, limite));
+        } else {
+            tablaVentas.setModel(modeloGrupos);
+            modeloGrupos.setColumnIdentifiers(COLUMNAS_RESUMEN);
+            indicadorCarga.esperar("Agrupando ventas...",
+                ventaController.obtenerResumenAgrupadoAsync(inicio, fin, agrupacion), this::mostrarGrupos);
+        }
+    }
+    
+    private VentaDAO.Agrupacion agrupacionSeleccionada() {
+        switch (cboAgrupacion.getSelectedIndex()) {
+            case 1:
+                return VentaDAO.Agrupacion.DIA;
+            case 2:
+                return VentaDAO.Agrupacion.HORA;
+            case 3:
+                return VentaDAO.Agrupacion.USUARIO;
+            case 4:
+                return VentaDAO.Agrupacion.MESA;
+            default:
+                return null;
+        }
+    }
+    
+    private void mostrarResumen(ResumenVentas resumen) {
+        lblCantidadVentas.setText(String.valueOf(resumen.getCantidadVentas()));
+        lblTotalVentas.setText(resumen.getTotal().formatear());
+    }
+    
+    private Object valorDetalle(Venta v, int columna) {
+        switch (columna) {
+            case 0:
+                return v.getId();
+            case 1:
+                return v.getFechaVenta().format(FORMATO_FECHA);
+            case 2:
+                return v.getTotal().formatear();
+            case 3:
+                return v.getIdUsuario();
+            default:
+                return v.getIdMesa() != null ? v.getIdMesa() : "N/A";
+        }
+    }
+    
+    private void mostrarGrupos(List<ResumenVentas> grupos) {
+        modeloGrupos.setRowCount(0);
+        
+        for (ResumenVentas g : grupos) {
+            modeloGrupos.addRow(new Object[]{
+                g.getGrupo(),
+                g.getCantidadVentas(),
+                g.getTotal().formatear(),
+                g.getTicketPromedio().formatear()
             });
         }
-        
-        lblCantidadVentas.setText(String.valueOf(ventas.size()));
-        lblTotalVentas.setText(String.format("$%.2f", total));
     }
     
     // ==================== CLASE INTERNA MODERNBUTTON ====================
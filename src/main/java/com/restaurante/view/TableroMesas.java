@@ -0,0 +1,203 @@
+package com.restaurante.view;
+
+import com.restaurante.model.Mesa;
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Cursor;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.GridLayout;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import javax.swing.BorderFactory;
+import javax.swing.Box;
+import javax.swing.BoxLayout;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.border.Border;
+
+/**
+ * Tablero visual de mesas con una tarjeta por mesa.
+ *
+ * Las tarjetas se conservan entre recargas, ubicadas por ID de mesa: al
+ * mostrar una lista nueva solo se repintan las tarjetas cuyo número o estado
+ * cambió, y el panel se reacomoda únicamente si cambió el conjunto o el orden
+ * de las mesas. Fuentes, bordes, colores y el oyente del ratón se comparten
+ * entre todas las tarjetas. Todos los métodos se usan desde el hilo de
+ * eventos de Swing.
+ */
+public class TableroMesas extends JPanel {
+
+    // Colores de estado (también los usa la leyenda de MesaFrame)
+    static final Color LIBRE_COLOR = new Color(40, 167, 69);
+    static final Color OCUPADA_COLOR = new Color(220, 53, 69);
+    static final Color RESERVADA_COLOR = new Color(255, 193, 7);
+
+    private static final Font FUENTE_ICONO = new Font("Segoe UI Emoji", Font.PLAIN, 32);
+    private static final Font FUENTE_NUMERO = new Font("Segoe UI", Font.BOLD, 16);
+    private static final Font FUENTE_ESTADO = new Font("Segoe UI", Font.PLAIN, 12);
+    private static final Cursor CURSOR_MANO = new Cursor(Cursor.HAND_CURSOR);
+    private static final Dimension TAMANO_TARJETA = new Dimension(120, 120);
+
+    private static final Estilo LIBRE = new Estilo(LIBRE_COLOR);
+    private static final Estilo OCUPADA = new Estilo(OCUPADA_COLOR);
+    private static final Estilo RESERVADA = new Estilo(RESERVADA_COLOR);
+
+    private final Map<Integer, Tarjeta> tarjetas = new HashMap<>();
+    private final List<Tarjeta> orden = new ArrayList<>();
+    private final MouseAdapter oyenteRaton;
+
+    /**
+     * @param alSeleccionar acción al hacer clic en una tarjeta
+     */
+    public TableroMesas(Consumer<Mesa> alSeleccionar) {
+        super(new GridLayout(0, 4, 15, 15));
+
+        this.oyenteRaton = new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                alSeleccionar.accept(((Tarjeta) e.getComponent()).mesa);
+            }
+
+            @Override
+            public void mouseEntered(MouseEvent e) {
+                Tarjeta tarjeta = (Tarjeta) e.getComponent();
+                tarjeta.setBackground(tarjeta.estilo.claro);
+            }
+
+            @Override
+            public void mouseExited(MouseEvent e) {
+                Tarjeta tarjeta = (Tarjeta) e.getComponent();
+                tarjeta.setBackground(tarjeta.estilo.color);
+            }
+        };
+    }
+
+    /**
+     * Muestra las mesas en el orden recibido, reutilizando las tarjetas que
+     * ya existen.
+     *
+     * @param mesas mesas a mostrar
+     */
+    public void mostrar(List<Mesa> mesas) {
+        List<Tarjeta> nuevoOrden = new ArrayList<>(mesas.size());
+        Set<Integer> vigentes = new HashSet<>();
+
+        for (Mesa mesa : mesas) {
+            Tarjeta tarjeta = tarjetas.get(mesa.getId());
+            if (tarjeta == null) {
+                tarjeta = new Tarjeta(mesa);
+                tarjetas.put(mesa.getId(), tarjeta);
+            } else {
+                tarjeta.actualizar(mesa);
+            }
+            vigentes.add(mesa.getId());
+            nuevoOrden.add(tarjeta);
+        }
+        tarjetas.keySet().retainAll(vigentes);
+
+        if (!nuevoOrden.equals(orden)) {
+            // Solo se reacomodan las tarjetas existentes; no se crean componentes
+            removeAll();
+            for (Tarjeta tarjeta : nuevoOrden) {
+                add(tarjeta);
+            }
+            orden.clear();
+            orden.addAll(nuevoOrden);
+            revalidate();
+            repaint();
+        }
+    }
+
+    private static Estilo estiloDe(String estado) {
+        if ("ocupada".equalsIgnoreCase(estado)) {
+            return OCUPADA;
+        }
+        if ("reservada".equalsIgnoreCase(estado)) {
+            return RESERVADA;
+        }
+        return LIBRE;
+    }
+
+    /**
+     * Color y borde de un estado, creados una sola vez.
+     */
+    private static final class Estilo {
+        private final Color color;
+        private final Color claro;
+        private final Border borde;
+
+        private Estilo(Color color) {
+            this.color = color;
+            this.claro = color.brighter();
+            this.borde = BorderFactory.createCompoundBorder(
+                BorderFactory.createLineBorder(color.darker(), 2, true),
+                BorderFactory.createEmptyBorder(15, 15, 15, 15)
+            );
+        }
+    }
+
+    /**
+     * Tarjeta de una mesa; sus etiquetas se crean una vez y solo cambia el texto.
+     */
+    private final class Tarjeta extends JPanel {
+        private final JLabel lblNumero;
+        private final JLabel lblEstado;
+        private Mesa mesa;
+        private Estilo estilo;
+
+        private Tarjeta(Mesa mesa) {
+            setLayout(new BoxLayout(this, BoxLayout.Y_AXIS));
+            setPreferredSize(TAMANO_TARJETA);
+            setCursor(CURSOR_MANO);
+
+            JLabel lblIcono = new JLabel("🪑");
+            lblIcono.setFont(FUENTE_ICONO);
+            lblIcono.setAlignmentX(Component.CENTER_ALIGNMENT);
+
+            lblNumero = new JLabel();
+            lblNumero.setFont(FUENTE_NUMERO);
+            lblNumero.setForeground(Color.WHITE);
+            lblNumero.setAlignmentX(Component.CENTER_ALIGNMENT);
+
+            lblEstado = new JLabel();
+            lblEstado.setFont(FUENTE_ESTADO);
+            lblEstado.setForeground(Color.WHITE);
+            lblEstado.setAlignmentX(Component.CENTER_ALIGNMENT);
+
+            add(lblIcono);
+            add(Box.createRigidArea(new Dimension(0, 8)));
+            add(lblNumero);
+            add(lblEstado);
+            addMouseListener(oyenteRaton);
+
+            pintar(mesa);
+        }
+
+        private void actualizar(Mesa nueva) {
+            boolean cambio = nueva.getNumero() != mesa.getNumero()
+                || !nueva.getEstado().equalsIgnoreCase(mesa.getEstado());
+            if (cambio) {
+                pintar(nueva);
+            } else {
+                mesa = nueva;
+            }
+        }
+
+        private void pintar(Mesa nueva) {
+            this.mesa = nueva;
+            this.estilo = estiloDe(nueva.getEstado());
+            lblNumero.setText("Mesa " + nueva.getNumero());
+            lblEstado.setText(nueva.getEstado().toUpperCase());
+            setBackground(estilo.color);
+            setBorder(estilo.borde);
+        }
+    }
+}
@@ -1,15 +1,14 @@
 package com.restaurante.view;
 
 import com.restaurante.controller.VentaController;
+import com.restaurante.model.Dinero;
 import com.restaurante.model.Ticket;
 import com.restaurante.model.Usuario;
 import com.restaurante.util.FinancialUtils;
 import com.restaurante.util.FinancialUtils.TotalesVenta;
-import com.restaurante.util.TicketPdfGenerator;
-import com.lowagie.text.DocumentException;
+import com.restaurante.util.EjecutorAsincrono;
+import com.restaurante.util.ServicioTickets;
 import java.awt.*;
-import java.io.IOException;
-import java.nio.file.Path;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
@@ -61,12 +60,7 @@ public class TicketFrame extends JFrame {
         JButton btnPdf = crearBotonAccion("Exportar PDF", new Color(37, 168, 79));
         JButton btnCerrar = crearBotonAccion("Cerrar", new Color(108, 117, 125));
         
-        btnImprimir.addActionListener(e -> {
-            JOptionPane.showMessageDialog(this, 
-                "Función de impresión simulada\n(Conecte una impresora de tickets para usar esta función)", 
-                "Imprimir", JOptionPane.INFORMATION_MESSAGE);
-        });
-        
+        btnImprimir.addActionListener(e -> imprimirTicket());
         btnPdf.addActionListener(e -> exportarTicketPdf());
         btnCerrar.addActionListener(e -> dispose());
         
@@ -80,40 +74,50 @@ public class TicketFrame extends JFrame {
         add(panelPrincipal);
     }
 
+    private void imprimirTicket() {
+        EjecutorAsincrono.enUI(
+            ServicioTickets.getInstancia().emitir(ticket, usuario, items, ServicioTickets.Formato.ESCPOS),
+            destino -> JOptionPane.showMessageDialog(
+                this,
+                "Ticket enviado a la impresora:\n" + destino,
+                "Imprimir",
+                JOptionPane.INFORMATION_MESSAGE
+            ),
+            error -> JOptionPane.showMessageDialog(
+                this,
+                "No se pudo imprimir el ticket: " + error.getMessage(),
+                "Error",
+                JOptionPane.ERROR_MESSAGE
+            ));
+    }
+
     private void exportarTicketPdf() {
-        try {
-            Path archivo = TicketPdfGenerator.generarYMostrar(ticket, usuario, items);
-            JOptionPane.showMessageDialog(
+        EjecutorAsincrono.enUI(
+            ServicioTickets.getInstancia().emitir(ticket, usuario, items, ServicioTickets.Formato.PDF),
+            archivo -> JOptionPane.showMessageDialog(
                 this,
                 "Ticket exportado correctamente:\n" + archivo,
                 "PDF generado",
                 JOptionPane.INFORMATION_MESSAGE
-            );
-        } catch (IOException | DocumentException ex) {
-            JOptionPane.showMessageDialog(
+            ),
+            error -> JOptionPane.showMessageDialog(
                 this,
-                "No se pudo generar el ticket en PDF: " + ex.getMessage(),
+                "No se pudo generar el ticket en PDF: " + error.getMessage(),
                 "Error",
                 JOptionPane.ERROR_MESSAGE
-            );
-        }
+            ));
     }
     
     private String generarTicketHtml() {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
-        TotalesVenta totales = FinancialUtils.calcularTotales(items);
+        TotalesVenta totales = FinancialUtils.desglosarTicket(ticket.getTotal(), items);
 
-        double totalRegistrado = FinancialUtils.redondear(ticket.getTotal());
-        double subtotal = totales.getSubtotal();
-        double iva = FinancialUtils.redondear(totalRegistrado - subtotal);
-
-        if (iva < 0) {
-            iva = totales.getIva();
-            subtotal = FinancialUtils.redondear(totalRegistrado - iva);
-        }
+        Dinero totalRegistrado = totales.getTotal();
+        Dinero subtotal = totales.getSubtotal();
+        Dinero iva = totales.getIva();
 
-        double pagado = FinancialUtils.redondear(totalRegistrado + ticket.getCambio());
-        double cambio = FinancialUtils.redondear(ticket.getCambio());
+        Dinero pagado = totalRegistrado.sumar(ticket.getCambio());
+        Dinero cambio = ticket.getCambio();
 
         StringBuilder html = new StringBuilder();
         html.append("<html><body style='font-family:Segoe UI, sans-serif; background-color:#f7f8fa; margin:0;'>");
@@ -154,7 +158,7 @@ public class TicketFrame extends JFrame {
         html.append(String.format(Locale.US, "<div style='display:flex;justify-content:space-between;font-weight:600;color:#0f172a;font-size:15px;'><span>Total</span><span>%s</span></div>", formatearMoneda(totalRegistrado)));
         html.append("<hr style='border:0;border-top:1px dashed #cbd5f5;margin:12px 0;'>");
         html.append(String.format(Locale.US, "<div style='display:flex;justify-content:space-between;margin-bottom:4px;color:#475569;'><span>Pagado</span><span>%s</span></div>", formatearMoneda(pagado)));
-        html.append(String.format(Locale.US, "<div style='display:flex;justify-content:space-between;color:%s;font-weight:600;'><span>Cambio</span><span>%s</span></div>", cambio < 0 ? "#dc2626" : "#047857", formatearMoneda(cambio)));
+        html.append(String.format(Locale.US, "<div style='display:flex;justify-content:space-between;color:%s;font-weight:600;'><span>Cambio</span><span>%s</span></div>", cambio.esNegativo() ? "#dc2626" : "#047857", formatearMoneda(cambio)));
         html.append("</div>");
 
         html.append("<p style='text-align:center;color:#475569;font-size:11px;margin:0;'>¡Gracias por su preferencia!<br>www.restaurante.com</p>");
@@ -163,8 +167,8 @@ public class TicketFrame extends JFrame {
         return html.toString();
     }
 
-    private String formatearMoneda(double valor) {
-        return String.format(Locale.US, "$%,.2f", valor);
+    private String formatearMoneda(Dinero valor) {
+        return String.format(Locale.US, "$%,.2f", valor.aBigDecimal());
     }
     
     private JButton crearBotonAccion(String texto, Color baseColor) {
@@ -7,6 +7,7 @@ import javax.swing.table.DefaultTableModel;
 import javax.swing.table.DefaultTableCellRenderer;
 import java.awt.*;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Ventana de gestión de usuarios con diseño moderno (solo administradores).
@@ -16,10 +17,11 @@ public class UsuarioFrame extends JFrame {
     private final UsuarioController usuarioController;
     private JTable tablaUsuarios;
     private DefaultTableModel modeloTabla;
-    private JTextField txtNombre, txtCorreo, txtContraseña;
+    private JTextField txtNombre, txtCorreo, txtContraseña, txtPin;
     private JComboBox<String> cboRol;
     private ModernButton btnGuardar, btnActualizar, btnEliminar, btnLimpiar;
     private int idUsuarioSeleccionado = -1;
+    private IndicadorCarga indicadorCarga;
     
     // Colores modernos
     private static final Color PRIMARY_COLOR = new Color(74, 144, 226);
@@ -33,6 +35,7 @@ public class UsuarioFrame extends JFrame {
     public UsuarioFrame() {
         this.usuarioController = new UsuarioController();
         inicializarComponentes();
+        indicadorCarga = IndicadorCarga.instalar(this);
         cargarUsuarios();
     }
     
@@ -116,13 +119,20 @@ public class UsuarioFrame extends JFrame {
         panel.add(txtCorreo);
         panel.add(Box.createRigidArea(new Dimension(0, 15)));
         
-        // Campo: Contraseña
+        // Campo: Contraseña (al actualizar, vacía conserva la actual)
         panel.add(createFieldLabel("Contraseña"));
         txtContraseña = createStyledTextField();
         txtContraseña.setMaximumSize(new Dimension(Integer.MAX_VALUE, 40));
         panel.add(txtContraseña);
         panel.add(Box.createRigidArea(new Dimension(0, 15)));
         
+        // Campo: PIN para cambio rápido de cajero
+        panel.add(createFieldLabel("PIN de caja (opcional, 4 a 6 dígitos)"));
+        txtPin = createStyledTextField();
+        txtPin.setMaximumSize(new Dimension(Integer.MAX_VALUE, 40));
+        panel.add(txtPin);
+        panel.add(Box.createRigidArea(new Dimension(0, 15)));
+        
         // Campo: Rol
         panel.add(createFieldLabel("Rol"));
         cboRol = new JComboBox<>(new String[]{"administrador", "cajero", "mesero"});
@@ -240,6 +250,7 @@ public class UsuarioFrame extends JFrame {
         String nombre = txtNombre.getText().trim();
         String correo = txtCorreo.getText().trim();
         String contraseña = txtContraseña.getText().trim();
+        String pin = txtPin.getText().trim();
         String rol = (String) cboRol.getSelectedItem();
         
         if (nombre.isEmpty() || correo.isEmpty() || contraseña.isEmpty()) {
@@ -247,13 +258,16 @@ public class UsuarioFrame extends JFrame {
             return;
         }
         
-        if (usuarioController.crearUsuario(nombre, correo, contraseña, rol)) {
-            JOptionPane.showMessageDialog(this, "Usuario guardado correctamente");
-            limpiarFormulario();
-            cargarUsuarios();
-        } else {
-            JOptionPane.showMessageDialog(this, "Error al guardar usuario (verifique que el correo no esté registrado)", "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        indicadorCarga.esperar("Guardando usuario...",
+            usuarioController.crearUsuarioAsync(nombre, correo, contraseña, rol, pin), guardado -> {
+                if (guardado) {
+                    JOptionPane.showMessageDialog(this, "Usuario guardado correctamente");
+                    limpiarFormulario();
+                    cargarUsuarios();
+                } else {
+                    JOptionPane.showMessageDialog(this, "Error al guardar usuario (verifique que el correo no esté registrado)", "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            });
     }
     
     private void actualizarUsuario() {
@@ -265,26 +279,34 @@ public class UsuarioFrame extends JFrame {
         String nombre = txtNombre.getText().trim();
         String correo = txtCorreo.getText().trim();
         String contraseña = txtContraseña.getText().trim();
+        String pin = txtPin.getText().trim();
         String rol = (String) cboRol.getSelectedItem();
         
-        if (nombre.isEmpty() || correo.isEmpty() || contraseña.isEmpty()) {
-            JOptionPane.showMessageDialog(this, "Complete todos los campos", "Error", JOptionPane.ERROR_MESSAGE);
+        if (nombre.isEmpty() || correo.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Complete nombre y correo", "Error", JOptionPane.ERROR_MESSAGE);
             return;
         }
         
-        Usuario usuario = usuarioController.buscarUsuarioPorId(idUsuarioSeleccionado);
-        usuario.setNombre(nombre);
-        usuario.setCorreo(correo);
-        usuario.setContraseñaHash(contraseña);
-        usuario.setRol(rol);
-        
-        if (usuarioController.actualizarUsuario(usuario)) {
-            JOptionPane.showMessageDialog(this, "Usuario actualizado correctamente");
-            limpiarFormulario();
-            cargarUsuarios();
-        } else {
-            JOptionPane.showMessageDialog(this, "Error al actualizar usuario", "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        CompletableFuture<Boolean> actualizacion = usuarioController.buscarUsuarioPorIdAsync(idUsuarioSeleccionado)
+            .thenCompose(usuario -> {
+                if (usuario == null) {
+                    return CompletableFuture.completedFuture(false);
+                }
+                usuario.setNombre(nombre);
+                usuario.setCorreo(correo);
+                usuario.setRol(rol);
+                return usuarioController.actualizarUsuarioAsync(usuario, contraseña, pin);
+            });
+        
+        indicadorCarga.esperar("Actualizando usuario...", actualizacion, actualizado -> {
+            if (actualizado) {
+                JOptionPane.showMessageDialog(this, "Usuario actualizado correctamente");
+                limpiarFormulario();
+                cargarUsuarios();
+            } else {
+                JOptionPane.showMessageDialog(this, "Error al actualizar usuario", "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        });
     }
     
     private void eliminarUsuario() {
@@ -295,19 +317,26 @@ public class UsuarioFrame extends JFrame {
         
         int opcion = JOptionPane.showConfirmDialog(this, "¿Eliminar este usuario?", "Confirmar", JOptionPane.YES_NO_OPTION);
         if (opcion == JOptionPane.YES_OPTION) {
-            if (usuarioController.eliminarUsuario(idUsuarioSeleccionado)) {
-                JOptionPane.showMessageDialog(this, "Usuario eliminado correctamente");
-                limpiarFormulario();
-                cargarUsuarios();
-            } else {
-                JOptionPane.showMessageDialog(this, "Error al eliminar usuario", "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            indicadorCarga.esperar("Eliminando usuario...",
+                usuarioController.eliminarUsuarioAsync(idUsuarioSeleccionado), eliminado -> {
+                    if (eliminado) {
+                        JOptionPane.showMessageDialog(this, "Usuario eliminado correctamente");
+                        limpiarFormulario();
+                        cargarUsuarios();
+                    } else {
+                        JOptionPane.showMessageDialog(this, "Error al eliminar usuario", "Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                });
         }
     }
     
     private void cargarUsuarios() {
+        indicadorCarga.esperar("Cargando usuarios...", usuarioController.obtenerTodosLosUsuariosAsync(),
+            this::mostrarUsuarios);
+    }
+    
+    private void mostrarUsuarios(List<Usuario> usuarios) {
         modeloTabla.setRowCount(0);
-        List<Usuario> usuarios = usuarioController.obtenerTodosLosUsuarios();
         for (Usuario u : usuarios) {
             modeloTabla.addRow(new Object[]{
                 u.getId(),
@@ -322,13 +351,17 @@ public class UsuarioFrame extends JFrame {
         int fila = tablaUsuarios.getSelectedRow();
         if (fila >= 0) {
             idUsuarioSeleccionado = (int) modeloTabla.getValueAt(fila, 0);
-            Usuario u = usuarioController.buscarUsuarioPorId(idUsuarioSeleccionado);
-            if (u != null) {
-                txtNombre.setText(u.getNombre());
-                txtCorreo.setText(u.getCorreo());
-                txtContraseña.setText(u.getContraseñaHash());
-                cboRol.setSelectedItem(u.getRol());
-            }
+            indicadorCarga.esperar("Cargando usuario...",
+                usuarioController.buscarUsuarioPorIdAsync(idUsuarioSeleccionado), u -> {
+                    if (u != null) {
+                        txtNombre.setText(u.getNombre());
+                        txtCorreo.setText(u.getCorreo());
+                        // Solo se guardan hashes: se deja vacía para conservar la actual
+                        txtContraseña.setText("");
+                        txtPin.setText("");
+                        cboRol.setSelectedItem(u.getRol());
+                    }
+                });
         }
     }
     
@@ -336,6 +369,7 @@ public class UsuarioFrame extends JFrame {
         txtNombre.setText("");
         txtCorreo.setText("");
         txtContraseña.setText("");
+        txtPin.setText("");
         cboRol.setSelectedIndex(0);
         idUsuarioSeleccionado = -1;
         tablaUsuarios.clearSelection();
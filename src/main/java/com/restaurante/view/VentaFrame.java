@@ -1,15 +1,18 @@
 package com.restaurante.view;
 
+import com.restaurante.config.ConfiguracionApp;
 import com.restaurante.controller.*;
 import com.restaurante.model.*;
-import com.restaurante.util.FinancialUtils;
+import com.restaurante.util.BusCambios;
+import com.restaurante.util.EjecutorAsincrono;
 import com.restaurante.util.FinancialUtils.TotalesVenta;
+import com.restaurante.util.ServicioTickets;
 import javax.swing.*;
 import javax.swing.table.*;
 import java.awt.*;
 import java.awt.event.*;
-import java.util.Locale;
 import java.util.ArrayList;
+import java.util.Locale;
 import java.util.List;
 
 /**
@@ -36,25 +39,36 @@ public class VentaFrame extends JFrame {
     private JComboBox<String> cboMesas;
     private JSpinner spnCantidad;
     private JTable tablaCarrito;
-    private DefaultTableModel modeloCarrito;
+    private ModeloCarrito modeloCarrito;
     private JLabel lblSubtotal, lblIva, lblTotal, lblCambio, lblItemsCount;
     private JTextField txtMontoPagado;
     private ModernButton btnAgregar, btnQuitar, btnRegistrar, btnRegresar, btnLimpiar;
     
-    private List<VentaController.ItemVenta> carrito;
     private List<Producto> productosDisponibles;
     private List<Mesa> mesasLibres;
-    private double totalConIvaActual = 0.0;
+    private Dinero totalConIvaActual = Dinero.CERO;
+    private IndicadorCarga indicadorCarga;
+    private BusCambios.Suscripcion suscripcionMesas;
+    private BusCambios.Suscripcion suscripcionProductos;
     
     public VentaFrame(UsuarioController usuarioController) {
         this.usuarioController = usuarioController;
         this.productoController = new ProductoController();
         this.mesaController = new MesaController();
         this.ventaController = new VentaController();
-        this.carrito = new ArrayList<>();
         
         initComponents();
+        indicadorCarga = IndicadorCarga.instalar(this);
         cargarDatos();
+        suscripcionMesas = BusCambios.getInstancia().suscribir("mesas", this::alCambiarMesa);
+        suscripcionProductos = BusCambios.getInstancia().suscribir("productos", this::alCambiarProducto);
+    }
+    
+    @Override
+    public void dispose() {
+        suscripcionMesas.cancelar();
+        suscripcionProductos.cancelar();
+        super.dispose();
     }
     
     private void initComponents() {
@@ -220,13 +234,7 @@ public class VentaFrame extends JFrame {
         headerPanel.add(lblItemsCount, BorderLayout.EAST);
         
         // Tabla del carrito
-        String[] columnas = {"Producto", "Precio Unit.", "Cantidad", "Subtotal"};
-        modeloCarrito = new DefaultTableModel(columnas, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        modeloCarrito = new ModeloCarrito();
         
         tablaCarrito = new JTable(modeloCarrito);
         tablaCarrito.setFont(new Font("Segoe UI", Font.PLAIN, 14));
@@ -313,7 +321,7 @@ public class VentaFrame extends JFrame {
         lblTotalLabel.setForeground(TEXT_SECONDARY);
         lblTotalLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
         
-        lblTotal = new JLabel(formatearMoneda(0));
+        lblTotal = new JLabel(formatearMoneda(Dinero.CERO));
         lblTotal.setFont(new Font("Segoe UI", Font.BOLD, 36));
         lblTotal.setForeground(SUCCESS_COLOR);
         lblTotal.setAlignmentX(Component.CENTER_ALIGNMENT);
@@ -325,7 +333,7 @@ public class VentaFrame extends JFrame {
         lblSubtotalTitle.setFont(new Font("Segoe UI", Font.PLAIN, 12));
         lblSubtotalTitle.setForeground(TEXT_SECONDARY);
 
-        lblSubtotal = new JLabel(formatearMoneda(0));
+        lblSubtotal = new JLabel(formatearMoneda(Dinero.CERO));
         lblSubtotal.setFont(new Font("Segoe UI", Font.BOLD, 14));
         lblSubtotal.setForeground(TEXT_PRIMARY);
         lblSubtotal.setHorizontalAlignment(SwingConstants.RIGHT);
@@ -334,7 +342,7 @@ public class VentaFrame extends JFrame {
         lblIvaTitle.setFont(new Font("Segoe UI", Font.PLAIN, 12));
         lblIvaTitle.setForeground(TEXT_SECONDARY);
 
-        lblIva = new JLabel(formatearMoneda(0));
+        lblIva = new JLabel(formatearMoneda(Dinero.CERO));
         lblIva.setFont(new Font("Segoe UI", Font.BOLD, 14));
         lblIva.setForeground(TEXT_PRIMARY);
         lblIva.setHorizontalAlignment(SwingConstants.RIGHT);
@@ -428,15 +436,47 @@ public class VentaFrame extends JFrame {
     
     private void cargarDatos() {
         // Cargar productos
-        productosDisponibles = productoController.obtenerProductosDisponibles();
+        indicadorCarga.esperar("Cargando productos...", productoController.obtenerProductosDisponiblesAsync(),
+            this::mostrarProductos);
+        
+        // Cargar mesas: con instantánea local se muestran de inmediato y se corrigen al responder la base
+        List<Mesa> guardadas = mesaController.obtenerMesasLibresGuardadas();
+        if (guardadas.isEmpty()) {
+            indicadorCarga.esperar("Cargando mesas...", mesaController.obtenerMesasLibresAsync(),
+                this::mostrarMesasLibres);
+        } else {
+            mostrarMesasLibres(guardadas);
+            EjecutorAsincrono.enUI(mesaController.obtenerMesasLibresAsync(), this::mostrarMesasLibres, error -> { });
+        }
+    }
+    
+    /**
+     * Llena la lista de productos conservando el producto seleccionado, si
+     * sigue disponible.
+     */
+    private void mostrarProductos(List<Producto> productos) {
+        int idSeleccionado = -1;
+        int indice = cboProductos.getSelectedIndex();
+        if (productosDisponibles != null && indice > 0 && indice <= productosDisponibles.size()) {
+            idSeleccionado = productosDisponibles.get(indice - 1).getId();
+        }
+        
+        productosDisponibles = productos;
         cboProductos.removeAllItems();
         cboProductos.addItem("-- Seleccione un producto --");
-        for (Producto p : productosDisponibles) {
-            cboProductos.addItem(p.getNombre() + " - $" + String.format("%.2f", p.getPrecio()));
+        int seleccion = 0;
+        for (int i = 0; i < productosDisponibles.size(); i++) {
+            Producto p = productosDisponibles.get(i);
+            cboProductos.addItem(p.getNombre() + " - " + p.getPrecio().formatear());
+            if (p.getId() == idSeleccionado) {
+                seleccion = i + 1;
+            }
         }
-        
-        // Cargar mesas
-        mesasLibres = mesaController.obtenerMesasLibres();
+        cboProductos.setSelectedIndex(seleccion);
+    }
+    
+    private void mostrarMesasLibres(List<Mesa> mesas) {
+        mesasLibres = new ArrayList<>(mesas);
         cboMesas.removeAllItems();
         cboMesas.addItem("-- Sin mesa --");
         for (Mesa m : mesasLibres) {
@@ -444,6 +484,96 @@ public class VentaFrame extends JFrame {
         }
     }
     
+    // ==================== CAMBIOS DE OTRAS TERMINALES ====================
+    
+    /**
+     * Aviso del bus (en su propio hilo): se lee solo la mesa que cambió.
+     */
+    private void alCambiarMesa(BusCambios.Cambio cambio) {
+        switch (cambio.getOperacion()) {
+            case RESINCRONIZAR:
+                EjecutorAsincrono.enUI(mesaController.obtenerMesasLibresAsync(), this::mostrarMesasLibres, error -> { });
+                break;
+            case ELIMINACION:
+                SwingUtilities.invokeLater(() -> quitarMesaLibre(cambio.getId()));
+                break;
+            default:
+                EjecutorAsincrono.enUI(mesaController.buscarMesaPorIdAsync(cambio.getId()), mesa -> {
+                    if (mesa == null) {
+                        return;
+                    }
+                    if ("libre".equals(mesa.getEstado())) {
+                        agregarMesaLibre(mesa);
+                    } else {
+                        quitarMesaLibre(mesa.getId());
+                    }
+                }, error -> { });
+        }
+    }
+    
+    /**
+     * Aviso del bus (en su propio hilo): la lista se rehace cuando el catálogo
+     * ya aplicó el cambio, para no mostrar el precio o la disponibilidad anterior.
+     */
+    private void alCambiarProducto(BusCambios.Cambio cambio) {
+        productoController.alSincronizarCatalogo(() -> {
+            List<Producto> productos = productoController.obtenerProductosDisponibles();
+            SwingUtilities.invokeLater(() -> mostrarProductos(productos));
+        });
+    }
+    
+    private int indiceMesaLibre(int idMesa) {
+        for (int i = 0; i < mesasLibres.size(); i++) {
+            if (mesasLibres.get(i).getId() == idMesa) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    private void agregarMesaLibre(Mesa mesa) {
+        if (mesasLibres == null) {
+            return;
+        }
+        int actual = indiceMesaLibre(mesa.getId());
+        if (actual >= 0) {
+            if (mesasLibres.get(actual).getNumero() == mesa.getNumero()) {
+                return;
+            }
+            quitarMesaLibre(mesa.getId());
+        }
+        
+        // Mantener el orden por número de mesa
+        int posicion = 0;
+        while (posicion < mesasLibres.size() && mesasLibres.get(posicion).getNumero() < mesa.getNumero()) {
+            posicion++;
+        }
+        mesasLibres.add(posicion, mesa);
+        cboMesas.insertItemAt("Mesa " + mesa.getNumero(), posicion + 1);
+    }
+    
+    private void quitarMesaLibre(int idMesa) {
+        if (mesasLibres == null) {
+            return;
+        }
+        int posicion = indiceMesaLibre(idMesa);
+        if (posicion < 0) {
+            return;
+        }
+        
+        boolean seleccionada = cboMesas.getSelectedIndex() == posicion + 1;
+        if (seleccionada) {
+            cboMesas.setSelectedIndex(0);
+        }
+        Mesa mesa = mesasLibres.remove(posicion);
+        cboMesas.removeItemAt(posicion + 1);
+        
+        if (seleccionada) {
+            mostrarMensaje("La mesa " + mesa.getNumero() + " ya no está libre (cambió en otra terminal)",
+                           "Mesa no disponible", JOptionPane.WARNING_MESSAGE);
+        }
+    }
+    
     private void agregarAlCarrito() {
         int indiceProducto = cboProductos.getSelectedIndex();
         if (indiceProducto <= 0) {
@@ -454,21 +584,11 @@ public class VentaFrame extends JFrame {
         Producto producto = productosDisponibles.get(indiceProducto - 1);
         int cantidad = (Integer) spnCantidad.getValue();
         
-        // Verificar si el producto ya está en el carrito
-        boolean encontrado = false;
-        for (VentaController.ItemVenta item : carrito) {
-            if (item.getProducto().getId() == producto.getId()) {
-                item.setCantidad(item.getCantidad() + cantidad);
-                encontrado = true;
-                break;
-            }
-        }
+        // Si el producto ya está en el carrito solo se suma la cantidad
+        int fila = modeloCarrito.agregar(producto, cantidad);
+        tablaCarrito.scrollRectToVisible(tablaCarrito.getCellRect(fila, 0, true));
         
-        if (!encontrado) {
-            carrito.add(new VentaController.ItemVenta(producto, cantidad));
-        }
-        
-        actualizarTablaCarrito();
+        actualizarTotales();
         spnCantidad.setValue(1);
         cboProductos.setSelectedIndex(0);
     }
@@ -476,15 +596,15 @@ public class VentaFrame extends JFrame {
     private void quitarDelCarrito() {
         int fila = tablaCarrito.getSelectedRow();
         if (fila >= 0) {
-            carrito.remove(fila);
-            actualizarTablaCarrito();
+            modeloCarrito.quitar(fila);
+            actualizarTotales();
         } else {
             mostrarMensaje("Por favor seleccione un producto del carrito", "Advertencia", JOptionPane.WARNING_MESSAGE);
         }
     }
     
     private void limpiarCarrito() {
-        if (carrito.isEmpty()) {
+        if (modeloCarrito.estaVacio()) {
             return;
         }
         
@@ -497,31 +617,17 @@ public class VentaFrame extends JFrame {
         );
         
         if (opcion == JOptionPane.YES_OPTION) {
-            carrito.clear();
-            actualizarTablaCarrito();
+            modeloCarrito.limpiar();
+            actualizarTotales();
             txtMontoPagado.setText("");
         }
     }
     
-    private void actualizarTablaCarrito() {
-        modeloCarrito.setRowCount(0);
-        double total = 0.0;
-        
-        for (VentaController.ItemVenta item : carrito) {
-            modeloCarrito.addRow(new Object[]{
-                item.getProducto().getNombre(),
-                String.format("$%.2f", item.getProducto().getPrecio()),
-                item.getCantidad(),
-                String.format("$%.2f", item.getSubtotal())
-            });
-            total += item.getSubtotal();
-        }
-        
-        lblTotal.setText(String.format("$%.2f", total));
-        int totalArticulos = carrito.stream().mapToInt(VentaController.ItemVenta::getCantidad).sum();
+    private void actualizarTotales() {
+        int totalArticulos = modeloCarrito.getArticulos();
         lblItemsCount.setText(totalArticulos + (totalArticulos == 1 ? " artículo" : " artículos"));
 
-        TotalesVenta totales = FinancialUtils.calcularTotales(carrito);
+        TotalesVenta totales = modeloCarrito.getTotales();
         totalConIvaActual = totales.getTotal();
         lblSubtotal.setText(formatearMoneda(totales.getSubtotal()));
         lblIva.setText(formatearMoneda(totales.getIva()));
@@ -542,23 +648,22 @@ public class VentaFrame extends JFrame {
                     normalizado = normalizado.replace(",", "");
                 }
 
-                double pagado = Double.parseDouble(normalizado);
-                double cambio = FinancialUtils.redondear(pagado - totalConIvaActual);
+                Dinero cambio = Dinero.parsear(normalizado).restar(totalConIvaActual);
 
                 lblCambio.setText(formatearMoneda(cambio));
-                lblCambio.setForeground(cambio < 0 ? DANGER_COLOR : PRIMARY_COLOR);
+                lblCambio.setForeground(cambio.esNegativo() ? DANGER_COLOR : PRIMARY_COLOR);
             } else {
-                lblCambio.setText(formatearMoneda(0));
+                lblCambio.setText(formatearMoneda(Dinero.CERO));
                 lblCambio.setForeground(PRIMARY_COLOR);
             }
         } catch (NumberFormatException e) {
-            lblCambio.setText(formatearMoneda(0));
+            lblCambio.setText(formatearMoneda(Dinero.CERO));
             lblCambio.setForeground(PRIMARY_COLOR);
         }
     }
     
     private void registrarVenta() {
-        if (carrito.isEmpty()) {
+        if (modeloCarrito.estaVacio()) {
             mostrarMensaje("El carrito está vacío", "Error", JOptionPane.ERROR_MESSAGE);
             return;
         }
@@ -570,10 +675,10 @@ public class VentaFrame extends JFrame {
         }
         
         try {
-            double montoPagado = Double.parseDouble(montoPagadoStr);
-                double total = ventaController.calcularTotal(carrito);
+            Dinero montoPagado = Dinero.parsear(montoPagadoStr);
+            Dinero total = modeloCarrito.getTotales().getTotal();
             
-            if (montoPagado < total) {
+            if (montoPagado.esMenorQue(total)) {
                 mostrarMensaje("El monto pagado es insuficiente", "Error", JOptionPane.ERROR_MESSAGE);
                 return;
             }
@@ -586,45 +691,63 @@ public class VentaFrame extends JFrame {
             }
             
             // Registrar venta
-            String folio = ventaController.registrarVenta(
+            List<VentaController.ItemVenta> itemsVenta = modeloCarrito.obtenerItems();
+            Integer idMesaVenta = idMesa;
+            indicadorCarga.esperar("Registrando venta...", ventaController.registrarVentaAsync(
                 usuarioController.getUsuarioActual().getId(),
                 idMesa,
-                carrito,
+                itemsVenta,
                 montoPagado
-            );
-            
-            if (folio != null) {
-                // Mostrar ticket
-                Ticket ticket = ventaController.buscarTicketPorFolio(folio);
-                if (ticket != null) {
-                    TicketFrame ticketFrame = new TicketFrame(ticket, new ArrayList<>(carrito), usuarioController.getUsuarioActual());
+            ), ticket -> {
+                if (ticket == null) {
+                    mostrarMensaje("Error al registrar la venta", "Error", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                
+                // Limpiar todo para atender al siguiente cliente
+                modeloCarrito.limpiar();
+                actualizarTotales();
+                txtMontoPagado.setText("");
+                cboProductos.setSelectedIndex(0);
+                cboMesas.setSelectedIndex(0);
+                if (BusCambios.getInstancia().estaConectado()) {
+                    // Las demás mesas llegan por el bus; la de esta venta ya no está libre
+                    if (idMesaVenta != null) {
+                        quitarMesaLibre(idMesaVenta);
+                    }
+                } else {
+                    cargarDatos();
+                }
+                
+                // Imprimir en segundo plano (la venta ya está guardada; se sube a Supabase en segundo plano)
+                Usuario cajero = usuarioController.getUsuarioActual();
+                ServicioTickets servicioTickets = ServicioTickets.getInstancia();
+                if (servicioTickets.getFormatoConfigurado() == ServicioTickets.Formato.ESCPOS) {
+                    EjecutorAsincrono.enUI(servicioTickets.emitir(ticket, cajero, itemsVenta),
+                        destino -> { },
+                        error -> mostrarMensaje("No se pudo imprimir el ticket " + ticket.getFolio() + ": " +
+                                                error.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
+                }
+                
+                if (ConfiguracionApp.getInstancia().isMostrarPreview()) {
+                    TicketFrame ticketFrame = new TicketFrame(ticket, itemsVenta, cajero);
                     ticketFrame.setVisible(true);
                 }
                 
                 mostrarMensaje(
-                    "Venta registrada correctamente\n\nFolio: " + folio + "\nTotal: $" + String.format("%.2f", total),
+                    "Venta registrada correctamente\n\nFolio: " + ticket.getFolio() + "\nTotal: " + total.formatear(),
                     "Venta Exitosa",
                     JOptionPane.INFORMATION_MESSAGE
                 );
-                
-                // Limpiar todo
-                carrito.clear();
-                actualizarTablaCarrito();
-                txtMontoPagado.setText("");
-                cboProductos.setSelectedIndex(0);
-                cboMesas.setSelectedIndex(0);
-                cargarDatos();
-            } else {
-                mostrarMensaje("Error al registrar la venta", "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            });
             
         } catch (NumberFormatException ex) {
             mostrarMensaje("El monto pagado debe ser un número válido", "Error", JOptionPane.ERROR_MESSAGE);
         }
     }
 
-    private String formatearMoneda(double valor) {
-        return String.format(Locale.US, "$%,.2f", valor);
+    private String formatearMoneda(Dinero valor) {
+        return String.format(Locale.US, "$%,.2f", valor.aBigDecimal());
     }
     
     private void mostrarMensaje(String mensaje, String titulo, int tipo) {